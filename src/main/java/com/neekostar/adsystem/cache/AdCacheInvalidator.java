@@ -0,0 +1,84 @@
+package com.neekostar.adsystem.cache;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import com.neekostar.adsystem.event.AdChangeType;
+import com.neekostar.adsystem.event.AdChangedEvent;
+import com.neekostar.adsystem.event.AdImportCompletedEvent;
+import com.neekostar.adsystem.model.Ad;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Component
+public class AdCacheInvalidator {
+    public static final String SINGLE_AD = "singleAd";
+    public static final String AD_SUMMARY = "adSummary";
+    public static final String USER_ADS = "userAds";
+    public static final String PROMOTED_ADS = "promotedAds";
+    public static final String NON_PROMOTED_ADS = "nonPromotedAds";
+    public static final String FILTERED_ADS = "filteredAds";
+
+    private final CacheManager cacheManager;
+    private final CacheTagRegistry cacheTags;
+
+    @Autowired
+    public AdCacheInvalidator(CacheManager cacheManager, CacheTagRegistry cacheTags) {
+        this.cacheManager = cacheManager;
+        this.cacheTags = cacheTags;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdChanged(@NotNull AdChangedEvent event) {
+        Ad ad = event.getAd();
+        boolean promoted = Boolean.TRUE.equals(ad.getIsPromoted())
+                && ad.getPromotionEndDate() != null
+                && ad.getPromotionEndDate().isAfter(LocalDateTime.now());
+        // a fresh promotion moves the ad from the non-promoted feed into the promoted one
+        boolean promotionChanged = event.getType() == AdChangeType.PROMOTED;
+
+        Set<String> tags = AdCacheTags.forAd(
+                ad.getUser() != null ? ad.getUser().getUsername() : null,
+                ad.getCity(),
+                ad.getCategory(),
+                promoted || promotionChanged,
+                !promoted || promotionChanged);
+        log.trace("Invalidating caches after {} of ad {}. Tags: {}", event.getType(), ad.getId(), tags);
+
+        evictAds(List.of(ad.getId()));
+        invalidateTags(tags);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImportCompleted(@NotNull AdImportCompletedEvent event) {
+        log.debug("Invalidating caches after import of {} ads. Tags: {}", event.getImported(), event.getCacheTags().size());
+        invalidateTags(event.getCacheTags());
+    }
+
+    public void evictAds(Collection<UUID> adIds) {
+        if (adIds.isEmpty()) {
+            return;
+        }
+        for (String cacheName : List.of(SINGLE_AD, AD_SUMMARY)) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                adIds.forEach(cache::evict);
+                log.debug("Evicted {} entries from {}", adIds.size(), cacheName);
+            }
+        }
+    }
+
+    public void invalidateTags(Collection<String> tags) {
+        if (!tags.isEmpty()) {
+            cacheTags.invalidate(tags);
+        }
+    }
+}
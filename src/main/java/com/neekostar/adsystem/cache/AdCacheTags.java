@@ -0,0 +1,46 @@
+package com.neekostar.adsystem.cache;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import com.neekostar.adsystem.model.Category;
+
+public final class AdCacheTags {
+    public static final String PROMOTED = "promoted";
+    public static final String NON_PROMOTED = "nonPromoted";
+    private static final String ANY = "*";
+
+    private AdCacheTags() {
+    }
+
+    public static String filter(String city, Category category) {
+        return "filter:" + (city != null && !city.trim().isEmpty() ? city : ANY) + ":" + (category != null ? category.name() : ANY);
+    }
+
+    // every filter tag whose result set can contain an ad with this city and category
+    public static List<String> filtersContaining(String city, Category category) {
+        return List.of(filter(city, category), filter(city, null), filter(null, category), filter(null, null));
+    }
+
+    public static Set<String> forAd(String username,
+                                    String city,
+                                    Category category,
+                                    boolean promotedFeed,
+                                    boolean nonPromotedFeed) {
+        Set<String> tags = new LinkedHashSet<>(filtersContaining(city, category));
+        if (username != null) {
+            tags.add(seller(username));
+        }
+        if (promotedFeed) {
+            tags.add(PROMOTED);
+        }
+        if (nonPromotedFeed) {
+            tags.add(NON_PROMOTED);
+        }
+        return tags;
+    }
+
+    public static String seller(String username) {
+        return "seller:" + username;
+    }
+}
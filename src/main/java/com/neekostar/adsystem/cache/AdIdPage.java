@@ -0,0 +1,9 @@
+package com.neekostar.adsystem.cache;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.UUID;
+
+public record AdIdPage(List<UUID> ids, long total) implements Serializable {
+    private static final long serialVersionUID = 1L;
+}
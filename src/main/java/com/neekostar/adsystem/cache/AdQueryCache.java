@@ -0,0 +1,156 @@
+package com.neekostar.adsystem.cache;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import com.neekostar.adsystem.dto.AdSummaryDto;
+import com.neekostar.adsystem.model.Category;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class AdQueryCache {
+    private final CacheManager cacheManager;
+    private final RedisConnectionFactory redisConnectionFactory;
+    private final CacheTagRegistry cacheTags;
+
+    @Autowired
+    public AdQueryCache(CacheManager cacheManager,
+                        RedisConnectionFactory redisConnectionFactory,
+                        CacheTagRegistry cacheTags) {
+        this.cacheManager = cacheManager;
+        this.redisConnectionFactory = redisConnectionFactory;
+        this.cacheTags = cacheTags;
+    }
+
+    public static String filterKey(String city,
+                                   Category category,
+                                   BigDecimal minPrice,
+                                   BigDecimal maxPrice,
+                                   String keyword,
+                                   String sortBy,
+                                   Sort.Direction direction,
+                                   Pageable pageable) {
+        return String.join("|",
+                "city=" + (city != null && !city.trim().isEmpty() ? city : ""),
+                "category=" + (category != null ? category.name() : ""),
+                "min=" + (minPrice != null ? minPrice.stripTrailingZeros().toPlainString() : ""),
+                "max=" + (maxPrice != null ? maxPrice.stripTrailingZeros().toPlainString() : ""),
+                "keyword=" + (keyword != null && !keyword.trim().isEmpty() ? keyword.toLowerCase(Locale.ROOT) : ""),
+                "sort=" + sortBy + "," + direction.name().toLowerCase(Locale.ROOT),
+                "page=" + pageable.getPageNumber(),
+                "size=" + pageable.getPageSize());
+    }
+
+    public AdIdPage getPage(String key) {
+        Cache cache = cacheManager.getCache(AdCacheInvalidator.FILTERED_ADS);
+        return cache != null ? cache.get(key, AdIdPage.class) : null;
+    }
+
+    public void putPage(String key, AdIdPage page, String tag) {
+        Cache cache = cacheManager.getCache(AdCacheInvalidator.FILTERED_ADS);
+        if (cache != null) {
+            cache.put(key, page);
+            cacheTags.tag(AdCacheInvalidator.FILTERED_ADS, key, List.of(tag));
+        }
+    }
+
+    public Map<UUID, AdSummaryDto> getAds(List<UUID> ids) {
+        Cache cache = cacheManager.getCache(AdCacheInvalidator.AD_SUMMARY);
+        if (cache == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        if (cache instanceof TwoLevelCache twoLevelCache && twoLevelCache.getRemote() instanceof RedisCache redisCache) {
+            // serve what the local level has, fetch only the rest from Redis and keep it locally
+            Map<UUID, AdSummaryDto> found = new HashMap<>();
+            List<UUID> missing = new ArrayList<>();
+            for (UUID id : ids) {
+                Cache.ValueWrapper local = twoLevelCache.getLocal(id);
+                if (local != null && local.get() instanceof AdSummaryDto dto) {
+                    found.put(id, dto);
+                } else {
+                    missing.add(id);
+                }
+            }
+            if (!missing.isEmpty()) {
+                Map<UUID, AdSummaryDto> remote = multiGet(redisCache, missing);
+                remote.forEach(twoLevelCache::putLocal);
+                found.putAll(remote);
+            }
+            return found;
+        }
+        if (cache instanceof RedisCache redisCache) {
+            return multiGet(redisCache, ids);
+        }
+
+        Map<UUID, AdSummaryDto> found = new HashMap<>();
+        for (UUID id : ids) {
+            AdSummaryDto dto = cache.get(id, AdSummaryDto.class);
+            if (dto != null) {
+                found.put(id, dto);
+            }
+        }
+        return found;
+    }
+
+    public void putAds(Collection<AdSummaryDto> ads) {
+        Cache cache = cacheManager.getCache(AdCacheInvalidator.AD_SUMMARY);
+        if (cache == null) {
+            return;
+        }
+        for (AdSummaryDto dto : ads) {
+            if (dto.getId() != null) {
+                cache.put(dto.getId(), dto);
+            }
+        }
+    }
+
+    private Map<UUID, AdSummaryDto> multiGet(RedisCache cache, List<UUID> ids) {
+        // one MGET instead of a GET round trip per ad; keys are built the same way RedisCache builds them
+        RedisCacheConfiguration config = cache.getCacheConfiguration();
+        byte[][] keys = new byte[ids.size()][];
+        for (int i = 0; i < ids.size(); i++) {
+            String key = config.usePrefix() ? config.getKeyPrefixFor(cache.getName()) + ids.get(i) : ids.get(i).toString();
+            keys[i] = ByteUtils.getBytes(config.getKeySerializationPair().write(key));
+        }
+
+        List<byte[]> values;
+        try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+            values = connection.stringCommands().mGet(keys);
+        }
+
+        Map<UUID, AdSummaryDto> found = new HashMap<>();
+        if (values == null) {
+            return found;
+        }
+        for (int i = 0; i < values.size(); i++) {
+            byte[] value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            Object cached = config.getValueSerializationPair().read(ByteBuffer.wrap(value));
+            if (cached instanceof AdSummaryDto dto) {
+                found.put(ids.get(i), dto);
+            }
+        }
+        log.trace("Multi-get from {}: {} of {} hits", cache.getName(), found.size(), ids.size());
+        return found;
+    }
+}
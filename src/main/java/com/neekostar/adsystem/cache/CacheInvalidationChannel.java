@@ -0,0 +1,52 @@
+package com.neekostar.adsystem.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+@Slf4j
+public class CacheInvalidationChannel {
+    private final RedisConnectionFactory connectionFactory;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdkSerializationRedisSerializer serializer = new JdkSerializationRedisSerializer();
+
+    public CacheInvalidationChannel(RedisConnectionFactory connectionFactory, String channel) {
+        this.connectionFactory = connectionFactory;
+        this.channel = channel;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void publish(String cacheName, Object key) {
+        byte[] body = serializer.serialize(new CacheInvalidationMessage(nodeId, cacheName, key));
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.publish(channel.getBytes(StandardCharsets.UTF_8), body);
+        } catch (RuntimeException e) {
+            // other nodes fall back to their local TTL if the message is lost
+            log.warn("Failed to publish cache invalidation for {}::{}", cacheName, key, e);
+        }
+    }
+
+    public void receive(byte[] body, BiConsumer<String, Object> localEviction) {
+        Object decoded;
+        try {
+            decoded = serializer.deserialize(body);
+        } catch (SerializationException e) {
+            log.warn("Ignoring malformed cache invalidation message", e);
+            return;
+        }
+        if (!(decoded instanceof CacheInvalidationMessage message) || nodeId.equals(message.nodeId())) {
+            return;
+        }
+        log.trace("Remote cache invalidation {}::{} from node {}", message.cacheName(), message.key(), message.nodeId());
+        localEviction.accept(message.cacheName(), message.key());
+    }
+}
@@ -0,0 +1,8 @@
+package com.neekostar.adsystem.cache;
+
+import java.io.Serializable;
+
+// key == null means the whole cache was cleared
+public record CacheInvalidationMessage(String nodeId, String cacheName, Object key) implements Serializable {
+    private static final long serialVersionUID = 1L;
+}
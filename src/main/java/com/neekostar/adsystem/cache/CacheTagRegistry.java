@@ -0,0 +1,127 @@
+package com.neekostar.adsystem.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class CacheTagRegistry {
+    private static final String TAG_KEY_PREFIX = "adsystem:tag:";
+    private static final String VERSION_KEY_PREFIX = "adsystem:tag-version:";
+    private static final String MEMBER_SEPARATOR = "|";
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration tagTtl;
+    private final Map<String, Set<String>> localTags = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> localVersions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CacheTagRegistry(CacheManager cacheManager,
+                            @Nullable StringRedisTemplate redisTemplate,
+                            @Value("${spring.cache.redis.time-to-live:1h}") Duration tagTtl) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.tagTtl = tagTtl;
+    }
+
+    // every invalidation bumps its tags' versions before evicting, so a value loaded while one of its tags was
+    // invalidated is not cached, and one invalidated between the put and the tag is evicted again
+    @SuppressWarnings("unchecked")
+    public <T> T getOrLoad(String cacheName, String key, Collection<String> tags, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        List<String> versions = versions(tags);
+        T value = loader.get();
+        if (!versions.equals(versions(tags))) {
+            log.debug("Tags {} were invalidated while loading {}:{}. Value is not cached", tags, cacheName, key);
+            return value;
+        }
+        cache.put(key, value);
+        tag(cacheName, key, tags);
+        if (!versions.equals(versions(tags))) {
+            cache.evict(key);
+        }
+        return value;
+    }
+
+    public void tag(String cacheName, String key, Collection<String> tags) {
+        String member = cacheName + MEMBER_SEPARATOR + key;
+        for (String tag : tags) {
+            if (redisTemplate != null) {
+                // tag sets live as long as the entries they point to, so abandoned tags expire on their own
+                redisTemplate.opsForSet().add(TAG_KEY_PREFIX + tag, member);
+                redisTemplate.expire(TAG_KEY_PREFIX + tag, tagTtl);
+            } else {
+                localTags.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(member);
+            }
+        }
+    }
+
+    public void invalidate(Collection<String> tags) {
+        int evicted = 0;
+        for (String tag : tags) {
+            bumpVersion(tag);
+            Collection<String> members = redisTemplate != null
+                    ? redisTemplate.opsForSet().pop(TAG_KEY_PREFIX + tag, Long.MAX_VALUE)
+                    : localTags.remove(tag);
+            if (members == null) {
+                continue;
+            }
+            for (String member : members) {
+                int separator = member.indexOf(MEMBER_SEPARATOR);
+                Cache cache = separator > 0 ? cacheManager.getCache(member.substring(0, separator)) : null;
+                if (cache != null) {
+                    cache.evict(member.substring(separator + 1));
+                    evicted++;
+                }
+            }
+        }
+        log.debug("Invalidated tags {}. Evicted entries: {}", tags, evicted);
+    }
+
+    public void invalidate(String tag) {
+        invalidate(List.of(tag));
+    }
+
+    private List<String> versions(Collection<String> tags) {
+        if (redisTemplate != null) {
+            List<String> versions = redisTemplate.opsForValue()
+                    .multiGet(tags.stream().map(tag -> VERSION_KEY_PREFIX + tag).toList());
+            return versions != null ? versions : List.of();
+        }
+        return tags.stream()
+                .map(tag -> Objects.toString(localVersions.get(tag), "0"))
+                .toList();
+    }
+
+    private void bumpVersion(String tag) {
+        if (redisTemplate != null) {
+            redisTemplate.opsForValue().increment(VERSION_KEY_PREFIX + tag);
+            redisTemplate.expire(VERSION_KEY_PREFIX + tag, tagTtl);
+        } else {
+            localVersions.computeIfAbsent(tag, t -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
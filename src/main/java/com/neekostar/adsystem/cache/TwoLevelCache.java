@@ -0,0 +1,148 @@
+package com.neekostar.adsystem.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+public class TwoLevelCache implements Cache {
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final Cache remote;
+    private final CacheInvalidationChannel invalidationChannel;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<Object, Object> local,
+                         Cache remote,
+                         CacheInvalidationChannel invalidationChannel) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationChannel = invalidationChannel;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    public Cache getRemote() {
+        return remote;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper cached = getLocal(key);
+        if (cached != null) {
+            return cached;
+        }
+        // an eviction landing between the remote read and the local put would otherwise leave the stale value
+        // in the local level until it expires, so the backfill is undone whenever one happened meanwhile
+        long evictionsBefore = evictions.get();
+        ValueWrapper loaded = remote.get(key);
+        if (loaded != null && loaded.get() != null) {
+            local.put(key, loaded.get());
+            if (evictions.get() != evictionsBefore) {
+                local.invalidate(key);
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        putLocal(key, value);
+        invalidationChannel.publish(name, key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        evictions.incrementAndGet();
+        local.invalidate(key);
+        invalidationChannel.publish(name, key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        evictions.incrementAndGet();
+        local.invalidate(key);
+        invalidationChannel.publish(name, key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        evictions.incrementAndGet();
+        local.invalidateAll();
+        invalidationChannel.publish(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean present = remote.invalidate();
+        evictions.incrementAndGet();
+        local.invalidateAll();
+        invalidationChannel.publish(name, null);
+        return present;
+    }
+
+    public ValueWrapper getLocal(Object key) {
+        Object value = local.getIfPresent(key);
+        return value != null ? new SimpleValueWrapper(value) : null;
+    }
+
+    public void putLocal(Object key, Object value) {
+        if (value != null) {
+            local.put(key, value);
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    void evictLocal(Object key) {
+        evictions.incrementAndGet();
+        if (key != null) {
+            local.invalidate(key);
+        } else {
+            local.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.neekostar.adsystem.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neekostar.adsystem.config.LocalCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager {
+    private final CacheManager remote;
+    private final Map<String, LocalCacheProperties.Spec> localSpecs;
+    private final CacheInvalidationChannel invalidationChannel;
+    private final Map<String, TwoLevelCache> twoLevelCaches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remote,
+                                Map<String, LocalCacheProperties.Spec> localSpecs,
+                                CacheInvalidationChannel invalidationChannel) {
+        this.remote = remote;
+        this.localSpecs = localSpecs;
+        this.invalidationChannel = invalidationChannel;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        LocalCacheProperties.Spec spec = localSpecs.get(name);
+        if (spec == null) {
+            return remote.getCache(name);
+        }
+        return twoLevelCaches.computeIfAbsent(name, key -> {
+            Cache remoteCache = remote.getCache(key);
+            log.info("Local cache enabled for {}. Maximum size: {}, TTL: {}", key, spec.getMaximumSize(), spec.getTtl());
+            return new TwoLevelCache(key,
+                    Caffeine.newBuilder()
+                            .maximumSize(spec.getMaximumSize())
+                            .expireAfterWrite(spec.getTtl())
+                            .build(),
+                    remoteCache,
+                    invalidationChannel);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    public void evictLocal(String cacheName, Object key) {
+        TwoLevelCache cache = twoLevelCaches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+    }
+}
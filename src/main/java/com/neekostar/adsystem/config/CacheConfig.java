@@ -0,0 +1,71 @@
+package com.neekostar.adsystem.config;
+
+import com.neekostar.adsystem.cache.CacheInvalidationChannel;
+import com.neekostar.adsystem.cache.TwoLevelCacheManager;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+@Configuration
+@EnableConfigurationProperties({CacheProperties.class, LocalCacheProperties.class})
+public class CacheConfig {
+
+    @Bean
+    public CacheInvalidationChannel cacheInvalidationChannel(RedisConnectionFactory connectionFactory,
+                                                             LocalCacheProperties localCacheProperties) {
+        return new CacheInvalidationChannel(connectionFactory, localCacheProperties.getInvalidationChannel());
+    }
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             CacheProperties cacheProperties,
+                                             LocalCacheProperties localCacheProperties,
+                                             CacheInvalidationChannel cacheInvalidationChannel) {
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(redisCacheConfiguration(cacheProperties))
+                .build();
+        redisCacheManager.afterPropertiesSet();
+        return new TwoLevelCacheManager(redisCacheManager, localCacheProperties.getCaches(), cacheInvalidationChannel);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            CacheInvalidationChannel cacheInvalidationChannel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> cacheInvalidationChannel.receive(message.getBody(), cacheManager::evictLocal),
+                new ChannelTopic(cacheInvalidationChannel.getChannel()));
+        return container;
+    }
+
+    // same defaults Spring Boot applies to its own Redis cache manager from spring.cache.redis.*
+    private RedisCacheConfiguration redisCacheConfiguration(CacheProperties cacheProperties) {
+        CacheProperties.Redis redisProperties = cacheProperties.getRedis();
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new JdkSerializationRedisSerializer(getClass().getClassLoader())));
+        if (redisProperties.getTimeToLive() != null) {
+            config = config.entryTtl(redisProperties.getTimeToLive());
+        }
+        if (redisProperties.getKeyPrefix() != null) {
+            config = config.prefixCacheNameWith(redisProperties.getKeyPrefix());
+        }
+        if (!redisProperties.isCacheNullValues()) {
+            config = config.disableCachingNullValues();
+        }
+        if (!redisProperties.isUseKeyPrefix()) {
+            config = config.disableKeyPrefix();
+        }
+        return config;
+    }
+}
@@ -0,0 +1,20 @@
+package com.neekostar.adsystem.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "ads.cache.local")
+public class LocalCacheProperties {
+    private String invalidationChannel = "adsystem:cache:invalidation";
+    private Map<String, Spec> caches = new HashMap<>();
+
+    @Data
+    public static class Spec {
+        private long maximumSize = 1_000;
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+}
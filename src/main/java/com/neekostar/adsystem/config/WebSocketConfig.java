@@ -0,0 +1,96 @@
+package com.neekostar.adsystem.config;
+
+import java.util.Arrays;
+import com.neekostar.adsystem.realtime.ChatNotificationPublisher;
+import com.neekostar.adsystem.realtime.ChatRelayChannel;
+import com.neekostar.adsystem.security.StompAuthenticationInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final StompAuthenticationInterceptor stompAuthenticationInterceptor;
+    private final String[] allowedOriginPatterns;
+    private final long heartbeatMillis;
+    private final TaskScheduler messageBrokerTaskScheduler;
+
+    // the broker scheduler only drives STOMP heartbeats, @Scheduled jobs run on SchedulingConfig's taskScheduler
+    @Autowired
+    public WebSocketConfig(StompAuthenticationInterceptor stompAuthenticationInterceptor,
+                           @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler,
+                           @Value("${ads.realtime.allowed-origins}") String[] allowedOriginPatterns,
+                           @Value("${ads.realtime.heartbeat-millis:25000}") long heartbeatMillis) {
+        this.stompAuthenticationInterceptor = stompAuthenticationInterceptor;
+        this.allowedOriginPatterns = requireExplicitOrigins(allowedOriginPatterns);
+        this.heartbeatMillis = heartbeatMillis;
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+
+    // the handshake is authenticated by the session cookie, so any origin allowed here can act as the logged-in user
+    static String[] requireExplicitOrigins(String[] allowedOriginPatterns) {
+        String[] origins = Arrays.stream(allowedOriginPatterns == null ? new String[0] : allowedOriginPatterns)
+                .map(String::trim)
+                .filter(origin -> !origin.isEmpty())
+                .toArray(String[]::new);
+        if (origins.length == 0) {
+            throw new IllegalStateException("ads.realtime.allowed-origins must list the origins allowed to open /ws");
+        }
+        if (Arrays.asList(origins).contains("*")) {
+            throw new IllegalStateException("ads.realtime.allowed-origins must not allow every origin");
+        }
+        return origins;
+    }
+
+    @Bean
+    public ChatRelayChannel chatRelayChannel(RedisConnectionFactory connectionFactory,
+                                             @Value("${ads.realtime.relay-channel}") String channel) {
+        return new ChatRelayChannel(connectionFactory, channel);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer chatRelayListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                    ChatRelayChannel chatRelayChannel,
+                                                                    ChatNotificationPublisher chatNotificationPublisher) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> chatRelayChannel.receive(message.getBody(), chatNotificationPublisher::receive),
+                new ChannelTopic(chatRelayChannel.getChannel()));
+        return container;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // the handshake is a plain HTTP request, so the login session becomes the STOMP principal
+        registry.addEndpoint("/ws").setAllowedOriginPatterns(allowedOriginPatterns);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        // a single-node in-memory broker is enough, the Redis relay spans the nodes
+        registry.enableSimpleBroker("/queue")
+                .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis})
+                .setTaskScheduler(messageBrokerTaskScheduler);
+        registry.setApplicationDestinationPrefixes("/app");
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthenticationInterceptor);
+    }
+}
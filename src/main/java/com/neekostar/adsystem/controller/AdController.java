@@ -1,16 +1,33 @@
 package com.neekostar.adsystem.controller;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 import com.neekostar.adsystem.dto.AdCreateDto;
+import com.neekostar.adsystem.dto.AdFacetsDto;
+import com.neekostar.adsystem.dto.AdImportResultDto;
+import com.neekostar.adsystem.dto.AdPriceStatsDto;
 import com.neekostar.adsystem.dto.AdResponseDto;
+import com.neekostar.adsystem.dto.AdSuggestionDto;
+import com.neekostar.adsystem.dto.AdSummaryDto;
 import com.neekostar.adsystem.dto.AdUpdateDto;
 import com.neekostar.adsystem.dto.CommentCreateDto;
+import com.neekostar.adsystem.dto.CommentResponseDto;
+import com.neekostar.adsystem.dto.CursorPageDto;
 import com.neekostar.adsystem.dto.ErrorResponse;
 import com.neekostar.adsystem.dto.ImageUploadDto;
+import com.neekostar.adsystem.model.AdImportFormat;
 import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.service.AdExportService;
+import com.neekostar.adsystem.service.AdFacetService;
+import com.neekostar.adsystem.service.AdImportService;
+import com.neekostar.adsystem.service.AdPriceStatsService;
+import com.neekostar.adsystem.service.AdSimilarityService;
+import com.neekostar.adsystem.service.AdSuggestService;
+import com.neekostar.adsystem.service.AdViewService;
 import com.neekostar.adsystem.service.AdService;
+import com.neekostar.adsystem.service.CommentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -18,11 +35,13 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -34,9 +53,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/ads")
@@ -46,13 +67,18 @@ import org.springframework.web.bind.annotation.RestController;
                 "filtering, promoting, commenting, and managing ad images. <br><br>" +
                 "The available operations include: <ul>" +
                 "<li><b>Create Ad</b> – Register a new advertisement. Ensures that the required fields are provided and that the ad is associated with the authenticated user.</li>" +
+                "<li><b>Import Ads</b> – Create many ads for the authenticated user from an NDJSON or CSV upload, reporting rejected rows.</li>" +
+                "<li><b>Export Ads</b> – Stream every active ad matching a filter as NDJSON, with flat memory use regardless of size.</li>" +
                 "<li><b>Update Ad</b> – Modify details of an existing advertisement. Only the ad owner can update the ad.</li>" +
                 "<li><b>Delete Ad</b> – Remove an advertisement along with its related comments. Only allowed for the ad owner.</li>" +
                 "<li><b>Filter Ads</b> – Retrieve a list of ads based on various criteria such as city, category, price range, and keywords. " +
-                "Results can be sorted by allowed fields (price, createdAt, updatedAt).</li>" +
+                "Results are ordered by a stored ranking score by default, or by price, createdAt or updatedAt with promoted ads first.</li>" +
+                "<li><b>Facets</b> – Count active ads per category and city for the current filter, served from an in-memory bitmap index.</li>" +
+                "<li><b>Price Stats</b> – Price range hints (min, max, percentiles and a histogram) of active ads per category and city.</li>" +
                 "<li><b>Promote Ad</b> – Mark an ad as promoted for a specified number of days, increasing its visibility. " +
                 "Only the ad owner can promote an ad, and the number of days must be a positive integer.</li>" +
-                "<li><b>Comment on Ad</b> – Add a comment to an advertisement. The comment is associated with the currently authenticated user.</li>" +
+                "<li><b>Comments</b> – Add a comment to an advertisement or read its comments newest first with cursor pagination. " +
+                "New comments are associated with the currently authenticated user.</li>" +
                 "<li><b>Image Management</b> – Upload or remove images for an advertisement. If an image already exists, it is removed before the new one is uploaded. " +
                 "Only the ad owner is permitted to perform these operations.</li>" +
                 "</ul>" +
@@ -63,11 +89,37 @@ import org.springframework.web.bind.annotation.RestController;
                 "<b>IOException</b> – in case of file operation failures."
 )
 public class AdController {
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final AdService adService;
+    private final AdImportService adImportService;
+    private final AdExportService adExportService;
+    private final AdFacetService adFacetService;
+    private final AdPriceStatsService adPriceStatsService;
+    private final AdSuggestService adSuggestService;
+    private final AdSimilarityService adSimilarityService;
+    private final AdViewService adViewService;
+    private final CommentService commentService;
 
     @Autowired
-    public AdController(AdService adService) {
+    public AdController(AdService adService,
+                        AdImportService adImportService,
+                        AdExportService adExportService,
+                        AdFacetService adFacetService,
+                        AdPriceStatsService adPriceStatsService,
+                        AdSuggestService adSuggestService,
+                        AdSimilarityService adSimilarityService,
+                        AdViewService adViewService,
+                        CommentService commentService) {
         this.adService = adService;
+        this.adImportService = adImportService;
+        this.adExportService = adExportService;
+        this.adFacetService = adFacetService;
+        this.adPriceStatsService = adPriceStatsService;
+        this.adSuggestService = adSuggestService;
+        this.adSimilarityService = adSimilarityService;
+        this.adViewService = adViewService;
+        this.commentService = commentService;
     }
 
     @PostMapping
@@ -168,10 +220,48 @@ public class AdController {
         return ResponseEntity.status(HttpStatus.CREATED).body(adResponseDto);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    @Operation(
+            summary = "Import advertisements in bulk",
+            description = "Creates advertisements for the currently authenticated user from a streamed upload. " +
+                    "The body is either NDJSON with one AdCreateDto object per line, or CSV with a header row " +
+                    "naming the columns title, description, price, city and category. Every row is validated like " +
+                    "a single create; invalid rows are skipped and reported with their line number while the rest " +
+                    "are inserted in batches.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Advertisements to import",
+                    required = true,
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = AdCreateDto.class)),
+                            @Content(mediaType = TEXT_CSV_VALUE)
+                    }
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Upload processed, see the result for rejected rows",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = AdImportResultDto.class))),
+                    @ApiResponse(responseCode = "404", description = "User not found",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)))
+            }
+    )
+    public ResponseEntity<?> importAds(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                       HttpServletRequest request) throws IOException {
+        AdImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                ? AdImportFormat.CSV
+                : AdImportFormat.NDJSON;
+        AdImportResultDto result = adImportService.importAds(request.getInputStream(), format);
+        return ResponseEntity.status(HttpStatus.OK).body(result);
+    }
+
     @GetMapping("/{adId}")
     @Operation(
             summary = "Retrieve an advertisement by ID",
-            description = "Fetches a specific advertisement using its unique identifier. Returns detailed advertisement data if found.",
+            description = "Fetches a specific advertisement using its unique identifier. Returns detailed advertisement data if found. " +
+                    "Each successful request counts as a view; viewCount is updated in batches every few seconds.",
             parameters = {
                     @Parameter(name = "adId", description = "Unique identifier (UUID) of the advertisement", required = true)
             },
@@ -209,7 +299,9 @@ public class AdController {
             }
     )
     public ResponseEntity<?> getAd(@PathVariable UUID adId) {
-        AdResponseDto adResponseDto = adService.getAd(adId);
+        AdResponseDto adResponseDto = adService.withLiveViewCount(adService.getAd(adId));
+        // counted here because getAd is usually answered from the cache
+        adViewService.recordView(adId);
         return ResponseEntity.status(HttpStatus.OK).body(adResponseDto);
     }
 
@@ -390,15 +482,18 @@ public class AdController {
                     @Parameter(name = "category", description = "Filter by advertisement category"),
                     @Parameter(name = "minPrice", description = "Minimum price"),
                     @Parameter(name = "maxPrice", description = "Maximum price"),
-                    @Parameter(name = "keyword", description = "Keyword to search in advertisement title/description"),
-                    @Parameter(name = "sortBy", description = "Field to sort by"),
-                    @Parameter(name = "sortDir", description = "Sort direction (asc or desc)")
+                    @Parameter(name = "keyword", description = "Keyword to search in advertisement title/description. When full-text search is enabled, results are ranked by relevance instead of sortBy"),
+                    @Parameter(name = "sortBy", description = "Field to sort by: rankScore (promotion, seller rating, recency and engagement), price, createdAt, updatedAt or viewCount"),
+                    @Parameter(name = "sortDir", description = "Sort direction (asc or desc)"),
+                    @Parameter(name = "cursor", description = "Switches to cursor pagination when present (pass an empty value for the first slice, " +
+                            "then the returned nextCursor). Cursor slices list promoted ads first, then newest first; sortBy, sortDir and page are ignored"),
+                    @Parameter(name = "size", description = "Number of items per page or slice, at most 100", example = "10")
             },
             responses = {
                     @ApiResponse(responseCode = "200", description = "Advertisements retrieved successfully",
                             content = @Content(
                                     mediaType = "application/json",
-                                    array = @ArraySchema(schema = @Schema(implementation = AdResponseDto.class)))),
+                                    array = @ArraySchema(schema = @Schema(implementation = AdSummaryDto.class)))),
                     @ApiResponse(
                             responseCode = "400",
                             description = "Invalid filter or sort parameters provided",
@@ -429,15 +524,155 @@ public class AdController {
                                        @RequestParam(required = false) BigDecimal minPrice,
                                        @RequestParam(required = false) BigDecimal maxPrice,
                                        @RequestParam(required = false) String keyword,
-                                       @RequestParam(defaultValue = "createdAt") String sortBy,
+                                       @RequestParam(defaultValue = "rankScore") String sortBy,
                                        @RequestParam(defaultValue = "desc") String sortDir,
+                                       @RequestParam(required = false) String cursor,
                                        @RequestParam(defaultValue = "0") int page,
                                        @RequestParam(defaultValue = "10") int size) {
+        if (cursor != null) {
+            CursorPageDto<AdSummaryDto> slice = adService.filterAdsByCursor(city, category, minPrice, maxPrice, keyword, cursor, size);
+            return ResponseEntity.status(HttpStatus.OK).body(slice);
+        }
         Pageable pageable = PageRequest.of(page, size);
-        Page<AdResponseDto> adsPage = adService.filterAds(city, category, minPrice, maxPrice, keyword, sortBy, sortDir, pageable);
+        Page<AdSummaryDto> adsPage = adService.filterAds(city, category, minPrice, maxPrice, keyword, sortBy, sortDir, pageable);
         return ResponseEntity.status(HttpStatus.OK).body(adsPage);
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Export active advertisements as NDJSON",
+            description = "Streams every active advertisement matching the filter as one JSON object per line. " +
+                    "Rows are read from a database cursor and written as they arrive, so the whole catalog can be " +
+                    "exported without paging. The order of rows is not defined.",
+            parameters = {
+                    @Parameter(name = "city", description = "Filter advertisements by city"),
+                    @Parameter(name = "category", description = "Filter by advertisement category"),
+                    @Parameter(name = "minPrice", description = "Minimum price"),
+                    @Parameter(name = "maxPrice", description = "Maximum price"),
+                    @Parameter(name = "keyword", description = "Keyword to search in advertisement title/description")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Advertisements streamed successfully",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = AdResponseDto.class)))
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> exportAds(@RequestParam(required = false) String city,
+                                                           @RequestParam(required = false) Category category,
+                                                           @RequestParam(required = false) BigDecimal minPrice,
+                                                           @RequestParam(required = false) BigDecimal maxPrice,
+                                                           @RequestParam(required = false) String keyword) {
+        StreamingResponseBody body = output -> adExportService.exportAds(city, category, minPrice, maxPrice, keyword, output);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ads.ndjson\"")
+                .body(body);
+    }
+
+    @GetMapping("/facets")
+    @Operation(
+            summary = "Retrieve facet counts for active advertisements",
+            description = "Returns the number of active advertisements matching the filter, together with counts per category " +
+                    "and per city. Category counts ignore the category filter and city counts ignore the city filter, " +
+                    "so they can be rendered as sidebar options.",
+            parameters = {
+                    @Parameter(name = "city", description = "Filter advertisements by city"),
+                    @Parameter(name = "category", description = "Filter by advertisement category"),
+                    @Parameter(name = "minPrice", description = "Minimum price"),
+                    @Parameter(name = "maxPrice", description = "Maximum price")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Facet counts retrieved successfully",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = AdFacetsDto.class)))
+            }
+    )
+    public ResponseEntity<?> getFacets(@RequestParam(required = false) String city,
+                                       @RequestParam(required = false) Category category,
+                                       @RequestParam(required = false) BigDecimal minPrice,
+                                       @RequestParam(required = false) BigDecimal maxPrice) {
+        AdFacetsDto facets = adFacetService.getFacets(city, category, minPrice, maxPrice);
+        return ResponseEntity.status(HttpStatus.OK).body(facets);
+    }
+
+    @GetMapping("/price-stats")
+    @Operation(
+            summary = "Retrieve price statistics for active advertisements",
+            description = "Returns the number of active advertisements together with the minimum, maximum, average, " +
+                    "percentiles and a price histogram for the given category and city. Omitting a parameter aggregates " +
+                    "over all categories or all cities. Statistics are kept in memory and updated as ads change.",
+            parameters = {
+                    @Parameter(name = "category", description = "Advertisement category"),
+                    @Parameter(name = "city", description = "Advertisement city")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Price statistics retrieved successfully",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = AdPriceStatsDto.class)))
+            }
+    )
+    public ResponseEntity<?> getPriceStats(@RequestParam(required = false) Category category,
+                                           @RequestParam(required = false) String city) {
+        AdPriceStatsDto stats = adPriceStatsService.getPriceStats(category, city);
+        return ResponseEntity.status(HttpStatus.OK).body(stats);
+    }
+
+    @GetMapping("/suggest")
+    @Operation(
+            summary = "Suggest search queries as the user types",
+            description = "Completes the last word of the query with words from active advertisement titles, " +
+                    "most frequent first. Suggestions are served from an in-memory index that is updated as ads change.",
+            parameters = {
+                    @Parameter(name = "q", description = "Text typed so far", required = true, example = "red bi"),
+                    @Parameter(name = "limit", description = "Maximum number of suggestions (at most 20)", example = "10")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = AdSuggestionDto.class)))),
+                    @ApiResponse(responseCode = "400", description = "Invalid limit",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)))
+            }
+    )
+    public ResponseEntity<?> suggest(@RequestParam String q,
+                                     @RequestParam(defaultValue = "10") int limit) {
+        List<AdSuggestionDto> suggestions = adSuggestService.suggest(q, limit);
+        return ResponseEntity.status(HttpStatus.OK).body(suggestions);
+    }
+
+    @GetMapping("/{adId}/similar")
+    @Operation(
+            summary = "Retrieve advertisements similar to the given one",
+            description = "Returns active advertisements of the same category whose title and description are most similar " +
+                    "to the given advertisement, most similar first. Similarity is estimated from MinHash signatures kept " +
+                    "in memory, so the list may be empty when nothing is close enough.",
+            parameters = {
+                    @Parameter(name = "adId", description = "Unique identifier (UUID) of the advertisement", required = true),
+                    @Parameter(name = "limit", description = "Maximum number of advertisements (at most 20)", example = "5")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Similar advertisements retrieved successfully",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = AdSummaryDto.class)))),
+                    @ApiResponse(responseCode = "404", description = "Advertisement not found",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)))
+            }
+    )
+    public ResponseEntity<?> getSimilarAds(@PathVariable UUID adId,
+                                           @RequestParam(defaultValue = "5") int limit) {
+        List<AdSummaryDto> similarAds = adSimilarityService.findSimilarAds(adId, limit);
+        return ResponseEntity.status(HttpStatus.OK).body(similarAds);
+    }
+
     @GetMapping("/user/{username}")
     @Operation(
             summary = "Retrieve advertisements by user with pagination",
@@ -446,14 +681,16 @@ public class AdController {
                     "If no advertisements are found, an empty page is returned.",
             parameters = {
                     @Parameter(name = "username", description = "Username of the advertisement creator", required = true),
+                    @Parameter(name = "cursor", description = "Switches to cursor pagination when present (pass an empty value for the first slice, " +
+                            "then the returned nextCursor); page is ignored", required = false),
                     @Parameter(name = "page", description = "Page number (0-indexed)", required = false, example = "0"),
-                    @Parameter(name = "size", description = "Number of items per page", required = false, example = "10")
+                    @Parameter(name = "size", description = "Number of items per page or slice, at most 100", required = false, example = "10")
             },
             responses = {
                     @ApiResponse(responseCode = "200", description = "Advertisements retrieved successfully",
                             content = @Content(
                                     mediaType = "application/json",
-                                    array = @ArraySchema(schema = @Schema(implementation = AdResponseDto.class)))),
+                                    array = @ArraySchema(schema = @Schema(implementation = AdSummaryDto.class)))),
                     @ApiResponse(
                             responseCode = "404",
                             description = "User not found",
@@ -480,10 +717,15 @@ public class AdController {
             }
     )
     public ResponseEntity<?> getAdsByUser(@PathVariable String username,
+                                          @RequestParam(required = false) String cursor,
                                           @RequestParam(defaultValue = "0") int page,
                                           @RequestParam(defaultValue = "10") int size) {
+        if (cursor != null) {
+            CursorPageDto<AdSummaryDto> slice = adService.getAdsByUserByCursor(username, cursor, size);
+            return ResponseEntity.status(HttpStatus.OK).body(slice);
+        }
         Pageable pageable = PageRequest.of(page, size);
-        Page<AdResponseDto> adsPage = adService.getAdsByUser(username, pageable);
+        Page<AdSummaryDto> adsPage = adService.getAdsByUser(username, pageable);
         return ResponseEntity.status(HttpStatus.OK).body(adsPage);
     }
 
@@ -580,33 +822,47 @@ public class AdController {
 
     @GetMapping("/promoted")
     @Operation(
-            summary = "Retrieve all promoted advertisements",
-            description = "Returns a list of all advertisements currently promoted (promotion still active).",
+            summary = "Retrieve promoted advertisements with pagination",
+            description = "Returns a page of active advertisements whose promotion is still running, newest first. " +
+                    "Supports pagination using query parameters 'page' and 'size'.",
+            parameters = {
+                    @Parameter(name = "page", description = "Page number (0-indexed)", required = false, example = "0"),
+                    @Parameter(name = "size", description = "Number of items per page, at most 100", required = false, example = "10")
+            },
             responses = {
                     @ApiResponse(responseCode = "200", description = "Promoted advertisements retrieved successfully",
                             content = @Content(
                                     mediaType = "application/json",
-                                    array = @ArraySchema(schema = @Schema(implementation = AdResponseDto.class))))
+                                    array = @ArraySchema(schema = @Schema(implementation = AdSummaryDto.class))))
             }
     )
-    public ResponseEntity<?> getPromotedAds() {
-        List<AdResponseDto> ads = adService.getPromotedAds();
+    public ResponseEntity<?> getPromotedAds(@RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        Page<AdSummaryDto> ads = adService.getPromotedAds(pageable);
         return ResponseEntity.status(HttpStatus.OK).body(ads);
     }
 
     @GetMapping("/non-promoted")
     @Operation(
-            summary = "Retrieve all non-promoted advertisements",
-            description = "Returns a list of all advertisements that are either not promoted or whose promotion has expired.",
+            summary = "Retrieve non-promoted advertisements with pagination",
+            description = "Returns a page of active advertisements that are either not promoted or whose promotion has expired, newest first. " +
+                    "Supports pagination using query parameters 'page' and 'size'.",
+            parameters = {
+                    @Parameter(name = "page", description = "Page number (0-indexed)", required = false, example = "0"),
+                    @Parameter(name = "size", description = "Number of items per page, at most 100", required = false, example = "10")
+            },
             responses = {
                     @ApiResponse(responseCode = "200", description = "Non-promoted advertisements retrieved successfully",
                             content = @Content(
                                     mediaType = "application/json",
-                                    array = @ArraySchema(schema = @Schema(implementation = AdResponseDto.class))))
+                                    array = @ArraySchema(schema = @Schema(implementation = AdSummaryDto.class))))
             }
     )
-    public ResponseEntity<?> getNonPromotedAds() {
-        List<AdResponseDto> ads = adService.getNonPromotedAds();
+    public ResponseEntity<?> getNonPromotedAds(@RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        Page<AdSummaryDto> ads = adService.getNonPromotedAds(pageable);
         return ResponseEntity.status(HttpStatus.OK).body(ads);
     }
 
@@ -626,11 +882,11 @@ public class AdController {
             ),
             responses = {
                     @ApiResponse(
-                            responseCode = "200",
-                            description = "Comment added successfully; returns the updated advertisement",
+                            responseCode = "201",
+                            description = "Comment added successfully; returns the created comment",
                             content = @Content(
                                     mediaType = "application/json",
-                                    schema = @Schema(implementation = AdResponseDto.class))
+                                    schema = @Schema(implementation = CommentResponseDto.class))
                     ),
                     @ApiResponse(
                             responseCode = "400",
@@ -682,8 +938,46 @@ public class AdController {
     )
     public ResponseEntity<?> commentAd(@PathVariable UUID adId,
                                        @Validated @RequestBody @NotNull CommentCreateDto comment) {
-        AdResponseDto adResponseDto = adService.commentAd(adId, comment.getCommentText());
-        return ResponseEntity.status(HttpStatus.OK).body(adResponseDto);
+        CommentResponseDto commentResponseDto = commentService.addComment(adId, comment.getCommentText());
+        return ResponseEntity.status(HttpStatus.CREATED).body(commentResponseDto);
+    }
+
+    @GetMapping("/{adId}/comments")
+    @Operation(
+            summary = "Retrieve comments of an advertisement",
+            description = "Returns comments of the specified advertisement, newest first, one slice at a time. " +
+                    "Pass the returned nextCursor as 'cursor' to fetch the next slice.",
+            parameters = {
+                    @Parameter(name = "adId", description = "Unique identifier of the advertisement", required = true),
+                    @Parameter(name = "cursor", description = "Cursor returned with the previous slice; omit for the first slice", required = false),
+                    @Parameter(name = "size", description = "Number of comments per slice, at most 100", required = false, example = "20")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Comments retrieved successfully",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = CursorPageDto.class))),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid cursor or size",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Advertisement not found",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    public ResponseEntity<?> getComments(@PathVariable UUID adId,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int size) {
+        CursorPageDto<CommentResponseDto> slice = commentService.getComments(adId, cursor, size);
+        return ResponseEntity.status(HttpStatus.OK).body(slice);
     }
 
     @PostMapping(value = "/{adId}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -6,18 +6,21 @@ import com.neekostar.adsystem.dto.ChatResponseDto;
 import com.neekostar.adsystem.dto.ErrorResponse;
 import com.neekostar.adsystem.dto.UnreadChatsInfoDto;
 import com.neekostar.adsystem.model.Chat;
+import com.neekostar.adsystem.service.ChatEventStreamService;
 import com.neekostar.adsystem.service.ChatService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/chats")
@@ -26,7 +29,8 @@ import org.springframework.web.bind.annotation.RestController;
         description = "This controller handles all operations related to managing chats between users. <br><br>" +
                 "The available operations include: <ul>" +
                 "<li><b>Get All Chats</b> – Retrieves all chats for a specified user. " +
-                "Ensures that the authenticated user is the same as the requested user. Returns detailed chat data with decrypted message content.</li>" +
+                "Ensures that the authenticated user is the same as the requested user. Returns each chat with a decrypted preview of its latest message " +
+                "and its unread count; the messages themselves are read per chat.</li>" +
                 "<li><b>Get Unread Chats Count</b> – Returns the number of chats that contain unread messages for the user.</li>" +
                 "<li><b>Create/Get Chat</b> – Retrieves an existing chat between two users or creates a new one if it does not exist. " +
                 "Validates that a user cannot create a chat with themselves and that the requester is the chat initiator.</li>" +
@@ -34,6 +38,8 @@ import org.springframework.web.bind.annotation.RestController;
                 "Verifies that the chat belongs to the user.</li>" +
                 "<li><b>Get Unread Chats Info</b> – Provides aggregated information about unread messages across all chats for the user, " +
                 "including details per chat and total unread count.</li>" +
+                "<li><b>Stream Chat Events</b> – Opens a Server-Sent Events stream that pushes unread counters, new messages, " +
+                "read receipts and saved search alerts instead of polling the endpoints above.</li>" +
                 "</ul>" +
                 "Possible errors include: <br><br>" +
                 "<b>ResourceNotFoundException</b> – when a chat or user is not found; <br>" +
@@ -42,10 +48,12 @@ import org.springframework.web.bind.annotation.RestController;
 public class ChatController {
 
     private final ChatService chatService;
+    private final ChatEventStreamService chatEventStreamService;
 
     @Autowired
-    public ChatController(ChatService chatService) {
+    public ChatController(ChatService chatService, ChatEventStreamService chatEventStreamService) {
         this.chatService = chatService;
+        this.chatEventStreamService = chatEventStreamService;
     }
 
     @GetMapping("/{username}")
@@ -53,7 +61,9 @@ public class ChatController {
             summary = "Retrieve all chats for a user",
             description = "Fetches all chats associated with the specified username. " +
                     "The authenticated user must match the provided username. " +
-                    "On success, returns a list of chat details with decrypted messages. " +
+                    "On success, returns the chats ordered by their latest message, each with a decrypted preview of that message " +
+                    "and the number of unread messages. The messages list is left empty, " +
+                    "use GET /api/chats/{username}/{chatId} or GET /api/messages/{username}/{chatId} for the messages of a chat. " +
                     "Possible errors: 403 (Access denied) if the user is not authorized, 404 (User not found) if the user does not exist.",
             parameters = {
                     @io.swagger.v3.oas.annotations.Parameter(
@@ -417,4 +427,58 @@ public class ChatController {
         UnreadChatsInfoDto info = chatService.getUnreadInfo(username);
         return ResponseEntity.status(HttpStatus.OK).body(info);
     }
+
+    @GetMapping(value = "/{username}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream chat events",
+            description = "Opens a Server-Sent Events stream for the specified user. " +
+                    "The first event, 'unread-info', carries the same body as GET /api/chats/{username}/unread. " +
+                    "After it the stream sends 'unread' events with the new unread count of one chat together with the totals, " +
+                    "'messages' events for new messages, 'receipts' events when the other participant reads messages " +
+                    "and 'saved-searches' events listing new advertisements that match one of the user's saved searches. " +
+                    "Comment lines are sent as heartbeats. A client that falls too far behind is disconnected and should reconnect. " +
+                    "The authenticated user must match the provided username.",
+            parameters = {
+                    @io.swagger.v3.oas.annotations.Parameter(
+                            name = "username",
+                            description = "Username whose events are streamed",
+                            required = true
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Event stream opened",
+                            content = @io.swagger.v3.oas.annotations.media.Content(
+                                    mediaType = "text/event-stream"
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access denied. The authenticated user is not authorized to subscribe to these events",
+                            content = @io.swagger.v3.oas.annotations.media.Content(
+                                    mediaType = "application/json",
+                                    schema = @io.swagger.v3.oas.annotations.media.Schema(implementation = ErrorResponse.class),
+                                    examples = {
+                                            @io.swagger.v3.oas.annotations.media.ExampleObject(
+                                                    name = "ForbiddenExample",
+                                                    value = """
+                                                            {
+                                                              "timestamp": "2025-01-01T12:00:00.123",
+                                                              "status": 403,
+                                                              "error": "Forbidden",
+                                                              "message": "You can only subscribe to your own events",
+                                                              "path": "/api/chats/johndoe/events",
+                                                              "method": "GET"
+                                                            }
+                                                            """
+                                            )
+                                    }
+                            )
+                    )
+            }
+    )
+    public SseEmitter streamChatEvents(@PathVariable String username) {
+        return chatEventStreamService.openStream(username);
+    }
 }
@@ -1,9 +1,9 @@
 package com.neekostar.adsystem.controller;
 
-import java.util.List;
 import java.util.UUID;
 import com.neekostar.adsystem.dto.ErrorResponse;
 import com.neekostar.adsystem.dto.MessageCreateDto;
+import com.neekostar.adsystem.dto.MessagePageDto;
 import com.neekostar.adsystem.dto.MessageResponseDto;
 import com.neekostar.adsystem.dto.MessageUpdateDto;
 import com.neekostar.adsystem.service.MessageService;
@@ -20,6 +20,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -28,7 +29,7 @@ import org.springframework.web.bind.annotation.RestController;
         name = "Message Management",
         description = "This controller handles all operations related to messaging between users. <br><br>" +
                 "The available operations include: <ul>" +
-                "<li><b>Retrieve Chat Messages</b> – Fetch all messages in a specific chat. The authenticated user " +
+                "<li><b>Retrieve Chat Messages</b> – Fetch the messages of a specific chat page by page. The authenticated user " +
                 "must be a participant of the chat. Each message's content is decrypted before being returned.</li>" +
                 "<li><b>Send Message</b> – Sends a new message within a chat. The message text is encrypted before " +
                 "storage. Only the authenticated user (acting as the sender) is permitted to send messages in a chat " +
@@ -36,7 +37,7 @@ import org.springframework.web.bind.annotation.RestController;
                 "<li><b>Mark Message as Read</b> – Marks a specific message as read. This operation ensures that " +
                 "only the intended recipient can mark the message as read.</li>" +
                 "<li><b>Mark All Messages as Read</b> – Marks all unread messages in a specific chat as read " +
-                "for the provided user. The authenticated user must match the user for whom the messages are being marked.</li>" +
+                "for the provided user, or only those up to a given message. The authenticated user must match the user for whom the messages are being marked.</li>" +
                 "<li><b>Update Message</b> – Updates the content of an existing message. Only the sender of the message " +
                 "is authorized to update it. The new message content is encrypted before being saved.</li>" +
                 "<li><b>Delete Message</b> – Deletes an existing message. Only the sender is allowed to delete their own messages.</li>" +
@@ -56,11 +57,13 @@ public class MessageController {
 
     @GetMapping("/{username}/{chatId}")
     @io.swagger.v3.oas.annotations.Operation(
-            summary = "Retrieve all messages for a chat",
-            description = "Fetches all messages for the specified chat identified by its UUID. " +
+            summary = "Retrieve a page of messages for a chat",
+            description = "Fetches one page of the history of the specified chat identified by its UUID, oldest message first. " +
+                    "Without cursors the latest messages are returned; 'before' pages back through older messages and " +
+                    "'after' fetches messages newer than the cursor. " +
                     "The authenticated user must match the provided username and be a participant of the chat. " +
-                    "All messages are returned with decrypted content. " +
-                    "Possible errors: 403 if access is denied, 404 if the chat is not found.",
+                    "Messages of the page are returned with decrypted content. " +
+                    "Possible errors: 400 if both cursors are given or a cursor is invalid, 403 if access is denied, 404 if the chat is not found.",
             parameters = {
                     @io.swagger.v3.oas.annotations.Parameter(
                             name = "username",
@@ -71,6 +74,19 @@ public class MessageController {
                             name = "chatId",
                             description = "Unique identifier (UUID) of the chat",
                             required = true
+                    ),
+                    @io.swagger.v3.oas.annotations.Parameter(
+                            name = "before",
+                            description = "Cursor returned as beforeCursor; fetches the messages preceding it"
+                    ),
+                    @io.swagger.v3.oas.annotations.Parameter(
+                            name = "after",
+                            description = "Cursor returned as afterCursor; fetches the messages following it"
+                    ),
+                    @io.swagger.v3.oas.annotations.Parameter(
+                            name = "size",
+                            description = "Number of messages per page, at most 100",
+                            example = "50"
                     )
             },
             responses = {
@@ -79,9 +95,7 @@ public class MessageController {
                             description = "Messages retrieved successfully",
                             content = @io.swagger.v3.oas.annotations.media.Content(
                                     mediaType = "application/json",
-                                    array = @io.swagger.v3.oas.annotations.media.ArraySchema(
-                                            schema = @io.swagger.v3.oas.annotations.media.Schema(implementation = MessageResponseDto.class)
-                                    )
+                                    schema = @io.swagger.v3.oas.annotations.media.Schema(implementation = MessagePageDto.class)
                             )
                     ),
                     @ApiResponse(
@@ -133,8 +147,11 @@ public class MessageController {
             }
     )
     public ResponseEntity<?> getChatMessages(@PathVariable String username,
-                                             @PathVariable UUID chatId) {
-        List<MessageResponseDto> messages = messageService.getMessagesForChat(username, chatId);
+                                             @PathVariable UUID chatId,
+                                             @RequestParam(required = false) String before,
+                                             @RequestParam(required = false) String after,
+                                             @RequestParam(defaultValue = "50") int size) {
+        MessagePageDto messages = messageService.getMessagesForChat(username, chatId, before, after, size);
         return ResponseEntity.status(HttpStatus.OK).body(messages);
     }
 
@@ -311,7 +328,8 @@ public class MessageController {
     @PostMapping("/{username}/{chatId}/read-all")
     @io.swagger.v3.oas.annotations.Operation(
             summary = "Mark all messages in a chat as read",
-            description = "Marks all unread messages as read in the specified chat for the given user. " +
+            description = "Marks all unread messages as read in the specified chat for the given user " +
+                    "and returns how many messages were marked. " +
                     "The authenticated user must match the provided username and be a participant of the chat. " +
                     "Possible errors: 403 if access is denied, 404 if the chat is not found.",
             parameters = {
@@ -329,7 +347,11 @@ public class MessageController {
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "All messages marked as read successfully"
+                            description = "All messages marked as read successfully, the body holds the number of messages marked",
+                            content = @io.swagger.v3.oas.annotations.media.Content(
+                                    mediaType = "application/json",
+                                    schema = @io.swagger.v3.oas.annotations.media.Schema(type = "integer", example = "3")
+                            )
                     ),
                     @ApiResponse(
                             responseCode = "403",
@@ -379,10 +401,68 @@ public class MessageController {
                     )
             }
     )
-    public ResponseEntity<Void> markAllMessagesAsRead(@PathVariable String username,
-                                                      @PathVariable UUID chatId) {
-        messageService.markAllMessagesAsRead(username, chatId);
-        return ResponseEntity.status(HttpStatus.OK).build();
+    public ResponseEntity<Integer> markAllMessagesAsRead(@PathVariable String username,
+                                                         @PathVariable UUID chatId) {
+        int marked = messageService.markAllMessagesAsRead(username, chatId);
+        return ResponseEntity.status(HttpStatus.OK).body(marked);
+    }
+
+    @PostMapping("/{username}/{chatId}/read-up-to/{messageId}")
+    @io.swagger.v3.oas.annotations.Operation(
+            summary = "Mark messages as read up to a message",
+            description = "Marks every unread incoming message of the chat up to and including the given message as read " +
+                    "and returns how many messages were marked. Clients pass the latest message they have displayed. " +
+                    "The authenticated user must match the provided username and be a participant of the chat. " +
+                    "Possible errors: 403 if access is denied, 404 if the chat or the message in that chat is not found.",
+            parameters = {
+                    @io.swagger.v3.oas.annotations.Parameter(
+                            name = "username",
+                            description = "Username for which to mark messages as read",
+                            required = true
+                    ),
+                    @io.swagger.v3.oas.annotations.Parameter(
+                            name = "chatId",
+                            description = "Unique identifier (UUID) of the chat",
+                            required = true
+                    ),
+                    @io.swagger.v3.oas.annotations.Parameter(
+                            name = "messageId",
+                            description = "Unique identifier (UUID) of the latest message read",
+                            required = true
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Messages marked as read successfully, the body holds the number of messages marked",
+                            content = @io.swagger.v3.oas.annotations.media.Content(
+                                    mediaType = "application/json",
+                                    schema = @io.swagger.v3.oas.annotations.media.Schema(type = "integer", example = "3")
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Access denied. The user is not authorized to mark these messages as read",
+                            content = @io.swagger.v3.oas.annotations.media.Content(
+                                    mediaType = "application/json",
+                                    schema = @io.swagger.v3.oas.annotations.media.Schema(implementation = ErrorResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Chat or message not found",
+                            content = @io.swagger.v3.oas.annotations.media.Content(
+                                    mediaType = "application/json",
+                                    schema = @io.swagger.v3.oas.annotations.media.Schema(implementation = ErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    public ResponseEntity<Integer> markMessagesAsReadUpTo(@PathVariable String username,
+                                                          @PathVariable UUID chatId,
+                                                          @PathVariable UUID messageId) {
+        int marked = messageService.markMessagesAsReadUpTo(username, chatId, messageId);
+        return ResponseEntity.status(HttpStatus.OK).body(marked);
     }
 
     @PutMapping("/{username}/{messageId}")
@@ -0,0 +1,105 @@
+package com.neekostar.adsystem.controller;
+
+import java.util.List;
+import java.util.UUID;
+import com.neekostar.adsystem.dto.ErrorResponse;
+import com.neekostar.adsystem.dto.SavedSearchCreateDto;
+import com.neekostar.adsystem.dto.SavedSearchResponseDto;
+import com.neekostar.adsystem.service.SavedSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/saved-searches")
+@Tag(
+        name = "Saved Searches",
+        description = "This controller manages advertisement filters saved by the authenticated user. <br><br>" +
+                "Every new or updated active advertisement is matched against the saved searches, and matches " +
+                "are queued for notification in batches. Users are not notified about their own advertisements."
+)
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+
+    @Autowired
+    public SavedSearchController(SavedSearchService savedSearchService) {
+        this.savedSearchService = savedSearchService;
+    }
+
+    @PostMapping
+    @Operation(
+            summary = "Save a search",
+            description = "Saves a filter by city, category, price range and keyword. Omitted fields match any value, " +
+                    "but at least one filter is required. A user can keep up to 20 saved searches.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Search saved successfully",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = SavedSearchResponseDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid filter or saved search limit reached",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)))
+            }
+    )
+    public ResponseEntity<?> createSavedSearch(@Validated @RequestBody SavedSearchCreateDto savedSearchCreateDto) {
+        SavedSearchResponseDto savedSearch = savedSearchService.createSavedSearch(savedSearchCreateDto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(savedSearch);
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "List my saved searches",
+            description = "Returns the saved searches of the authenticated user, newest first.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Saved searches retrieved successfully",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = SavedSearchResponseDto.class))))
+            }
+    )
+    public ResponseEntity<?> getMySavedSearches() {
+        List<SavedSearchResponseDto> savedSearches = savedSearchService.getMySavedSearches();
+        return ResponseEntity.status(HttpStatus.OK).body(savedSearches);
+    }
+
+    @DeleteMapping("/{savedSearchId}")
+    @Operation(
+            summary = "Delete a saved search",
+            description = "Deletes a saved search of the authenticated user. No further matches are queued for it.",
+            parameters = {
+                    @Parameter(name = "savedSearchId", description = "Unique identifier (UUID) of the saved search", required = true)
+            },
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Saved search deleted successfully"),
+                    @ApiResponse(responseCode = "403", description = "The saved search belongs to another user",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Saved search not found",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)))
+            }
+    )
+    public ResponseEntity<?> deleteSavedSearch(@PathVariable UUID savedSearchId) {
+        savedSearchService.deleteSavedSearch(savedSearchId);
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.neekostar.adsystem.dto;
+
+import java.io.Serializable;
+import java.util.Map;
+import com.neekostar.adsystem.model.Category;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(name = "AdFacetsDto", description = "DTO with active advertisement counts for the current filter")
+public class AdFacetsDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "Number of active advertisements matching the whole filter", example = "42")
+    private long total;
+
+    @Schema(description = "Number of matching advertisements per category, ignoring the category filter")
+    private Map<Category, Long> categories;
+
+    @Schema(description = "Number of matching advertisements per city, ignoring the city filter")
+    private Map<String, Long> cities;
+}
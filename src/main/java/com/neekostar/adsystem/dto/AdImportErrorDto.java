@@ -0,0 +1,21 @@
+package com.neekostar.adsystem.dto;
+
+import java.io.Serializable;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "AdImportErrorDto", description = "DTO describing why a row of a bulk import was rejected")
+public class AdImportErrorDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "Line of the uploaded file the row starts on", example = "17")
+    private long line;
+
+    @Schema(description = "Reason the row was rejected", example = "price: Price must be positive")
+    private String message;
+}
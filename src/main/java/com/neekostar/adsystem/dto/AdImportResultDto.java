@@ -0,0 +1,24 @@
+package com.neekostar.adsystem.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(name = "AdImportResultDto", description = "DTO with the outcome of a bulk advertisement import")
+public class AdImportResultDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "Number of rows read from the upload", example = "1000")
+    private long total;
+
+    @Schema(description = "Number of advertisements created", example = "997")
+    private long imported;
+
+    @Schema(description = "Number of rejected rows", example = "3")
+    private long failed;
+
+    @Schema(description = "Rejected rows with the reason, limited to the first 100")
+    private List<AdImportErrorDto> errors;
+}
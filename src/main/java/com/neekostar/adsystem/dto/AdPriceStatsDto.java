@@ -0,0 +1,47 @@
+package com.neekostar.adsystem.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+import com.neekostar.adsystem.model.Category;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(name = "AdPriceStatsDto", description = "DTO with price statistics of active advertisements in a category and city")
+public class AdPriceStatsDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "Category the statistics are computed for, absent for all categories", example = "ELECTRONICS")
+    private Category category;
+
+    @Schema(description = "City the statistics are computed for, absent for all cities", example = "Moscow")
+    private String city;
+
+    @Schema(description = "Number of active advertisements", example = "42")
+    private long count;
+
+    @Schema(description = "Lowest price", example = "150.00")
+    private BigDecimal min;
+
+    @Schema(description = "Highest price", example = "98000.00")
+    private BigDecimal max;
+
+    @Schema(description = "Average price", example = "12500.50")
+    private BigDecimal average;
+
+    @Schema(description = "25th percentile of prices", example = "2000.00")
+    private BigDecimal p25;
+
+    @Schema(description = "Median price", example = "7500.00")
+    private BigDecimal median;
+
+    @Schema(description = "75th percentile of prices", example = "15000.00")
+    private BigDecimal p75;
+
+    @Schema(description = "90th percentile of prices", example = "40000.00")
+    private BigDecimal p90;
+
+    @Schema(description = "Number of advertisements per price range")
+    private List<PriceBucketDto> histogram;
+}
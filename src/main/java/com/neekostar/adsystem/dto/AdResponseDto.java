@@ -3,7 +3,6 @@ package com.neekostar.adsystem.dto;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.UUID;
 import com.neekostar.adsystem.model.Category;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -41,8 +40,11 @@ public class AdResponseDto implements Serializable {
     @Schema(description = "End date of the promotion", example = "2022-12-31T23:59:59")
     private LocalDateTime promotionEndDate;
 
-    @Schema(description = "List of comments associated with the advertisement")
-    private List<CommentResponseDto> comments;
+    @Schema(description = "Number of comments on the advertisement", example = "12")
+    private Long commentCount;
+
+    @Schema(description = "Number of times the advertisement was viewed", example = "340")
+    private Long viewCount;
 
     @Schema(description = "Status of the advertisement", example = "ACTIVE")
     private String status;
@@ -0,0 +1,21 @@
+package com.neekostar.adsystem.dto;
+
+import java.io.Serializable;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "AdSuggestionDto", description = "DTO with a search box suggestion built from active advertisement titles")
+public class AdSuggestionDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "Query text with its last word completed", example = "red bicycle")
+    private String text;
+
+    @Schema(description = "Number of active advertisements whose title contains the completed word", example = "42")
+    private long count;
+}
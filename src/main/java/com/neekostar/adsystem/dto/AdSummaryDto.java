@@ -0,0 +1,52 @@
+package com.neekostar.adsystem.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import com.neekostar.adsystem.model.Category;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "AdSummaryDto", description = "DTO for displaying an advertisement in a list")
+public class AdSummaryDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "Unique identifier of the advertisement", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID id;
+
+    @Schema(description = "Title of the advertisement", example = "Car for sale")
+    private String title;
+
+    @Schema(description = "Price of the advertisement", example = "10000.00")
+    private BigDecimal price;
+
+    @Schema(description = "City of the advertisement", example = "Moscow")
+    private String city;
+
+    @Schema(description = "Category of the advertisement", example = "VEHICLES")
+    private Category category;
+
+    @Schema(description = "URL of the advertisement image", example = "http://localhost:8080/api/v1/ads/123e4567-e89b-12d3-a456-426614174000/image")
+    private String imageUrl;
+
+    @Schema(description = "Indicates if the advertisement is promoted", example = "true")
+    private Boolean isPromoted;
+
+    @Schema(description = "Username of the advertisement owner", example = "john_doe")
+    private String username;
+
+    @Schema(description = "Rating of the advertisement owner", example = "4.5")
+    private Float userRating;
+
+    @Schema(description = "Creation date of the advertisement", example = "2025-01-01T12:00:00")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Stored ranking score the default feed is ordered by", example = "42.5")
+    private Double rankScore;
+}
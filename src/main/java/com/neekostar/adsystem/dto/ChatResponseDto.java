@@ -19,9 +19,14 @@ public class ChatResponseDto {
     @Schema(description = "Second user's username", example = "jane_doe", required = true)
     private String username2;
 
-    @Schema(description = "List of messages in the chat", required = true)
+    @Schema(description = "List of messages in the chat. Empty in the chat list, which carries lastMessagePreview instead",
+            required = true)
     private List<MessageResponseDto> messages;
 
+    @Schema(description = "Decrypted beginning of the latest message, set in the chat list only",
+            example = "Is the bike still available?")
+    private String lastMessagePreview;
+
     @Schema(description = "Date of the chat creation", example = "2021-07-01T12:00:00", required = true)
     private LocalDateTime createdAt;
 
@@ -5,12 +5,16 @@ import lombok.Data;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Data
 @Schema(name = "CommentResponseDto", description = "DTO for comment response")
 public class CommentResponseDto implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    @Schema(description = "Unique identifier of the comment", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID id;
+
     @Schema(description = "Comment text", example = "Nice car!", requiredMode = Schema.RequiredMode.REQUIRED)
     private String commentText;
 
@@ -0,0 +1,26 @@
+package com.neekostar.adsystem.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "CursorPageDto", description = "DTO for one slice of a cursor-paginated list")
+public class CursorPageDto<T> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "Items of the current slice")
+    private List<T> content;
+
+    @Schema(description = "Opaque cursor to pass as 'cursor' for the next slice, null on the last slice",
+            example = "MXwzLjV8MjAyNS0wMS0wMVQxMjowMHwxMjNlNDU2Nw")
+    private String nextCursor;
+
+    @Schema(description = "Whether another slice is available", example = "true")
+    private boolean hasNext;
+}
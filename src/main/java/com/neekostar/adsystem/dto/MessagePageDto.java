@@ -0,0 +1,33 @@
+package com.neekostar.adsystem.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "MessagePageDto", description = "DTO for one page of a chat history, oldest message first")
+public class MessagePageDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "Messages of the page in chronological order")
+    private List<MessageResponseDto> content;
+
+    @Schema(description = "Opaque cursor to pass as 'before' for older messages, null when there are none",
+            example = "MjAyNS0wMS0wMVQxMjowMHwxMjNlNDU2Nw")
+    private String beforeCursor;
+
+    @Schema(description = "Opaque cursor to pass as 'after' for newer messages, also usable to poll for new ones",
+            example = "MjAyNS0wMS0wMVQxMjowNXw3NjU0ZTMyMQ")
+    private String afterCursor;
+
+    @Schema(description = "Whether older messages are available", example = "true")
+    private boolean hasBefore;
+
+    @Schema(description = "Whether newer messages are available", example = "false")
+    private boolean hasAfter;
+}
@@ -0,0 +1,25 @@
+package com.neekostar.adsystem.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "PriceBucketDto", description = "DTO with the number of active advertisements in one price range")
+public class PriceBucketDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "Inclusive lower bound of the range, absent for the first bucket", example = "1000")
+    private BigDecimal from;
+
+    @Schema(description = "Exclusive upper bound of the range, absent for the last bucket", example = "5000")
+    private BigDecimal to;
+
+    @Schema(description = "Number of active advertisements priced within the range", example = "12")
+    private long count;
+}
@@ -0,0 +1,29 @@
+package com.neekostar.adsystem.dto;
+
+import java.io.Serializable;
+import java.util.UUID;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "ReadReceiptDto", description = "DTO for a notification that the other participant read messages")
+public class ReadReceiptDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "Chat ID", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID chatId;
+
+    @Schema(description = "Username of the participant who read the messages", example = "jane_doe")
+    private String readerUsername;
+
+    @Schema(description = "Latest message read, null when all messages of the chat were read",
+            example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID upToMessageId;
+
+    @Schema(description = "Number of messages marked as read", example = "3")
+    private int count;
+}
@@ -0,0 +1,23 @@
+package com.neekostar.adsystem.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.UUID;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "SavedSearchAlertDto", description = "DTO for new advertisements matching a saved search")
+public class SavedSearchAlertDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "Saved search that matched", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID savedSearchId;
+
+    @Schema(description = "Advertisements that were created or updated to match the search")
+    private List<UUID> adIds;
+}
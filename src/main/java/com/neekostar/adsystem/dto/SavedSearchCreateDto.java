@@ -0,0 +1,31 @@
+package com.neekostar.adsystem.dto;
+
+import com.neekostar.adsystem.model.Category;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Schema(name = "SavedSearchCreateDto", description = "DTO for saving an advertisement filter; omitted fields match any value")
+public class SavedSearchCreateDto {
+    @Pattern(regexp = "^[A-ZА-ЯЁ][a-zа-яё]+$", message = "{saved_search.city.pattern}")
+    @Schema(description = "City of the advertisement", example = "Moscow", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    private String city;
+
+    @Schema(description = "Category of the advertisement", example = "VEHICLES", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    private Category category;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "{saved_search.price.positive}")
+    @Schema(description = "Minimum price, inclusive", example = "1000.00", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    private BigDecimal minPrice;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "{saved_search.price.positive}")
+    @Schema(description = "Maximum price, inclusive", example = "50000.00", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    private BigDecimal maxPrice;
+
+    @Size(max = 100, message = "{saved_search.keyword.size}")
+    @Schema(description = "Keyword to look for in the title or description", example = "bike", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    private String keyword;
+}
@@ -0,0 +1,36 @@
+package com.neekostar.adsystem.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import com.neekostar.adsystem.model.Category;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(name = "SavedSearchResponseDto", description = "DTO for displaying a saved search")
+public class SavedSearchResponseDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "Unique identifier of the saved search", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID id;
+
+    @Schema(description = "City filter, absent when any city matches", example = "Moscow")
+    private String city;
+
+    @Schema(description = "Category filter, absent when any category matches", example = "VEHICLES")
+    private Category category;
+
+    @Schema(description = "Minimum price, inclusive", example = "1000.00")
+    private BigDecimal minPrice;
+
+    @Schema(description = "Maximum price, inclusive", example = "50000.00")
+    private BigDecimal maxPrice;
+
+    @Schema(description = "Keyword looked up in the title or description", example = "bike")
+    private String keyword;
+
+    @Schema(description = "Date the search was saved", example = "2025-01-01T12:00:00")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,28 @@
+package com.neekostar.adsystem.dto;
+
+import java.io.Serializable;
+import java.util.UUID;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "UnreadCountDto", description = "DTO for a change of the unread counters of a user")
+public class UnreadCountDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "Chat whose unread count changed", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID chatId;
+
+    @Schema(description = "Unread messages in that chat", example = "2")
+    private int unreadCount;
+
+    @Schema(description = "Chats with unread messages, the value of the unread badge", example = "1")
+    private int unreadChats;
+
+    @Schema(description = "Unread messages across all chats", example = "5")
+    private int totalUnread;
+}
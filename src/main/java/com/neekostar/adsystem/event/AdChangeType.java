@@ -0,0 +1,9 @@
+package com.neekostar.adsystem.event;
+
+public enum AdChangeType {
+    CREATED,
+    UPDATED,
+    PROMOTED,
+    SOLD,
+    DELETED
+}
@@ -0,0 +1,14 @@
+package com.neekostar.adsystem.event;
+
+import com.neekostar.adsystem.model.Ad;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class AdChangedEvent {
+    private final Ad ad;
+    private final AdChangeType type;
+}
@@ -0,0 +1,16 @@
+package com.neekostar.adsystem.event;
+
+import java.util.Set;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+// published once per upload; the ads themselves went out batch by batch in AdsImportedEvent
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class AdImportCompletedEvent {
+    private final String username;
+    private final Set<String> cacheTags;
+    private final int imported;
+}
@@ -0,0 +1,15 @@
+package com.neekostar.adsystem.event;
+
+import java.util.List;
+import com.neekostar.adsystem.model.Ad;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString(exclude = "ads")
+@RequiredArgsConstructor
+public class AdsImportedEvent {
+    private final String username;
+    private final List<Ad> ads;
+}
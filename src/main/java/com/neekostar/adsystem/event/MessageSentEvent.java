@@ -0,0 +1,20 @@
+package com.neekostar.adsystem.event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString(exclude = "encryptedContent")
+@RequiredArgsConstructor
+public class MessageSentEvent {
+    private final UUID chatId;
+    private final UUID messageId;
+    private final String senderUsername;
+    private final UUID recipientId;
+    private final String recipientUsername;
+    private final String encryptedContent;
+    private final LocalDateTime createdAt;
+}
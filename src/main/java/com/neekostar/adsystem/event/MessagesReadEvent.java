@@ -0,0 +1,19 @@
+package com.neekostar.adsystem.event;
+
+import java.util.UUID;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class MessagesReadEvent {
+    private final UUID chatId;
+    private final UUID readerId;
+    private final String readerUsername;
+    private final String senderUsername;
+    // null when every incoming message of the chat was marked
+    private final UUID upToMessageId;
+    private final int count;
+}
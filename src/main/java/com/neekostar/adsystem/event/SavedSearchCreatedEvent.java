@@ -0,0 +1,13 @@
+package com.neekostar.adsystem.event;
+
+import com.neekostar.adsystem.search.SavedSearchCriteria;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class SavedSearchCreatedEvent {
+    private final SavedSearchCriteria criteria;
+}
@@ -0,0 +1,13 @@
+package com.neekostar.adsystem.event;
+
+import java.util.UUID;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class SavedSearchDeletedEvent {
+    private final UUID savedSearchId;
+}
@@ -0,0 +1,14 @@
+package com.neekostar.adsystem.event;
+
+import java.util.List;
+import com.neekostar.adsystem.search.SavedSearchMatch;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class SavedSearchMatchesEvent {
+    private final List<SavedSearchMatch> matches;
+}
@@ -0,0 +1,14 @@
+package com.neekostar.adsystem.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class UserNotificationEvent {
+    private final String username;
+    private final String destination;
+    private final Object payload;
+}
@@ -7,14 +7,15 @@ import com.neekostar.adsystem.model.Ad;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-@Mapper(componentModel = "spring", uses = {UserMapper.class, CommentMapper.class})
+@Mapper(componentModel = "spring", uses = {UserMapper.class})
 public interface AdMapper {
     @Mapping(target = "username", source = "ad.user.username")
-    @Mapping(target = "comments", source = "ad.comments")
     @Mapping(target = "status", expression = "java(ad.getStatus().name())")
     @Mapping(target = "userRating", source = "ad.user.rating")
     AdResponseDto toDto(Ad ad);
 
+    AdResponseDto copy(AdResponseDto adResponseDto);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "isPromoted", ignore = true)
     @Mapping(target = "promotionEndDate", ignore = true)
@@ -23,6 +24,9 @@ public interface AdMapper {
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
+    @Mapping(target = "rankScore", ignore = true)
+    @Mapping(target = "viewCount", ignore = true)
     @Mapping(target = "imageUrl", ignore = true)
     Ad toEntity(AdUpdateDto adUpdateDto);
 
@@ -34,6 +38,9 @@ public interface AdMapper {
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
+    @Mapping(target = "rankScore", ignore = true)
+    @Mapping(target = "viewCount", ignore = true)
     @Mapping(target = "imageUrl", ignore = true)
     Ad toEntity(AdCreateDto adCreateDto);
 }
@@ -2,6 +2,7 @@ package com.neekostar.adsystem.mapper;
 
 import com.neekostar.adsystem.dto.ChatResponseDto;
 import com.neekostar.adsystem.model.Chat;
+import com.neekostar.adsystem.model.ChatInbox;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -13,10 +14,21 @@ public interface ChatMapper {
     @Mapping(target = "username2", source = "chat.user2.username")
     @Mapping(target = "messages", source = "chat.messages")
     @Mapping(target = "unreadMessagesCount", source = "chat.unreadMessagesCount")
+    @Mapping(target = "lastMessagePreview", ignore = true)
     @Mapping(target = "createdAt", source = "chat.createdAt")
     @Mapping(target = "updatedAt", source = "chat.updatedAt")
     ChatResponseDto toDto(Chat chat);
 
+    @Mapping(target = "chatId", source = "chat.id")
+    @Mapping(target = "username1", source = "chat.user1.username")
+    @Mapping(target = "username2", source = "chat.user2.username")
+    @Mapping(target = "messages", ignore = true)
+    @Mapping(target = "lastMessagePreview", ignore = true)
+    @Mapping(target = "unreadMessagesCount", source = "unreadCount")
+    @Mapping(target = "createdAt", source = "chat.createdAt")
+    @Mapping(target = "updatedAt", source = "chat.updatedAt")
+    ChatResponseDto toListDto(ChatInbox inbox);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "user1", ignore = true)
     @Mapping(target = "user2", ignore = true)
@@ -0,0 +1,10 @@
+package com.neekostar.adsystem.mapper;
+
+import com.neekostar.adsystem.dto.SavedSearchResponseDto;
+import com.neekostar.adsystem.model.SavedSearch;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface SavedSearchMapper {
+    SavedSearchResponseDto toDto(SavedSearch savedSearch);
+}
@@ -3,6 +3,7 @@ package com.neekostar.adsystem.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -59,9 +60,23 @@ public class Ad {
     @Column(nullable = false)
     private AdStatus status = AdStatus.ACTIVE;
 
-    @OneToMany(mappedBy = "ad", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "ad", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Comment> comments = new ArrayList<>();
 
+    // written by incrementCommentCount and the rescoring batch updates only, like view_count below
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private Long commentCount = 0L;
+
+    @ColumnDefault("0")
+    @Column(name = "rank_score", nullable = false, updatable = false)
+    private Double rankScore = 0d;
+
+    // only the batched view counter flush writes this column, saving a loaded ad must not overwrite it
+    @ColumnDefault("0")
+    @Column(name = "view_count", nullable = false, updatable = false)
+    private Long viewCount = 0L;
+
     @Column(name = "image_url")
     private String imageUrl;
 
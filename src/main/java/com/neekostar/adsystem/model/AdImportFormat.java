@@ -0,0 +1,6 @@
+package com.neekostar.adsystem.model;
+
+public enum AdImportFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,42 @@
+package com.neekostar.adsystem.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
+import com.neekostar.adsystem.dto.AdSummaryDto;
+import org.jetbrains.annotations.NotNull;
+
+// keyed on columns that do not change while a client scrolls; rank_score is rewritten by the refresh job
+public record AdCursor(boolean promoted, LocalDateTime createdAt, UUID id) {
+    private static final String SEPARATOR = "|";
+
+    public static @NotNull AdCursor of(@NotNull AdSummaryDto ad) {
+        return new AdCursor(Boolean.TRUE.equals(ad.getIsPromoted()), ad.getCreatedAt(), ad.getId());
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR,
+                promoted ? "1" : "0",
+                createdAt.toString(),
+                id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static @NotNull AdCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !(parts[0].equals("0") || parts[0].equals("1"))) {
+                throw new InvalidArgumentException("Invalid cursor");
+            }
+            return new AdCursor(parts[0].equals("1"),
+                    LocalDateTime.parse(parts[1]),
+                    UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidArgumentException("Invalid cursor");
+        }
+    }
+}
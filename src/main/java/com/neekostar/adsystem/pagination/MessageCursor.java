@@ -0,0 +1,36 @@
+package com.neekostar.adsystem.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
+import com.neekostar.adsystem.model.Message;
+import org.jetbrains.annotations.NotNull;
+
+public record MessageCursor(LocalDateTime createdAt, UUID id) {
+    private static final String SEPARATOR = "|";
+
+    public static @NotNull MessageCursor of(@NotNull Message message) {
+        return new MessageCursor(message.getCreatedAt(), message.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static @NotNull MessageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new InvalidArgumentException("Invalid cursor");
+            }
+            return new MessageCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidArgumentException("Invalid cursor");
+        }
+    }
+}
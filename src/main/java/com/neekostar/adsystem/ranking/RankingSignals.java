@@ -0,0 +1,33 @@
+package com.neekostar.adsystem.ranking;
+
+import java.time.LocalDateTime;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.repository.projection.RankingView;
+import org.jetbrains.annotations.NotNull;
+
+public record RankingSignals(boolean promoted,
+                             LocalDateTime promotionEndDate,
+                             float sellerRating,
+                             LocalDateTime createdAt,
+                             long commentCount) {
+
+    public static @NotNull RankingSignals of(@NotNull Ad ad) {
+        return new RankingSignals(Boolean.TRUE.equals(ad.getIsPromoted()),
+                ad.getPromotionEndDate(),
+                ad.getUser() != null && ad.getUser().getRating() != null ? ad.getUser().getRating() : 0f,
+                ad.getCreatedAt(),
+                ad.getCommentCount() != null ? ad.getCommentCount() : 0L);
+    }
+
+    public static @NotNull RankingSignals of(@NotNull RankingView view) {
+        return new RankingSignals(Boolean.TRUE.equals(view.getIsPromoted()),
+                view.getPromotionEndDate(),
+                view.getSellerRating() != null ? view.getSellerRating() : 0f,
+                view.getCreatedAt(),
+                view.getCommentCount() != null ? view.getCommentCount() : 0L);
+    }
+
+    public boolean promotedAt(@NotNull LocalDateTime now) {
+        return promoted && promotionEndDate != null && promotionEndDate.isAfter(now);
+    }
+}
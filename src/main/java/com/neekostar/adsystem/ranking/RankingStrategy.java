@@ -0,0 +1,8 @@
+package com.neekostar.adsystem.ranking;
+
+import java.time.LocalDateTime;
+
+// scores an ad for the default feed order, higher first; the result is stored in ads.rank_score
+public interface RankingStrategy {
+    double score(RankingSignals signals, LocalDateTime now);
+}
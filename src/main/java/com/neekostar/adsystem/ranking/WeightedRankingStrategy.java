@@ -0,0 +1,47 @@
+package com.neekostar.adsystem.ranking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// linear blend of the signals; a bean of another RankingStrategy marked @Primary replaces it
+@Component
+public class WeightedRankingStrategy implements RankingStrategy {
+    private final double promotionWeight;
+    private final double ratingWeight;
+    private final double recencyWeight;
+    private final double engagementWeight;
+    private final double recencyHalfLifeHours;
+
+    @Autowired
+    public WeightedRankingStrategy(@Value("${ads.ranking.weights.promotion:100}") double promotionWeight,
+                                   @Value("${ads.ranking.weights.rating:10}") double ratingWeight,
+                                   @Value("${ads.ranking.weights.recency:20}") double recencyWeight,
+                                   @Value("${ads.ranking.weights.engagement:5}") double engagementWeight,
+                                   @Value("${ads.ranking.recency-half-life:P3D}") Duration recencyHalfLife) {
+        this.promotionWeight = promotionWeight;
+        this.ratingWeight = ratingWeight;
+        this.recencyWeight = recencyWeight;
+        this.engagementWeight = engagementWeight;
+        this.recencyHalfLifeHours = recencyHalfLife.toMinutes() / 60.0;
+    }
+
+    @Override
+    public double score(@NotNull RankingSignals signals, @NotNull LocalDateTime now) {
+        double score = ratingWeight * signals.sellerRating()
+                + engagementWeight * Math.log1p(signals.commentCount());
+        if (signals.promotedAt(now)) {
+            score += promotionWeight;
+        }
+        // an ad that is not persisted yet has no creation time and counts as brand new
+        double ageHours = signals.createdAt() != null
+                ? Math.max(0, Duration.between(signals.createdAt(), now).toMinutes() / 60.0)
+                : 0;
+        // halves every half-life, so fresh ads get a boost that fades instead of a hard cut-off
+        score += recencyWeight * Math.pow(0.5, ageHours / recencyHalfLifeHours);
+        return score;
+    }
+}
@@ -0,0 +1,139 @@
+package com.neekostar.adsystem.realtime;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import com.neekostar.adsystem.dto.MessageResponseDto;
+import com.neekostar.adsystem.dto.ReadReceiptDto;
+import com.neekostar.adsystem.dto.SavedSearchAlertDto;
+import com.neekostar.adsystem.dto.UnreadCountDto;
+import com.neekostar.adsystem.event.MessageSentEvent;
+import com.neekostar.adsystem.event.MessagesReadEvent;
+import com.neekostar.adsystem.event.SavedSearchMatchesEvent;
+import com.neekostar.adsystem.event.UserNotificationEvent;
+import com.neekostar.adsystem.model.ChatInbox;
+import com.neekostar.adsystem.repository.ChatInboxRepository;
+import com.neekostar.adsystem.search.SavedSearchMatch;
+import com.neekostar.adsystem.service.EncryptionService;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Component
+public class ChatNotificationPublisher {
+    public static final String MESSAGES_DESTINATION = "/queue/messages";
+    public static final String RECEIPTS_DESTINATION = "/queue/receipts";
+    public static final String UNREAD_DESTINATION = "/queue/unread";
+    public static final String SAVED_SEARCH_DESTINATION = "/queue/saved-searches";
+
+    private final ChatRelayChannel chatRelayChannel;
+    private final ChatInboxRepository chatInboxRepository;
+    private final EncryptionService encryptionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public ChatNotificationPublisher(ChatRelayChannel chatRelayChannel,
+                                     ChatInboxRepository chatInboxRepository,
+                                     EncryptionService encryptionService,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.chatRelayChannel = chatRelayChannel;
+        this.chatInboxRepository = chatInboxRepository;
+        this.encryptionService = encryptionService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageSent(@NotNull MessageSentEvent event) {
+        RelayedMessage message = new RelayedMessage(event.getChatId(), event.getMessageId(),
+                event.getSenderUsername(), event.getRecipientUsername(),
+                event.getEncryptedContent(), event.getCreatedAt());
+        // the sender gets it too, so their other tabs and devices show the message
+        send(event.getRecipientUsername(), message);
+        send(event.getSenderUsername(), message);
+        send(event.getRecipientUsername(), unreadCount(event.getChatId(), event.getRecipientId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessagesRead(@NotNull MessagesReadEvent event) {
+        send(event.getSenderUsername(), new ReadReceiptDto(event.getChatId(), event.getReaderUsername(),
+                event.getUpToMessageId(), event.getCount()));
+        send(event.getReaderUsername(), unreadCount(event.getChatId(), event.getReaderId()));
+    }
+
+    // batches come from the notification scheduler, outside any transaction
+    @EventListener
+    public void onSavedSearchMatches(@NotNull SavedSearchMatchesEvent event) {
+        // one alert per saved search rather than per ad, so an import burst stays within the stream buffer
+        Map<UUID, List<SavedSearchMatch>> bySearch = new LinkedHashMap<>();
+        event.getMatches().forEach(match ->
+                bySearch.computeIfAbsent(match.savedSearchId(), id -> new ArrayList<>()).add(match));
+        bySearch.forEach((savedSearchId, matches) -> {
+            List<UUID> adIds = new ArrayList<>(matches.stream().map(SavedSearchMatch::adId).toList());
+            send(matches.get(0).username(), new SavedSearchAlertDto(savedSearchId, adIds));
+        });
+    }
+
+    public void receive(@NotNull ChatRelayMessage message) {
+        deliver(message.username(), message.payload());
+    }
+
+    private void send(String username, Serializable payload) {
+        deliver(username, payload);
+        chatRelayChannel.publish(username, payload);
+    }
+
+    private void deliver(String username, Serializable payload) {
+        String destination;
+        Object body;
+        if (payload instanceof RelayedMessage message) {
+            destination = MESSAGES_DESTINATION;
+            body = toDto(message);
+        } else if (payload instanceof ReadReceiptDto) {
+            destination = RECEIPTS_DESTINATION;
+            body = payload;
+        } else if (payload instanceof UnreadCountDto) {
+            destination = UNREAD_DESTINATION;
+            body = payload;
+        } else if (payload instanceof SavedSearchAlertDto) {
+            destination = SAVED_SEARCH_DESTINATION;
+            body = payload;
+        } else {
+            log.warn("Ignoring unknown notification {} for user {}", payload.getClass().getName(), username);
+            return;
+        }
+        eventPublisher.publishEvent(new UserNotificationEvent(username, destination, body));
+    }
+
+    private UnreadCountDto unreadCount(UUID chatId, UUID userId) {
+        int unread = chatInboxRepository.findByChatIdAndUserId(chatId, userId)
+                .map(ChatInbox::getUnreadCount)
+                .orElse(0);
+        long unreadChats = chatInboxRepository.countByUserIdAndUnreadCountGreaterThan(userId, 0);
+        long totalUnread = chatInboxRepository.sumUnreadCountByUserId(userId);
+        return new UnreadCountDto(chatId, unread, (int) unreadChats, (int) totalUnread);
+    }
+
+    private MessageResponseDto toDto(RelayedMessage message) {
+        MessageResponseDto dto = new MessageResponseDto();
+        dto.setChatId(message.chatId());
+        dto.setMessageId(message.messageId());
+        dto.setSenderUsername(message.senderUsername());
+        dto.setRecipientUsername(message.recipientUsername());
+        try {
+            dto.setContent(encryptionService.decrypt(message.encryptedContent()));
+        } catch (Exception e) {
+            log.error("Failed to decrypt message with id '{}': {}", message.messageId(), e.getMessage());
+        }
+        dto.setCreatedAt(message.createdAt());
+        dto.setUpdatedAt(message.createdAt());
+        return dto;
+    }
+}
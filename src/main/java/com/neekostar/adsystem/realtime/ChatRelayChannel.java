@@ -0,0 +1,55 @@
+package com.neekostar.adsystem.realtime;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+@Slf4j
+public class ChatRelayChannel {
+    private final RedisConnectionFactory connectionFactory;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdkSerializationRedisSerializer serializer = new JdkSerializationRedisSerializer();
+
+    public ChatRelayChannel(RedisConnectionFactory connectionFactory, String channel) {
+        this.connectionFactory = connectionFactory;
+        this.channel = channel;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void publish(String username, Serializable payload) {
+        byte[] body = serializer.serialize(new ChatRelayMessage(nodeId, username, payload));
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.publish(channel.getBytes(StandardCharsets.UTF_8), body);
+        } catch (RuntimeException e) {
+            // sessions on other nodes miss the push and catch up on their next history or inbox read
+            log.warn("Failed to relay {} for user {}", payload.getClass().getSimpleName(), username, e);
+        }
+    }
+
+    public void receive(byte[] body, Consumer<ChatRelayMessage> localDelivery) {
+        Object decoded;
+        try {
+            decoded = serializer.deserialize(body);
+        } catch (SerializationException e) {
+            log.warn("Ignoring malformed chat relay message", e);
+            return;
+        }
+        // the publishing node already delivered to its own sessions
+        if (!(decoded instanceof ChatRelayMessage message) || nodeId.equals(message.nodeId())) {
+            return;
+        }
+        log.trace("Relayed {} for user {} from node {}", message.payload().getClass().getSimpleName(),
+                message.username(), message.nodeId());
+        localDelivery.accept(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.neekostar.adsystem.realtime;
+
+import java.io.Serializable;
+
+public record ChatRelayMessage(String nodeId, String username, Serializable payload) implements Serializable {
+    private static final long serialVersionUID = 1L;
+}
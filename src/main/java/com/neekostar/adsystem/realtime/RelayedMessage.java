@@ -0,0 +1,15 @@
+package com.neekostar.adsystem.realtime;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// crosses Redis with the stored ciphertext, the delivering node decrypts it
+public record RelayedMessage(UUID chatId,
+                             UUID messageId,
+                             String senderUsername,
+                             String recipientUsername,
+                             String encryptedContent,
+                             LocalDateTime createdAt) implements Serializable {
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,301 @@
+package com.neekostar.adsystem.realtime;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import com.neekostar.adsystem.event.UserNotificationEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@Component
+public class SseEmitterRegistry {
+    public static final String UNREAD_INFO_EVENT = "unread-info";
+    static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private final Map<String, Deque<Connection>> connections = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int maxConnectionsPerUser;
+    private final long writeTimeoutNanos;
+    private final ExecutorService dispatcher;
+
+    @Autowired
+    public SseEmitterRegistry(@Value("${ads.realtime.sse.timeout:PT30M}") Duration timeout,
+                              @Value("${ads.realtime.sse.buffer-size:32}") int bufferSize,
+                              @Value("${ads.realtime.sse.max-connections-per-user:5}") int maxConnectionsPerUser,
+                              @Value("${ads.realtime.sse.write-timeout:PT10S}") Duration writeTimeout,
+                              @Value("${ads.realtime.sse.dispatch-threads:4}") int dispatchThreads,
+                              @Value("${ads.realtime.sse.max-dispatch-threads:64}") int maxDispatchThreads) {
+        // servlet writes block, so a stalled socket holds its thread; the pool grows past the core threads
+        // instead of queueing, so one slow client never delays the streams behind it
+        this(timeout, bufferSize, maxConnectionsPerUser, writeTimeout,
+                new ThreadPoolExecutor(dispatchThreads, Math.max(dispatchThreads, maxDispatchThreads),
+                        60L, TimeUnit.SECONDS, new SynchronousQueue<>(), new CustomizableThreadFactory("sse-dispatch-")));
+    }
+
+    SseEmitterRegistry(Duration timeout,
+                       int bufferSize,
+                       int maxConnectionsPerUser,
+                       Duration writeTimeout,
+                       ExecutorService dispatcher) {
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.dispatcher = dispatcher;
+    }
+
+    // the stream is registered before the snapshot is read, so a notification published meanwhile is buffered
+    // behind the snapshot instead of being lost
+    public SseEmitter open(@NotNull String username, @NotNull Supplier<?> snapshot) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Connection connection = new Connection(username, emitter, bufferSize, dispatcher, this::remove);
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(e -> connection.close());
+
+        Deque<Connection> userConnections = connections.compute(username, (key, existing) -> {
+            Deque<Connection> deque = existing != null ? existing : new ConcurrentLinkedDeque<>();
+            deque.addLast(connection);
+            return deque;
+        });
+        // a user reopening tabs should not pile up streams, the oldest one makes room
+        while (userConnections.size() > maxConnectionsPerUser) {
+            Connection oldest = userConnections.peekFirst();
+            if (oldest == null || oldest == connection) {
+                break;
+            }
+            oldest.close();
+        }
+        log.debug("Opened event stream for user {}. Streams of user: {}", username, userConnections.size());
+
+        Object initial;
+        try {
+            initial = snapshot.get();
+        } catch (RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        connection.start(event(UNREAD_INFO_EVENT, initial));
+        return emitter;
+    }
+
+    public void send(@NotNull String username, @NotNull String eventName, @NotNull Object payload) {
+        Deque<Connection> userConnections = connections.get(username);
+        if (userConnections == null) {
+            return;
+        }
+        // builders are consumed when sent, every stream needs its own
+        userConnections.forEach(connection -> connection.offer(event(eventName, payload)));
+    }
+
+    public void heartbeat() {
+        long now = System.nanoTime();
+        connections.values().forEach(userConnections -> userConnections.forEach(connection -> {
+            if (connection.stalled(now, writeTimeoutNanos)) {
+                log.warn("Event stream of user {} has been blocked on a write for over {} ms, dropping it",
+                        connection.username, TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos));
+                connection.abandon();
+            } else {
+                connection.offer(SseEmitter.event().comment(HEARTBEAT_COMMENT));
+            }
+        }));
+    }
+
+    public int activeConnections() {
+        return connections.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    @EventListener
+    public void onUserNotification(@NotNull UserNotificationEvent event) {
+        String destination = event.getDestination();
+        send(event.getUsername(), destination.substring(destination.lastIndexOf('/') + 1), event.getPayload());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Closing {} event streams", activeConnections());
+        connections.values().forEach(userConnections -> userConnections.forEach(Connection::close));
+        dispatcher.shutdownNow();
+    }
+
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.username, (key, userConnections) -> {
+            userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    private static SseEmitter.SseEventBuilder event(String name, Object payload) {
+        return SseEmitter.event().name(name).data(payload, MediaType.APPLICATION_JSON);
+    }
+
+    static final class Connection {
+        private final String username;
+        private final SseEmitter emitter;
+        private final int capacity;
+        private final Executor dispatcher;
+        private final Consumer<Connection> onClose;
+        private final Deque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        // until the snapshot is queued, events are only buffered
+        private boolean started;
+        private boolean draining;
+        private boolean closed;
+        // System.nanoTime() when the write in progress started, 0 while no write is in progress
+        private volatile long writeStartedNanos;
+
+        Connection(String username,
+                   SseEmitter emitter,
+                   int capacity,
+                   Executor dispatcher,
+                   Consumer<Connection> onClose) {
+            this.username = username;
+            this.emitter = emitter;
+            this.capacity = capacity;
+            this.dispatcher = dispatcher;
+            this.onClose = onClose;
+        }
+
+        boolean offer(SseEmitter.SseEventBuilder event) {
+            boolean overflow = false;
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                if (pending.size() >= capacity) {
+                    overflow = true;
+                } else {
+                    pending.addLast(event);
+                    if (!started || draining) {
+                        return true;
+                    }
+                    draining = true;
+                }
+            }
+            if (overflow) {
+                // a client that cannot keep up is cut off, EventSource reconnects and starts from a fresh snapshot
+                log.warn("Event stream of user {} fell {} events behind, closing it", username, capacity);
+                close();
+                return false;
+            }
+            return dispatch();
+        }
+
+        void start(SseEmitter.SseEventBuilder snapshot) {
+            synchronized (this) {
+                if (closed || started) {
+                    return;
+                }
+                started = true;
+                // events buffered since registration carry absolute values newer than or equal to the snapshot
+                pending.addFirst(snapshot);
+                draining = true;
+            }
+            dispatch();
+        }
+
+        private boolean dispatch() {
+            try {
+                // idle streams hold no thread, a dispatcher thread only runs while events are pending
+                dispatcher.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+            }
+            onClose.accept(this);
+            completeEmitter();
+        }
+
+        // stops taking events without touching the emitter: completing it would wait on the blocked write,
+        // the draining thread completes it once the write returns or the socket times out
+        void abandon() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+            }
+            onClose.accept(this);
+        }
+
+        boolean stalled(long nowNanos, long writeTimeoutNanos) {
+            long started = writeStartedNanos;
+            return started != 0 && nowNanos - started > writeTimeoutNanos;
+        }
+
+        synchronized int pendingEvents() {
+            return pending.size();
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                boolean abandoned;
+                synchronized (this) {
+                    abandoned = closed;
+                    event = closed ? null : pending.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                    }
+                }
+                if (event == null) {
+                    if (abandoned) {
+                        completeEmitter();
+                    }
+                    return;
+                }
+                writeStartedNanos = System.nanoTime();
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Event stream of user {} is gone: {}", username, e.getMessage());
+                    close();
+                    return;
+                } finally {
+                    writeStartedNanos = 0;
+                }
+            }
+        }
+
+        private void completeEmitter() {
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                log.trace("Event stream of user {} was already completed", username);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.neekostar.adsystem.realtime;
+
+import com.neekostar.adsystem.event.UserNotificationEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class StompNotificationForwarder {
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry userRegistry;
+
+    @Autowired
+    public StompNotificationForwarder(SimpMessagingTemplate messagingTemplate, SimpUserRegistry userRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.userRegistry = userRegistry;
+    }
+
+    @EventListener
+    public void onUserNotification(@NotNull UserNotificationEvent event) {
+        // every node sees every relayed notification, most users are connected elsewhere or not at all
+        if (userRegistry.getUser(event.getUsername()) == null) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSendToUser(event.getUsername(), event.getDestination(), event.getPayload());
+        } catch (MessagingException e) {
+            log.warn("Failed to push {} to user {}: {}", event.getDestination(), event.getUsername(), e.getMessage());
+        }
+    }
+}
@@ -1,19 +1,140 @@
 package com.neekostar.adsystem.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import com.neekostar.adsystem.dto.AdSummaryDto;
 import com.neekostar.adsystem.model.Ad;
 import com.neekostar.adsystem.model.AdStatus;
+import com.neekostar.adsystem.repository.projection.AdFacetView;
+import com.neekostar.adsystem.repository.projection.AdTextView;
+import com.neekostar.adsystem.repository.projection.AdTitleView;
+import com.neekostar.adsystem.repository.projection.ExpiredPromotionView;
+import com.neekostar.adsystem.repository.projection.RankingView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface AdRepository extends JpaRepository<Ad, UUID> {
-    List<Ad> findAll(Specification<Ad> spec, Sort sort);
+public interface AdRepository extends JpaRepository<Ad, UUID>, JpaSpecificationExecutor<Ad>, AdSummaryRepository,
+        AdStreamRepository {
+    String SUMMARY_SELECT = """
+            SELECT new com.neekostar.adsystem.dto.AdSummaryDto(
+                a.id, a.title, a.price, a.city, a.category, a.imageUrl, a.isPromoted, u.username, u.rating, a.createdAt, a.rankScore)
+            FROM Ad a JOIN a.user u
+            """;
 
-    Page<Ad> findAdByUserUsernameAndStatus(String username, AdStatus status, Pageable pageable);
+    String RANKING_SELECT = """
+            SELECT a.id AS id, a.isPromoted AS isPromoted, a.promotionEndDate AS promotionEndDate,
+                   u.rating AS sellerRating, a.createdAt AS createdAt, a.commentCount AS commentCount
+            FROM Ad a JOIN a.user u
+            """;
+
+    @Query(SUMMARY_SELECT + "WHERE a.id IN :ids")
+    List<AdSummaryDto> findSummariesByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query(value = SUMMARY_SELECT + """
+            WHERE a.status = :status
+              AND a.isPromoted = true
+              AND a.promotionEndDate > :now
+            ORDER BY a.createdAt DESC, a.id
+            """,
+            countQuery = """
+                    SELECT count(a) FROM Ad a
+                    WHERE a.status = :status
+                      AND a.isPromoted = true
+                      AND a.promotionEndDate > :now
+                    """)
+    Page<AdSummaryDto> findPromoted(@Param("status") AdStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + """
+            WHERE a.status = :status
+              AND (a.isPromoted = false OR a.promotionEndDate IS NULL OR a.promotionEndDate <= :now)
+            ORDER BY a.createdAt DESC, a.id
+            """,
+            countQuery = """
+                    SELECT count(a) FROM Ad a
+                    WHERE a.status = :status
+                      AND (a.isPromoted = false OR a.promotionEndDate IS NULL OR a.promotionEndDate <= :now)
+                    """)
+    Page<AdSummaryDto> findNonPromoted(@Param("status") AdStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT a.id AS id, a.city AS city, a.category AS category, a.price AS price FROM Ad a WHERE a.status = :status")
+    Stream<AdFacetView> findFacetViewsByStatus(@Param("status") AdStatus status);
+
+    @Query("SELECT a.id AS id, a.title AS title FROM Ad a WHERE a.status = :status")
+    Stream<AdTitleView> findTitleViewsByStatus(@Param("status") AdStatus status);
+
+    @Query("""
+            SELECT a.id AS id, a.user.id AS userId, a.category AS category, a.title AS title, a.description AS description
+            FROM Ad a WHERE a.status = :status
+            """)
+    Stream<AdTextView> findTextViewsByStatus(@Param("status") AdStatus status);
+
+    @Query(value = """
+            SELECT a.id FROM ads a
+            WHERE a.status = 'ACTIVE'
+              AND a.search_vector @@ websearch_to_tsquery('russian', :keyword)
+              AND (CAST(:city AS varchar) IS NULL OR a.city = CAST(:city AS varchar))
+              AND (CAST(:category AS varchar) IS NULL OR a.category = CAST(:category AS varchar))
+              AND (CAST(:minPrice AS numeric) IS NULL OR a.price >= CAST(:minPrice AS numeric))
+              AND (CAST(:maxPrice AS numeric) IS NULL OR a.price <= CAST(:maxPrice AS numeric))
+            ORDER BY CASE WHEN a.is_promoted AND a.promotion_end_date > now() THEN 1 ELSE 0 END DESC,
+                     ts_rank(a.search_vector, websearch_to_tsquery('russian', :keyword)) DESC,
+                     a.rank_score DESC,
+                     a.id
+            """,
+            countQuery = """
+                    SELECT count(*) FROM ads a
+                    WHERE a.status = 'ACTIVE'
+                      AND a.search_vector @@ websearch_to_tsquery('russian', :keyword)
+                      AND (CAST(:city AS varchar) IS NULL OR a.city = CAST(:city AS varchar))
+                      AND (CAST(:category AS varchar) IS NULL OR a.category = CAST(:category AS varchar))
+                      AND (CAST(:minPrice AS numeric) IS NULL OR a.price >= CAST(:minPrice AS numeric))
+                      AND (CAST(:maxPrice AS numeric) IS NULL OR a.price <= CAST(:maxPrice AS numeric))
+                    """,
+            nativeQuery = true)
+    Page<UUID> searchFullText(@Param("keyword") String keyword,
+                              @Param("city") String city,
+                              @Param("category") String category,
+                              @Param("minPrice") BigDecimal minPrice,
+                              @Param("maxPrice") BigDecimal maxPrice,
+                              Pageable pageable);
+
+    @Query("""
+            SELECT a.id AS id, a.user.username AS username, a.city AS city, a.category AS category FROM Ad a
+            WHERE a.isPromoted = true
+              AND a.promotionEndDate <= :now
+            ORDER BY a.promotionEndDate
+            """)
+    List<ExpiredPromotionView> findExpiredPromotions(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query(RANKING_SELECT + "WHERE a.id IN :ids")
+    List<RankingView> findRankingViewsByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query(RANKING_SELECT + "WHERE u.id = :userId AND a.status = :status")
+    List<RankingView> findRankingViewsBySeller(@Param("userId") UUID userId, @Param("status") AdStatus status);
+
+    @Query(RANKING_SELECT + "WHERE a.status = :status AND a.id > :afterId ORDER BY a.id")
+    List<RankingView> findRankingViewsAfter(@Param("status") AdStatus status, @Param("afterId") UUID afterId, Pageable pageable);
+
+    @Query("SELECT a.viewCount FROM Ad a WHERE a.id = :id")
+    Optional<Long> findViewCountById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE Ad a SET a.commentCount = a.commentCount + 1 WHERE a.id = :id")
+    int incrementCommentCount(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE Ad a SET a.isPromoted = false WHERE a.id IN :ids AND a.isPromoted = true")
+    int clearPromotions(@Param("ids") Collection<UUID> ids);
 }
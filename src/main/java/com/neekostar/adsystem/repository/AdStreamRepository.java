@@ -0,0 +1,9 @@
+package com.neekostar.adsystem.repository;
+
+import java.util.stream.Stream;
+import com.neekostar.adsystem.model.Ad;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface AdStreamRepository {
+    Stream<Ad> streamAds(Specification<Ad> spec, int fetchSize);
+}
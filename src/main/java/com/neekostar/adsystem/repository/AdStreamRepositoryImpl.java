@@ -0,0 +1,40 @@
+package com.neekostar.adsystem.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.stream.Stream;
+import com.neekostar.adsystem.model.Ad;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+public class AdStreamRepositoryImpl implements AdStreamRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Ad> streamAds(Specification<Ad> spec, int fetchSize) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ad> query = criteriaBuilder.createQuery(Ad.class);
+        Root<Ad> root = query.from(Ad.class);
+        // the seller is eager, fetching it in the same row avoids a select per ad
+        root.fetch("user", JoinType.INNER);
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, criteriaBuilder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        // no order by, so the database can stream rows without sorting the whole result first;
+        // the fetch size makes the driver use a cursor instead of buffering every row
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
@@ -0,0 +1,14 @@
+package com.neekostar.adsystem.repository;
+
+import java.util.List;
+import com.neekostar.adsystem.dto.AdSummaryDto;
+import com.neekostar.adsystem.model.Ad;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface AdSummaryRepository {
+    Page<AdSummaryDto> findSummaries(Specification<Ad> spec, Pageable pageable);
+
+    List<AdSummaryDto> findSummaries(Specification<Ad> spec, int limit);
+}
@@ -0,0 +1,88 @@
+package com.neekostar.adsystem.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import com.neekostar.adsystem.dto.AdSummaryDto;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.User;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+public class AdSummaryRepositoryImpl implements AdSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<AdSummaryDto> findSummaries(Specification<Ad> spec, @NotNull Pageable pageable) {
+        TypedQuery<AdSummaryDto> query = summaryQuery(spec, pageable);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<AdSummaryDto> findSummaries(Specification<Ad> spec, int limit) {
+        return summaryQuery(spec, Pageable.unpaged())
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private @NotNull TypedQuery<AdSummaryDto> summaryQuery(Specification<Ad> spec, @NotNull Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AdSummaryDto> query = criteriaBuilder.createQuery(AdSummaryDto.class);
+        Root<Ad> root = query.from(Ad.class);
+
+        // implicit path so the join to users is shared with the ordering specifications
+        Path<User> user = root.get("user");
+        query.select(criteriaBuilder.construct(AdSummaryDto.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("price"),
+                root.get("city"),
+                root.get("category"),
+                root.get("imageUrl"),
+                root.get("isPromoted"),
+                user.get("username"),
+                user.get("rating"),
+                root.get("createdAt"),
+                root.get("rankScore")));
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, criteriaBuilder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Ad> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Ad> root = query.from(Ad.class);
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, criteriaBuilder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        // ordering specifications may have added an order by, which a count does not need
+        query.orderBy(List.of());
+        query.select(criteriaBuilder.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,73 @@
+package com.neekostar.adsystem.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import com.neekostar.adsystem.model.ChatInbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChatInboxRepository extends JpaRepository<ChatInbox, UUID> {
+    @Query("""
+            SELECT i FROM ChatInbox i
+            JOIN FETCH i.chat c JOIN FETCH c.user1 JOIN FETCH c.user2
+            WHERE i.user.id = :userId
+            ORDER BY i.lastMessageAt DESC NULLS LAST, c.createdAt DESC
+            """)
+    List<ChatInbox> findInboxByUserId(@Param("userId") UUID userId);
+
+    List<ChatInbox> findByUserId(UUID userId);
+
+    List<ChatInbox> findByChatId(UUID chatId);
+
+    Optional<ChatInbox> findByChatIdAndUserId(UUID chatId, UUID userId);
+
+    long countByUserIdAndUnreadCountGreaterThan(UUID userId, int unreadCount);
+
+    @Query("SELECT COALESCE(SUM(i.unreadCount), 0) FROM ChatInbox i WHERE i.user.id = :userId")
+    long sumUnreadCountByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("""
+            UPDATE ChatInbox i
+            SET i.lastMessageId = :messageId,
+                i.lastMessageAt = :sentAt,
+                i.lastMessagePreview = :preview,
+                i.unreadCount = CASE WHEN i.user.id = :recipientId THEN i.unreadCount + 1 ELSE i.unreadCount END
+            WHERE i.chat.id = :chatId
+            """)
+    int recordMessage(@Param("chatId") UUID chatId,
+                      @Param("recipientId") UUID recipientId,
+                      @Param("messageId") UUID messageId,
+                      @Param("sentAt") LocalDateTime sentAt,
+                      @Param("preview") String preview);
+
+    @Modifying
+    @Query("""
+            UPDATE ChatInbox i
+            SET i.lastMessageId = :messageId, i.lastMessageAt = :sentAt, i.lastMessagePreview = :preview
+            WHERE i.chat.id = :chatId AND i.lastMessageId = :replacedId
+            """)
+    int replaceLastMessage(@Param("chatId") UUID chatId,
+                           @Param("replacedId") UUID replacedId,
+                           @Param("messageId") UUID messageId,
+                           @Param("sentAt") LocalDateTime sentAt,
+                           @Param("preview") String preview);
+
+    @Modifying
+    @Query("UPDATE ChatInbox i SET i.lastMessagePreview = :preview WHERE i.chat.id = :chatId AND i.lastMessageId = :messageId")
+    int updatePreview(@Param("chatId") UUID chatId, @Param("messageId") UUID messageId, @Param("preview") String preview);
+
+    @Modifying
+    @Query("""
+            UPDATE ChatInbox i
+            SET i.unreadCount = CASE WHEN i.unreadCount > :count THEN i.unreadCount - :count ELSE 0 END
+            WHERE i.chat.id = :chatId AND i.user.id = :userId
+            """)
+    int decrementUnread(@Param("chatId") UUID chatId, @Param("userId") UUID userId, @Param("count") int count);
+}
@@ -1,11 +1,37 @@
 package com.neekostar.adsystem.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 import com.neekostar.adsystem.model.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
-    void deleteByAdId(UUID adId);
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.ad.id = :adId")
+    void deleteByAdId(@Param("adId") UUID adId);
+
+    @Query("""
+            SELECT c FROM Comment c JOIN FETCH c.user
+            WHERE c.ad.id = :adId
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<Comment> findLatestByAdId(@Param("adId") UUID adId, Limit limit);
+
+    @Query("""
+            SELECT c FROM Comment c JOIN FETCH c.user
+            WHERE c.ad.id = :adId
+              AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id))
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<Comment> findByAdIdBefore(@Param("adId") UUID adId,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") UUID id,
+                                   Limit limit);
 }
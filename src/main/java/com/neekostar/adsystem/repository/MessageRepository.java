@@ -1,15 +1,66 @@
 package com.neekostar.adsystem.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import com.neekostar.adsystem.model.Chat;
 import com.neekostar.adsystem.model.Message;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, UUID> {
-    List<Message> findByChatOrderByCreatedAtAsc(Chat chat);
-
     List<Message> findByChatId(UUID chatId);
+
+    long countByChatIdAndRecipientIdAndReadFalse(UUID chatId, UUID recipientId);
+
+    @Modifying
+    @Query("""
+            UPDATE Message m SET m.read = true
+            WHERE m.chat.id = :chatId AND m.recipient.id = :recipientId AND m.read = false
+            """)
+    int markAllAsRead(@Param("chatId") UUID chatId, @Param("recipientId") UUID recipientId);
+
+    @Modifying
+    @Query("""
+            UPDATE Message m SET m.read = true
+            WHERE m.chat.id = :chatId AND m.recipient.id = :recipientId AND m.read = false
+              AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id <= :id))
+            """)
+    int markAsReadUpTo(@Param("chatId") UUID chatId,
+                       @Param("recipientId") UUID recipientId,
+                       @Param("createdAt") LocalDateTime createdAt,
+                       @Param("id") UUID id);
+
+    @Query("""
+            SELECT m FROM Message m JOIN FETCH m.sender JOIN FETCH m.recipient
+            WHERE m.chat.id = :chatId
+            ORDER BY m.createdAt DESC, m.id DESC
+            """)
+    List<Message> findLatestByChatId(@Param("chatId") UUID chatId, Limit limit);
+
+    @Query("""
+            SELECT m FROM Message m JOIN FETCH m.sender JOIN FETCH m.recipient
+            WHERE m.chat.id = :chatId
+              AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id))
+            ORDER BY m.createdAt DESC, m.id DESC
+            """)
+    List<Message> findByChatIdBefore(@Param("chatId") UUID chatId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") UUID id,
+                                     Limit limit);
+
+    @Query("""
+            SELECT m FROM Message m JOIN FETCH m.sender JOIN FETCH m.recipient
+            WHERE m.chat.id = :chatId
+              AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id))
+            ORDER BY m.createdAt ASC, m.id ASC
+            """)
+    List<Message> findByChatIdAfter(@Param("chatId") UUID chatId,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") UUID id,
+                                    Limit limit);
 }
@@ -0,0 +1,24 @@
+package com.neekostar.adsystem.repository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import com.neekostar.adsystem.model.SavedSearch;
+import com.neekostar.adsystem.repository.projection.SavedSearchView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, UUID> {
+    List<SavedSearch> findByUserUsernameOrderByCreatedAtDesc(String username);
+
+    long countByUserUsername(String username);
+
+    @Query("""
+            SELECT s.id AS id, u.id AS userId, u.username AS username, s.city AS city, s.category AS category,
+                   s.minPrice AS minPrice, s.maxPrice AS maxPrice, s.keyword AS keyword
+            FROM SavedSearch s JOIN s.user u
+            """)
+    Stream<SavedSearchView> streamAllViews();
+}
@@ -0,0 +1,15 @@
+package com.neekostar.adsystem.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import com.neekostar.adsystem.model.Category;
+
+public interface AdFacetView {
+    UUID getId();
+
+    String getCity();
+
+    Category getCategory();
+
+    BigDecimal getPrice();
+}
@@ -0,0 +1,16 @@
+package com.neekostar.adsystem.repository.projection;
+
+import java.util.UUID;
+import com.neekostar.adsystem.model.Category;
+
+public interface AdTextView {
+    UUID getId();
+
+    UUID getUserId();
+
+    Category getCategory();
+
+    String getTitle();
+
+    String getDescription();
+}
@@ -0,0 +1,9 @@
+package com.neekostar.adsystem.repository.projection;
+
+import java.util.UUID;
+
+public interface AdTitleView {
+    UUID getId();
+
+    String getTitle();
+}
@@ -0,0 +1,14 @@
+package com.neekostar.adsystem.repository.projection;
+
+import java.util.UUID;
+import com.neekostar.adsystem.model.Category;
+
+public interface ExpiredPromotionView {
+    UUID getId();
+
+    String getUsername();
+
+    String getCity();
+
+    Category getCategory();
+}
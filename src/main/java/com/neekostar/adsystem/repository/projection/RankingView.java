@@ -0,0 +1,18 @@
+package com.neekostar.adsystem.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface RankingView {
+    UUID getId();
+
+    Boolean getIsPromoted();
+
+    LocalDateTime getPromotionEndDate();
+
+    Float getSellerRating();
+
+    LocalDateTime getCreatedAt();
+
+    Long getCommentCount();
+}
@@ -0,0 +1,23 @@
+package com.neekostar.adsystem.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import com.neekostar.adsystem.model.Category;
+
+public interface SavedSearchView {
+    UUID getId();
+
+    UUID getUserId();
+
+    String getUsername();
+
+    String getCity();
+
+    Category getCategory();
+
+    BigDecimal getMinPrice();
+
+    BigDecimal getMaxPrice();
+
+    String getKeyword();
+}
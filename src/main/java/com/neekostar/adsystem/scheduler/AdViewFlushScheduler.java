@@ -0,0 +1,24 @@
+package com.neekostar.adsystem.scheduler;
+
+import com.neekostar.adsystem.service.AdViewService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class AdViewFlushScheduler {
+    private final AdViewService adViewService;
+
+    @Autowired
+    public AdViewFlushScheduler(AdViewService adViewService) {
+        this.adViewService = adViewService;
+    }
+
+    @Scheduled(fixedDelayString = "${ads.views.flush-interval:PT5S}")
+    public void flushViewCounts() {
+        log.trace("Flushing ad view counts");
+        adViewService.flush();
+    }
+}
@@ -0,0 +1,81 @@
+package com.neekostar.adsystem.scheduler;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import com.neekostar.adsystem.cache.AdCacheInvalidator;
+import com.neekostar.adsystem.cache.AdCacheTags;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.repository.projection.ExpiredPromotionView;
+import com.neekostar.adsystem.service.AdRankingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+public class PromotionExpiryScheduler {
+    private final AdRepository adRepository;
+    private final AdCacheInvalidator cacheInvalidator;
+    private final AdRankingService adRankingService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public PromotionExpiryScheduler(AdRepository adRepository,
+                                    AdCacheInvalidator cacheInvalidator,
+                                    AdRankingService adRankingService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${ads.promotion.expiry.batch-size:500}") int batchSize) {
+        this.adRepository = adRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.adRankingService = adRankingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${ads.promotion.expiry.interval:PT1M}")
+    public void expirePromotions() {
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> tags = new HashSet<>();
+        int expiredTotal = 0;
+        List<ExpiredPromotionView> batch;
+
+        do {
+            // each batch commits on its own so a large backlog never holds one long transaction
+            batch = transactionTemplate.execute(status -> {
+                List<ExpiredPromotionView> expired = adRepository.findExpiredPromotions(now, PageRequest.of(0, batchSize));
+                if (!expired.isEmpty()) {
+                    List<UUID> expiredIds = expired.stream().map(ExpiredPromotionView::getId).toList();
+                    adRepository.clearPromotions(expiredIds);
+                    adRankingService.refreshAds(expiredIds);
+                }
+                return expired;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+
+            List<UUID> adIds = batch.stream().map(ExpiredPromotionView::getId).toList();
+            cacheInvalidator.evictAds(adIds);
+            batch.forEach(view -> tags.addAll(
+                    AdCacheTags.forAd(view.getUsername(), view.getCity(), view.getCategory(), true, true)));
+            expiredTotal += batch.size();
+        } while (batch.size() == batchSize);
+
+        if (expiredTotal == 0) {
+            log.trace("No expired promotions found");
+            return;
+        }
+
+        cacheInvalidator.invalidateTags(tags);
+        log.info("Expired {} promotions. Invalidated cache tags: {}", expiredTotal, tags.size());
+    }
+}
@@ -0,0 +1,25 @@
+package com.neekostar.adsystem.scheduler;
+
+import com.neekostar.adsystem.service.AdRankingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// recency keeps decaying without any write to the ad, so scores are refreshed periodically as well
+@Slf4j
+@Component
+public class RankScoreScheduler {
+    private final AdRankingService adRankingService;
+
+    @Autowired
+    public RankScoreScheduler(AdRankingService adRankingService) {
+        this.adRankingService = adRankingService;
+    }
+
+    @Scheduled(fixedDelayString = "${ads.ranking.refresh.interval:PT15M}")
+    public void refreshRankScores() {
+        log.debug("Refreshing ad rank scores");
+        adRankingService.refreshAll();
+    }
+}
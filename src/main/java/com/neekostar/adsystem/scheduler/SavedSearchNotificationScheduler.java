@@ -0,0 +1,24 @@
+package com.neekostar.adsystem.scheduler;
+
+import com.neekostar.adsystem.service.SavedSearchMatchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class SavedSearchNotificationScheduler {
+    private final SavedSearchMatchService savedSearchMatchService;
+
+    @Autowired
+    public SavedSearchNotificationScheduler(SavedSearchMatchService savedSearchMatchService) {
+        this.savedSearchMatchService = savedSearchMatchService;
+    }
+
+    @Scheduled(fixedDelayString = "${ads.saved-search.notify-interval:PT10S}")
+    public void notifyMatches() {
+        log.trace("Flushing saved search matches");
+        savedSearchMatchService.flushMatches();
+    }
+}
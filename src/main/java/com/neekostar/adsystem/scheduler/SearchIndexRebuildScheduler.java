@@ -0,0 +1,49 @@
+package com.neekostar.adsystem.scheduler;
+
+import java.util.List;
+import com.neekostar.adsystem.service.AdFacetService;
+import com.neekostar.adsystem.service.AdPriceStatsService;
+import com.neekostar.adsystem.service.AdSimilarityService;
+import com.neekostar.adsystem.service.AdSuggestService;
+import com.neekostar.adsystem.service.SavedSearchMatchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// change events only reach the node that wrote the ad, so every node reloads its in-memory indexes periodically
+@Slf4j
+@Component
+public class SearchIndexRebuildScheduler {
+    private final List<Rebuild> rebuilds;
+
+    @Autowired
+    public SearchIndexRebuildScheduler(AdFacetService adFacetService,
+                                       AdPriceStatsService adPriceStatsService,
+                                       AdSuggestService adSuggestService,
+                                       SavedSearchMatchService savedSearchMatchService,
+                                       AdSimilarityService adSimilarityService) {
+        this.rebuilds = List.of(
+                new Rebuild("facet", adFacetService::rebuild),
+                new Rebuild("price stats", adPriceStatsService::rebuild),
+                new Rebuild("suggest", adSuggestService::rebuild),
+                new Rebuild("saved search", savedSearchMatchService::rebuild),
+                new Rebuild("similarity", adSimilarityService::rebuild));
+    }
+
+    @Scheduled(initialDelayString = "${ads.search.rebuild-interval:PT10M}", fixedDelayString = "${ads.search.rebuild-interval:PT10M}")
+    public void rebuildIndexes() {
+        log.debug("Rebuilding in-memory search indexes");
+        for (Rebuild rebuild : rebuilds) {
+            try {
+                rebuild.action().run();
+            } catch (RuntimeException e) {
+                // the index keeps serving its previous contents, the next run tries again
+                log.error("Failed to rebuild {} index", rebuild.name(), e);
+            }
+        }
+    }
+
+    private record Rebuild(String name, Runnable action) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.neekostar.adsystem.scheduler;
+
+import com.neekostar.adsystem.realtime.SseEmitterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class SseHeartbeatScheduler {
+    private final SseEmitterRegistry sseEmitterRegistry;
+
+    @Autowired
+    public SseHeartbeatScheduler(SseEmitterRegistry sseEmitterRegistry) {
+        this.sseEmitterRegistry = sseEmitterRegistry;
+    }
+
+    // keeps proxies from closing idle streams and finds the ones whose client is gone
+    @Scheduled(fixedDelayString = "${ads.realtime.sse.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        log.trace("Sending heartbeats to {} event streams", sseEmitterRegistry.activeConnections());
+        sseEmitterRegistry.heartbeat();
+    }
+}
@@ -0,0 +1,88 @@
+package com.neekostar.adsystem.search;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.regex.Pattern;
+import org.jetbrains.annotations.NotNull;
+
+// MinHash signatures over word shingles: the share of equal positions in two signatures
+// estimates the Jaccard similarity of the shingle sets
+public final class MinHash {
+    public static final int SIGNATURE_SIZE = 64;
+    private static final int MAX_TOKENS = 200;
+    private static final Pattern TOKEN_DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final long[] MULTIPLIERS = new long[SIGNATURE_SIZE];
+    private static final long[] INCREMENTS = new long[SIGNATURE_SIZE];
+
+    static {
+        // fixed seed, signatures must stay comparable across rebuilds and instances
+        SplittableRandom random = new SplittableRandom(0x5EED_AD5L);
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1;
+            INCREMENTS[i] = random.nextLong();
+        }
+    }
+
+    private MinHash() {
+    }
+
+    // words and adjacent word pairs; long descriptions are cut so one ad can't dominate the cost
+    public static @NotNull Set<String> shingles(String title, String description) {
+        Set<String> shingles = new LinkedHashSet<>();
+        String text = (title != null ? title : "") + " " + (description != null ? description : "");
+        String previous = null;
+        int tokens = 0;
+        for (String token : TOKEN_DELIMITER.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() < 2) {
+                continue;
+            }
+            shingles.add(token);
+            if (previous != null) {
+                shingles.add(previous + " " + token);
+            }
+            previous = token;
+            if (++tokens == MAX_TOKENS) {
+                break;
+            }
+        }
+        return shingles;
+    }
+
+    public static int @NotNull [] signature(@NotNull Set<String> shingles) {
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String shingle : shingles) {
+            long value = mix(shingle.hashCode());
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int hash = (int) ((MULTIPLIERS[i] * value + INCREMENTS[i]) >>> 32);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    public static double similarity(int @NotNull [] first, int @NotNull [] second) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+
+    // spreads String.hashCode over 64 bits before the linear hash functions are applied
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
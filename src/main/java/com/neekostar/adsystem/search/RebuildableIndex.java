@@ -0,0 +1,77 @@
+package com.neekostar.adsystem.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// an in-memory index kept current by events and rebuilt from the database now and then;
+// changes are idempotent upserts and removals, so replaying one the snapshot already contains is harmless
+public class RebuildableIndex<I> {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildMonitor = new Object();
+    private I index;
+    // non-null while a rebuild streams the database; replayed onto the new index before it is swapped in
+    private List<Consumer<I>> changesDuringRebuild;
+
+    public RebuildableIndex(I initial) {
+        this.index = initial;
+    }
+
+    public <R> R read(Function<I, R> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void update(Consumer<I> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public I rebuild(Supplier<I> loader) {
+        synchronized (rebuildMonitor) {
+            setChangesDuringRebuild(new ArrayList<>());
+            I rebuilt;
+            try {
+                // loaded without the lock, reads and updates keep working on the current index meanwhile
+                rebuilt = loader.get();
+            } catch (RuntimeException e) {
+                setChangesDuringRebuild(null);
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                index = rebuilt;
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return rebuilt;
+        }
+    }
+
+    private void setChangesDuringRebuild(List<Consumer<I>> changes) {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.neekostar.adsystem.search;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.UUID;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.model.SavedSearch;
+import com.neekostar.adsystem.repository.projection.SavedSearchView;
+import org.jetbrains.annotations.NotNull;
+
+// in-memory counterpart of AdSpecification.combineSpecifications, null fields match any ad
+public record SavedSearchCriteria(UUID id,
+                                  UUID userId,
+                                  String username,
+                                  String city,
+                                  Category category,
+                                  BigDecimal minPrice,
+                                  BigDecimal maxPrice,
+                                  String keyword) {
+
+    public static @NotNull SavedSearchCriteria of(@NotNull SavedSearch search) {
+        return new SavedSearchCriteria(search.getId(), search.getUser().getId(), search.getUser().getUsername(),
+                search.getCity(), search.getCategory(), search.getMinPrice(), search.getMaxPrice(), search.getKeyword());
+    }
+
+    public static @NotNull SavedSearchCriteria of(@NotNull SavedSearchView view) {
+        return new SavedSearchCriteria(view.getId(), view.getUserId(), view.getUsername(),
+                view.getCity(), view.getCategory(), view.getMinPrice(), view.getMaxPrice(), view.getKeyword());
+    }
+
+    // city and category are already guaranteed by the index bucket the criteria was found in
+    public boolean matchesRest(@NotNull Ad ad) {
+        if (ad.getPrice() == null) {
+            return minPrice == null && maxPrice == null && matchesKeyword(ad);
+        }
+        if (minPrice != null && ad.getPrice().compareTo(minPrice) < 0) {
+            return false;
+        }
+        if (maxPrice != null && ad.getPrice().compareTo(maxPrice) > 0) {
+            return false;
+        }
+        return matchesKeyword(ad);
+    }
+
+    private boolean matchesKeyword(@NotNull Ad ad) {
+        if (keyword == null) {
+            return true;
+        }
+        String pattern = keyword.toLowerCase(Locale.ROOT);
+        return contains(ad.getTitle(), pattern) || contains(ad.getDescription(), pattern);
+    }
+
+    private static boolean contains(String text, String pattern) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(pattern);
+    }
+}
@@ -0,0 +1,77 @@
+package com.neekostar.adsystem.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.Category;
+import org.jetbrains.annotations.NotNull;
+
+// inverted index of saved searches by (category, city); a null key part is the "any" wildcard.
+// An ad only has to be checked against the four buckets it can fall into, not every saved search.
+// Not thread-safe, callers guard it.
+public class SavedSearchIndex {
+    private final Map<UUID, SavedSearchCriteria> searches = new HashMap<>();
+    private final Map<BucketKey, Map<UUID, SavedSearchCriteria>> buckets = new HashMap<>();
+
+    public int size() {
+        return searches.size();
+    }
+
+    public void add(@NotNull SavedSearchCriteria criteria) {
+        remove(criteria.id());
+        searches.put(criteria.id(), criteria);
+        buckets.computeIfAbsent(new BucketKey(criteria.category(), criteria.city()), key -> new LinkedHashMap<>())
+                .put(criteria.id(), criteria);
+    }
+
+    public void remove(UUID id) {
+        SavedSearchCriteria previous = searches.remove(id);
+        if (previous == null) {
+            return;
+        }
+        BucketKey key = new BucketKey(previous.category(), previous.city());
+        Map<UUID, SavedSearchCriteria> bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    // the seller's own saved searches are skipped
+    public @NotNull List<SavedSearchCriteria> match(@NotNull Ad ad) {
+        UUID sellerId = ad.getUser() != null ? ad.getUser().getId() : null;
+        // a set, so a bucket is not visited twice when the ad itself lacks a category or city
+        Set<BucketKey> keys = new LinkedHashSet<>(Arrays.asList(
+                new BucketKey(ad.getCategory(), ad.getCity()),
+                new BucketKey(ad.getCategory(), null),
+                new BucketKey(null, ad.getCity()),
+                new BucketKey(null, null)));
+
+        List<SavedSearchCriteria> matches = new ArrayList<>();
+        for (BucketKey key : keys) {
+            Map<UUID, SavedSearchCriteria> bucket = buckets.get(key);
+            if (bucket == null) {
+                continue;
+            }
+            for (SavedSearchCriteria criteria : bucket.values()) {
+                if (!Objects.equals(criteria.userId(), sellerId) && criteria.matchesRest(ad)) {
+                    matches.add(criteria);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private record BucketKey(Category category, String city) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.neekostar.adsystem.search;
+
+import java.util.UUID;
+
+public record SavedSearchMatch(UUID savedSearchId, UUID userId, String username, UUID adId) {
+}
@@ -0,0 +1,58 @@
+package com.neekostar.adsystem.security;
+
+import java.security.Principal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+    static final String USER_QUEUE_PREFIX = "/user/queue/";
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.CONNECT && !isAuthenticated(accessor.getUser())) {
+            // the handshake carries the HTTP session, a missing principal means the user never logged in
+            log.warn("Rejected STOMP connect without an authenticated session. Session: {}", accessor.getSessionId());
+            throw new MessageDeliveryException(message, "Authentication required");
+        }
+        if (command == StompCommand.SUBSCRIBE) {
+            String destination = accessor.getDestination();
+            // only the own user queues are readable, the broker resolves them per session
+            if (destination == null || !destination.startsWith(USER_QUEUE_PREFIX)) {
+                log.warn("Rejected STOMP subscription to {}. User: {}", destination, accessor.getUser());
+                throw new MessageDeliveryException(message, "Subscriptions are limited to " + USER_QUEUE_PREFIX + "**");
+            }
+        }
+        if (command == StompCommand.SEND) {
+            // messages are still sent over REST, the socket only pushes
+            log.warn("Rejected STOMP send to {}. User: {}", accessor.getDestination(), accessor.getUser());
+            throw new MessageDeliveryException(message, "Sending over the socket is not supported");
+        }
+        return message;
+    }
+
+    private boolean isAuthenticated(Principal principal) {
+        if (principal instanceof AnonymousAuthenticationToken) {
+            return false;
+        }
+        if (principal instanceof Authentication authentication) {
+            return authentication.isAuthenticated();
+        }
+        return principal != null;
+    }
+}
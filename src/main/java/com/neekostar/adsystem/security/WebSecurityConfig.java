@@ -2,6 +2,7 @@ package com.neekostar.adsystem.security;
 
 import com.neekostar.adsystem.model.User;
 import com.neekostar.adsystem.repository.UserRepository;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -81,6 +82,8 @@ public class WebSecurityConfig {
 //                )
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // the request that started an event stream was authorized already, its async dispatches are not re-checked
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/ws/**").permitAll()
@@ -0,0 +1,15 @@
+package com.neekostar.adsystem.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import com.neekostar.adsystem.model.Category;
+
+public interface AdExportService {
+    long exportAds(String city,
+                   Category category,
+                   BigDecimal minPrice,
+                   BigDecimal maxPrice,
+                   String keyword,
+                   OutputStream output) throws IOException;
+}
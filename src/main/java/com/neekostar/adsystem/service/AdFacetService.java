@@ -0,0 +1,12 @@
+package com.neekostar.adsystem.service;
+
+import com.neekostar.adsystem.dto.AdFacetsDto;
+import com.neekostar.adsystem.model.Category;
+
+import java.math.BigDecimal;
+
+public interface AdFacetService {
+    AdFacetsDto getFacets(String city, Category category, BigDecimal minPrice, BigDecimal maxPrice);
+
+    void rebuild();
+}
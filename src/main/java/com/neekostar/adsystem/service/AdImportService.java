@@ -0,0 +1,9 @@
+package com.neekostar.adsystem.service;
+
+import java.io.InputStream;
+import com.neekostar.adsystem.dto.AdImportResultDto;
+import com.neekostar.adsystem.model.AdImportFormat;
+
+public interface AdImportService {
+    AdImportResultDto importAds(InputStream input, AdImportFormat format);
+}
@@ -0,0 +1,10 @@
+package com.neekostar.adsystem.service;
+
+import com.neekostar.adsystem.dto.AdPriceStatsDto;
+import com.neekostar.adsystem.model.Category;
+
+public interface AdPriceStatsService {
+    AdPriceStatsDto getPriceStats(Category category, String city);
+
+    void rebuild();
+}
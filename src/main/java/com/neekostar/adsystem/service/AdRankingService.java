@@ -0,0 +1,15 @@
+package com.neekostar.adsystem.service;
+
+import java.util.Collection;
+import java.util.UUID;
+import com.neekostar.adsystem.model.Ad;
+
+public interface AdRankingService {
+    double score(Ad ad);
+
+    void refreshAds(Collection<UUID> adIds);
+
+    void refreshSellerAds(UUID sellerId);
+
+    int refreshAll();
+}
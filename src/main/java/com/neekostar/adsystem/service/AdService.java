@@ -2,14 +2,15 @@ package com.neekostar.adsystem.service;
 
 import com.neekostar.adsystem.dto.AdCreateDto;
 import com.neekostar.adsystem.dto.AdResponseDto;
+import com.neekostar.adsystem.dto.AdSummaryDto;
 import com.neekostar.adsystem.dto.AdUpdateDto;
+import com.neekostar.adsystem.dto.CursorPageDto;
 import com.neekostar.adsystem.model.Category;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
-import java.util.List;
 import java.util.UUID;
 
 public interface AdService {
@@ -19,26 +20,36 @@ public interface AdService {
 
     void deleteAd(UUID adId);
 
-    Page<AdResponseDto> getAdsByUser(String username, Pageable pageable);
+    Page<AdSummaryDto> getAdsByUser(String username, Pageable pageable);
 
-    AdResponseDto getAd(UUID adId);
-
-    void promoteAd(UUID adId, int days);
+    CursorPageDto<AdSummaryDto> getAdsByUserByCursor(String username, String cursor, int size);
 
-    List<AdResponseDto> getPromotedAds();
+    AdResponseDto getAd(UUID adId);
 
-    List<AdResponseDto> getNonPromotedAds();
+    AdResponseDto withLiveViewCount(AdResponseDto ad);
 
-    Page<AdResponseDto> filterAds(String city,
-                                  Category category,
-                                  BigDecimal minPrice,
-                                  BigDecimal maxPrice,
-                                  String keyword,
-                                  String sortBy,
-                                  String sortDir,
-                                  Pageable pageable);
+    void promoteAd(UUID adId, int days);
 
-    AdResponseDto commentAd(UUID adId, String comment);
+    Page<AdSummaryDto> getPromotedAds(Pageable pageable);
+
+    Page<AdSummaryDto> getNonPromotedAds(Pageable pageable);
+
+    Page<AdSummaryDto> filterAds(String city,
+                                 Category category,
+                                 BigDecimal minPrice,
+                                 BigDecimal maxPrice,
+                                 String keyword,
+                                 String sortBy,
+                                 String sortDir,
+                                 Pageable pageable);
+
+    CursorPageDto<AdSummaryDto> filterAdsByCursor(String city,
+                                                  Category category,
+                                                  BigDecimal minPrice,
+                                                  BigDecimal maxPrice,
+                                                  String keyword,
+                                                  String cursor,
+                                                  int size);
 
     AdResponseDto uploadAdImage(UUID adId, MultipartFile file);
 
@@ -0,0 +1,11 @@
+package com.neekostar.adsystem.service;
+
+import java.util.List;
+import java.util.UUID;
+import com.neekostar.adsystem.dto.AdSummaryDto;
+
+public interface AdSimilarityService {
+    List<AdSummaryDto> findSimilarAds(UUID adId, int limit);
+
+    void rebuild();
+}
@@ -0,0 +1,10 @@
+package com.neekostar.adsystem.service;
+
+import java.util.List;
+import com.neekostar.adsystem.dto.AdSuggestionDto;
+
+public interface AdSuggestService {
+    List<AdSuggestionDto> suggest(String query, int limit);
+
+    void rebuild();
+}
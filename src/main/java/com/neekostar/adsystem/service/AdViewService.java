@@ -0,0 +1,9 @@
+package com.neekostar.adsystem.service;
+
+import java.util.UUID;
+
+public interface AdViewService {
+    void recordView(UUID adId);
+
+    int flush();
+}
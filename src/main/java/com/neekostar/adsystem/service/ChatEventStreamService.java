@@ -0,0 +1,7 @@
+package com.neekostar.adsystem.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ChatEventStreamService {
+    SseEmitter openStream(String username);
+}
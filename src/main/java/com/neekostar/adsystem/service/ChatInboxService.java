@@ -0,0 +1,18 @@
+package com.neekostar.adsystem.service;
+
+import com.neekostar.adsystem.model.Chat;
+import com.neekostar.adsystem.model.Message;
+
+import java.util.UUID;
+
+public interface ChatInboxService {
+    void createInbox(Chat chat);
+
+    void recordMessage(Message message);
+
+    void recordUpdated(Message message);
+
+    void recordDeleted(Message message);
+
+    void markRead(UUID chatId, UUID userId, int count);
+}
@@ -0,0 +1,11 @@
+package com.neekostar.adsystem.service;
+
+import java.util.UUID;
+import com.neekostar.adsystem.dto.CommentResponseDto;
+import com.neekostar.adsystem.dto.CursorPageDto;
+
+public interface CommentService {
+    CommentResponseDto addComment(UUID adId, String commentText);
+
+    CursorPageDto<CommentResponseDto> getComments(UUID adId, String cursor, int size);
+}
@@ -1,20 +1,22 @@
 package com.neekostar.adsystem.service;
 
 import com.neekostar.adsystem.dto.MessageCreateDto;
+import com.neekostar.adsystem.dto.MessagePageDto;
 import com.neekostar.adsystem.dto.MessageResponseDto;
 import com.neekostar.adsystem.dto.MessageUpdateDto;
 
-import java.util.List;
 import java.util.UUID;
 
 public interface MessageService {
     MessageResponseDto sendMessage(UUID chatId, String senderUsername, MessageCreateDto dto);
 
-    List<MessageResponseDto> getMessagesForChat(String username, UUID chatId);
+    MessagePageDto getMessagesForChat(String username, UUID chatId, String before, String after, int size);
 
     void markMessageAsRead(String username, UUID messageId);
 
-    void markAllMessagesAsRead(String username, UUID chatId);
+    int markAllMessagesAsRead(String username, UUID chatId);
+
+    int markMessagesAsReadUpTo(String username, UUID chatId, UUID messageId);
 
     MessageResponseDto updateMessage(String username, UUID messageId, MessageUpdateDto updateDto);
 
@@ -0,0 +1,14 @@
+package com.neekostar.adsystem.service;
+
+import java.util.UUID;
+import com.neekostar.adsystem.search.SavedSearchCriteria;
+
+public interface SavedSearchMatchService {
+    void register(SavedSearchCriteria criteria);
+
+    void unregister(UUID savedSearchId);
+
+    int flushMatches();
+
+    void rebuild();
+}
@@ -0,0 +1,14 @@
+package com.neekostar.adsystem.service;
+
+import java.util.List;
+import java.util.UUID;
+import com.neekostar.adsystem.dto.SavedSearchCreateDto;
+import com.neekostar.adsystem.dto.SavedSearchResponseDto;
+
+public interface SavedSearchService {
+    SavedSearchResponseDto createSavedSearch(SavedSearchCreateDto savedSearchCreateDto);
+
+    List<SavedSearchResponseDto> getMySavedSearches();
+
+    void deleteSavedSearch(UUID savedSearchId);
+}
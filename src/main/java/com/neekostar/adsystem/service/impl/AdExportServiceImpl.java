@@ -0,0 +1,102 @@
+package com.neekostar.adsystem.service.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.neekostar.adsystem.dto.AdResponseDto;
+import com.neekostar.adsystem.mapper.AdMapper;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.service.AdExportService;
+import com.neekostar.adsystem.specification.AdSpecification;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+public class AdExportServiceImpl implements AdExportService {
+    private static final byte LINE_SEPARATOR = '\n';
+
+    private final AdRepository adRepository;
+    private final AdMapper adMapper;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    @Autowired
+    public AdExportServiceImpl(AdRepository adRepository,
+                               AdMapper adMapper,
+                               EntityManager entityManager,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${ads.export.fetch-size:500}") int fetchSize) {
+        this.adRepository = adRepository;
+        this.adMapper = adMapper;
+        this.entityManager = entityManager;
+        this.writer = objectMapper.writerFor(AdResponseDto.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public long exportAds(String city,
+                          Category category,
+                          BigDecimal minPrice,
+                          BigDecimal maxPrice,
+                          String keyword,
+                          OutputStream output) throws IOException {
+        log.info("Exporting ads. City: {}, Category: {}, MinPrice: {}, MaxPrice: {}, Keyword: {}",
+                city, category, minPrice, maxPrice, keyword);
+        Specification<Ad> spec = AdSpecification.combineSpecifications(city, category, minPrice, maxPrice, keyword)
+                .and(AdSpecification.isActive());
+
+        try {
+            // the driver only honours the fetch size inside a transaction, so the cursor needs one
+            Long exported = transactionTemplate.execute(status -> {
+                long count = 0;
+                try (Stream<Ad> ads = adRepository.streamAds(spec, fetchSize)) {
+                    Iterator<Ad> iterator = ads.iterator();
+                    while (iterator.hasNext()) {
+                        Ad ad = iterator.next();
+                        writeLine(output, adMapper.toDto(ad));
+                        entityManager.detach(ad);
+                        // sellers stay managed after their ads are detached, clear them once per fetch
+                        if (++count % fetchSize == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                }
+                return count;
+            });
+            output.flush();
+            log.info("Exported {} ads", exported);
+            return exported != null ? exported : 0;
+        } catch (UncheckedIOException e) {
+            log.warn("Ad export aborted: {}", e.getCause().getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private void writeLine(OutputStream output, AdResponseDto dto) {
+        try {
+            output.write(writer.writeValueAsBytes(dto));
+            output.write(LINE_SEPARATOR);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
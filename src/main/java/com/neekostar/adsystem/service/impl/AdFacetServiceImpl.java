@@ -0,0 +1,250 @@
+package com.neekostar.adsystem.service.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import com.neekostar.adsystem.dto.AdFacetsDto;
+import com.neekostar.adsystem.event.AdChangedEvent;
+import com.neekostar.adsystem.event.AdsImportedEvent;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdStatus;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.repository.projection.AdFacetView;
+import com.neekostar.adsystem.search.RebuildableIndex;
+import com.neekostar.adsystem.service.AdFacetService;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Service
+public class AdFacetServiceImpl implements AdFacetService {
+
+    static final BigDecimal[] PRICE_BUCKET_BOUNDS = {
+            BigDecimal.valueOf(100),
+            BigDecimal.valueOf(500),
+            BigDecimal.valueOf(1_000),
+            BigDecimal.valueOf(5_000),
+            BigDecimal.valueOf(10_000),
+            BigDecimal.valueOf(50_000),
+            BigDecimal.valueOf(100_000),
+            BigDecimal.valueOf(500_000),
+            BigDecimal.valueOf(1_000_000)
+    };
+
+    private final AdRepository adRepository;
+    private final RebuildableIndex<FacetIndex> index = new RebuildableIndex<>(new FacetIndex());
+
+    @Autowired
+    public AdFacetServiceImpl(AdRepository adRepository) {
+        this.adRepository = adRepository;
+    }
+
+    @Override
+    public AdFacetsDto getFacets(String city, Category category, BigDecimal minPrice, BigDecimal maxPrice) {
+        log.debug("Computing facets. City: {}, Category: {}, MinPrice: {}, MaxPrice: {}", city, category, minPrice, maxPrice);
+        String cityFilter = (city != null && !city.trim().isEmpty()) ? city : null;
+
+        return index.read(facets -> facets.facets(cityFilter, category, minPrice, maxPrice));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Rebuilding ad facet index");
+        FacetIndex rebuilt = index.rebuild(() -> {
+            FacetIndex loaded = new FacetIndex();
+            try (Stream<AdFacetView> views = adRepository.findFacetViewsByStatus(AdStatus.ACTIVE)) {
+                views.forEach(view -> loaded.upsert(view.getId(), view.getCity(), view.getCategory(), view.getPrice()));
+            }
+            return loaded;
+        });
+        log.info("Ad facet index rebuilt. Active ads: {}", rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdChanged(@NotNull AdChangedEvent event) {
+        Ad ad = event.getAd();
+        log.trace("Applying {} for ad {} to facet index", event.getType(), ad.getId());
+
+        index.update(facets -> {
+            switch (event.getType()) {
+                case SOLD, DELETED -> facets.remove(ad.getId());
+                default -> {
+                    if (ad.getStatus() == AdStatus.ACTIVE) {
+                        facets.upsert(ad.getId(), ad.getCity(), ad.getCategory(), ad.getPrice());
+                    } else {
+                        facets.remove(ad.getId());
+                    }
+                }
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdsImported(@NotNull AdsImportedEvent event) {
+        log.debug("Adding {} imported ads to facet index", event.getAds().size());
+
+        index.update(facets ->
+                event.getAds().forEach(ad -> facets.upsert(ad.getId(), ad.getCity(), ad.getCategory(), ad.getPrice())));
+    }
+
+    static int priceBucket(@NotNull BigDecimal price) {
+        for (int i = 0; i < PRICE_BUCKET_BOUNDS.length; i++) {
+            if (price.compareTo(PRICE_BUCKET_BOUNDS[i]) < 0) {
+                return i;
+            }
+        }
+        return PRICE_BUCKET_BOUNDS.length;
+    }
+
+    private record IndexedAd(String city, Category category, BigDecimal price, int bucket) {
+    }
+
+    private static class FacetIndex {
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        private final List<IndexedAd> entries = new ArrayList<>();
+        private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final Map<String, RoaringBitmap> byCity = new HashMap<>();
+        private final Map<Category, RoaringBitmap> byCategory = new EnumMap<>(Category.class);
+        private final RoaringBitmap[] byPriceBucket = new RoaringBitmap[PRICE_BUCKET_BOUNDS.length + 1];
+
+        FacetIndex() {
+            for (int i = 0; i < byPriceBucket.length; i++) {
+                byPriceBucket[i] = new RoaringBitmap();
+            }
+        }
+
+        int size() {
+            return ordinals.size();
+        }
+
+        void upsert(UUID id, String city, Category category, BigDecimal price) {
+            if (id == null || city == null || category == null || price == null) {
+                return;
+            }
+            Integer ordinal = ordinals.get(id);
+            if (ordinal != null) {
+                unindex(ordinal);
+            } else {
+                ordinal = freeOrdinals.isEmpty() ? entries.size() : freeOrdinals.pop();
+                ordinals.put(id, ordinal);
+                if (ordinal == entries.size()) {
+                    entries.add(null);
+                }
+            }
+
+            IndexedAd entry = new IndexedAd(city, category, price, priceBucket(price));
+            entries.set(ordinal, entry);
+            all.add(ordinal);
+            byCity.computeIfAbsent(city, key -> new RoaringBitmap()).add(ordinal);
+            byCategory.computeIfAbsent(category, key -> new RoaringBitmap()).add(ordinal);
+            byPriceBucket[entry.bucket()].add(ordinal);
+        }
+
+        void remove(UUID id) {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal == null) {
+                return;
+            }
+            unindex(ordinal);
+            entries.set(ordinal, null);
+            freeOrdinals.push(ordinal);
+        }
+
+        private void unindex(int ordinal) {
+            IndexedAd entry = entries.get(ordinal);
+            all.remove(ordinal);
+            RoaringBitmap cityBitmap = byCity.get(entry.city());
+            cityBitmap.remove(ordinal);
+            if (cityBitmap.isEmpty()) {
+                byCity.remove(entry.city());
+            }
+            byCategory.get(entry.category()).remove(ordinal);
+            byPriceBucket[entry.bucket()].remove(ordinal);
+        }
+
+        AdFacetsDto facets(String city, Category category, BigDecimal minPrice, BigDecimal maxPrice) {
+            RoaringBitmap cityMatch = city != null ? byCity.getOrDefault(city, new RoaringBitmap()) : null;
+            RoaringBitmap categoryMatch = category != null ? byCategory.getOrDefault(category, new RoaringBitmap()) : null;
+            RoaringBitmap priceMatch = (minPrice != null || maxPrice != null) ? priceRange(minPrice, maxPrice) : null;
+
+            RoaringBitmap forCategories = intersect(cityMatch, priceMatch);
+            RoaringBitmap forCities = intersect(categoryMatch, priceMatch);
+            RoaringBitmap matching = categoryMatch != null ? RoaringBitmap.and(forCategories, categoryMatch) : forCategories;
+
+            Map<Category, Long> categories = new EnumMap<>(Category.class);
+            byCategory.forEach((key, bitmap) -> {
+                long count = RoaringBitmap.andCardinality(bitmap, forCategories);
+                if (count > 0) {
+                    categories.put(key, count);
+                }
+            });
+
+            Map<String, Long> cities = new LinkedHashMap<>();
+            byCity.entrySet().stream()
+                    .map(entry -> Map.entry(entry.getKey(), (long) RoaringBitmap.andCardinality(entry.getValue(), forCities)))
+                    .filter(entry -> entry.getValue() > 0)
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .forEachOrdered(entry -> cities.put(entry.getKey(), entry.getValue()));
+
+            AdFacetsDto dto = new AdFacetsDto();
+            dto.setTotal(matching.getLongCardinality());
+            dto.setCategories(categories);
+            dto.setCities(cities);
+            return dto;
+        }
+
+        private RoaringBitmap intersect(RoaringBitmap first, RoaringBitmap second) {
+            RoaringBitmap result = all.clone();
+            if (first != null) {
+                result.and(first);
+            }
+            if (second != null) {
+                result.and(second);
+            }
+            return result;
+        }
+
+        private RoaringBitmap priceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+            int lowBucket = minPrice != null ? priceBucket(minPrice) : 0;
+            int highBucket = maxPrice != null ? priceBucket(maxPrice) : byPriceBucket.length - 1;
+            RoaringBitmap result = new RoaringBitmap();
+
+            for (int bucket = lowBucket; bucket <= highBucket; bucket++) {
+                boolean lowEdge = bucket == lowBucket && minPrice != null;
+                boolean highEdge = bucket == highBucket && maxPrice != null;
+                if (!lowEdge && !highEdge) {
+                    result.or(byPriceBucket[bucket]);
+                    continue;
+                }
+                byPriceBucket[bucket].forEach((int ordinal) -> {
+                    BigDecimal price = entries.get(ordinal).price();
+                    boolean aboveMin = minPrice == null || price.compareTo(minPrice) >= 0;
+                    boolean belowMax = maxPrice == null || price.compareTo(maxPrice) <= 0;
+                    if (aboveMin && belowMax) {
+                        result.add(ordinal);
+                    }
+                });
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.neekostar.adsystem.service.impl;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.neekostar.adsystem.cache.AdCacheTags;
+import com.neekostar.adsystem.dto.AdCreateDto;
+import com.neekostar.adsystem.dto.AdImportErrorDto;
+import com.neekostar.adsystem.dto.AdImportResultDto;
+import com.neekostar.adsystem.event.AdImportCompletedEvent;
+import com.neekostar.adsystem.event.AdsImportedEvent;
+import com.neekostar.adsystem.exception.ResourceNotFoundException;
+import com.neekostar.adsystem.mapper.AdMapper;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdImportFormat;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.repository.UserRepository;
+import com.neekostar.adsystem.service.AdImportService;
+import com.neekostar.adsystem.service.AdRankingService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+public class AdImportServiceImpl implements AdImportService {
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final UserRepository userRepository;
+    private final AdMapper adMapper;
+    private final AdRankingService adRankingService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    @Autowired
+    public AdImportServiceImpl(UserRepository userRepository,
+                               AdMapper adMapper,
+                               AdRankingService adRankingService,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${ads.import.batch-size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.adMapper = adMapper;
+        this.adRankingService = adRankingService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public AdImportResultDto importAds(@NotNull InputStream input, @NotNull AdImportFormat format) {
+        String authenticatedUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Importing ads from {}. User: {}", format, authenticatedUsername);
+        User user = userRepository.findUserByUsername(authenticatedUsername)
+                .orElseThrow(() -> {
+                    log.error("User not found. Username: {}", authenticatedUsername);
+                    return new ResourceNotFoundException("User", "username", authenticatedUsername);
+                });
+
+        ImportRun run = new ImportRun(user.getId(), authenticatedUsername);
+        try (RowReader rows = openReader(input, format)) {
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                run.total++;
+                String error = row.error() != null ? row.error() : validate(row.dto());
+                if (error != null) {
+                    run.reject(row.line(), error);
+                    continue;
+                }
+                run.pending.add(new PendingAd(row.line(), toEntity(row.dto(), user)));
+                if (run.pending.size() >= batchSize) {
+                    persistBatch(run);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Import stopped on unreadable input after {} rows: {}", run.total, e.getMessage());
+            run.reject(run.total + 1, "Unreadable input: " + e.getMessage());
+        }
+        persistBatch(run);
+
+        // list caches are invalidated once for the whole upload, from the tags collected batch by batch
+        if (run.imported > 0) {
+            eventPublisher.publishEvent(new AdImportCompletedEvent(authenticatedUsername, run.cacheTags, run.imported));
+        }
+        log.info("Import finished. User: {}, Rows: {}, Imported: {}, Failed: {}",
+                authenticatedUsername, run.total, run.imported, run.failed);
+        return run.toResult();
+    }
+
+    private void persistBatch(@NotNull ImportRun run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        List<PendingAd> batch = List.copyOf(run.pending);
+        run.pending.clear();
+        try {
+            save(run, batch);
+            committed(run, batch.stream().map(PendingAd::ad).toList());
+            log.debug("Imported batch of {} ads", batch.size());
+        } catch (DataAccessException | PersistenceException e) {
+            // one bad row rolls back the whole batch, so its rows are retried one by one to find the culprits
+            log.warn("Failed to save import batch of {} ads, retrying row by row: {}", batch.size(), e.getMessage());
+            List<Ad> saved = new ArrayList<>();
+            for (PendingAd pending : batch) {
+                try {
+                    save(run, List.of(pending));
+                    saved.add(pending.ad());
+                } catch (DataAccessException | PersistenceException rowError) {
+                    log.debug("Failed to save import row {}: {}", pending.line(), rowError.getMessage());
+                    run.reject(pending.line(), "Could not be saved: "
+                            + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+            if (!saved.isEmpty()) {
+                committed(run, saved);
+            }
+        }
+    }
+
+    private void save(@NotNull ImportRun run, @NotNull List<PendingAd> ads) {
+        // one short transaction per batch; hibernate.jdbc.batch_size turns the flush into batched inserts
+        transactionTemplate.executeWithoutResult(status -> {
+            User owner = entityManager.getReference(User.class, run.userId);
+            for (PendingAd pending : ads) {
+                // a rolled back attempt leaves its generated id behind, which persist would take for a detached ad
+                pending.ad().setId(null);
+                pending.ad().setUser(owner);
+                entityManager.persist(pending.ad());
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private void committed(@NotNull ImportRun run, @NotNull List<Ad> imported) {
+        run.imported += imported.size();
+        // imported ads are new and not promoted, so only list tags need to go
+        imported.forEach(ad -> run.cacheTags.addAll(
+                AdCacheTags.forAd(run.username, ad.getCity(), ad.getCategory(), false, true)));
+        // the ads are committed, in-memory indexes pick them up now and the entities can be released
+        eventPublisher.publishEvent(new AdsImportedEvent(run.username, imported));
+    }
+
+    private String validate(AdCreateDto dto) {
+        List<String> violations = validator.validate(dto).stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (dto.getCategory() != null && !dto.getCategory().isBlank() && !isCategory(dto.getCategory())) {
+            violations.add("category: Unknown category " + dto.getCategory());
+        }
+        return violations.isEmpty() ? null : String.join("; ", violations);
+    }
+
+    private boolean isCategory(String value) {
+        try {
+            Category.valueOf(value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private Ad toEntity(AdCreateDto dto, User user) {
+        Ad ad = adMapper.toEntity(dto);
+        ad.setIsPromoted(false);
+        ad.setPromotionEndDate(null);
+        ad.setUser(user);
+        ad.setRankScore(adRankingService.score(ad));
+        return ad;
+    }
+
+    private RowReader openReader(InputStream input, AdImportFormat format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        return switch (format) {
+            case NDJSON -> new NdjsonRowReader(reader, objectMapper.readerFor(AdCreateDto.class));
+            case CSV -> new CsvRowReader(csvMapper.readerFor(Map.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(reader), objectMapper);
+        };
+    }
+
+    private record ImportRow(long line, AdCreateDto dto, String error) {
+    }
+
+    private record PendingAd(long line, Ad ad) {
+    }
+
+    private interface RowReader extends Closeable {
+        // returns null once the input is exhausted
+        ImportRow next() throws IOException;
+    }
+
+    private static class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final ObjectReader objectReader;
+        private long line;
+
+        NdjsonRowReader(BufferedReader reader, ObjectReader objectReader) {
+            this.reader = reader;
+            this.objectReader = objectReader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                return new ImportRow(line, objectReader.readValue(text), null);
+            } catch (JsonProcessingException e) {
+                return new ImportRow(line, null, "Malformed row: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static class CsvRowReader implements RowReader {
+        private final MappingIterator<Map<String, String>> rows;
+        private final ObjectMapper objectMapper;
+
+        CsvRowReader(MappingIterator<Map<String, String>> rows, ObjectMapper objectMapper) {
+            this.rows = rows;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            if (!rows.hasNextValue()) {
+                return null;
+            }
+            long line = rows.getCurrentLocation().getLineNr();
+            try {
+                return new ImportRow(line, objectMapper.convertValue(rows.nextValue(), AdCreateDto.class), null);
+            } catch (JsonProcessingException e) {
+                return new ImportRow(line, null, "Malformed row: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                return new ImportRow(line, null, "Malformed row: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+
+    private static class ImportRun {
+        private final UUID userId;
+        private final String username;
+        private final List<PendingAd> pending = new ArrayList<>();
+        private final Set<String> cacheTags = new LinkedHashSet<>();
+        private final List<AdImportErrorDto> errors = new ArrayList<>();
+        private long total;
+        private int imported;
+        private long failed;
+
+        ImportRun(UUID userId, String username) {
+            this.userId = userId;
+            this.username = username;
+        }
+
+        void reject(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new AdImportErrorDto(line, message));
+            }
+        }
+
+        AdImportResultDto toResult() {
+            AdImportResultDto result = new AdImportResultDto();
+            result.setTotal(total);
+            result.setImported(imported);
+            result.setFailed(failed);
+            result.setErrors(errors);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.neekostar.adsystem.service.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+import com.neekostar.adsystem.dto.AdPriceStatsDto;
+import com.neekostar.adsystem.dto.PriceBucketDto;
+import com.neekostar.adsystem.event.AdChangedEvent;
+import com.neekostar.adsystem.event.AdsImportedEvent;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdStatus;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.repository.projection.AdFacetView;
+import com.neekostar.adsystem.search.RebuildableIndex;
+import com.neekostar.adsystem.service.AdPriceStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import static com.neekostar.adsystem.service.impl.AdFacetServiceImpl.PRICE_BUCKET_BOUNDS;
+import static com.neekostar.adsystem.service.impl.AdFacetServiceImpl.priceBucket;
+
+@Slf4j
+@Service
+public class AdPriceStatsServiceImpl implements AdPriceStatsService {
+
+    private final AdRepository adRepository;
+    private final RebuildableIndex<PriceStatsIndex> index = new RebuildableIndex<>(new PriceStatsIndex());
+
+    @Autowired
+    public AdPriceStatsServiceImpl(AdRepository adRepository) {
+        this.adRepository = adRepository;
+    }
+
+    @Override
+    public AdPriceStatsDto getPriceStats(Category category, String city) {
+        log.debug("Reading price stats. Category: {}, City: {}", category, city);
+        String cityFilter = (city != null && !city.trim().isEmpty()) ? city : null;
+
+        return index.read(stats -> stats.stats(category, cityFilter));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Rebuilding ad price stats");
+        PriceStatsIndex rebuilt = index.rebuild(() -> {
+            PriceStatsIndex loaded = new PriceStatsIndex();
+            try (Stream<AdFacetView> views = adRepository.findFacetViewsByStatus(AdStatus.ACTIVE)) {
+                views.forEach(view -> loaded.upsert(view.getId(), view.getCategory(), view.getCity(), view.getPrice()));
+            }
+            return loaded;
+        });
+        log.info("Ad price stats rebuilt. Active ads: {}", rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdChanged(@NotNull AdChangedEvent event) {
+        Ad ad = event.getAd();
+        log.trace("Applying {} for ad {} to price stats", event.getType(), ad.getId());
+
+        index.update(stats -> {
+            switch (event.getType()) {
+                case SOLD, DELETED -> stats.remove(ad.getId());
+                default -> {
+                    if (ad.getStatus() == AdStatus.ACTIVE) {
+                        stats.upsert(ad.getId(), ad.getCategory(), ad.getCity(), ad.getPrice());
+                    } else {
+                        stats.remove(ad.getId());
+                    }
+                }
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdsImported(@NotNull AdsImportedEvent event) {
+        log.debug("Adding {} imported ads to price stats", event.getAds().size());
+
+        index.update(stats ->
+                event.getAds().forEach(ad -> stats.upsert(ad.getId(), ad.getCategory(), ad.getCity(), ad.getPrice())));
+    }
+
+    // a null category or city stands for "all of them"
+    private record StatsKey(Category category, String city) {
+    }
+
+    private record IndexedPrice(Category category, String city, BigDecimal price) {
+    }
+
+    private static class PriceStatsIndex {
+        private final Map<UUID, IndexedPrice> prices = new HashMap<>();
+        private final Map<StatsKey, PriceDistribution> distributions = new HashMap<>();
+
+        int size() {
+            return prices.size();
+        }
+
+        void upsert(UUID id, Category category, String city, BigDecimal price) {
+            if (id == null || category == null || city == null || price == null) {
+                return;
+            }
+            IndexedPrice previous = prices.put(id, new IndexedPrice(category, city, price));
+            if (previous != null) {
+                apply(previous, -1);
+            }
+            apply(prices.get(id), 1);
+        }
+
+        void remove(UUID id) {
+            IndexedPrice previous = prices.remove(id);
+            if (previous != null) {
+                apply(previous, -1);
+            }
+        }
+
+        private void apply(@NotNull IndexedPrice entry, int delta) {
+            StatsKey[] keys = {
+                    new StatsKey(entry.category(), entry.city()),
+                    new StatsKey(entry.category(), null),
+                    new StatsKey(null, entry.city()),
+                    new StatsKey(null, null)
+            };
+            for (StatsKey key : keys) {
+                PriceDistribution distribution = distributions.computeIfAbsent(key, k -> new PriceDistribution());
+                distribution.add(entry.price(), delta);
+                if (distribution.isEmpty()) {
+                    distributions.remove(key);
+                }
+            }
+        }
+
+        AdPriceStatsDto stats(Category category, String city) {
+            AdPriceStatsDto dto = new AdPriceStatsDto();
+            dto.setCategory(category);
+            dto.setCity(city);
+            PriceDistribution distribution = distributions.get(new StatsKey(category, city));
+            if (distribution == null) {
+                distribution = new PriceDistribution();
+            }
+            distribution.fill(dto);
+            return dto;
+        }
+    }
+
+    // multiset of prices kept sorted, so min, max and percentiles are read without sorting
+    private static class PriceDistribution {
+        private static final double[] PERCENTILES = {0.25, 0.5, 0.75, 0.9};
+
+        private final TreeMap<BigDecimal, Long> counts = new TreeMap<>();
+        private final long[] buckets = new long[PRICE_BUCKET_BOUNDS.length + 1];
+        private BigDecimal sum = BigDecimal.ZERO;
+        private long total;
+
+        void add(BigDecimal price, int delta) {
+            counts.merge(price, (long) delta, (current, change) -> current + change == 0 ? null : current + change);
+            buckets[priceBucket(price)] += delta;
+            sum = delta > 0 ? sum.add(price) : sum.subtract(price);
+            total += delta;
+        }
+
+        boolean isEmpty() {
+            return total == 0;
+        }
+
+        void fill(@NotNull AdPriceStatsDto dto) {
+            dto.setCount(total);
+            dto.setHistogram(histogram());
+            if (total == 0) {
+                return;
+            }
+            dto.setMin(counts.firstKey());
+            dto.setMax(counts.lastKey());
+            dto.setAverage(sum.divide(BigDecimal.valueOf(total), 2, RoundingMode.HALF_UP));
+
+            BigDecimal[] values = percentiles();
+            dto.setP25(values[0]);
+            dto.setMedian(values[1]);
+            dto.setP75(values[2]);
+            dto.setP90(values[3]);
+        }
+
+        // nearest-rank percentiles, all resolved in one walk over the distinct prices
+        BigDecimal[] percentiles() {
+            BigDecimal[] values = new BigDecimal[PERCENTILES.length];
+            int next = 0;
+            long seen = 0;
+            for (Map.Entry<BigDecimal, Long> entry : counts.entrySet()) {
+                seen += entry.getValue();
+                while (next < PERCENTILES.length && seen >= (long) Math.ceil(PERCENTILES[next] * total)) {
+                    values[next++] = entry.getKey();
+                }
+                if (next == PERCENTILES.length) {
+                    break;
+                }
+            }
+            return values;
+        }
+
+        private List<PriceBucketDto> histogram() {
+            List<PriceBucketDto> histogram = new ArrayList<>(buckets.length);
+            for (int i = 0; i < buckets.length; i++) {
+                BigDecimal from = i > 0 ? PRICE_BUCKET_BOUNDS[i - 1] : null;
+                BigDecimal to = i < PRICE_BUCKET_BOUNDS.length ? PRICE_BUCKET_BOUNDS[i] : null;
+                histogram.add(new PriceBucketDto(from, to, buckets[i]));
+            }
+            return histogram;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.neekostar.adsystem.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdStatus;
+import com.neekostar.adsystem.ranking.RankingSignals;
+import com.neekostar.adsystem.ranking.RankingStrategy;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.repository.projection.RankingView;
+import com.neekostar.adsystem.service.AdRankingService;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+public class AdRankingServiceImpl implements AdRankingService {
+    static final String UPDATE_RANK_SCORE = "UPDATE ads SET rank_score = ? WHERE id = ?";
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private final RankingStrategy rankingStrategy;
+    private final AdRepository adRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public AdRankingServiceImpl(RankingStrategy rankingStrategy,
+                                AdRepository adRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${ads.ranking.refresh.batch-size:500}") int batchSize) {
+        this.rankingStrategy = rankingStrategy;
+        this.adRepository = adRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public double score(@NotNull Ad ad) {
+        return rankingStrategy.score(RankingSignals.of(ad), LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    public void refreshAds(@NotNull Collection<UUID> adIds) {
+        if (adIds.isEmpty()) {
+            return;
+        }
+        int updated = rescore(adRepository.findRankingViewsByIds(adIds));
+        log.debug("Refreshed rank score of {} ads", updated);
+    }
+
+    @Override
+    @Transactional
+    public void refreshSellerAds(UUID sellerId) {
+        int updated = rescore(adRepository.findRankingViewsBySeller(sellerId, AdStatus.ACTIVE));
+        log.debug("Refreshed rank score of {} ads of seller {}", updated, sellerId);
+    }
+
+    @Override
+    public int refreshAll() {
+        UUID afterId = MIN_ID;
+        int total = 0;
+        List<RankingView> batch;
+
+        do {
+            UUID from = afterId;
+            // keyset over the primary key, each batch in its own short transaction
+            batch = transactionTemplate.execute(status -> {
+                List<RankingView> views = adRepository.findRankingViewsAfter(AdStatus.ACTIVE, from, PageRequest.of(0, batchSize));
+                rescore(views);
+                return views;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+            total += batch.size();
+        } while (batch.size() == batchSize);
+
+        log.info("Refreshed rank score of {} active ads", total);
+        return total;
+    }
+
+    private int rescore(@NotNull List<RankingView> views) {
+        if (views.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> arguments = views.stream()
+                .map(view -> new Object[]{rankingStrategy.score(RankingSignals.of(view), now), view.getId()})
+                .toList();
+        jdbcTemplate.batchUpdate(UPDATE_RANK_SCORE, arguments);
+        return arguments.size();
+    }
+}
@@ -2,14 +2,23 @@ package com.neekostar.adsystem.service.impl;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import com.neekostar.adsystem.cache.AdCacheInvalidator;
+import com.neekostar.adsystem.cache.AdCacheTags;
+import com.neekostar.adsystem.cache.AdIdPage;
+import com.neekostar.adsystem.cache.AdQueryCache;
+import com.neekostar.adsystem.cache.CacheTagRegistry;
 import com.neekostar.adsystem.dto.AdCreateDto;
 import com.neekostar.adsystem.dto.AdResponseDto;
+import com.neekostar.adsystem.dto.AdSummaryDto;
 import com.neekostar.adsystem.dto.AdUpdateDto;
+import com.neekostar.adsystem.dto.CursorPageDto;
+import com.neekostar.adsystem.event.AdChangeType;
+import com.neekostar.adsystem.event.AdChangedEvent;
 import com.neekostar.adsystem.exception.AccessDeniedException;
 import com.neekostar.adsystem.exception.InvalidArgumentException;
 import com.neekostar.adsystem.exception.ResourceNotFoundException;
@@ -17,23 +26,24 @@ import com.neekostar.adsystem.mapper.AdMapper;
 import com.neekostar.adsystem.model.Ad;
 import com.neekostar.adsystem.model.AdStatus;
 import com.neekostar.adsystem.model.Category;
-import com.neekostar.adsystem.model.Comment;
 import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.pagination.AdCursor;
 import com.neekostar.adsystem.repository.AdRepository;
 import com.neekostar.adsystem.repository.CommentRepository;
 import com.neekostar.adsystem.repository.UserRepository;
+import com.neekostar.adsystem.service.AdRankingService;
 import com.neekostar.adsystem.service.AdService;
 import com.neekostar.adsystem.service.MinioService;
 import com.neekostar.adsystem.specification.AdSpecification;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
@@ -53,30 +63,40 @@ public class AdServiceImpl implements AdService {
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final AdMapper adMapper;
+    private final AdRankingService adRankingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AdQueryCache adQueryCache;
+    private final CacheTagRegistry cacheTags;
+    private final boolean fullTextSearchEnabled;
 
-    private static final List<String> ALLOWED_SORT_FIELDS = List.of("price", "createdAt", "updatedAt");
+    private static final List<String> ALLOWED_SORT_FIELDS = List.of("rankScore", "price", "createdAt", "updatedAt", "viewCount");
+    static final int MAX_PAGE_SIZE = 100;
 
     @Autowired
     public AdServiceImpl(MinioService minioService,
                          AdRepository adRepository,
                          UserRepository userRepository,
                          CommentRepository commentRepository,
-                         AdMapper adMapper) {
+                         AdMapper adMapper,
+                         AdRankingService adRankingService,
+                         ApplicationEventPublisher eventPublisher,
+                         AdQueryCache adQueryCache,
+                         CacheTagRegistry cacheTags,
+                         @Value("${ads.search.full-text.enabled:true}") boolean fullTextSearchEnabled) {
         this.minioService = minioService;
         this.adRepository = adRepository;
         this.userRepository = userRepository;
         this.commentRepository = commentRepository;
         this.adMapper = adMapper;
+        this.adRankingService = adRankingService;
+        this.eventPublisher = eventPublisher;
+        this.adQueryCache = adQueryCache;
+        this.cacheTags = cacheTags;
+        this.fullTextSearchEnabled = fullTextSearchEnabled;
     }
 
     @Override
     @Transactional
-    @Caching(
-            evict = {
-                    @CacheEvict(value = "userAds", key = "#result.username"),
-                    @CacheEvict(value = {"promotedAds", "nonPromotedAds", "filteredAds"}, allEntries = true)
-            }
-    )
     public AdResponseDto createAd(@NotNull AdCreateDto adCreateDto) {
         log.info("Creating a new ad: {}", adCreateDto.getTitle());
         String authenticatedUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -90,7 +110,9 @@ public class AdServiceImpl implements AdService {
         ad.setIsPromoted(false);
         ad.setPromotionEndDate(null);
         ad.setUser(user);
+        ad.setRankScore(adRankingService.score(ad));
         Ad savedAd = adRepository.save(ad);
+        eventPublisher.publishEvent(new AdChangedEvent(savedAd, AdChangeType.CREATED));
         log.info("Ad created successfully. Ad ID: {}, User: {}", savedAd.getId(), authenticatedUsername);
 
         return adMapper.toDto(savedAd);
@@ -98,13 +120,6 @@ public class AdServiceImpl implements AdService {
 
     @Override
     @Transactional
-    @Caching(
-            put = @CachePut(value = "singleAd", key = "#adId"),
-            evict = {
-                    @CacheEvict(value = "userAds", key = "#result.username"),
-                    @CacheEvict(value = {"promotedAds", "nonPromotedAds", "filteredAds"}, allEntries = true)
-            }
-    )
     public AdResponseDto updateAd(UUID adId,
                                   AdUpdateDto adUpdateDto) {
         log.info("Updating ad with ID: {}", adId);
@@ -135,6 +150,7 @@ public class AdServiceImpl implements AdService {
         }
 
         Ad updatedAd = adRepository.save(ad);
+        eventPublisher.publishEvent(new AdChangedEvent(updatedAd, AdChangeType.UPDATED));
         log.info("Ad updated successfully. Ad ID: {}", updatedAd.getId());
 
         return adMapper.toDto(updatedAd);
@@ -142,13 +158,6 @@ public class AdServiceImpl implements AdService {
 
     @Override
     @Transactional
-    @Caching(
-            evict = {
-                    @CacheEvict(value = "singleAd", key = "#adId"),
-                    @CacheEvict(value = "userAds", allEntries = true),
-                    @CacheEvict(value = {"promotedAds", "nonPromotedAds", "filteredAds"}, allEntries = true)
-            }
-    )
     public void deleteAd(UUID adId) {
         log.info("Deleting ad. ID: {}", adId);
         String authenticatedUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -166,17 +175,32 @@ public class AdServiceImpl implements AdService {
 
         commentRepository.deleteByAdId(adId);
         adRepository.delete(ad);
+        eventPublisher.publishEvent(new AdChangedEvent(ad, AdChangeType.DELETED));
         log.info("Ad deleted successfully. ID: {}", adId);
     }
 
     @Override
     @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
-    @Cacheable(value = "userAds", key = "#username + '-' + #pageable.pageNumber + '-' + #pageable.pageSize")
-    public Page<AdResponseDto> getAdsByUser(String username, Pageable pageable) {
-        log.info("Fetching ads for user: {}", username);
-        Page<Ad> ads = adRepository.findAdByUserUsernameAndStatus(username, AdStatus.ACTIVE, pageable);
-        log.info("Fetched {} ads for user: {}", ads.getTotalElements(), username);
-        return ads.map(adMapper::toDto);
+    public Page<AdSummaryDto> getAdsByUser(String username, Pageable pageable) {
+        Pageable pageRequest = capped(pageable);
+        return cacheTags.getOrLoad(AdCacheInvalidator.USER_ADS, username + "-" + pageKey(pageRequest),
+                List.of(AdCacheTags.seller(username)), () -> {
+                    log.info("Fetching ads for user: {}", username);
+                    Specification<Ad> spec = AdSpecification.hasUsername(username)
+                            .and(AdSpecification.isActive())
+                            .and(AdSpecification.keysetOrder());
+                    Page<AdSummaryDto> ads = adRepository.findSummaries(spec, pageRequest);
+                    log.info("Fetched {} ads for user: {}", ads.getTotalElements(), username);
+                    return ads;
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CursorPageDto<AdSummaryDto> getAdsByUserByCursor(String username, String cursor, int size) {
+        log.info("Fetching ads for user by cursor: {}. Size: {}", username, size);
+        Specification<Ad> spec = AdSpecification.hasUsername(username).and(AdSpecification.isActive());
+        return findByCursor(spec, cursor, size);
     }
 
     @Override
@@ -195,14 +219,18 @@ public class AdServiceImpl implements AdService {
                 });
     }
 
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public AdResponseDto withLiveViewCount(@NotNull AdResponseDto ad) {
+        // getAd may answer from a cache entry up to an hour old, the view counter is flushed every few seconds;
+        // the cached instance is shared, so the fresh count goes on a copy
+        AdResponseDto live = adMapper.copy(ad);
+        adRepository.findViewCountById(ad.getId()).ifPresent(live::setViewCount);
+        return live;
+    }
+
     @Override
     @Transactional
-    @Caching(
-            evict = {
-                    @CacheEvict(value = {"promotedAds", "nonPromotedAds"}, allEntries = true),
-                    @CacheEvict(value = "filteredAds", allEntries = true)
-            }
-    )
     public void promoteAd(UUID adId, int days) {
         log.info("Promoting ad. ID: {}, Days: {}", adId, days);
         if (days <= 0) {
@@ -225,58 +253,54 @@ public class AdServiceImpl implements AdService {
         ad.setIsPromoted(true);
         ad.setPromotionEndDate(LocalDateTime.now().plusDays(days));
         adRepository.save(ad);
+        // rank_score is not updatable through the entity, the ranking service rewrites it from the flushed row
+        adRankingService.refreshAds(List.of(adId));
+        eventPublisher.publishEvent(new AdChangedEvent(ad, AdChangeType.PROMOTED));
         log.info("Ad promoted. ID: {}, End date: {}", adId, ad.getPromotionEndDate());
     }
 
     @Override
     @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
-    @Cacheable(value = "promotedAds")
-    public List<AdResponseDto> getPromotedAds() {
-        log.info("Fetching promoted ads");
-        List<AdResponseDto> result = adRepository.findAll().stream()
-                .filter(Ad::getIsPromoted)
-                .filter(ad -> ad.getPromotionEndDate().isAfter(LocalDateTime.now()))
-                .filter(ad -> ad.getStatus() == AdStatus.ACTIVE)
-                .map(adMapper::toDto)
-                .collect(Collectors.toList());
-
-        log.info("Fetched {} promoted ads", result.size());
-        return result;
+    public Page<AdSummaryDto> getPromotedAds(Pageable pageable) {
+        Pageable pageRequest = capped(pageable);
+        return cacheTags.getOrLoad(AdCacheInvalidator.PROMOTED_ADS, pageKey(pageRequest), List.of(AdCacheTags.PROMOTED), () -> {
+            log.info("Fetching promoted ads. Page: {}, Size: {}", pageRequest.getPageNumber(), pageRequest.getPageSize());
+            Page<AdSummaryDto> ads = adRepository.findPromoted(AdStatus.ACTIVE, LocalDateTime.now(), pageRequest);
+            log.info("Fetched {} of {} promoted ads", ads.getNumberOfElements(), ads.getTotalElements());
+            return ads;
+        });
     }
 
     @Override
     @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
-    @Cacheable(value = "nonPromotedAds")
-    public List<AdResponseDto> getNonPromotedAds() {
-        log.info("Fetching non-promoted ads");
-        List<AdResponseDto> result = adRepository.findAll().stream()
-                .filter(ad -> !ad.getIsPromoted() || ad.getPromotionEndDate().isBefore(LocalDateTime.now()))
-                .filter(ad -> ad.getStatus() == AdStatus.ACTIVE)
-                .map(adMapper::toDto)
-                .collect(Collectors.toList());
-
-        log.info("Fetched {} non-promoted ads", result.size());
-        return result;
+    public Page<AdSummaryDto> getNonPromotedAds(Pageable pageable) {
+        Pageable pageRequest = capped(pageable);
+        return cacheTags.getOrLoad(AdCacheInvalidator.NON_PROMOTED_ADS, pageKey(pageRequest), List.of(AdCacheTags.NON_PROMOTED), () -> {
+            log.info("Fetching non-promoted ads. Page: {}, Size: {}", pageRequest.getPageNumber(), pageRequest.getPageSize());
+            Page<AdSummaryDto> ads = adRepository.findNonPromoted(AdStatus.ACTIVE, LocalDateTime.now(), pageRequest);
+            log.info("Fetched {} of {} non-promoted ads", ads.getNumberOfElements(), ads.getTotalElements());
+            return ads;
+        });
     }
 
     @Override
     @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
-    @Cacheable(value = "filteredAds", key = "{#city, #category, #minPrice, #maxPrice, #keyword, #sortBy, #sortDir}")
-    public Page<AdResponseDto> filterAds(String city,
-                                         Category category,
-                                         BigDecimal minPrice,
-                                         BigDecimal maxPrice,
-                                         String keyword,
-                                         String sortBy,
-                                         String sortDir,
-                                         Pageable pageable) {
+    public Page<AdSummaryDto> filterAds(String city,
+                                        Category category,
+                                        BigDecimal minPrice,
+                                        BigDecimal maxPrice,
+                                        String keyword,
+                                        String sortBy,
+                                        String sortDir,
+                                        Pageable pageable) {
         log.info("Filtering ads. City: {}, Category: {}, MinPrice: {}, MaxPrice: {}, Keyword: {}, SortBy: {}, SortDir: {}",
                 city, category, minPrice, maxPrice, keyword, sortBy, sortDir);
-        Specification<Ad> spec = AdSpecification.combineSpecifications(city, category, minPrice, maxPrice, keyword);
+        Pageable pageRequest = PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_PAGE_SIZE));
+        boolean fullText = fullTextSearchEnabled && keyword != null && !keyword.trim().isEmpty();
 
-        if (sortBy == null || !ALLOWED_SORT_FIELDS.contains(sortBy)) {
-            log.warn("Invalid sortBy parameter: {}. Using default: createdAt", sortBy);
-            sortBy = "createdAt";
+        if (!fullText && (sortBy == null || !ALLOWED_SORT_FIELDS.contains(sortBy))) {
+            log.warn("Invalid sortBy parameter: {}. Using default: rankScore", sortBy);
+            sortBy = "rankScore";
         }
 
         Sort.Direction direction = Sort.Direction.DESC;
@@ -284,102 +308,101 @@ public class AdServiceImpl implements AdService {
             direction = Sort.Direction.ASC;
         }
 
-        Sort sort = Sort.by(direction, sortBy);
-        List<Ad> ads = adRepository.findAll(spec, sort);
-        log.debug("Found {} ads after initial filtering", ads.size());
-
-        LocalDateTime now = LocalDateTime.now();
-        List<Ad> promoted = new ArrayList<>();
-        List<Ad> nonPromoted = new ArrayList<>();
-
-        for (Ad ad : ads) {
-            if (ad.getStatus() == AdStatus.ACTIVE) {
-                boolean isPromoted = ad.getIsPromoted() && ad.getPromotionEndDate() != null &&
-                        ad.getPromotionEndDate().isAfter(now);
-                if (isPromoted) {
-                    promoted.add(ad);
-                } else {
-                    nonPromoted.add(ad);
-                }
-            }
+        String cacheKey = AdQueryCache.filterKey(city, category, minPrice, maxPrice, keyword,
+                fullText ? "relevance" : sortBy, direction, pageRequest);
+        AdIdPage cachedPage = adQueryCache.getPage(cacheKey);
+        if (cachedPage != null) {
+            log.debug("Filtered ads served from id cache. Key: {}", cacheKey);
+            return new PageImpl<>(hydrate(cachedPage.ids()), pageRequest, cachedPage.total());
         }
 
-        log.info("Promoted ads: {}, Non-promoted ads: {}", promoted.size(), nonPromoted.size());
-
-        nonPromoted.sort((ad1, ad2) -> {
-            float rating1 = (ad1.getUser().getRating() != null) ? ad1.getUser().getRating() : 0f;
-            float rating2 = (ad2.getUser().getRating() != null) ? ad2.getUser().getRating() : 0f;
-            return Float.compare(rating2, rating1);
-        });
-
-        List<Ad> sortedAds = new ArrayList<>();
-        sortedAds.addAll(promoted);
-        sortedAds.addAll(nonPromoted);
-
-        int pageNumber = pageable.getPageNumber();
-        int pageSize = pageable.getPageSize();
-        int fromIndex = pageNumber * pageSize;
-        int toIndex = Math.min(fromIndex + pageSize, sortedAds.size());
-
-        if (fromIndex > toIndex) {
-            return new PageImpl<>(Collections.emptyList(), pageable, sortedAds.size());
+        if (fullText) {
+            log.debug("Using full-text search for keyword: {}", keyword);
+            Page<UUID> ids = adRepository.searchFullText(keyword.trim(),
+                    (city != null && !city.trim().isEmpty()) ? city : null,
+                    category != null ? category.name() : null,
+                    minPrice, maxPrice, pageRequest);
+            log.info("Full-text search matched: {} of {}", ids.getNumberOfElements(), ids.getTotalElements());
+            adQueryCache.putPage(cacheKey, new AdIdPage(ids.getContent(), ids.getTotalElements()),
+                    AdCacheTags.filter(city, category));
+            return new PageImpl<>(hydrate(ids.getContent()), pageRequest, ids.getTotalElements());
         }
 
-        List<Ad> pagedAds = sortedAds.subList(fromIndex, toIndex);
-
-        List<AdResponseDto> result = pagedAds.stream()
-                .map(adMapper::toDto)
-                .collect(Collectors.toList());
+        Specification<Ad> spec = AdSpecification.combineSpecifications(city, category, minPrice, maxPrice, keyword)
+                .and(AdSpecification.isActive())
+                .and(AdSpecification.rankedOrder(sortBy, direction));
+        Page<AdSummaryDto> ads = adRepository.findSummaries(spec, pageRequest);
+        log.info("Filtered ads: {} of {}", ads.getNumberOfElements(), ads.getTotalElements());
 
-        log.info("Filtered ads: {}", result.size());
+        adQueryCache.putPage(cacheKey, new AdIdPage(ads.getContent().stream().map(AdSummaryDto::getId).toList(), ads.getTotalElements()),
+                AdCacheTags.filter(city, category));
+        adQueryCache.putAds(ads.getContent());
+        return ads;
+    }
 
-        return new PageImpl<>(result, pageable, sortedAds.size());
+    // offset pages are held to the same size as cursor slices, so a huge size can't hydrate the whole table
+    private static @NotNull Pageable capped(@NotNull Pageable pageable) {
+        return pageable.getPageSize() > MAX_PAGE_SIZE
+                ? PageRequest.of(pageable.getPageNumber(), MAX_PAGE_SIZE, pageable.getSort())
+                : pageable;
     }
 
-    @Override
-    @Transactional
-    @Caching(
-            evict = {
-                    @CacheEvict(value = "singleAd", key = "#adId"),
-                    @CacheEvict(value = "filteredAds", allEntries = true)
-            }
-    )
-    public AdResponseDto commentAd(UUID adId, String comment) {
-        log.info("Adding comment. Ad ID: {}", adId);
-        Ad ad = adRepository.findById(adId)
-                .orElseThrow(() -> {
-                    log.error("Ad not found. ID: {}", adId);
-                    return new ResourceNotFoundException("Ad", "id", String.valueOf(adId));
-                });
+    // the page part of the userAds, promotedAds and nonPromotedAds cache keys
+    private static @NotNull String pageKey(@NotNull Pageable pageable) {
+        return pageable.getPageNumber() + "-" + pageable.getPageSize();
+    }
 
-        String authenticatedUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findUserByUsername(authenticatedUsername)
-                .orElseThrow(() -> {
-                    log.error("User not found. Username: {}", authenticatedUsername);
-                    return new ResourceNotFoundException("User", "username", authenticatedUsername);
-                });
-        Comment newComment = new Comment();
-        newComment.setCommentText(comment);
-        newComment.setUser(user);
-        newComment.setAd(ad);
+    private @NotNull List<AdSummaryDto> hydrate(@NotNull List<UUID> ids) {
+        Map<UUID, AdSummaryDto> found = new HashMap<>(adQueryCache.getAds(ids));
+        List<UUID> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            log.debug("Loading {} ads missing from cache", missing.size());
+            List<AdSummaryDto> loaded = adRepository.findSummariesByIds(missing);
+            loaded.forEach(dto -> found.put(dto.getId(), dto));
+            adQueryCache.putAds(loaded);
+        }
+        // ads deleted since the id page was cached are skipped
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
 
-        Comment savedComment = commentRepository.saveAndFlush(newComment);
-        ad.getComments().add(savedComment);
-        Ad savedAd = adRepository.save(ad);
-        log.info("Comment added. Ad ID: {}, User: {}", adId, authenticatedUsername);
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CursorPageDto<AdSummaryDto> filterAdsByCursor(String city,
+                                                         Category category,
+                                                         BigDecimal minPrice,
+                                                         BigDecimal maxPrice,
+                                                         String keyword,
+                                                         String cursor,
+                                                         int size) {
+        log.info("Filtering ads by cursor. City: {}, Category: {}, MinPrice: {}, MaxPrice: {}, Keyword: {}, Size: {}",
+                city, category, minPrice, maxPrice, keyword, size);
+        Specification<Ad> spec = AdSpecification.combineSpecifications(city, category, minPrice, maxPrice, keyword)
+                .and(AdSpecification.isActive());
+        return findByCursor(spec, cursor, size);
+    }
 
-        return adMapper.toDto(savedAd);
+    private @NotNull CursorPageDto<AdSummaryDto> findByCursor(Specification<Ad> filter, String cursor, int size) {
+        if (size < 1) {
+            throw new InvalidArgumentException("Size must be a positive integer");
+        }
+        AdCursor after = (cursor == null || cursor.isBlank()) ? null : AdCursor.decode(cursor);
+        Specification<Ad> spec = filter
+                .and(AdSpecification.after(after))
+                .and(AdSpecification.keysetOrder());
+
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        // one extra row tells whether another slice exists without a count query
+        List<AdSummaryDto> ads = adRepository.findSummaries(spec, pageSize + 1);
+        boolean hasNext = ads.size() > pageSize;
+        List<AdSummaryDto> slice = hasNext ? ads.subList(0, pageSize) : ads;
+        String nextCursor = hasNext ? AdCursor.of(slice.get(slice.size() - 1)).encode() : null;
+
+        log.info("Fetched {} ads by cursor. Has next: {}", slice.size(), hasNext);
+        return new CursorPageDto<>(slice, nextCursor, hasNext);
     }
 
     @Override
     @Transactional
-    @Caching(
-            evict = {
-                    @CacheEvict(value = "singleAd", key = "#adId"),
-                    @CacheEvict(value = "userAds", allEntries = true),
-                    @CacheEvict(value = {"promotedAds", "nonPromotedAds", "filteredAds"}, allEntries = true)
-            }
-    )
     public AdResponseDto uploadAdImage(UUID adId, MultipartFile file) {
         log.info("Uploading image for ad. Ad ID: {}", adId);
         Ad ad = adRepository.findById(adId)
@@ -404,6 +427,7 @@ public class AdServiceImpl implements AdService {
         String imageUrl = minioService.uploadFile(file, "ads");
         ad.setImageUrl(imageUrl);
         Ad savedAd = adRepository.saveAndFlush(ad);
+        eventPublisher.publishEvent(new AdChangedEvent(savedAd, AdChangeType.UPDATED));
 
         log.info("Image uploaded successfully. Ad ID: {}, Image URL: {}", adId, imageUrl);
         return adMapper.toDto(savedAd);
@@ -411,13 +435,6 @@ public class AdServiceImpl implements AdService {
 
     @Override
     @Transactional
-    @Caching(
-            evict = {
-                    @CacheEvict(value = "singleAd", key = "#adId"),
-                    @CacheEvict(value = "userAds", allEntries = true),
-                    @CacheEvict(value = {"promotedAds", "nonPromotedAds", "filteredAds"}, allEntries = true)
-            }
-    )
     public void removeAdImage(UUID adId) {
         log.info("Removing image for ad. Ad ID: {}", adId);
         Ad ad = adRepository.findById(adId)
@@ -438,6 +455,7 @@ public class AdServiceImpl implements AdService {
             minioService.removeFile(objectName);
             ad.setImageUrl(null);
             adRepository.saveAndFlush(ad);
+            eventPublisher.publishEvent(new AdChangedEvent(ad, AdChangeType.UPDATED));
             log.info("Image removed successfully. Ad ID: {}, Object name: {}", adId, objectName);
         } else {
             log.warn("No image to remove. Ad ID: {}", adId);
@@ -0,0 +1,258 @@
+package com.neekostar.adsystem.service.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+import com.neekostar.adsystem.cache.AdQueryCache;
+import com.neekostar.adsystem.dto.AdSummaryDto;
+import com.neekostar.adsystem.event.AdChangeType;
+import com.neekostar.adsystem.event.AdChangedEvent;
+import com.neekostar.adsystem.event.AdsImportedEvent;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
+import com.neekostar.adsystem.exception.ResourceNotFoundException;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdStatus;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.repository.projection.AdTextView;
+import com.neekostar.adsystem.search.MinHash;
+import com.neekostar.adsystem.search.RebuildableIndex;
+import com.neekostar.adsystem.service.AdSimilarityService;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Service
+public class AdSimilarityServiceImpl implements AdSimilarityService {
+    static final int MAX_LIMIT = 20;
+    // 16 bands of 4 rows: pairs above ~0.5 similarity almost always share a bucket, pairs below ~0.2 rarely do
+    static final int BANDS = 16;
+    static final int ROWS = MinHash.SIGNATURE_SIZE / BANDS;
+    static final double MIN_SIMILARITY = 0.2;
+
+    private final AdRepository adRepository;
+    private final AdQueryCache adQueryCache;
+    private final double duplicateThreshold;
+    private final RebuildableIndex<SimilarityIndex> index = new RebuildableIndex<>(new SimilarityIndex());
+
+    @Autowired
+    public AdSimilarityServiceImpl(AdRepository adRepository,
+                                   AdQueryCache adQueryCache,
+                                   @Value("${ads.similar.duplicate-threshold:0.9}") double duplicateThreshold) {
+        this.adRepository = adRepository;
+        this.adQueryCache = adQueryCache;
+        this.duplicateThreshold = duplicateThreshold;
+    }
+
+    @Override
+    public List<AdSummaryDto> findSimilarAds(UUID adId, int limit) {
+        if (limit < 1) {
+            throw new InvalidArgumentException("Limit must be a positive integer");
+        }
+        log.debug("Finding ads similar to {}. Limit: {}", adId, limit);
+
+        List<UUID> ids = index.read(similarity -> similarity.similar(adId, Math.min(limit, MAX_LIMIT)));
+        if (ids == null) {
+            // sold, deleted and unknown ads are not indexed; only the last is an error
+            if (!adRepository.existsById(adId)) {
+                log.error("Ad not found. ID: {}", adId);
+                throw new ResourceNotFoundException("Ad", "id", String.valueOf(adId));
+            }
+            return List.of();
+        }
+        return hydrate(ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Rebuilding ad similarity index");
+        SimilarityIndex rebuilt = index.rebuild(() -> {
+            SimilarityIndex loaded = new SimilarityIndex();
+            try (Stream<AdTextView> views = adRepository.findTextViewsByStatus(AdStatus.ACTIVE)) {
+                views.forEach(view -> loaded.upsert(view.getId(), view.getUserId(), view.getCategory(),
+                        MinHash.shingles(view.getTitle(), view.getDescription())));
+            }
+            return loaded;
+        });
+        log.info("Ad similarity index rebuilt. Active ads: {}", rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdChanged(@NotNull AdChangedEvent event) {
+        Ad ad = event.getAd();
+        log.trace("Applying {} for ad {} to similarity index", event.getType(), ad.getId());
+
+        switch (event.getType()) {
+            case SOLD, DELETED -> index.update(similarity -> similarity.remove(ad.getId()));
+            case PROMOTED -> {
+                // title and description are unchanged, nothing to recompute
+            }
+            default -> {
+                if (ad.getStatus() == AdStatus.ACTIVE) {
+                    upsert(ad);
+                    if (event.getType() == AdChangeType.CREATED) {
+                        reportDuplicates(ad);
+                    }
+                } else {
+                    index.update(similarity -> similarity.remove(ad.getId()));
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdsImported(@NotNull AdsImportedEvent event) {
+        log.debug("Adding {} imported ads to similarity index", event.getAds().size());
+
+        event.getAds().forEach(this::upsert);
+        event.getAds().forEach(this::reportDuplicates);
+    }
+
+    private void upsert(@NotNull Ad ad) {
+        UUID sellerId = sellerId(ad);
+        Set<String> shingles = MinHash.shingles(ad.getTitle(), ad.getDescription());
+        index.update(similarity -> similarity.upsert(ad.getId(), sellerId, ad.getCategory(), shingles));
+    }
+
+    private void reportDuplicates(@NotNull Ad ad) {
+        UUID sellerId = sellerId(ad);
+        if (sellerId == null) {
+            return;
+        }
+        index.read(similarity -> similarity.duplicatesOf(ad.getId(), duplicateThreshold)).forEach(duplicateId ->
+                log.warn("Possible duplicate posting. Ad: {}, Similar ad: {}, Seller: {}", ad.getId(), duplicateId, sellerId));
+    }
+
+    private static UUID sellerId(@NotNull Ad ad) {
+        return ad.getUser() != null ? ad.getUser().getId() : null;
+    }
+
+    private @NotNull List<AdSummaryDto> hydrate(@NotNull List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, AdSummaryDto> found = new HashMap<>(adQueryCache.getAds(ids));
+        List<UUID> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            List<AdSummaryDto> loaded = adRepository.findSummariesByIds(missing);
+            loaded.forEach(dto -> found.put(dto.getId(), dto));
+            adQueryCache.putAds(loaded);
+        }
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    private record IndexedAd(UUID sellerId, Category category, int[] signature) {
+    }
+
+    // one bucket per (category, band, band hash), so candidates never cross categories
+    private record BucketKey(Category category, int band, int hash) {
+    }
+
+    private record Scored(UUID id, double similarity) {
+    }
+
+    private static class SimilarityIndex {
+        private final Map<UUID, IndexedAd> ads = new HashMap<>();
+        private final Map<BucketKey, Set<UUID>> buckets = new HashMap<>();
+
+        int size() {
+            return ads.size();
+        }
+
+        void upsert(UUID id, UUID sellerId, Category category, @NotNull Set<String> shingles) {
+            if (id == null || category == null) {
+                return;
+            }
+            remove(id);
+            if (shingles.isEmpty()) {
+                return;
+            }
+            IndexedAd entry = new IndexedAd(sellerId, category, MinHash.signature(shingles));
+            ads.put(id, entry);
+            for (BucketKey key : keys(entry)) {
+                buckets.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+            }
+        }
+
+        void remove(UUID id) {
+            IndexedAd previous = ads.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (BucketKey key : keys(previous)) {
+                Set<UUID> bucket = buckets.get(key);
+                if (bucket != null) {
+                    bucket.remove(id);
+                    if (bucket.isEmpty()) {
+                        buckets.remove(key);
+                    }
+                }
+            }
+        }
+
+        // null when the ad is not indexed
+        List<UUID> similar(UUID id, int limit) {
+            IndexedAd entry = ads.get(id);
+            if (entry == null) {
+                return null;
+            }
+            return scoredCandidates(id, entry)
+                    .filter(scored -> scored.similarity() >= MIN_SIMILARITY)
+                    .sorted(Comparator.comparingDouble(Scored::similarity).reversed().thenComparing(Scored::id))
+                    .limit(limit)
+                    .map(Scored::id)
+                    .toList();
+        }
+
+        List<UUID> duplicatesOf(UUID id, double threshold) {
+            IndexedAd entry = ads.get(id);
+            if (entry == null) {
+                return List.of();
+            }
+            return scoredCandidates(id, entry)
+                    .filter(scored -> scored.similarity() >= threshold
+                            && Objects.equals(ads.get(scored.id()).sellerId(), entry.sellerId()))
+                    .map(Scored::id)
+                    .toList();
+        }
+
+        private Stream<Scored> scoredCandidates(UUID id, IndexedAd entry) {
+            Set<UUID> candidates = new HashSet<>();
+            for (BucketKey key : keys(entry)) {
+                Collection<UUID> bucket = buckets.get(key);
+                if (bucket != null) {
+                    candidates.addAll(bucket);
+                }
+            }
+            candidates.remove(id);
+            return candidates.stream()
+                    .map(candidate -> new Scored(candidate, MinHash.similarity(entry.signature(), ads.get(candidate).signature())));
+        }
+
+        private static BucketKey[] keys(@NotNull IndexedAd entry) {
+            BucketKey[] keys = new BucketKey[BANDS];
+            for (int band = 0; band < BANDS; band++) {
+                int hash = Arrays.hashCode(Arrays.copyOfRange(entry.signature(), band * ROWS, (band + 1) * ROWS));
+                keys[band] = new BucketKey(entry.category(), band, hash);
+            }
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.neekostar.adsystem.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import com.neekostar.adsystem.dto.AdSuggestionDto;
+import com.neekostar.adsystem.event.AdChangedEvent;
+import com.neekostar.adsystem.event.AdsImportedEvent;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdStatus;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.repository.projection.AdTitleView;
+import com.neekostar.adsystem.search.RebuildableIndex;
+import com.neekostar.adsystem.service.AdSuggestService;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Service
+public class AdSuggestServiceImpl implements AdSuggestService {
+    static final int MAX_LIMIT = 20;
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final Pattern TERM_DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final AdRepository adRepository;
+    private final RebuildableIndex<TermIndex> index = new RebuildableIndex<>(new TermIndex());
+
+    @Autowired
+    public AdSuggestServiceImpl(AdRepository adRepository) {
+        this.adRepository = adRepository;
+    }
+
+    @Override
+    public List<AdSuggestionDto> suggest(String query, int limit) {
+        if (limit < 1) {
+            throw new InvalidArgumentException("Limit must be a positive integer");
+        }
+        if (query == null || query.isBlank()) {
+            return Collections.emptyList();
+        }
+        String normalized = normalize(query);
+        // a trailing delimiter means the last word is already complete
+        if (normalized.isEmpty() || !Character.isLetterOrDigit(normalized.charAt(normalized.length() - 1))) {
+            return Collections.emptyList();
+        }
+        String[] words = TERM_DELIMITER.split(normalized);
+        String prefix = words[words.length - 1];
+        String leading = String.join(" ", Arrays.copyOf(words, words.length - 1)).trim();
+
+        List<Map.Entry<String, Integer>> terms = index.read(termIndex -> termIndex.top(prefix, Math.min(limit, MAX_LIMIT)));
+        return terms.stream()
+                .map(term -> new AdSuggestionDto(leading.isEmpty() ? term.getKey() : leading + " " + term.getKey(), term.getValue()))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Rebuilding ad title suggest index");
+        TermIndex rebuilt = index.rebuild(() -> {
+            TermIndex loaded = new TermIndex();
+            try (Stream<AdTitleView> views = adRepository.findTitleViewsByStatus(AdStatus.ACTIVE)) {
+                views.forEach(view -> loaded.upsert(view.getId(), view.getTitle()));
+            }
+            return loaded;
+        });
+        log.info("Ad title suggest index rebuilt. Active ads: {}, Terms: {}", rebuilt.size(), rebuilt.termCount());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdChanged(@NotNull AdChangedEvent event) {
+        Ad ad = event.getAd();
+        log.trace("Applying {} for ad {} to suggest index", event.getType(), ad.getId());
+
+        index.update(termIndex -> {
+            switch (event.getType()) {
+                case SOLD, DELETED -> termIndex.remove(ad.getId());
+                default -> {
+                    if (ad.getStatus() == AdStatus.ACTIVE) {
+                        termIndex.upsert(ad.getId(), ad.getTitle());
+                    } else {
+                        termIndex.remove(ad.getId());
+                    }
+                }
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdsImported(@NotNull AdsImportedEvent event) {
+        log.debug("Adding {} imported ads to suggest index", event.getAds().size());
+
+        index.update(termIndex -> event.getAds().forEach(ad -> termIndex.upsert(ad.getId(), ad.getTitle())));
+    }
+
+    private static @NotNull String normalize(@NotNull String text) {
+        return text.toLowerCase(Locale.ROOT).stripLeading();
+    }
+
+    static @NotNull Set<String> terms(String title) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (title == null) {
+            return terms;
+        }
+        for (String term : TERM_DELIMITER.split(normalize(title))) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    // sorted term dictionary: every term starting with a prefix sits in one contiguous range of the tree
+    private static class TermIndex {
+        private static final Comparator<Map.Entry<String, Integer>> BY_FREQUENCY =
+                Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+        private final Map<UUID, Set<String>> adTerms = new HashMap<>();
+        private final NavigableMap<String, Integer> termCounts = new TreeMap<>();
+
+        int size() {
+            return adTerms.size();
+        }
+
+        int termCount() {
+            return termCounts.size();
+        }
+
+        void upsert(UUID id, String title) {
+            if (id == null) {
+                return;
+            }
+            remove(id);
+            Set<String> terms = terms(title);
+            if (terms.isEmpty()) {
+                return;
+            }
+            adTerms.put(id, terms);
+            terms.forEach(term -> termCounts.merge(term, 1, Integer::sum));
+        }
+
+        void remove(UUID id) {
+            Set<String> previous = adTerms.remove(id);
+            if (previous != null) {
+                previous.forEach(term -> termCounts.computeIfPresent(term, (key, count) -> count > 1 ? count - 1 : null));
+            }
+        }
+
+        // keeps only the best `limit` terms of the range in a small heap instead of sorting the whole range
+        List<Map.Entry<String, Integer>> top(String prefix, int limit) {
+            PriorityQueue<Map.Entry<String, Integer>> best = new PriorityQueue<>(limit + 1, BY_FREQUENCY.reversed());
+            for (Map.Entry<String, Integer> entry : termCounts.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+                best.offer(Map.entry(entry.getKey(), entry.getValue()));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<Map.Entry<String, Integer>> result = new ArrayList<>(best);
+            result.sort(BY_FREQUENCY);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.neekostar.adsystem.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import com.neekostar.adsystem.service.AdViewService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class AdViewServiceImpl implements AdViewService {
+    static final String INCREMENT_VIEW_COUNT = "UPDATE ads SET view_count = view_count + ? WHERE id = ?";
+
+    // LongAdder stripes its cells per thread, so concurrent views of one hot ad do not contend on a single CAS
+    private final Map<UUID, LongAdder> counters = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public AdViewServiceImpl(JdbcTemplate jdbcTemplate,
+                             @Value("${ads.views.flush-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void recordView(@NotNull UUID adId) {
+        counters.computeIfAbsent(adId, id -> new LongAdder()).increment();
+    }
+
+    @Override
+    public int flush() {
+        List<Object[]> increments = drain();
+        if (increments.isEmpty()) {
+            return 0;
+        }
+
+        int flushed = 0;
+        for (int from = 0; from < increments.size(); from += batchSize) {
+            List<Object[]> batch = increments.subList(from, Math.min(from + batchSize, increments.size()));
+            try {
+                jdbcTemplate.batchUpdate(INCREMENT_VIEW_COUNT, batch);
+                flushed += batch.size();
+            } catch (DataAccessException e) {
+                // put the views back, the next flush retries them
+                log.error("Failed to flush view counts of {} ads: {}", batch.size(), e.getMessage());
+                batch.forEach(row -> counters.computeIfAbsent((UUID) row[1], id -> new LongAdder()).add((Long) row[0]));
+            }
+        }
+        log.debug("Flushed view counts of {} ads", flushed);
+        return flushed;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing pending ad views before shutdown");
+        flush();
+    }
+
+    private @NotNull List<Object[]> drain() {
+        List<Object[]> increments = new ArrayList<>();
+        counters.forEach((adId, counter) -> {
+            long views = counter.sumThenReset();
+            if (views > 0) {
+                increments.add(new Object[]{views, adId});
+            } else {
+                // idle since the last flush, drop the entry so the map only holds recently viewed ads;
+                // a view racing this removal can be lost, which is acceptable for a view counter
+                counters.remove(adId, counter);
+            }
+        });
+        return increments;
+    }
+}
@@ -0,0 +1,37 @@
+package com.neekostar.adsystem.service.impl;
+
+import com.neekostar.adsystem.exception.AccessDeniedException;
+import com.neekostar.adsystem.realtime.SseEmitterRegistry;
+import com.neekostar.adsystem.service.ChatEventStreamService;
+import com.neekostar.adsystem.service.ChatService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@Service
+public class ChatEventStreamServiceImpl implements ChatEventStreamService {
+    private final ChatService chatService;
+    private final SseEmitterRegistry sseEmitterRegistry;
+
+    @Autowired
+    public ChatEventStreamServiceImpl(ChatService chatService, SseEmitterRegistry sseEmitterRegistry) {
+        this.chatService = chatService;
+        this.sseEmitterRegistry = sseEmitterRegistry;
+    }
+
+    @Override
+    public SseEmitter openStream(String username) {
+        log.info("Opening chat event stream for user {}", username);
+        String authenticatedUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+        if (!authenticatedUsername.equals(username)) {
+            log.error("User {} attempted to open the event stream of user {}", authenticatedUsername, username);
+            throw new AccessDeniedException("You can only subscribe to your own events");
+        }
+        // the stream starts with the full counters and the events after it carry absolute per-chat values;
+        // the registry reads the snapshot only once the stream is registered, so no change falls in between
+        return sseEmitterRegistry.open(username, () -> chatService.getUnreadInfo(username));
+    }
+}
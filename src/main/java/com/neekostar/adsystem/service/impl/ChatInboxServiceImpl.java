@@ -0,0 +1,105 @@
+package com.neekostar.adsystem.service.impl;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import com.neekostar.adsystem.model.Chat;
+import com.neekostar.adsystem.model.ChatInbox;
+import com.neekostar.adsystem.model.Message;
+import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.repository.ChatInboxRepository;
+import com.neekostar.adsystem.repository.MessageRepository;
+import com.neekostar.adsystem.service.ChatInboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@Transactional
+public class ChatInboxServiceImpl implements ChatInboxService {
+    private static final int PARTICIPANTS = 2;
+
+    private final ChatInboxRepository chatInboxRepository;
+    private final MessageRepository messageRepository;
+
+    @Autowired
+    public ChatInboxServiceImpl(ChatInboxRepository chatInboxRepository,
+                                MessageRepository messageRepository) {
+        this.chatInboxRepository = chatInboxRepository;
+        this.messageRepository = messageRepository;
+    }
+
+    @Override
+    public void createInbox(@NotNull Chat chat) {
+        chatInboxRepository.saveAll(List.of(newInbox(chat, chat.getUser1()), newInbox(chat, chat.getUser2())));
+        log.debug("Inbox rows created for chat '{}'", chat.getId());
+    }
+
+    @Override
+    public void recordMessage(@NotNull Message message) {
+        UUID chatId = message.getChat().getId();
+        int updated = chatInboxRepository.recordMessage(chatId, message.getRecipient().getId(), message.getId(),
+                message.getCreatedAt(), message.getEncryptedContent());
+        if (updated < PARTICIPANTS) {
+            log.warn("Inbox rows missing for chat '{}', recreating them", chatId);
+            restoreMissing(message);
+        }
+    }
+
+    @Override
+    public void recordUpdated(@NotNull Message message) {
+        chatInboxRepository.updatePreview(message.getChat().getId(), message.getId(), message.getEncryptedContent());
+    }
+
+    @Override
+    public void recordDeleted(@NotNull Message message) {
+        UUID chatId = message.getChat().getId();
+        if (!message.isRead()) {
+            chatInboxRepository.decrementUnread(chatId, message.getRecipient().getId(), 1);
+        }
+        // only rows still pointing at the deleted message fall back to the message before it
+        List<Message> latest = messageRepository.findLatestByChatId(chatId, Limit.of(1));
+        Message previous = latest.isEmpty() ? null : latest.get(0);
+        chatInboxRepository.replaceLastMessage(chatId, message.getId(),
+                previous != null ? previous.getId() : null,
+                previous != null ? previous.getCreatedAt() : null,
+                previous != null ? previous.getEncryptedContent() : null);
+    }
+
+    @Override
+    public void markRead(UUID chatId, UUID userId, int count) {
+        if (count > 0) {
+            chatInboxRepository.decrementUnread(chatId, userId, count);
+        }
+    }
+
+    private void restoreMissing(@NotNull Message message) {
+        Chat chat = message.getChat();
+        Set<UUID> present = chatInboxRepository.findByChatId(chat.getId()).stream()
+                .map(inbox -> inbox.getUser().getId())
+                .collect(Collectors.toSet());
+        for (User participant : List.of(chat.getUser1(), chat.getUser2())) {
+            if (present.contains(participant.getId())) {
+                continue;
+            }
+            ChatInbox inbox = newInbox(chat, participant);
+            inbox.setLastMessageId(message.getId());
+            inbox.setLastMessageAt(message.getCreatedAt());
+            inbox.setLastMessagePreview(message.getEncryptedContent());
+            inbox.setUnreadCount((int) messageRepository.countByChatIdAndRecipientIdAndReadFalse(chat.getId(), participant.getId()));
+            chatInboxRepository.save(inbox);
+        }
+    }
+
+    private @NotNull ChatInbox newInbox(Chat chat, User user) {
+        ChatInbox inbox = new ChatInbox();
+        inbox.setChat(chat);
+        inbox.setUser(user);
+        return inbox;
+    }
+}
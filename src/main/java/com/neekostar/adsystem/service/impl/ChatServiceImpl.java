@@ -11,9 +11,12 @@ import com.neekostar.adsystem.exception.AccessDeniedException;
 import com.neekostar.adsystem.exception.ResourceNotFoundException;
 import com.neekostar.adsystem.mapper.ChatMapper;
 import com.neekostar.adsystem.model.Chat;
+import com.neekostar.adsystem.model.ChatInbox;
 import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.repository.ChatInboxRepository;
 import com.neekostar.adsystem.repository.ChatRepository;
 import com.neekostar.adsystem.repository.UserRepository;
+import com.neekostar.adsystem.service.ChatInboxService;
 import com.neekostar.adsystem.service.ChatService;
 import com.neekostar.adsystem.service.EncryptionService;
 import lombok.extern.slf4j.Slf4j;
@@ -26,21 +29,28 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @Transactional
 public class ChatServiceImpl implements ChatService {
+    static final int PREVIEW_LENGTH = 100;
 
     private final ChatRepository chatRepository;
+    private final ChatInboxRepository chatInboxRepository;
     private final UserRepository userRepository;
     private final ChatMapper chatMapper;
     private final EncryptionService encryptionService;
+    private final ChatInboxService chatInboxService;
 
     @Autowired
     public ChatServiceImpl(ChatRepository chatRepository,
+                           ChatInboxRepository chatInboxRepository,
                            UserRepository userRepository,
                            ChatMapper chatMapper,
-                           EncryptionService encryptionService) {
+                           EncryptionService encryptionService,
+                           ChatInboxService chatInboxService) {
         this.chatRepository = chatRepository;
+        this.chatInboxRepository = chatInboxRepository;
         this.userRepository = userRepository;
         this.chatMapper = chatMapper;
         this.encryptionService = encryptionService;
+        this.chatInboxService = chatInboxService;
     }
 
     @Override
@@ -75,6 +85,7 @@ public class ChatServiceImpl implements ChatService {
         newChat.setUser1(initiator);
         newChat.setUser2(other);
         Chat savedChat = chatRepository.saveAndFlush(newChat);
+        chatInboxService.createInbox(savedChat);
         log.info("New chat created between {} and {}", initiatorUsername, otherUsername);
 
         return savedChat;
@@ -92,22 +103,14 @@ public class ChatServiceImpl implements ChatService {
         User user = userRepository.findUserByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
 
-        List<Chat> chats = chatRepository.findByUser1OrUser2(user, user);
-        for (Chat chat : chats) {
-            chat.calculateUnreadMessagesFor(username);
-            chat.getMessages().forEach(message -> {
-                try {
-                    String decrypted = encryptionService.decrypt(message.getEncryptedContent());
-                    message.setPlainContent(decrypted);
-                } catch (Exception e) {
-                    log.error("Failed to decrypt message with id {}: {}", message.getId(), e.getMessage());
-                    message.setPlainContent(null);
-                }
-            });
-        }
-
-        return chats.stream()
-                .map(chatMapper::toDto)
+        // the inbox keeps the latest message and unread count per chat, so no message is loaded here
+        return chatInboxRepository.findInboxByUserId(user.getId()).stream()
+                .map(inbox -> {
+                    ChatResponseDto dto = chatMapper.toListDto(inbox);
+                    dto.setMessages(new ArrayList<>());
+                    dto.setLastMessagePreview(preview(inbox));
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 
@@ -155,15 +158,7 @@ public class ChatServiceImpl implements ChatService {
         User user = userRepository.findUserByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
 
-        List<Chat> chats = chatRepository.findByUser1OrUser2(user, user);
-        int unreadChats = 0;
-        for (Chat chat : chats) {
-            chat.calculateUnreadMessagesFor(username);
-            if (chat.getUnreadMessagesCount() > 0) {
-                unreadChats++;
-            }
-        }
-        return unreadChats;
+        return (int) chatInboxRepository.countByUserIdAndUnreadCountGreaterThan(user.getId(), 0);
     }
 
     @Override
@@ -180,17 +175,16 @@ public class ChatServiceImpl implements ChatService {
         User user = userRepository.findUserByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
 
-        List<Chat> chats = chatRepository.findByUser1OrUser2(user, user);
+        List<ChatInbox> inboxes = chatInboxRepository.findByUserId(user.getId());
 
         List<ChatUnreadDto> chatUnreadList = new ArrayList<>();
         int totalUnread = 0;
 
-        for (Chat chat : chats) {
-            chat.calculateUnreadMessagesFor(username);
-            int unreadMessages = chat.getUnreadMessagesCount();
+        for (ChatInbox inbox : inboxes) {
+            int unreadMessages = inbox.getUnreadCount();
 
             ChatUnreadDto chatUnreadDto = new ChatUnreadDto();
-            chatUnreadDto.setChatId(chat.getId());
+            chatUnreadDto.setChatId(inbox.getChat().getId());
             chatUnreadDto.setUnreadCount(unreadMessages);
 
             chatUnreadList.add(chatUnreadDto);
@@ -204,4 +198,17 @@ public class ChatServiceImpl implements ChatService {
 
         return result;
     }
+
+    private String preview(ChatInbox inbox) {
+        if (inbox.getLastMessagePreview() == null) {
+            return null;
+        }
+        try {
+            String decrypted = encryptionService.decrypt(inbox.getLastMessagePreview());
+            return decrypted.length() > PREVIEW_LENGTH ? decrypted.substring(0, PREVIEW_LENGTH) : decrypted;
+        } catch (Exception e) {
+            log.error("Failed to decrypt last message of chat {}: {}", inbox.getChat().getId(), e.getMessage());
+            return null;
+        }
+    }
 }
@@ -0,0 +1,107 @@
+package com.neekostar.adsystem.service.impl;
+
+import java.util.List;
+import java.util.UUID;
+import com.neekostar.adsystem.dto.CommentResponseDto;
+import com.neekostar.adsystem.dto.CursorPageDto;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
+import com.neekostar.adsystem.exception.ResourceNotFoundException;
+import com.neekostar.adsystem.mapper.CommentMapper;
+import com.neekostar.adsystem.model.Comment;
+import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.pagination.CommentCursor;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.repository.CommentRepository;
+import com.neekostar.adsystem.repository.UserRepository;
+import com.neekostar.adsystem.service.AdRankingService;
+import com.neekostar.adsystem.service.CommentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class CommentServiceImpl implements CommentService {
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final CommentRepository commentRepository;
+    private final AdRepository adRepository;
+    private final UserRepository userRepository;
+    private final CommentMapper commentMapper;
+    private final AdRankingService adRankingService;
+
+    @Autowired
+    public CommentServiceImpl(CommentRepository commentRepository,
+                              AdRepository adRepository,
+                              UserRepository userRepository,
+                              CommentMapper commentMapper,
+                              AdRankingService adRankingService) {
+        this.commentRepository = commentRepository;
+        this.adRepository = adRepository;
+        this.userRepository = userRepository;
+        this.commentMapper = commentMapper;
+        this.adRankingService = adRankingService;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(value = "singleAd", key = "#adId")
+    public CommentResponseDto addComment(UUID adId, String commentText) {
+        log.info("Adding comment. Ad ID: {}", adId);
+        // the counter update doubles as the existence check, so the ad itself is never loaded
+        if (adRepository.incrementCommentCount(adId) == 0) {
+            log.error("Ad not found. ID: {}", adId);
+            throw new ResourceNotFoundException("Ad", "id", String.valueOf(adId));
+        }
+        // the comment count feeds the engagement part of the rank score
+        adRankingService.refreshAds(List.of(adId));
+
+        String authenticatedUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userRepository.findUserByUsername(authenticatedUsername)
+                .orElseThrow(() -> {
+                    log.error("User not found. Username: {}", authenticatedUsername);
+                    return new ResourceNotFoundException("User", "username", authenticatedUsername);
+                });
+
+        Comment comment = new Comment();
+        comment.setCommentText(commentText);
+        comment.setUser(user);
+        comment.setAd(adRepository.getReferenceById(adId));
+        Comment savedComment = commentRepository.save(comment);
+        log.info("Comment added. Ad ID: {}, User: {}", adId, authenticatedUsername);
+
+        return commentMapper.toDTO(savedComment);
+    }
+
+    @Override
+    public CursorPageDto<CommentResponseDto> getComments(UUID adId, String cursor, int size) {
+        log.info("Fetching comments. Ad ID: {}, Size: {}", adId, size);
+        if (size < 1) {
+            throw new InvalidArgumentException("Size must be a positive integer");
+        }
+        CommentCursor before = (cursor == null || cursor.isBlank()) ? null : CommentCursor.decode(cursor);
+
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        // one extra row tells whether another slice exists without a count query
+        Limit limit = Limit.of(pageSize + 1);
+        List<Comment> comments = before == null
+                ? commentRepository.findLatestByAdId(adId, limit)
+                : commentRepository.findByAdIdBefore(adId, before.createdAt(), before.id(), limit);
+        if (comments.isEmpty() && !adRepository.existsById(adId)) {
+            log.error("Ad not found. ID: {}", adId);
+            throw new ResourceNotFoundException("Ad", "id", String.valueOf(adId));
+        }
+
+        boolean hasNext = comments.size() > pageSize;
+        List<Comment> slice = hasNext ? comments.subList(0, pageSize) : comments;
+        String nextCursor = hasNext ? CommentCursor.of(slice.get(slice.size() - 1)).encode() : null;
+
+        log.info("Fetched {} comments. Ad ID: {}, Has next: {}", slice.size(), adId, hasNext);
+        return new CursorPageDto<>(slice.stream().map(commentMapper::toDTO).toList(), nextCursor, hasNext);
+    }
+}
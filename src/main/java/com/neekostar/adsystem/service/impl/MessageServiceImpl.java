@@ -1,25 +1,35 @@
 package com.neekostar.adsystem.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import com.neekostar.adsystem.dto.MessageCreateDto;
+import com.neekostar.adsystem.dto.MessagePageDto;
 import com.neekostar.adsystem.dto.MessageResponseDto;
 import com.neekostar.adsystem.dto.MessageUpdateDto;
+import com.neekostar.adsystem.event.MessageSentEvent;
+import com.neekostar.adsystem.event.MessagesReadEvent;
 import com.neekostar.adsystem.exception.AccessDeniedException;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
 import com.neekostar.adsystem.exception.ResourceNotFoundException;
 import com.neekostar.adsystem.mapper.MessageMapper;
 import com.neekostar.adsystem.model.Chat;
 import com.neekostar.adsystem.model.Message;
 import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.pagination.MessageCursor;
 import com.neekostar.adsystem.repository.ChatRepository;
 import com.neekostar.adsystem.repository.MessageRepository;
 import com.neekostar.adsystem.repository.UserRepository;
+import com.neekostar.adsystem.service.ChatInboxService;
 import com.neekostar.adsystem.service.EncryptionService;
 import com.neekostar.adsystem.service.MessageService;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,24 +38,31 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @Transactional
 public class MessageServiceImpl implements MessageService {
+    static final int MAX_PAGE_SIZE = 100;
 
     private final ChatRepository chatRepository;
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
     private final EncryptionService encryptionService;
     private final MessageMapper messageMapper;
+    private final ChatInboxService chatInboxService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public MessageServiceImpl(ChatRepository chatRepository,
                               MessageRepository messageRepository,
                               UserRepository userRepository,
                               EncryptionService encryptionService,
-                              MessageMapper messageMapper) {
+                              MessageMapper messageMapper,
+                              ChatInboxService chatInboxService,
+                              ApplicationEventPublisher eventPublisher) {
         this.chatRepository = chatRepository;
         this.messageRepository = messageRepository;
         this.userRepository = userRepository;
         this.encryptionService = encryptionService;
         this.messageMapper = messageMapper;
+        this.chatInboxService = chatInboxService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -88,6 +105,9 @@ public class MessageServiceImpl implements MessageService {
 
         messageRepository.saveAndFlush(message);
         log.info("Message saved with id '{}' in chat '{}'", message.getId(), chatId);
+        chatInboxService.recordMessage(message);
+        eventPublisher.publishEvent(new MessageSentEvent(chatId, message.getId(), senderUsername,
+                recipient.getId(), recipient.getUsername(), encryptedMessage, message.getCreatedAt()));
 
         message.setPlainContent(dto.getMessageText());
         autoMarkIncomingAsRead(chat, sender);
@@ -97,13 +117,21 @@ public class MessageServiceImpl implements MessageService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<MessageResponseDto> getMessagesForChat(String username, UUID chatId) {
-        log.info("Fetching messages for chat '{}' for user '{}'", chatId, username);
+    public MessagePageDto getMessagesForChat(String username, UUID chatId, String before, String after, int size) {
+        log.info("Fetching messages for chat '{}' for user '{}'. Size: {}", chatId, username, size);
         String authenticatedUsername = SecurityContextHolder.getContext().getAuthentication().getName();
         if (!authenticatedUsername.equals(username)) {
             log.error("User '{}' attempted to access messages of user '{}'", authenticatedUsername, username);
             throw new AccessDeniedException("You can only access your own messages");
         }
+        if (size < 1) {
+            throw new InvalidArgumentException("Size must be a positive integer");
+        }
+        if (!isBlank(before) && !isBlank(after)) {
+            throw new InvalidArgumentException("Only one of 'before' and 'after' may be given");
+        }
+        MessageCursor beforeCursor = isBlank(before) ? null : MessageCursor.decode(before);
+        MessageCursor afterCursor = isBlank(after) ? null : MessageCursor.decode(after);
 
         Chat chat = chatRepository.findById(chatId)
                 .orElseThrow(() -> {
@@ -115,10 +143,36 @@ public class MessageServiceImpl implements MessageService {
             throw new AccessDeniedException("You can only access your own chats");
         }
 
-        List<Message> messages = messageRepository.findByChatOrderByCreatedAtAsc(chat);
-        log.info("Found {} messages in chat '{}'", messages.size(), chatId);
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        // one extra row tells whether the history continues in the paging direction without a count query
+        Limit limit = Limit.of(pageSize + 1);
+        List<Message> messages;
+        if (afterCursor != null) {
+            messages = messageRepository.findByChatIdAfter(chatId, afterCursor.createdAt(), afterCursor.id(), limit);
+        } else if (beforeCursor != null) {
+            messages = messageRepository.findByChatIdBefore(chatId, beforeCursor.createdAt(), beforeCursor.id(), limit);
+        } else {
+            messages = messageRepository.findLatestByChatId(chatId, limit);
+        }
 
-        return messages.stream()
+        boolean hasMore = messages.size() > pageSize;
+        List<Message> page = new ArrayList<>(hasMore ? messages.subList(0, pageSize) : messages);
+        if (afterCursor == null) {
+            // older pages are read newest first, the client always gets them in chronological order
+            Collections.reverse(page);
+        }
+        boolean hasBefore = afterCursor != null || hasMore;
+        boolean hasAfter = afterCursor != null ? hasMore : beforeCursor != null;
+
+        // an empty page keeps the requested position, so polling with 'after' can simply retry the same cursor
+        MessageCursor position = afterCursor != null ? afterCursor : beforeCursor;
+        MessageCursor first = page.isEmpty() ? position : MessageCursor.of(page.get(0));
+        MessageCursor last = page.isEmpty() ? position : MessageCursor.of(page.get(page.size() - 1));
+        String nextBefore = hasBefore && first != null ? first.encode() : null;
+        String nextAfter = last != null ? last.encode() : null;
+
+        // only the returned page is decrypted
+        List<MessageResponseDto> content = page.stream()
                 .map(message -> {
                     try {
                         String decrypted = encryptionService.decrypt(message.getEncryptedContent());
@@ -130,6 +184,9 @@ public class MessageServiceImpl implements MessageService {
                     return messageMapper.toDto(message);
                 })
                 .collect(Collectors.toList());
+        log.info("Found {} messages in chat '{}'. Has before: {}, Has after: {}", content.size(), chatId, hasBefore, hasAfter);
+
+        return new MessagePageDto(content, nextBefore, nextAfter, hasBefore, hasAfter);
     }
 
     @Override
@@ -149,14 +206,21 @@ public class MessageServiceImpl implements MessageService {
             log.error("User '{}' attempted to mark message '{}' as read which is not addressed to them", username, messageId);
             throw new AccessDeniedException("You can only mark your own messages as read");
         }
+        if (message.isRead()) {
+            log.debug("Message '{}' is already read", messageId);
+            return;
+        }
         message.markAsRead();
         messageRepository.saveAndFlush(message);
+        chatInboxService.markRead(message.getChat().getId(), message.getRecipient().getId(), 1);
+        eventPublisher.publishEvent(new MessagesReadEvent(message.getChat().getId(), message.getRecipient().getId(),
+                username, message.getSender().getUsername(), messageId, 1));
         log.info("Message '{}' marked as read successfully", messageId);
     }
 
     @Override
     @Transactional
-    public void markAllMessagesAsRead(String username, UUID chatId) {
+    public int markAllMessagesAsRead(String username, UUID chatId) {
         log.info("Marking all unread messages as read in chat '{}' for user '{}'", chatId, username);
 
         String authenticatedUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -176,18 +240,58 @@ public class MessageServiceImpl implements MessageService {
             throw new AccessDeniedException("You can only read messages in your own chat");
         }
 
-        List<Message> unreadMessages = chat.getMessages().stream()
-                .filter(m -> !m.isRead() && m.getRecipient().getUsername().equals(username))
-                .collect(Collectors.toList());
-
-        if (unreadMessages.isEmpty()) {
+        UUID readerId = participant(chat, username).getId();
+        int marked = messageRepository.markAllAsRead(chatId, readerId);
+        if (marked == 0) {
             log.info("No unread messages found in chat '{}' for user '{}'", chatId, username);
-            return;
+            return 0;
+        }
+        // by the count actually marked, a message that arrived after the UPDATE stays counted
+        chatInboxService.markRead(chatId, readerId, marked);
+        eventPublisher.publishEvent(new MessagesReadEvent(chatId, readerId, username,
+                otherParticipant(chat, username).getUsername(), null, marked));
+        log.info("{} messages were marked as read in chat '{}' for user '{}'", marked, chatId, username);
+        return marked;
+    }
+
+    @Override
+    @Transactional
+    public int markMessagesAsReadUpTo(String username, UUID chatId, UUID messageId) {
+        log.info("Marking messages up to '{}' as read in chat '{}' for user '{}'", messageId, chatId, username);
+
+        String authenticatedUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+        if (!authenticatedUsername.equals(username)) {
+            log.error("User '{}' attempted to mark messages as read on behalf of '{}'", authenticatedUsername, username);
+            throw new AccessDeniedException("You can only mark your own incoming messages as read");
         }
 
-        unreadMessages.forEach(Message::markAsRead);
-        messageRepository.saveAllAndFlush(unreadMessages);
-        log.info("{} messages were marked as read in chat '{}' for user '{}'", unreadMessages.size(), chatId, username);
+        Chat chat = chatRepository.findById(chatId)
+                .orElseThrow(() -> {
+                    log.error("Chat not found: {}", chatId);
+                    return new ResourceNotFoundException("Chat", "id", chatId.toString());
+                });
+        if (!isParticipant(chat, username)) {
+            log.error("User '{}' is not a participant of chat '{}'", username, chatId);
+            throw new AccessDeniedException("You can only read messages in your own chat");
+        }
+
+        Message watermark = messageRepository.findById(messageId)
+                .filter(message -> message.getChat().getId().equals(chatId))
+                .orElseThrow(() -> {
+                    log.error("Message '{}' not found in chat '{}'", messageId, chatId);
+                    return new ResourceNotFoundException("Message", "id", messageId.toString());
+                });
+
+        // everything the reader has scrolled past, i.e. up to and including the watermark message
+        UUID readerId = participant(chat, username).getId();
+        int marked = messageRepository.markAsReadUpTo(chatId, readerId, watermark.getCreatedAt(), watermark.getId());
+        chatInboxService.markRead(chatId, readerId, marked);
+        if (marked > 0) {
+            eventPublisher.publishEvent(new MessagesReadEvent(chatId, readerId, username,
+                    otherParticipant(chat, username).getUsername(), watermark.getId(), marked));
+        }
+        log.info("{} messages were marked as read in chat '{}' for user '{}'", marked, chatId, username);
+        return marked;
     }
 
     @Override
@@ -213,6 +317,7 @@ public class MessageServiceImpl implements MessageService {
         message.setEncryptedContent(encryptedMessage);
         message.setPlainContent(updateDto.getNewMessageText());
         messageRepository.saveAndFlush(message);
+        chatInboxService.recordUpdated(message);
         log.info("Message '{}' updated successfully", messageId);
 
         return messageMapper.toDto(message);
@@ -237,24 +342,38 @@ public class MessageServiceImpl implements MessageService {
             throw new AccessDeniedException("You can only delete your own messages");
         }
         messageRepository.delete(message);
+        messageRepository.flush();
+        chatInboxService.recordDeleted(message);
         log.info("Message '{}' deleted successfully", messageId);
     }
 
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
     private boolean isParticipant(@NotNull Chat chat, String username) {
         boolean participant = chat.getUser1().getUsername().equals(username) || chat.getUser2().getUsername().equals(username);
         log.debug("User '{}' is {}a participant of chat '{}'", username, participant ? "" : "not ", chat.getId());
         return participant;
     }
 
-    private void autoMarkIncomingAsRead(@NotNull Chat chat, User userJustSentMessage) {
-        List<Message> unreadForThisUser = chat.getMessages().stream()
-                .filter(m -> !m.isRead() && m.getRecipient().equals(userJustSentMessage))
-                .collect(Collectors.toList());
+    private User participant(@NotNull Chat chat, String username) {
+        return chat.getUser1().getUsername().equals(username) ? chat.getUser1() : chat.getUser2();
+    }
+
+    private User otherParticipant(@NotNull Chat chat, String username) {
+        return chat.getUser1().getUsername().equals(username) ? chat.getUser2() : chat.getUser1();
+    }
 
-        if (!unreadForThisUser.isEmpty()) {
-            log.info("Auto marking {} incoming messages as read for user '{}'", unreadForThisUser.size(), userJustSentMessage.getUsername());
-            unreadForThisUser.forEach(Message::markAsRead);
-            messageRepository.saveAllAndFlush(unreadForThisUser);
+    private void autoMarkIncomingAsRead(@NotNull Chat chat, @NotNull User userJustSentMessage) {
+        // replying means the earlier incoming messages were seen, one UPDATE covers all of them
+        int marked = messageRepository.markAllAsRead(chat.getId(), userJustSentMessage.getId());
+        if (marked > 0) {
+            log.info("Auto marked {} incoming messages as read for user '{}'", marked, userJustSentMessage.getUsername());
+            chatInboxService.markRead(chat.getId(), userJustSentMessage.getId(), marked);
+            eventPublisher.publishEvent(new MessagesReadEvent(chat.getId(), userJustSentMessage.getId(),
+                    userJustSentMessage.getUsername(), otherParticipant(chat, userJustSentMessage.getUsername()).getUsername(),
+                    null, marked));
         } else {
             log.debug("No incoming unread messages to mark as read for user '{}' in chat '{}'", userJustSentMessage.getUsername(), chat.getId());
         }
@@ -2,6 +2,8 @@ package com.neekostar.adsystem.service.impl;
 
 import java.util.UUID;
 import com.neekostar.adsystem.dto.PaymentResponseDto;
+import com.neekostar.adsystem.event.AdChangeType;
+import com.neekostar.adsystem.event.AdChangedEvent;
 import com.neekostar.adsystem.exception.AccessDeniedException;
 import com.neekostar.adsystem.exception.ResourceNotFoundException;
 import com.neekostar.adsystem.mapper.PaymentMapper;
@@ -20,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -36,18 +39,21 @@ public class PaymentServiceImpl implements PaymentService {
     private final UserRepository userRepository;
     private final SaleHistoryRepository saleHistoryRepository;
     private final PaymentMapper paymentMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public PaymentServiceImpl(PaymentRepository paymentRepository,
                               AdRepository adRepository,
                               UserRepository userRepository,
                               SaleHistoryRepository saleHistoryRepository,
-                              PaymentMapper paymentMapper) {
+                              PaymentMapper paymentMapper,
+                              ApplicationEventPublisher eventPublisher) {
         this.paymentRepository = paymentRepository;
         this.adRepository = adRepository;
         this.userRepository = userRepository;
         this.saleHistoryRepository = saleHistoryRepository;
         this.paymentMapper = paymentMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -56,10 +62,7 @@ public class PaymentServiceImpl implements PaymentService {
             evict = {
                     @CacheEvict(value = "paymentHistory", allEntries = true),
                     @CacheEvict(value = "sellerSales", allEntries = true),
-                    @CacheEvict(value = "buyerPurchases", allEntries = true),
-                    @CacheEvict(value = "singleAd", key = "#adId"),
-                    @CacheEvict(value = "userAds", allEntries = true),
-                    @CacheEvict(value = {"promotedAds", "nonPromotedAds", "filteredAds"}, allEntries = true)
+                    @CacheEvict(value = "buyerPurchases", allEntries = true)
             }
     )
     public PaymentResponseDto createPayment(UUID adId) {
@@ -96,6 +99,7 @@ public class PaymentServiceImpl implements PaymentService {
 
         ad.setStatus(AdStatus.SOLD);
         adRepository.save(ad);
+        eventPublisher.publishEvent(new AdChangedEvent(ad, AdChangeType.SOLD));
         log.info("Ad status updated to SOLD: {}", adId);
 
         SaleHistory saleHistory = new SaleHistory();
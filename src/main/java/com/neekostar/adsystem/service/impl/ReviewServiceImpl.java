@@ -14,6 +14,7 @@ import com.neekostar.adsystem.model.User;
 import com.neekostar.adsystem.repository.ReviewRepository;
 import com.neekostar.adsystem.repository.SaleHistoryRepository;
 import com.neekostar.adsystem.repository.UserRepository;
+import com.neekostar.adsystem.service.AdRankingService;
 import com.neekostar.adsystem.service.ReviewService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,16 +34,19 @@ public class ReviewServiceImpl implements ReviewService {
     private final SaleHistoryRepository saleHistoryRepository;
     private final UserRepository userRepository;
     private final ReviewMapper reviewMapper;
+    private final AdRankingService adRankingService;
 
     @Autowired
     public ReviewServiceImpl(ReviewRepository reviewRepository,
                              SaleHistoryRepository saleHistoryRepository,
                              UserRepository userRepository,
-                             ReviewMapper reviewMapper) {
+                             ReviewMapper reviewMapper,
+                             AdRankingService adRankingService) {
         this.reviewRepository = reviewRepository;
         this.saleHistoryRepository = saleHistoryRepository;
         this.userRepository = userRepository;
         this.reviewMapper = reviewMapper;
+        this.adRankingService = adRankingService;
     }
 
     @Override
@@ -108,6 +112,7 @@ public class ReviewServiceImpl implements ReviewService {
         seller.setRating((float) ((averageRating * 0.9) + (logCount * 0.3)));
         userRepository.save(seller);
         log.info("Seller rating updated. Username: {}, Rating: {}", seller.getUsername(), seller.getRating());
+        adRankingService.refreshSellerAds(seller.getId());
 
         return reviewMapper.toDto(savedReview);
     }
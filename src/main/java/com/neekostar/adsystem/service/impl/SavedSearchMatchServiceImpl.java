@@ -0,0 +1,165 @@
+package com.neekostar.adsystem.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.stream.Stream;
+import com.neekostar.adsystem.event.AdChangeType;
+import com.neekostar.adsystem.event.AdChangedEvent;
+import com.neekostar.adsystem.event.AdsImportedEvent;
+import com.neekostar.adsystem.event.SavedSearchCreatedEvent;
+import com.neekostar.adsystem.event.SavedSearchDeletedEvent;
+import com.neekostar.adsystem.event.SavedSearchMatchesEvent;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdStatus;
+import com.neekostar.adsystem.repository.SavedSearchRepository;
+import com.neekostar.adsystem.repository.projection.SavedSearchView;
+import com.neekostar.adsystem.search.RebuildableIndex;
+import com.neekostar.adsystem.search.SavedSearchCriteria;
+import com.neekostar.adsystem.search.SavedSearchIndex;
+import com.neekostar.adsystem.search.SavedSearchMatch;
+import com.neekostar.adsystem.service.SavedSearchMatchService;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Service
+public class SavedSearchMatchServiceImpl implements SavedSearchMatchService {
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    // filled on the request threads, drained by the notification scheduler
+    private final Queue<SavedSearchMatch> pending;
+    private final RebuildableIndex<SavedSearchIndex> index = new RebuildableIndex<>(new SavedSearchIndex());
+
+    @Autowired
+    public SavedSearchMatchServiceImpl(SavedSearchRepository savedSearchRepository,
+                                       ApplicationEventPublisher eventPublisher,
+                                       @Value("${ads.saved-search.notify-batch-size:500}") int batchSize,
+                                       @Value("${ads.saved-search.max-pending:20000}") int maxPending) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.pending = new ArrayBlockingQueue<>(maxPending);
+    }
+
+    @Override
+    public void register(@NotNull SavedSearchCriteria criteria) {
+        index.update(searches -> searches.add(criteria));
+    }
+
+    @Override
+    public void unregister(UUID savedSearchId) {
+        index.update(searches -> searches.remove(savedSearchId));
+    }
+
+    @Override
+    public int flushMatches() {
+        int published = 0;
+        List<SavedSearchMatch> batch;
+        do {
+            batch = drain();
+            if (!batch.isEmpty()) {
+                eventPublisher.publishEvent(new SavedSearchMatchesEvent(batch));
+                published += batch.size();
+            }
+        } while (batch.size() == batchSize);
+
+        if (published > 0) {
+            log.info("Queued {} saved search matches for notification", published);
+        }
+        return published;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Rebuilding saved search index");
+        SavedSearchIndex rebuilt = index.rebuild(() -> {
+            SavedSearchIndex loaded = new SavedSearchIndex();
+            try (Stream<SavedSearchView> views = savedSearchRepository.streamAllViews()) {
+                views.forEach(view -> loaded.add(SavedSearchCriteria.of(view)));
+            }
+            return loaded;
+        });
+        log.info("Saved search index rebuilt. Searches: {}", rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSavedSearchCreated(@NotNull SavedSearchCreatedEvent event) {
+        register(event.getCriteria());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSavedSearchDeleted(@NotNull SavedSearchDeletedEvent event) {
+        unregister(event.getSavedSearchId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdChanged(@NotNull AdChangedEvent event) {
+        // promotions, sales and deletions do not make an ad newly interesting to anyone
+        if (event.getType() != AdChangeType.CREATED && event.getType() != AdChangeType.UPDATED) {
+            return;
+        }
+        percolate(List.of(event.getAd()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdsImported(@NotNull AdsImportedEvent event) {
+        percolate(event.getAds());
+    }
+
+    private void percolate(@NotNull Collection<Ad> ads) {
+        int dropped = index.read(searches -> {
+            int overflow = 0;
+            for (Ad ad : ads) {
+                if (ad.getStatus() != null && ad.getStatus() != AdStatus.ACTIVE) {
+                    continue;
+                }
+                for (SavedSearchCriteria criteria : searches.match(ad)) {
+                    overflow += enqueue(new SavedSearchMatch(criteria.id(), criteria.userId(), criteria.username(), ad.getId()));
+                }
+            }
+            return overflow;
+        });
+        if (dropped > 0) {
+            log.warn("Saved search match queue is full, dropped {} oldest matches", dropped);
+        }
+    }
+
+    // a burst between two flushes costs the oldest alerts rather than unbounded memory
+    private int enqueue(SavedSearchMatch match) {
+        int dropped = 0;
+        while (!pending.offer(match)) {
+            if (pending.poll() != null) {
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    // the same ad can be matched twice before a flush when it is updated right after creation
+    private @NotNull List<SavedSearchMatch> drain() {
+        Set<SavedSearchMatch> batch = new LinkedHashSet<>();
+        SavedSearchMatch match;
+        while (batch.size() < batchSize && (match = pending.poll()) != null) {
+            batch.add(match);
+        }
+        return new ArrayList<>(batch);
+    }
+}
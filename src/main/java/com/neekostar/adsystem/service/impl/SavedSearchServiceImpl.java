@@ -0,0 +1,124 @@
+package com.neekostar.adsystem.service.impl;
+
+import java.util.List;
+import java.util.UUID;
+import com.neekostar.adsystem.dto.SavedSearchCreateDto;
+import com.neekostar.adsystem.dto.SavedSearchResponseDto;
+import com.neekostar.adsystem.event.SavedSearchCreatedEvent;
+import com.neekostar.adsystem.event.SavedSearchDeletedEvent;
+import com.neekostar.adsystem.exception.AccessDeniedException;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
+import com.neekostar.adsystem.exception.ResourceNotFoundException;
+import com.neekostar.adsystem.mapper.SavedSearchMapper;
+import com.neekostar.adsystem.model.SavedSearch;
+import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.repository.SavedSearchRepository;
+import com.neekostar.adsystem.repository.UserRepository;
+import com.neekostar.adsystem.search.SavedSearchCriteria;
+import com.neekostar.adsystem.service.SavedSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class SavedSearchServiceImpl implements SavedSearchService {
+    static final int MAX_SAVED_SEARCHES = 20;
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final UserRepository userRepository;
+    private final SavedSearchMapper savedSearchMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public SavedSearchServiceImpl(SavedSearchRepository savedSearchRepository,
+                                  UserRepository userRepository,
+                                  SavedSearchMapper savedSearchMapper,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.userRepository = userRepository;
+        this.savedSearchMapper = savedSearchMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public SavedSearchResponseDto createSavedSearch(@NotNull SavedSearchCreateDto savedSearchCreateDto) {
+        String authenticatedUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Saving search. User: {}, Filter: {}", authenticatedUsername, savedSearchCreateDto);
+
+        String city = blankToNull(savedSearchCreateDto.getCity());
+        String keyword = blankToNull(savedSearchCreateDto.getKeyword());
+        if (city == null && savedSearchCreateDto.getCategory() == null && savedSearchCreateDto.getMinPrice() == null
+                && savedSearchCreateDto.getMaxPrice() == null && keyword == null) {
+            throw new InvalidArgumentException("Saved search must have at least one filter");
+        }
+        if (savedSearchCreateDto.getMinPrice() != null && savedSearchCreateDto.getMaxPrice() != null
+                && savedSearchCreateDto.getMinPrice().compareTo(savedSearchCreateDto.getMaxPrice()) > 0) {
+            throw new InvalidArgumentException("Minimum price can't be greater than maximum price");
+        }
+        if (savedSearchRepository.countByUserUsername(authenticatedUsername) >= MAX_SAVED_SEARCHES) {
+            log.warn("Saved search limit reached. User: {}", authenticatedUsername);
+            throw new InvalidArgumentException("You can't have more than " + MAX_SAVED_SEARCHES + " saved searches");
+        }
+
+        User user = userRepository.findUserByUsername(authenticatedUsername)
+                .orElseThrow(() -> {
+                    log.error("User not found. Username: {}", authenticatedUsername);
+                    return new ResourceNotFoundException("User", "username", authenticatedUsername);
+                });
+
+        SavedSearch savedSearch = new SavedSearch();
+        savedSearch.setUser(user);
+        savedSearch.setCity(city);
+        savedSearch.setCategory(savedSearchCreateDto.getCategory());
+        savedSearch.setMinPrice(savedSearchCreateDto.getMinPrice());
+        savedSearch.setMaxPrice(savedSearchCreateDto.getMaxPrice());
+        savedSearch.setKeyword(keyword);
+        SavedSearch saved = savedSearchRepository.save(savedSearch);
+
+        // the match index picks the search up after commit, a rolled back save never reaches it
+        eventPublisher.publishEvent(new SavedSearchCreatedEvent(SavedSearchCriteria.of(saved)));
+        log.info("Search saved. ID: {}, User: {}", saved.getId(), authenticatedUsername);
+        return savedSearchMapper.toDto(saved);
+    }
+
+    @Override
+    public List<SavedSearchResponseDto> getMySavedSearches() {
+        String authenticatedUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Fetching saved searches. User: {}", authenticatedUsername);
+        return savedSearchRepository.findByUserUsernameOrderByCreatedAtDesc(authenticatedUsername).stream()
+                .map(savedSearchMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void deleteSavedSearch(UUID savedSearchId) {
+        String authenticatedUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+        log.info("Deleting saved search. ID: {}, User: {}", savedSearchId, authenticatedUsername);
+        SavedSearch savedSearch = savedSearchRepository.findById(savedSearchId)
+                .orElseThrow(() -> {
+                    log.error("Saved search not found. ID: {}", savedSearchId);
+                    return new ResourceNotFoundException("SavedSearch", "id", String.valueOf(savedSearchId));
+                });
+
+        if (!authenticatedUsername.equals(savedSearch.getUser().getUsername())) {
+            log.warn("Unauthorized saved search deletion attempt. User: {}, ID: {}", authenticatedUsername, savedSearchId);
+            throw new AccessDeniedException("You can only delete your own saved searches");
+        }
+
+        savedSearchRepository.delete(savedSearch);
+        eventPublisher.publishEvent(new SavedSearchDeletedEvent(savedSearchId));
+        log.info("Saved search deleted. ID: {}", savedSearchId);
+    }
+
+    private static String blankToNull(String value) {
+        return value != null && !value.trim().isEmpty() ? value.trim() : null;
+    }
+}
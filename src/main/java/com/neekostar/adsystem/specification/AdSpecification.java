@@ -1,12 +1,19 @@
 package com.neekostar.adsystem.specification;
 
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdStatus;
 import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.pagination.AdCursor;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 public class AdSpecification {
@@ -32,6 +39,69 @@ public class AdSpecification {
         };
     }
 
+    public static @NotNull Specification<Ad> isActive() {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("status"), AdStatus.ACTIVE);
+    }
+
+    public static @NotNull Specification<Ad> hasUsername(String username) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("user").get("username"), username);
+    }
+
+    // cursor paging keys on columns the ranking refresh does not rewrite, so slices stay stable while a client scrolls
+    public static @NotNull Specification<Ad> keysetOrder() {
+        return (root, query, criteriaBuilder) -> {
+            if (query != null) {
+                query.orderBy(
+                        criteriaBuilder.desc(root.get("isPromoted")),
+                        criteriaBuilder.desc(root.get("createdAt")),
+                        criteriaBuilder.asc(root.get("id"))
+                );
+            }
+            return null;
+        };
+    }
+
+    public static @NotNull Specification<Ad> after(AdCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return null;
+            }
+
+            // row-value comparison (promoted, createdAt, id) > cursor in keysetOrder() direction
+            Path<Boolean> promoted = root.get("isPromoted");
+            Path<LocalDateTime> createdAt = root.get("createdAt");
+            Path<UUID> id = root.get("id");
+
+            Predicate afterCreatedAt = criteriaBuilder.or(
+                    criteriaBuilder.lessThan(createdAt, cursor.createdAt()),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(createdAt, cursor.createdAt()),
+                            criteriaBuilder.greaterThan(id, cursor.id())));
+            Predicate samePromotion = criteriaBuilder.and(
+                    criteriaBuilder.equal(promoted, cursor.promoted()), afterCreatedAt);
+
+            return cursor.promoted()
+                    ? criteriaBuilder.or(criteriaBuilder.isFalse(promoted), samePromotion)
+                    : samePromotion;
+        };
+    }
+
+    public static @NotNull Specification<Ad> rankedOrder(String sortBy, Sort.Direction direction) {
+        return (root, query, criteriaBuilder) -> {
+            // count queries do not need the ordering
+            if (query == null || Long.class.equals(query.getResultType()) || long.class.equals(query.getResultType())) {
+                return null;
+            }
+
+            Path<Object> sortField = root.get(sortBy);
+            Order byField = direction.isAscending() ? criteriaBuilder.asc(sortField) : criteriaBuilder.desc(sortField);
+            // promoted ads come first for every sort, rankScore included: its other terms can outweigh the
+            // promotion bonus; the expiry job keeps the stored flag current
+            query.orderBy(criteriaBuilder.desc(root.get("isPromoted")), byField, criteriaBuilder.asc(root.get("id")));
+            return null;
+        };
+    }
+
     public static @NotNull Specification<Ad> combineSpecifications(String city,
                                                                    Category category,
                                                                    BigDecimal minPrice,
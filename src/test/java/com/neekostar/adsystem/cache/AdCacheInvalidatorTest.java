@@ -0,0 +1,146 @@
+package com.neekostar.adsystem.cache;
+
+import com.neekostar.adsystem.event.AdChangeType;
+import com.neekostar.adsystem.event.AdChangedEvent;
+import com.neekostar.adsystem.event.AdImportCompletedEvent;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdCacheInvalidatorTest {
+
+    private static final String MOSCOW = "Moscow";
+
+    private ConcurrentMapCacheManager cacheManager;
+    private CacheTagRegistry cacheTags;
+    private AdCacheInvalidator invalidator;
+    private Ad ad;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        cacheTags = new CacheTagRegistry(cacheManager, null, Duration.ofHours(1));
+        invalidator = new AdCacheInvalidator(cacheManager, cacheTags);
+
+        User seller = new User();
+        seller.setUsername("alice");
+        ad = new Ad();
+        ad.setId(UUID.randomUUID());
+        ad.setUser(seller);
+        ad.setCity(MOSCOW);
+        ad.setCategory(Category.VEHICLES);
+        ad.setIsPromoted(false);
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+
+    private void cacheTagged(String cacheName, String key, String tag) {
+        cache(cacheName).put(key, "value");
+        cacheTags.tag(cacheName, key, List.of(tag));
+    }
+
+    @Test
+    void evictAds_OnlyGivenIds() {
+        UUID kept = UUID.randomUUID();
+        cache(AdCacheInvalidator.SINGLE_AD).put(ad.getId(), "a");
+        cache(AdCacheInvalidator.SINGLE_AD).put(kept, "b");
+        cache(AdCacheInvalidator.AD_SUMMARY).put(ad.getId(), "c");
+
+        invalidator.evictAds(List.of(ad.getId()));
+
+        assertNull(cache(AdCacheInvalidator.SINGLE_AD).get(ad.getId()));
+        assertNotNull(cache(AdCacheInvalidator.SINGLE_AD).get(kept));
+        assertNull(cache(AdCacheInvalidator.AD_SUMMARY).get(ad.getId()));
+    }
+
+    @Test
+    void onAdChanged_InvalidatesOnlyTagsOfChangedAd() {
+        cache(AdCacheInvalidator.SINGLE_AD).put(ad.getId(), "ad");
+        cacheTagged(AdCacheInvalidator.FILTERED_ADS, "moscow-vehicles", AdCacheTags.filter(MOSCOW, Category.VEHICLES));
+        cacheTagged(AdCacheInvalidator.FILTERED_ADS, "moscow-any", AdCacheTags.filter(MOSCOW, null));
+        cacheTagged(AdCacheInvalidator.FILTERED_ADS, "any-any", AdCacheTags.filter(null, null));
+        cacheTagged(AdCacheInvalidator.FILTERED_ADS, "kazan-any", AdCacheTags.filter("Kazan", null));
+        cacheTagged(AdCacheInvalidator.FILTERED_ADS, "moscow-books", AdCacheTags.filter(MOSCOW, Category.BOOKS));
+        cacheTagged(AdCacheInvalidator.USER_ADS, "alice-0-10", AdCacheTags.seller("alice"));
+        cacheTagged(AdCacheInvalidator.USER_ADS, "bob-0-10", AdCacheTags.seller("bob"));
+        cacheTagged(AdCacheInvalidator.NON_PROMOTED_ADS, "0-10", AdCacheTags.NON_PROMOTED);
+        cacheTagged(AdCacheInvalidator.PROMOTED_ADS, "0-10", AdCacheTags.PROMOTED);
+
+        invalidator.onAdChanged(new AdChangedEvent(ad, AdChangeType.UPDATED));
+
+        assertNull(cache(AdCacheInvalidator.SINGLE_AD).get(ad.getId()));
+        assertNull(cache(AdCacheInvalidator.FILTERED_ADS).get("moscow-vehicles"));
+        assertNull(cache(AdCacheInvalidator.FILTERED_ADS).get("moscow-any"));
+        assertNull(cache(AdCacheInvalidator.FILTERED_ADS).get("any-any"));
+        assertNotNull(cache(AdCacheInvalidator.FILTERED_ADS).get("kazan-any"));
+        assertNotNull(cache(AdCacheInvalidator.FILTERED_ADS).get("moscow-books"));
+        assertNull(cache(AdCacheInvalidator.USER_ADS).get("alice-0-10"));
+        assertNotNull(cache(AdCacheInvalidator.USER_ADS).get("bob-0-10"));
+        assertNull(cache(AdCacheInvalidator.NON_PROMOTED_ADS).get("0-10"));
+        assertNotNull(cache(AdCacheInvalidator.PROMOTED_ADS).get("0-10"));
+    }
+
+    @Test
+    void onAdChanged_PromotionInvalidatesBothFeeds() {
+        ad.setIsPromoted(true);
+        ad.setPromotionEndDate(LocalDateTime.now().plusDays(3));
+        cacheTagged(AdCacheInvalidator.NON_PROMOTED_ADS, "0-10", AdCacheTags.NON_PROMOTED);
+        cacheTagged(AdCacheInvalidator.PROMOTED_ADS, "0-10", AdCacheTags.PROMOTED);
+
+        invalidator.onAdChanged(new AdChangedEvent(ad, AdChangeType.PROMOTED));
+
+        assertNull(cache(AdCacheInvalidator.NON_PROMOTED_ADS).get("0-10"));
+        assertNull(cache(AdCacheInvalidator.PROMOTED_ADS).get("0-10"));
+    }
+
+    @Test
+    void onAdChanged_PromotedAdKeepsNonPromotedFeed() {
+        ad.setIsPromoted(true);
+        ad.setPromotionEndDate(LocalDateTime.now().plusDays(3));
+        cacheTagged(AdCacheInvalidator.NON_PROMOTED_ADS, "0-10", AdCacheTags.NON_PROMOTED);
+        cacheTagged(AdCacheInvalidator.PROMOTED_ADS, "0-10", AdCacheTags.PROMOTED);
+
+        invalidator.onAdChanged(new AdChangedEvent(ad, AdChangeType.SOLD));
+
+        assertNotNull(cache(AdCacheInvalidator.NON_PROMOTED_ADS).get("0-10"));
+        assertNull(cache(AdCacheInvalidator.PROMOTED_ADS).get("0-10"));
+    }
+
+    @Test
+    void onImportCompleted_InvalidatesCollectedTags() {
+        Set<String> tags = new LinkedHashSet<>(AdCacheTags.forAd("alice", MOSCOW, Category.VEHICLES, false, true));
+        tags.addAll(AdCacheTags.forAd("alice", "Kazan", Category.BOOKS, false, true));
+        cache(AdCacheInvalidator.SINGLE_AD).put(ad.getId(), "ad");
+        cacheTagged(AdCacheInvalidator.FILTERED_ADS, "moscow-vehicles", AdCacheTags.filter(MOSCOW, Category.VEHICLES));
+        cacheTagged(AdCacheInvalidator.FILTERED_ADS, "kazan-books", AdCacheTags.filter("Kazan", Category.BOOKS));
+        cacheTagged(AdCacheInvalidator.FILTERED_ADS, "omsk-any", AdCacheTags.filter("Omsk", null));
+        cacheTagged(AdCacheInvalidator.USER_ADS, "alice-0-10", AdCacheTags.seller("alice"));
+        cacheTagged(AdCacheInvalidator.NON_PROMOTED_ADS, "0-10", AdCacheTags.NON_PROMOTED);
+        cacheTagged(AdCacheInvalidator.PROMOTED_ADS, "0-10", AdCacheTags.PROMOTED);
+
+        invalidator.onImportCompleted(new AdImportCompletedEvent("alice", tags, 2));
+
+        assertNull(cache(AdCacheInvalidator.FILTERED_ADS).get("moscow-vehicles"));
+        assertNull(cache(AdCacheInvalidator.FILTERED_ADS).get("kazan-books"));
+        assertNull(cache(AdCacheInvalidator.USER_ADS).get("alice-0-10"));
+        assertNull(cache(AdCacheInvalidator.NON_PROMOTED_ADS).get("0-10"));
+        assertNotNull(cache(AdCacheInvalidator.FILTERED_ADS).get("omsk-any"));
+        assertNotNull(cache(AdCacheInvalidator.PROMOTED_ADS).get("0-10"));
+        assertNotNull(cache(AdCacheInvalidator.SINGLE_AD).get(ad.getId()));
+    }
+}
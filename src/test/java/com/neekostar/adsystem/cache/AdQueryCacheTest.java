@@ -0,0 +1,117 @@
+package com.neekostar.adsystem.cache;
+
+import com.neekostar.adsystem.config.LocalCacheProperties;
+import com.neekostar.adsystem.dto.AdSummaryDto;
+import com.neekostar.adsystem.model.Category;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class AdQueryCacheTest {
+
+    @Test
+    void filterKey_NormalizesEquivalentFilters() {
+        String first = AdQueryCache.filterKey("Moscow", Category.VEHICLES, new BigDecimal("100.00"), null,
+                "Car", "price", Sort.Direction.ASC, PageRequest.of(0, 10));
+        String second = AdQueryCache.filterKey("Moscow", Category.VEHICLES, new BigDecimal("100"), null,
+                "CAR", "price", Sort.Direction.ASC, PageRequest.of(0, 10));
+        String nextPage = AdQueryCache.filterKey("Moscow", Category.VEHICLES, new BigDecimal("100"), null,
+                "car", "price", Sort.Direction.ASC, PageRequest.of(1, 10));
+
+        assertEquals(first, second);
+        assertNotEquals(first, nextPage);
+    }
+
+    @Test
+    void getAds_ReturnsOnlyCachedAds() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        AdQueryCache queryCache = new AdQueryCache(cacheManager, null, new CacheTagRegistry(cacheManager, null, Duration.ofHours(1)));
+        AdSummaryDto cached = new AdSummaryDto();
+        cached.setId(UUID.randomUUID());
+        queryCache.putAds(List.of(cached, new AdSummaryDto()));
+
+        Map<UUID, AdSummaryDto> found = queryCache.getAds(List.of(cached.getId(), UUID.randomUUID()));
+
+        assertEquals(Map.of(cached.getId(), cached), found);
+    }
+
+    @Test
+    void getAds_UsesSingleMultiGetOnRedis() {
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig().prefixCacheNameWith("adsystem: ");
+        RedisCacheManager cacheManager = RedisCacheManager.builder(mock(RedisCacheWriter.class))
+                .cacheDefaults(config)
+                .build();
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+
+        AdSummaryDto cached = new AdSummaryDto();
+        cached.setId(UUID.randomUUID());
+        UUID missing = UUID.randomUUID();
+        byte[] value = ByteUtils.getBytes(config.getValueSerializationPair().write(cached));
+        when(stringCommands.mGet(any(byte[][].class))).thenReturn(Arrays.asList(value, null));
+
+        AdQueryCache queryCache = new AdQueryCache(cacheManager, connectionFactory, mock(CacheTagRegistry.class));
+        Map<UUID, AdSummaryDto> found = queryCache.getAds(List.of(cached.getId(), missing));
+
+        assertEquals(1, found.size());
+        assertEquals(cached, found.get(cached.getId()));
+        verify(stringCommands).mGet(
+                ("adsystem: adSummary::" + cached.getId()).getBytes(StandardCharsets.UTF_8),
+                ("adsystem: adSummary::" + missing).getBytes(StandardCharsets.UTF_8));
+        verify(connection).close();
+    }
+
+    @Test
+    void getAds_TwoLevelCacheFetchesOnlyLocalMissesFromRedis() {
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig().prefixCacheNameWith("adsystem: ");
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(mock(RedisCacheWriter.class))
+                .cacheDefaults(config)
+                .build();
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisCacheManager,
+                Map.of(AdCacheInvalidator.AD_SUMMARY, new LocalCacheProperties.Spec()), mock(CacheInvalidationChannel.class));
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+
+        AdSummaryDto local = new AdSummaryDto();
+        local.setId(UUID.randomUUID());
+        AdSummaryDto remote = new AdSummaryDto();
+        remote.setId(UUID.randomUUID());
+        TwoLevelCache adSummary = (TwoLevelCache) cacheManager.getCache(AdCacheInvalidator.AD_SUMMARY);
+        adSummary.putLocal(local.getId(), local);
+        when(stringCommands.mGet(any(byte[][].class)))
+                .thenReturn(List.of(ByteUtils.getBytes(config.getValueSerializationPair().write(remote))));
+
+        AdQueryCache queryCache = new AdQueryCache(cacheManager, connectionFactory, mock(CacheTagRegistry.class));
+        Map<UUID, AdSummaryDto> found = queryCache.getAds(List.of(local.getId(), remote.getId()));
+
+        assertEquals(2, found.size());
+        verify(stringCommands).mGet(("adsystem: adSummary::" + remote.getId()).getBytes(StandardCharsets.UTF_8));
+        assertNotNull(adSummary.getLocal(remote.getId()));
+    }
+}
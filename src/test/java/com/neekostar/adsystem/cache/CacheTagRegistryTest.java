@@ -0,0 +1,134 @@
+package com.neekostar.adsystem.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CacheTagRegistryTest {
+
+    @Test
+    void invalidate_EvictsTaggedEntriesOnce() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        CacheTagRegistry registry = new CacheTagRegistry(cacheManager, null, Duration.ofHours(1));
+        Cache cache = cacheManager.getCache("filteredAds");
+        cache.put("tagged", 1);
+        cache.put("untagged", 2);
+        registry.tag("filteredAds", "tagged", List.of("filter:Moscow:*"));
+
+        registry.invalidate("filter:Moscow:*");
+        cache.put("tagged", 3);
+        registry.invalidate("filter:Moscow:*");
+
+        assertNotNull(cache.get("tagged"));
+        assertNotNull(cache.get("untagged"));
+    }
+
+    @Test
+    void getOrLoad_CachesAndTagsLoadedValue() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        CacheTagRegistry registry = new CacheTagRegistry(cacheManager, null, Duration.ofHours(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, registry.getOrLoad("promotedAds", "0-10", List.of("promoted"), loads::incrementAndGet));
+        assertEquals(1, registry.getOrLoad("promotedAds", "0-10", List.of("promoted"), loads::incrementAndGet));
+        assertEquals(1, loads.get());
+
+        registry.invalidate("promoted");
+
+        assertNull(cacheManager.getCache("promotedAds").get("0-10"));
+    }
+
+    @Test
+    void getOrLoad_SkipsPutWhenInvalidatedDuringLoad() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        CacheTagRegistry registry = new CacheTagRegistry(cacheManager, null, Duration.ofHours(1));
+
+        Integer value = registry.getOrLoad("promotedAds", "0-10", List.of("promoted"), () -> {
+            // a write commits while the page is being read
+            registry.invalidate("promoted");
+            return 1;
+        });
+
+        assertEquals(1, value);
+        assertNull(cacheManager.getCache("promotedAds").get("0-10"));
+        assertEquals(2, registry.getOrLoad("promotedAds", "0-10", List.of("promoted"), () -> 2));
+        assertEquals(2, cacheManager.getCache("promotedAds").get("0-10").get());
+    }
+
+    @Test
+    void getOrLoad_UnrelatedInvalidationDuringLoadStillCaches() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        CacheTagRegistry registry = new CacheTagRegistry(cacheManager, null, Duration.ofHours(1));
+
+        registry.getOrLoad("promotedAds", "0-10", List.of("promoted"), () -> {
+            registry.invalidate("non-promoted");
+            return 1;
+        });
+
+        assertEquals(1, cacheManager.getCache("promotedAds").get("0-10").get());
+    }
+
+    @Test
+    void invalidate_KeysContainingSeparator() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        CacheTagRegistry registry = new CacheTagRegistry(cacheManager, null, Duration.ofHours(1));
+        Cache cache = cacheManager.getCache("filteredAds");
+        cache.put("city=Moscow|page=0", 1);
+        registry.tag("filteredAds", "city=Moscow|page=0", List.of("filter:Moscow:*"));
+
+        registry.invalidate("filter:Moscow:*");
+
+        assertNull(cache.get("city=Moscow|page=0"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisMode_StoresTagsAsExpiringSets() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        SetOperations<String, String> setOperations = mock(SetOperations.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(setOperations.pop("adsystem:tag:seller:alice", Long.MAX_VALUE)).thenReturn(List.of("userAds|alice-0-10"));
+        CacheTagRegistry registry = new CacheTagRegistry(cacheManager, redisTemplate, Duration.ofMinutes(30));
+        cacheManager.getCache("userAds").put("alice-0-10", "page");
+
+        registry.tag("userAds", "alice-0-10", List.of("seller:alice"));
+        registry.invalidate("seller:alice");
+
+        verify(setOperations).add("adsystem:tag:seller:alice", "userAds|alice-0-10");
+        verify(redisTemplate).expire("adsystem:tag:seller:alice", Duration.ofMinutes(30));
+        verify(valueOperations).increment("adsystem:tag-version:seller:alice");
+        verify(redisTemplate).expire("adsystem:tag-version:seller:alice", Duration.ofMinutes(30));
+        assertNull(cacheManager.getCache("userAds").get("alice-0-10"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisMode_SkipsPutWhenTagVersionChangedDuringLoad() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        // another node invalidates the tag while this one is loading
+        when(valueOperations.multiGet(List.of("adsystem:tag-version:seller:alice")))
+                .thenReturn(List.of("1"), List.of("2"));
+        CacheTagRegistry registry = new CacheTagRegistry(cacheManager, redisTemplate, Duration.ofMinutes(30));
+
+        assertEquals("page", registry.getOrLoad("userAds", "alice-0-10", List.of("seller:alice"), () -> "page"));
+
+        assertNull(cacheManager.getCache("userAds").get("alice-0-10"));
+        verify(redisTemplate, never()).opsForSet();
+    }
+}
@@ -0,0 +1,132 @@
+package com.neekostar.adsystem.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neekostar.adsystem.config.LocalCacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class TwoLevelCacheTest {
+
+    private Cache remote;
+    private CacheInvalidationChannel channel;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = spy(new ConcurrentMapCache("singleAd"));
+        channel = mock(CacheInvalidationChannel.class);
+        cache = new TwoLevelCache("singleAd", Caffeine.newBuilder().maximumSize(10).build(), remote, channel);
+    }
+
+    @Test
+    void get_RemoteHitIsKeptLocally() {
+        UUID key = UUID.randomUUID();
+        remote.put(key, "ad");
+
+        assertEquals("ad", cache.get(key).get());
+        assertEquals("ad", cache.get(key, String.class));
+
+        verify(remote, times(1)).get(key);
+        assertNotNull(cache.getLocal(key));
+    }
+
+    @Test
+    void get_EvictionDuringRemoteReadIsNotBackfilled() {
+        UUID key = UUID.randomUUID();
+        remote.put(key, "stale");
+        doAnswer(invocation -> {
+            Cache.ValueWrapper value = (Cache.ValueWrapper) invocation.callRealMethod();
+            // another node's invalidation arrives before the local put
+            cache.evictLocal(key);
+            return value;
+        }).when(remote).get(key);
+
+        assertEquals("stale", cache.get(key).get());
+
+        assertNull(cache.getLocal(key));
+    }
+
+    @Test
+    void get_MissReturnsNull() {
+        assertNull(cache.get("missing"));
+        assertNull(cache.getLocal("missing"));
+    }
+
+    @Test
+    void get_LoaderStoresValueInBothLevels() {
+        assertEquals("loaded", cache.get("key", () -> "loaded"));
+
+        assertEquals("loaded", remote.get("key").get());
+        assertNotNull(cache.getLocal("key"));
+        verify(channel).publish("singleAd", "key");
+    }
+
+    @Test
+    void putAndEvict_PublishInvalidation() {
+        cache.put("key", "value");
+        assertEquals("value", remote.get("key").get());
+
+        cache.evict("key");
+
+        assertNull(remote.get("key"));
+        assertNull(cache.getLocal("key"));
+        verify(channel, times(2)).publish("singleAd", "key");
+    }
+
+    @Test
+    void clear_PublishesWholeCacheInvalidation() {
+        cache.put("key", "value");
+
+        cache.clear();
+
+        assertNull(cache.get("key"));
+        verify(channel).publish("singleAd", null);
+    }
+
+    @Test
+    void manager_RemoteInvalidationOnlyTouchesLocalLevel() {
+        ConcurrentMapCacheManager remoteManager = new ConcurrentMapCacheManager();
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(remoteManager,
+                Map.of("singleAd", new LocalCacheProperties.Spec()), channel);
+        TwoLevelCache managed = (TwoLevelCache) manager.getCache("singleAd");
+        managed.put("key", "value");
+
+        manager.evictLocal("singleAd", "key");
+
+        assertNull(managed.getLocal("key"));
+        assertEquals("value", remoteManager.getCache("singleAd").get("key").get());
+        assertSame(managed, manager.getCache("singleAd"));
+        assertFalse(manager.getCache("filteredAds") instanceof TwoLevelCache);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void channel_IgnoresOwnMessages() {
+        CacheInvalidationChannel realChannel = new CacheInvalidationChannel(mock(RedisConnectionFactory.class), "invalidation");
+        JdkSerializationRedisSerializer serializer = new JdkSerializationRedisSerializer();
+        BiConsumer<String, Object> eviction = mock(BiConsumer.class);
+
+        realChannel.receive(serializer.serialize(new CacheInvalidationMessage("other-node", "singleAd", "key")), eviction);
+        realChannel.receive("garbage".getBytes(), eviction);
+
+        verify(eviction).accept("singleAd", "key");
+
+        // publish never throws, even if Redis is unavailable
+        realChannel.publish("singleAd", "key");
+        verify(eviction, times(1)).accept(anyString(), any());
+    }
+}
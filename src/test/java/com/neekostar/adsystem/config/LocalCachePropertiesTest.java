@@ -0,0 +1,31 @@
+package com.neekostar.adsystem.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalCachePropertiesTest {
+
+    @Test
+    void bind_PerCacheSettingsKeepCacheNames() {
+        MapConfigurationPropertySource source = new MapConfigurationPropertySource(Map.of(
+                "ads.cache.local.caches[singleAd].maximum-size", "10000",
+                "ads.cache.local.caches[singleAd].ttl", "PT5M",
+                "ads.cache.local.caches[userAds].ttl", "PT1M"));
+
+        LocalCacheProperties properties = new Binder(source)
+                .bind("ads.cache.local", LocalCacheProperties.class)
+                .get();
+
+        assertEquals(10000, properties.getCaches().get("singleAd").getMaximumSize());
+        assertEquals(Duration.ofMinutes(5), properties.getCaches().get("singleAd").getTtl());
+        assertEquals(1000, properties.getCaches().get("userAds").getMaximumSize());
+        assertEquals(Duration.ofMinutes(1), properties.getCaches().get("userAds").getTtl());
+        assertEquals("adsystem:cache:invalidation", properties.getInvalidationChannel());
+    }
+}
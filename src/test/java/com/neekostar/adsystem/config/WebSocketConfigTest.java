@@ -0,0 +1,28 @@
+package com.neekostar.adsystem.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WebSocketConfigTest {
+
+    @Test
+    void requireExplicitOrigins_TrimsAndKeepsListedOrigins() {
+        String[] origins = WebSocketConfig.requireExplicitOrigins(new String[]{" https://ads.example.com", "https://*.example.org ", ""});
+
+        assertArrayEquals(new String[]{"https://ads.example.com", "https://*.example.org"}, origins);
+    }
+
+    @Test
+    void requireExplicitOrigins_RejectsEmptyList() {
+        assertThrows(IllegalStateException.class, () -> WebSocketConfig.requireExplicitOrigins(new String[0]));
+        assertThrows(IllegalStateException.class, () -> WebSocketConfig.requireExplicitOrigins(new String[]{" "}));
+        assertThrows(IllegalStateException.class, () -> WebSocketConfig.requireExplicitOrigins(null));
+    }
+
+    @Test
+    void requireExplicitOrigins_RejectsWildcard() {
+        assertThrows(IllegalStateException.class,
+                () -> WebSocketConfig.requireExplicitOrigins(new String[]{"https://ads.example.com", "*"}));
+    }
+}
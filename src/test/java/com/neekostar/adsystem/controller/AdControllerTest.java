@@ -2,14 +2,32 @@ package com.neekostar.adsystem.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.neekostar.adsystem.dto.AdCreateDto;
+import com.neekostar.adsystem.dto.AdFacetsDto;
+import com.neekostar.adsystem.dto.AdImportErrorDto;
+import com.neekostar.adsystem.dto.AdImportResultDto;
+import com.neekostar.adsystem.dto.AdPriceStatsDto;
+import com.neekostar.adsystem.dto.AdSuggestionDto;
 import com.neekostar.adsystem.dto.AdResponseDto;
+import com.neekostar.adsystem.dto.AdSummaryDto;
 import com.neekostar.adsystem.dto.AdUpdateDto;
+import com.neekostar.adsystem.dto.CommentResponseDto;
+import com.neekostar.adsystem.dto.CursorPageDto;
 import com.neekostar.adsystem.dto.ImageUploadDto;
 import com.neekostar.adsystem.exception.AccessDeniedException;
 import com.neekostar.adsystem.exception.GlobalExceptionHandler;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
 import com.neekostar.adsystem.exception.ResourceNotFoundException;
+import com.neekostar.adsystem.model.AdImportFormat;
 import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.service.AdExportService;
+import com.neekostar.adsystem.service.AdFacetService;
+import com.neekostar.adsystem.service.AdImportService;
+import com.neekostar.adsystem.service.AdPriceStatsService;
+import com.neekostar.adsystem.service.AdSimilarityService;
+import com.neekostar.adsystem.service.AdSuggestService;
+import com.neekostar.adsystem.service.AdViewService;
 import com.neekostar.adsystem.service.AdService;
+import com.neekostar.adsystem.service.CommentService;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,23 +41,34 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -60,6 +89,30 @@ class AdControllerTest {
     @Mock
     private AdService adService;
 
+    @Mock
+    private AdImportService adImportService;
+
+    @Mock
+    private AdExportService adExportService;
+
+    @Mock
+    private AdFacetService adFacetService;
+
+    @Mock
+    private AdPriceStatsService adPriceStatsService;
+
+    @Mock
+    private AdSuggestService adSuggestService;
+
+    @Mock
+    private AdSimilarityService adSimilarityService;
+
+    @Mock
+    private AdViewService adViewService;
+
+    @Mock
+    private CommentService commentService;
+
     @InjectMocks
     private AdController adController;
 
@@ -107,6 +160,40 @@ class AdControllerTest {
                 .andExpect(jsonPath("$.title").value(NEW_AD_TITLE));
     }
 
+    @Test
+    @DisplayName("POST /api/ads/import - NDJSON upload")
+    void importAds_Ndjson() throws Exception {
+        AdImportResultDto result = new AdImportResultDto();
+        result.setTotal(2);
+        result.setImported(1);
+        result.setFailed(1);
+        result.setErrors(List.of(new AdImportErrorDto(2, "price: must not be null")));
+        when(adImportService.importAds(any(), eq(AdImportFormat.NDJSON))).thenReturn(result);
+
+        mockMvc.perform(post(API_ADS + "/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"title\":\"Bike\"}\n{\"title\":\"Car\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+    }
+
+    @Test
+    @DisplayName("POST /api/ads/import - CSV upload")
+    void importAds_Csv() throws Exception {
+        AdImportResultDto result = new AdImportResultDto();
+        result.setTotal(1);
+        result.setImported(1);
+        result.setErrors(Collections.emptyList());
+        when(adImportService.importAds(any(), eq(AdImportFormat.CSV))).thenReturn(result);
+
+        mockMvc.perform(post(API_ADS + "/import")
+                        .contentType("text/csv;charset=UTF-8")
+                        .content("title,price,city,category\nBike,100,Moscow,VEHICLES"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+    }
+
     @Test
     @DisplayName("GET /api/ads/{adId} - success")
     void getAd_Success() throws Exception {
@@ -115,13 +202,21 @@ class AdControllerTest {
         dto.setId(adId);
         dto.setTitle("Existing Ad");
 
+        AdResponseDto live = new AdResponseDto();
+        live.setId(adId);
+        live.setTitle("Existing Ad");
+        live.setViewCount(42L);
+
         when(adService.getAd(adId)).thenReturn(dto);
+        when(adService.withLiveViewCount(dto)).thenReturn(live);
 
         mockMvc.perform(get(API_ADS + "/{adId}", adId)
                         .with(csrf()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(adId.toString()))
-                .andExpect(jsonPath("$.title").value("Existing Ad"));
+                .andExpect(jsonPath("$.title").value("Existing Ad"))
+                .andExpect(jsonPath("$.viewCount").value(42));
+        verify(adViewService).recordView(adId);
     }
 
     @Test
@@ -134,6 +229,7 @@ class AdControllerTest {
         mockMvc.perform(get(API_ADS + "/{id}", wrongId)
                         .with(csrf()))
                 .andExpect(status().isNotFound());
+        verifyNoInteractions(adViewService);
     }
 
     @Test
@@ -172,7 +268,7 @@ class AdControllerTest {
     @DisplayName("GET /api/ads - filter ads returns 200 OK")
     void getAllAds_Success() throws Exception {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<AdResponseDto> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
+        Page<AdSummaryDto> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
         when(adService.filterAds(
                 eq(MOSCOW),
                 eq(Category.valueOf(CATEGORY_VEHICLES)),
@@ -199,11 +295,145 @@ class AdControllerTest {
                 .andExpect(jsonPath("$.content", hasSize(0)));
     }
 
+    @Test
+    @DisplayName("GET /api/ads?cursor= - first cursor slice")
+    void getAllAds_CursorMode() throws Exception {
+        CursorPageDto<AdSummaryDto> slice = new CursorPageDto<>(List.of(new AdSummaryDto()), "next-token", true);
+        when(adService.filterAdsByCursor(eq(MOSCOW), eq(null), eq(null), eq(null), eq(null), eq(""), eq(20)))
+                .thenReturn(slice);
+
+        mockMvc.perform(get(API_ADS)
+                        .param("city", MOSCOW)
+                        .param("cursor", "")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        verify(adService, never()).filterAds(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/ads/export - streams NDJSON")
+    void exportAds_Success() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(5);
+            output.write("{\"title\":\"Bike\"}\n{\"title\":\"Car\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(adExportService).exportAds(eq(MOSCOW), eq(Category.VEHICLES), eq(null), eq(null), eq(null), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get(API_ADS + "/export")
+                        .param("city", MOSCOW)
+                        .param("category", CATEGORY_VEHICLES))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"ads.ndjson\""))
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"title\":\"Bike\"}\n{\"title\":\"Car\"}\n"));
+    }
+
+    @Test
+    @DisplayName("GET /api/ads/facets - returns counts")
+    void getFacets_Success() throws Exception {
+        AdFacetsDto facets = new AdFacetsDto();
+        facets.setTotal(3);
+        facets.setCategories(Map.of(Category.VEHICLES, 3L));
+        facets.setCities(Map.of(MOSCOW, 2L, "Kazan", 1L));
+        when(adFacetService.getFacets(eq(null), eq(Category.VEHICLES), eq(BigDecimal.valueOf(100)), eq(null)))
+                .thenReturn(facets);
+
+        mockMvc.perform(get(API_ADS + "/facets")
+                        .param("category", CATEGORY_VEHICLES)
+                        .param("minPrice", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.categories.VEHICLES").value(3))
+                .andExpect(jsonPath("$.cities.Moscow").value(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/ads/price-stats - returns statistics")
+    void getPriceStats_Success() throws Exception {
+        AdPriceStatsDto stats = new AdPriceStatsDto();
+        stats.setCategory(Category.VEHICLES);
+        stats.setCity(MOSCOW);
+        stats.setCount(2);
+        stats.setMin(BigDecimal.valueOf(100));
+        stats.setMax(BigDecimal.valueOf(999));
+        stats.setMedian(BigDecimal.valueOf(100));
+        when(adPriceStatsService.getPriceStats(Category.VEHICLES, MOSCOW)).thenReturn(stats);
+
+        mockMvc.perform(get(API_ADS + "/price-stats")
+                        .param("category", CATEGORY_VEHICLES)
+                        .param("city", MOSCOW))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.min").value(100))
+                .andExpect(jsonPath("$.max").value(999))
+                .andExpect(jsonPath("$.median").value(100));
+    }
+
+    @Test
+    @DisplayName("GET /api/ads/suggest - returns suggestions")
+    void suggest_Success() throws Exception {
+        when(adSuggestService.suggest("red bi", 5)).thenReturn(List.of(
+                new AdSuggestionDto("red bike", 7), new AdSuggestionDto("red bicycle", 3)));
+
+        mockMvc.perform(get(API_ADS + "/suggest")
+                        .param("q", "red bi")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].text").value("red bike"))
+                .andExpect(jsonPath("$[0].count").value(7));
+    }
+
+    @Test
+    @DisplayName("GET /api/ads/{adId}/similar - returns similar ads")
+    void getSimilarAds_Success() throws Exception {
+        UUID adId = UUID.randomUUID();
+        AdSummaryDto similar = new AdSummaryDto();
+        similar.setId(UUID.randomUUID());
+        similar.setTitle("Mountain bike");
+        when(adSimilarityService.findSimilarAds(adId, 3)).thenReturn(List.of(similar));
+
+        mockMvc.perform(get(API_ADS + "/{adId}/similar", adId)
+                        .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Mountain bike"));
+    }
+
+    @Test
+    @DisplayName("GET /api/ads/{adId}/similar - unknown ad")
+    void getSimilarAds_NotFound() throws Exception {
+        UUID adId = UUID.randomUUID();
+        when(adSimilarityService.findSimilarAds(adId, 5)).thenThrow(new ResourceNotFoundException("Ad", "id", adId.toString()));
+
+        mockMvc.perform(get(API_ADS + "/{adId}/similar", adId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/ads/suggest - invalid limit")
+    void suggest_InvalidLimit() throws Exception {
+        when(adSuggestService.suggest("bi", 0)).thenThrow(new InvalidArgumentException("Limit must be a positive integer"));
+
+        mockMvc.perform(get(API_ADS + "/suggest")
+                        .param("q", "bi")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("GET /api/ads/user/{username} - success")
     void getAdsByUser_Success() throws Exception {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<AdResponseDto> page = new PageImpl<>(List.of(new AdResponseDto(), new AdResponseDto()), pageable, 2);
+        Page<AdSummaryDto> page = new PageImpl<>(List.of(new AdSummaryDto(), new AdSummaryDto()), pageable, 2);
         when(adService.getAdsByUser(eq("johndoe"), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get(API_ADS + "/user/{username}", "johndoe")
@@ -214,6 +444,19 @@ class AdControllerTest {
                 .andExpect(jsonPath("$.content", hasSize(2)));
     }
 
+    @Test
+    @DisplayName("GET /api/ads/user/{username}?cursor=... - next cursor slice")
+    void getAdsByUser_CursorMode() throws Exception {
+        CursorPageDto<AdSummaryDto> slice = new CursorPageDto<>(List.of(new AdSummaryDto()), null, false);
+        when(adService.getAdsByUserByCursor("johndoe", "abc", 10)).thenReturn(slice);
+
+        mockMvc.perform(get(API_ADS + "/user/{username}", "johndoe")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
     @Test
     @DisplayName("POST /api/ads/{adId}/promote - success => 200")
     void promoteAd_Success() throws Exception {
@@ -230,37 +473,40 @@ class AdControllerTest {
     @Test
     @DisplayName("GET /api/ads/promoted => 200")
     void getPromotedAds_Success() throws Exception {
-        when(adService.getPromotedAds())
-                .thenReturn(List.of(new AdResponseDto(), new AdResponseDto()));
+        Pageable pageable = PageRequest.of(0, 10);
+        when(adService.getPromotedAds(pageable))
+                .thenReturn(new PageImpl<>(List.of(new AdSummaryDto(), new AdSummaryDto()), pageable, 2));
 
         mockMvc.perform(get(API_ADS + "/promoted")
                         .with(csrf()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)));
+                .andExpect(jsonPath("$.content", hasSize(2)));
     }
 
     @Test
     @DisplayName("GET /api/ads/non-promoted => 200")
     void getNonPromotedAds_Success() throws Exception {
-        when(adService.getNonPromotedAds())
-                .thenReturn(List.of());
+        Pageable pageable = PageRequest.of(2, 5);
+        when(adService.getNonPromotedAds(pageable))
+                .thenReturn(new PageImpl<>(Collections.emptyList(), pageable, 10));
 
         mockMvc.perform(get(API_ADS + "/non-promoted")
+                        .param("page", "2")
+                        .param("size", "5")
                         .with(csrf()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(0)));
+                .andExpect(jsonPath("$.content", hasSize(0)));
     }
 
     @Test
     @DisplayName("POST /api/ads/{adId}/comments - success")
     void commentAd_Success() throws Exception {
         UUID adId = UUID.randomUUID();
-        AdResponseDto dto = new AdResponseDto();
-        dto.setId(adId);
-        dto.setTitle("Ad with comment");
-
         String commentText = "Great ad!";
-        when(adService.commentAd(eq(adId), eq(commentText))).thenReturn(dto);
+        CommentResponseDto dto = new CommentResponseDto();
+        dto.setId(UUID.randomUUID());
+        dto.setCommentText(commentText);
+        when(commentService.addComment(eq(adId), eq(commentText))).thenReturn(dto);
 
         String jsonComment = "{\"commentText\": \"" + commentText + "\"}";
 
@@ -268,8 +514,35 @@ class AdControllerTest {
                         .with(csrf())
                         .contentType(APPLICATION_JSON)
                         .content(jsonComment))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.commentText").value(commentText));
+        verify(adService, never()).getAd(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/ads/{adId}/comments - slice")
+    void getComments_Success() throws Exception {
+        UUID adId = UUID.randomUUID();
+        CursorPageDto<CommentResponseDto> slice = new CursorPageDto<>(List.of(new CommentResponseDto()), "next-token", true);
+        when(commentService.getComments(adId, "token", 5)).thenReturn(slice);
+
+        mockMvc.perform(get(API_ADS + "/{adId}/comments", adId)
+                        .param("cursor", "token")
+                        .param("size", "5"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(adId.toString()));
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"));
+    }
+
+    @Test
+    @DisplayName("GET /api/ads/{adId}/comments - unknown ad")
+    void getComments_AdNotFound() throws Exception {
+        UUID adId = UUID.randomUUID();
+        when(commentService.getComments(adId, null, 20))
+                .thenThrow(new ResourceNotFoundException("Ad", "id", adId.toString()));
+
+        mockMvc.perform(get(API_ADS + "/{adId}/comments", adId))
+                .andExpect(status().isNotFound());
     }
 
     @Test
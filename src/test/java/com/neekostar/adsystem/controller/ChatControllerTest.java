@@ -7,6 +7,7 @@ import com.neekostar.adsystem.exception.AccessDeniedException;
 import com.neekostar.adsystem.exception.GlobalExceptionHandler;
 import com.neekostar.adsystem.exception.ResourceNotFoundException;
 import com.neekostar.adsystem.model.Chat;
+import com.neekostar.adsystem.service.ChatEventStreamService;
 import com.neekostar.adsystem.service.ChatService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,6 +21,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -32,6 +34,7 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +50,9 @@ public class ChatControllerTest {
     @Mock
     private ChatService chatService;
 
+    @Mock
+    private ChatEventStreamService chatEventStreamService;
+
     @InjectMocks
     private ChatController chatController;
 
@@ -66,6 +72,8 @@ public class ChatControllerTest {
         chatDto.setChatId(UUID.randomUUID());
         chatDto.setUsername1(TEST_USERNAME);
         chatDto.setUsername2(OTHER_USERNAME);
+        chatDto.setMessages(List.of());
+        chatDto.setLastMessagePreview("See you tomorrow");
         chatDto.setUnreadMessagesCount(3);
         when(chatService.getAllChatsForUser(TEST_USERNAME)).thenReturn(List.of(chatDto));
         SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(TEST_USERNAME, null));
@@ -73,7 +81,10 @@ public class ChatControllerTest {
         mockMvc.perform(get(API_CHATS + "/{username}", TEST_USERNAME).with(csrf()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].username1", is(TEST_USERNAME)));
+                .andExpect(jsonPath("$[0].username1", is(TEST_USERNAME)))
+                .andExpect(jsonPath("$[0].messages", hasSize(0)))
+                .andExpect(jsonPath("$[0].lastMessagePreview", is("See you tomorrow")))
+                .andExpect(jsonPath("$[0].unreadMessagesCount", is(3)));
     }
 
     @Test
@@ -227,4 +238,27 @@ public class ChatControllerTest {
                 .andExpect(status().isForbidden())
                 .andExpect(jsonPath("$.message", is("You can only view your own unread info")));
     }
+
+    @Test
+    @DisplayName("GET /api/chats/{username}/events - stream opened")
+    void streamChatEvents_Success() throws Exception {
+        when(chatEventStreamService.openStream(TEST_USERNAME)).thenReturn(new SseEmitter());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(TEST_USERNAME, null));
+
+        mockMvc.perform(get(API_CHATS + "/{username}/events", TEST_USERNAME))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @DisplayName("GET /api/chats/{username}/events - access denied")
+    void streamChatEvents_AccessDenied() throws Exception {
+        when(chatEventStreamService.openStream(TEST_USERNAME))
+                .thenThrow(new AccessDeniedException("You can only subscribe to your own events"));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("otheruser", null));
+
+        mockMvc.perform(get(API_CHATS + "/{username}/events", TEST_USERNAME))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message", is("You can only subscribe to your own events")));
+    }
 }
@@ -2,10 +2,12 @@ package com.neekostar.adsystem.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.neekostar.adsystem.dto.MessageCreateDto;
+import com.neekostar.adsystem.dto.MessagePageDto;
 import com.neekostar.adsystem.dto.MessageResponseDto;
 import com.neekostar.adsystem.dto.MessageUpdateDto;
 import com.neekostar.adsystem.exception.AccessDeniedException;
 import com.neekostar.adsystem.exception.GlobalExceptionHandler;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
 import com.neekostar.adsystem.exception.ResourceNotFoundException;
 import com.neekostar.adsystem.service.MessageService;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,10 +30,12 @@ import java.util.UUID;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -71,24 +75,29 @@ public class MessageControllerTest {
         dto.setRecipientUsername("recipientUser");
         dto.setContent("Decrypted message");
 
-        when(messageService.getMessagesForChat(eq(TEST_USERNAME), eq(TEST_CHAT_ID)))
-                .thenReturn(List.of(dto));
+        when(messageService.getMessagesForChat(eq(TEST_USERNAME), eq(TEST_CHAT_ID), isNull(), eq("cursor1"), eq(50)))
+                .thenReturn(new MessagePageDto(List.of(dto), "cursor0", "cursor2", true, false));
 
         SecurityContextHolder.getContext().setAuthentication(
                 new UsernamePasswordAuthenticationToken(TEST_USERNAME, "password"));
 
         mockMvc.perform(get(API_MESSAGES + "/{username}/{chatId}", TEST_USERNAME, TEST_CHAT_ID)
+                        .param("after", "cursor1")
                         .with(csrf()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].messageId", is(TEST_MESSAGE_ID.toString())))
-                .andExpect(jsonPath("$[0].senderUsername", is(TEST_USERNAME)));
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].messageId", is(TEST_MESSAGE_ID.toString())))
+                .andExpect(jsonPath("$.content[0].senderUsername", is(TEST_USERNAME)))
+                .andExpect(jsonPath("$.beforeCursor", is("cursor0")))
+                .andExpect(jsonPath("$.afterCursor", is("cursor2")))
+                .andExpect(jsonPath("$.hasBefore", is(true)))
+                .andExpect(jsonPath("$.hasAfter", is(false)));
     }
 
     @Test
     @DisplayName("GET /api/messages/{username}/{chatId} - access denied")
     void getChatMessages_AccessDenied() throws Exception {
-        when(messageService.getMessagesForChat(eq(TEST_USERNAME), eq(TEST_CHAT_ID)))
+        when(messageService.getMessagesForChat(eq(TEST_USERNAME), eq(TEST_CHAT_ID), isNull(), isNull(), eq(50)))
                 .thenThrow(new AccessDeniedException("You can only access your own messages"));
 
         SecurityContextHolder.getContext().setAuthentication(
@@ -103,7 +112,7 @@ public class MessageControllerTest {
     @Test
     @DisplayName("GET /api/messages/{username}/{chatId} - chat not found")
     void getChatMessages_ChatNotFound() throws Exception {
-        when(messageService.getMessagesForChat(eq(TEST_USERNAME), eq(TEST_CHAT_ID)))
+        when(messageService.getMessagesForChat(eq(TEST_USERNAME), eq(TEST_CHAT_ID), isNull(), isNull(), eq(50)))
                 .thenThrow(new ResourceNotFoundException("Chat", "id", TEST_CHAT_ID.toString()));
 
         SecurityContextHolder.getContext().setAuthentication(
@@ -114,6 +123,19 @@ public class MessageControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /api/messages/{username}/{chatId} - invalid cursor")
+    void getChatMessages_InvalidCursor() throws Exception {
+        when(messageService.getMessagesForChat(eq(TEST_USERNAME), eq(TEST_CHAT_ID), eq("broken"), isNull(), eq(20)))
+                .thenThrow(new InvalidArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get(API_MESSAGES + "/{username}/{chatId}", TEST_USERNAME, TEST_CHAT_ID)
+                        .param("before", "broken")
+                        .param("size", "20")
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("POST /api/messages/{username}/{chatId} - send message success")
     void sendMessage_Success() throws Exception {
@@ -218,12 +240,36 @@ public class MessageControllerTest {
     @Test
     @DisplayName("POST /api/messages/{username}/{chatId}/read-all - mark all messages as read success")
     void markAllMessagesAsRead_Success() throws Exception {
+        when(messageService.markAllMessagesAsRead(TEST_USERNAME, TEST_CHAT_ID)).thenReturn(3);
         SecurityContextHolder.getContext().setAuthentication(
                 new UsernamePasswordAuthenticationToken(TEST_USERNAME, "password"));
 
         mockMvc.perform(post(API_MESSAGES + "/{username}/{chatId}/read-all", TEST_USERNAME, TEST_CHAT_ID)
                         .with(csrf()))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(content().string("3"));
+    }
+
+    @Test
+    @DisplayName("POST /api/messages/{username}/{chatId}/read-up-to/{messageId} - success")
+    void markMessagesAsReadUpTo_Success() throws Exception {
+        when(messageService.markMessagesAsReadUpTo(TEST_USERNAME, TEST_CHAT_ID, TEST_MESSAGE_ID)).thenReturn(2);
+
+        mockMvc.perform(post(API_MESSAGES + "/{username}/{chatId}/read-up-to/{messageId}", TEST_USERNAME, TEST_CHAT_ID, TEST_MESSAGE_ID)
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+    }
+
+    @Test
+    @DisplayName("POST /api/messages/{username}/{chatId}/read-up-to/{messageId} - message not found")
+    void markMessagesAsReadUpTo_MessageNotFound() throws Exception {
+        when(messageService.markMessagesAsReadUpTo(TEST_USERNAME, TEST_CHAT_ID, TEST_MESSAGE_ID))
+                .thenThrow(new ResourceNotFoundException("Message", "id", TEST_MESSAGE_ID.toString()));
+
+        mockMvc.perform(post(API_MESSAGES + "/{username}/{chatId}/read-up-to/{messageId}", TEST_USERNAME, TEST_CHAT_ID, TEST_MESSAGE_ID)
+                        .with(csrf()))
+                .andExpect(status().isNotFound());
     }
 
     @Test
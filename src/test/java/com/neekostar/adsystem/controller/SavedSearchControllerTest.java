@@ -0,0 +1,156 @@
+package com.neekostar.adsystem.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neekostar.adsystem.dto.SavedSearchCreateDto;
+import com.neekostar.adsystem.dto.SavedSearchResponseDto;
+import com.neekostar.adsystem.exception.AccessDeniedException;
+import com.neekostar.adsystem.exception.GlobalExceptionHandler;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.service.SavedSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class SavedSearchControllerTest {
+    private static final String API_SAVED_SEARCHES = "/api/saved-searches";
+    private static final String APPLICATION_JSON = "application/json";
+    private static final String MOSCOW = "Moscow";
+
+    private MockMvc mockMvc;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private SavedSearchService savedSearchService;
+
+    @InjectMocks
+    private SavedSearchController savedSearchController;
+
+    @BeforeEach
+    void setUp() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages");
+        mockMvc = MockMvcBuilders.standaloneSetup(savedSearchController)
+                .setControllerAdvice(new GlobalExceptionHandler(messageSource))
+                .build();
+    }
+
+    private SavedSearchCreateDto buildCreateDto() {
+        SavedSearchCreateDto dto = new SavedSearchCreateDto();
+        dto.setCity(MOSCOW);
+        dto.setCategory(Category.VEHICLES);
+        dto.setMaxPrice(BigDecimal.valueOf(5000));
+        dto.setKeyword("bike");
+        return dto;
+    }
+
+    private SavedSearchResponseDto buildResponseDto() {
+        SavedSearchResponseDto dto = new SavedSearchResponseDto();
+        dto.setId(UUID.randomUUID());
+        dto.setCity(MOSCOW);
+        dto.setCategory(Category.VEHICLES);
+        dto.setMaxPrice(BigDecimal.valueOf(5000));
+        dto.setKeyword("bike");
+        return dto;
+    }
+
+    @Test
+    @DisplayName("POST /api/saved-searches - created")
+    void createSavedSearch_Success() throws Exception {
+        SavedSearchCreateDto createDto = buildCreateDto();
+        when(savedSearchService.createSavedSearch(createDto)).thenReturn(buildResponseDto());
+
+        mockMvc.perform(post(API_SAVED_SEARCHES)
+                        .contentType(APPLICATION_JSON)
+                        .with(csrf())
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.city").value(MOSCOW))
+                .andExpect(jsonPath("$.category").value("VEHICLES"))
+                .andExpect(jsonPath("$.keyword").value("bike"));
+    }
+
+    @Test
+    @DisplayName("POST /api/saved-searches - invalid city")
+    void createSavedSearch_ValidationFails() throws Exception {
+        SavedSearchCreateDto createDto = buildCreateDto();
+        createDto.setCity("moscow");
+
+        mockMvc.perform(post(API_SAVED_SEARCHES)
+                        .contentType(APPLICATION_JSON)
+                        .with(csrf())
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isBadRequest());
+        verify(savedSearchService, never()).createSavedSearch(any());
+    }
+
+    @Test
+    @DisplayName("POST /api/saved-searches - limit reached")
+    void createSavedSearch_LimitReached() throws Exception {
+        SavedSearchCreateDto createDto = buildCreateDto();
+        when(savedSearchService.createSavedSearch(createDto))
+                .thenThrow(new InvalidArgumentException("You can't have more than 20 saved searches"));
+
+        mockMvc.perform(post(API_SAVED_SEARCHES)
+                        .contentType(APPLICATION_JSON)
+                        .with(csrf())
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("You can't have more than 20 saved searches"));
+    }
+
+    @Test
+    @DisplayName("GET /api/saved-searches - list")
+    void getMySavedSearches_Success() throws Exception {
+        when(savedSearchService.getMySavedSearches()).thenReturn(List.of(buildResponseDto(), buildResponseDto()));
+
+        mockMvc.perform(get(API_SAVED_SEARCHES))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/saved-searches/{id} - no content")
+    void deleteSavedSearch_Success() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        mockMvc.perform(delete(API_SAVED_SEARCHES + "/{id}", id).with(csrf()))
+                .andExpect(status().isNoContent());
+        verify(savedSearchService).deleteSavedSearch(id);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/saved-searches/{id} - not owner")
+    void deleteSavedSearch_NotOwner() throws Exception {
+        UUID id = UUID.randomUUID();
+        doThrow(new AccessDeniedException("You can only delete your own saved searches"))
+                .when(savedSearchService).deleteSavedSearch(id);
+
+        mockMvc.perform(delete(API_SAVED_SEARCHES + "/{id}", id).with(csrf()))
+                .andExpect(status().isForbidden());
+    }
+}
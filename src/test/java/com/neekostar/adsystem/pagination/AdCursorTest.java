@@ -0,0 +1,60 @@
+package com.neekostar.adsystem.pagination;
+
+import com.neekostar.adsystem.dto.AdSummaryDto;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdCursorTest {
+
+    @Test
+    void encodeDecode_RoundTrip() {
+        AdCursor cursor = new AdCursor(true, LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123456000), UUID.randomUUID());
+
+        AdCursor decoded = AdCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void encode_IsUrlSafe() {
+        String token = new AdCursor(false, LocalDateTime.now(), UUID.randomUUID()).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void of_IgnoresRankScore() {
+        AdSummaryDto ad = new AdSummaryDto();
+        ad.setId(UUID.randomUUID());
+        ad.setIsPromoted(null);
+        ad.setCreatedAt(LocalDateTime.now());
+        ad.setRankScore(42.5);
+
+        AdCursor cursor = AdCursor.of(ad);
+
+        ad.setRankScore(7.0);
+        assertEquals(cursor, AdCursor.of(ad));
+        assertFalse(cursor.promoted());
+        assertEquals(ad.getCreatedAt(), cursor.createdAt());
+        assertEquals(ad.getId(), cursor.id());
+    }
+
+    @Test
+    void decode_Invalid() {
+        String wrongParts = Base64.getUrlEncoder().encodeToString(("1|" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+        String wrongFlag = Base64.getUrlEncoder().encodeToString(("yes|2025-01-01T12:00|" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+        String wrongDate = Base64.getUrlEncoder().encodeToString(("1|yesterday|" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidArgumentException.class, () -> AdCursor.decode("%%%"));
+        assertThrows(InvalidArgumentException.class, () -> AdCursor.decode(wrongParts));
+        assertThrows(InvalidArgumentException.class, () -> AdCursor.decode(wrongFlag));
+        assertThrows(InvalidArgumentException.class, () -> AdCursor.decode(wrongDate));
+    }
+}
@@ -0,0 +1,56 @@
+package com.neekostar.adsystem.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeightedRankingStrategyTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    private final WeightedRankingStrategy strategy = new WeightedRankingStrategy(100, 10, 20, 5, Duration.ofDays(3));
+
+    private RankingSignals signals(boolean promoted, LocalDateTime promotionEnd, float rating, LocalDateTime createdAt, long comments) {
+        return new RankingSignals(promoted, promotionEnd, rating, createdAt, comments);
+    }
+
+    @Test
+    void score_BlendsWeightedSignals() {
+        double score = strategy.score(signals(false, null, 4.0f, NOW, 0), NOW);
+
+        assertEquals(10 * 4.0 + 20, score, 1e-9);
+    }
+
+    @Test
+    void score_RecencyHalvesEveryHalfLife() {
+        double fresh = strategy.score(signals(false, null, 0f, NOW, 0), NOW);
+        double threeDaysOld = strategy.score(signals(false, null, 0f, NOW.minusDays(3), 0), NOW);
+        double sixDaysOld = strategy.score(signals(false, null, 0f, NOW.minusDays(6), 0), NOW);
+
+        assertEquals(20, fresh, 1e-9);
+        assertEquals(10, threeDaysOld, 1e-9);
+        assertEquals(5, sixDaysOld, 1e-9);
+    }
+
+    @Test
+    void score_ActivePromotionOnly() {
+        double active = strategy.score(signals(true, NOW.plusDays(1), 0f, null, 0), NOW);
+        double expired = strategy.score(signals(true, NOW.minusMinutes(1), 0f, null, 0), NOW);
+
+        assertEquals(120, active, 1e-9);
+        assertEquals(20, expired, 1e-9);
+    }
+
+    @Test
+    void score_EngagementIsDampened() {
+        double none = strategy.score(signals(false, null, 0f, NOW, 0), NOW);
+        double ten = strategy.score(signals(false, null, 0f, NOW, 10), NOW);
+        double hundred = strategy.score(signals(false, null, 0f, NOW, 100), NOW);
+
+        assertEquals(5 * Math.log1p(10), ten - none, 1e-9);
+        assertTrue(hundred - ten < ten - none);
+    }
+}
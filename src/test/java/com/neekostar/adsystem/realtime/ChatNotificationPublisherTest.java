@@ -0,0 +1,201 @@
+package com.neekostar.adsystem.realtime;
+
+import com.neekostar.adsystem.dto.MessageResponseDto;
+import com.neekostar.adsystem.dto.ReadReceiptDto;
+import com.neekostar.adsystem.dto.SavedSearchAlertDto;
+import com.neekostar.adsystem.dto.UnreadCountDto;
+import com.neekostar.adsystem.event.MessageSentEvent;
+import com.neekostar.adsystem.event.MessagesReadEvent;
+import com.neekostar.adsystem.event.SavedSearchMatchesEvent;
+import com.neekostar.adsystem.event.UserNotificationEvent;
+import com.neekostar.adsystem.model.ChatInbox;
+import com.neekostar.adsystem.repository.ChatInboxRepository;
+import com.neekostar.adsystem.search.SavedSearchMatch;
+import com.neekostar.adsystem.service.EncryptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ChatNotificationPublisherTest {
+    private static final String SENDER = "alice";
+    private static final String RECIPIENT = "bob";
+
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+    @Mock
+    private RedisConnection connection;
+    @Mock
+    private ChatInboxRepository chatInboxRepository;
+    @Mock
+    private EncryptionService encryptionService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ChatRelayChannel relayChannel;
+    private ChatNotificationPublisher publisher;
+    private final UUID chatId = UUID.randomUUID();
+    private final UUID recipientId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(encryptionService.decrypt("cipher")).thenReturn("hello");
+        ChatInbox inbox = new ChatInbox();
+        inbox.setUnreadCount(2);
+        when(chatInboxRepository.findByChatIdAndUserId(chatId, recipientId)).thenReturn(Optional.of(inbox));
+        when(chatInboxRepository.countByUserIdAndUnreadCountGreaterThan(recipientId, 0)).thenReturn(3L);
+        when(chatInboxRepository.sumUnreadCountByUserId(recipientId)).thenReturn(7L);
+
+        relayChannel = new ChatRelayChannel(connectionFactory, "test:relay");
+        publisher = new ChatNotificationPublisher(relayChannel, chatInboxRepository, encryptionService, eventPublisher);
+    }
+
+    private List<UserNotificationEvent> notifications() {
+        ArgumentCaptor<UserNotificationEvent> captor = ArgumentCaptor.forClass(UserNotificationEvent.class);
+        verify(eventPublisher, atLeast(0)).publishEvent(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private List<byte[]> relayed() {
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(connection, atLeast(0)).publish(any(byte[].class), captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    void onMessageSent_PushesMessageToBothParticipantsAndUnreadToRecipient() {
+        UUID messageId = UUID.randomUUID();
+        publisher.onMessageSent(new MessageSentEvent(chatId, messageId, SENDER, recipientId, RECIPIENT,
+                "cipher", LocalDateTime.of(2025, 1, 1, 12, 0)));
+
+        List<UserNotificationEvent> events = notifications();
+        assertEquals(List.of(RECIPIENT, SENDER, RECIPIENT), events.stream().map(UserNotificationEvent::getUsername).toList());
+        assertEquals(ChatNotificationPublisher.MESSAGES_DESTINATION, events.get(0).getDestination());
+        MessageResponseDto message = (MessageResponseDto) events.get(0).getPayload();
+        assertEquals(messageId, message.getMessageId());
+        assertEquals("hello", message.getContent());
+        assertFalse(message.isRead());
+
+        assertEquals(ChatNotificationPublisher.UNREAD_DESTINATION, events.get(2).getDestination());
+        UnreadCountDto unread = (UnreadCountDto) events.get(2).getPayload();
+        assertEquals(new UnreadCountDto(chatId, 2, 3, 7), unread);
+
+        // other nodes get the ciphertext only
+        assertEquals(3, relayed().size());
+        verify(connection, times(3)).publish(eq("test:relay".getBytes()), any(byte[].class));
+    }
+
+    @Test
+    void onMessagesRead_SendsReceiptToSenderAndUnreadToReader() {
+        UUID upTo = UUID.randomUUID();
+        publisher.onMessagesRead(new MessagesReadEvent(chatId, recipientId, RECIPIENT, SENDER, upTo, 4));
+
+        List<UserNotificationEvent> events = notifications();
+        assertEquals(2, events.size());
+        assertEquals(SENDER, events.get(0).getUsername());
+        assertEquals(ChatNotificationPublisher.RECEIPTS_DESTINATION, events.get(0).getDestination());
+        assertEquals(new ReadReceiptDto(chatId, RECIPIENT, upTo, 4), events.get(0).getPayload());
+        assertEquals(RECIPIENT, events.get(1).getUsername());
+        assertEquals(new UnreadCountDto(chatId, 2, 3, 7), events.get(1).getPayload());
+    }
+
+    @Test
+    void onSavedSearchMatches_SendsOneAlertPerSearch() {
+        UUID bikes = UUID.randomUUID();
+        UUID lamps = UUID.randomUUID();
+        UUID firstAd = UUID.randomUUID();
+        UUID secondAd = UUID.randomUUID();
+        publisher.onSavedSearchMatches(new SavedSearchMatchesEvent(List.of(
+                new SavedSearchMatch(bikes, recipientId, RECIPIENT, firstAd),
+                new SavedSearchMatch(lamps, UUID.randomUUID(), SENDER, firstAd),
+                new SavedSearchMatch(bikes, recipientId, RECIPIENT, secondAd))));
+
+        List<UserNotificationEvent> events = notifications();
+        assertEquals(2, events.size());
+        assertEquals(RECIPIENT, events.get(0).getUsername());
+        assertEquals(ChatNotificationPublisher.SAVED_SEARCH_DESTINATION, events.get(0).getDestination());
+        assertEquals(new SavedSearchAlertDto(bikes, List.of(firstAd, secondAd)), events.get(0).getPayload());
+        assertEquals(SENDER, events.get(1).getUsername());
+        assertEquals(new SavedSearchAlertDto(lamps, List.of(firstAd)), events.get(1).getPayload());
+        assertEquals(2, relayed().size());
+    }
+
+    @Test
+    void relay_OtherNodeDeliversSavedSearchAlert() {
+        UUID searchId = UUID.randomUUID();
+        UUID adId = UUID.randomUUID();
+        publisher.onSavedSearchMatches(new SavedSearchMatchesEvent(List.of(
+                new SavedSearchMatch(searchId, recipientId, RECIPIENT, adId))));
+        ApplicationEventPublisher otherNodeEvents = mock(ApplicationEventPublisher.class);
+        ChatRelayChannel otherChannel = new ChatRelayChannel(connectionFactory, "test:relay");
+        ChatNotificationPublisher otherNode = new ChatNotificationPublisher(otherChannel, chatInboxRepository,
+                encryptionService, otherNodeEvents);
+
+        relayed().forEach(body -> otherChannel.receive(body, otherNode::receive));
+
+        ArgumentCaptor<UserNotificationEvent> captor = ArgumentCaptor.forClass(UserNotificationEvent.class);
+        verify(otherNodeEvents).publishEvent(captor.capture());
+        assertEquals(ChatNotificationPublisher.SAVED_SEARCH_DESTINATION, captor.getValue().getDestination());
+        assertEquals(new SavedSearchAlertDto(searchId, List.of(adId)), captor.getValue().getPayload());
+    }
+
+    @Test
+    void relay_OtherNodeDeliversDecryptedMessage() {
+        publisher.onMessageSent(new MessageSentEvent(chatId, UUID.randomUUID(), SENDER, recipientId, RECIPIENT,
+                "cipher", LocalDateTime.now()));
+        List<byte[]> bodies = new ArrayList<>(relayed());
+        ApplicationEventPublisher otherNodeEvents = mock(ApplicationEventPublisher.class);
+        ChatRelayChannel otherChannel = new ChatRelayChannel(connectionFactory, "test:relay");
+        ChatNotificationPublisher otherNode = new ChatNotificationPublisher(otherChannel, chatInboxRepository,
+                encryptionService, otherNodeEvents);
+
+        bodies.forEach(body -> otherChannel.receive(body, otherNode::receive));
+
+        ArgumentCaptor<UserNotificationEvent> captor = ArgumentCaptor.forClass(UserNotificationEvent.class);
+        verify(otherNodeEvents, times(3)).publishEvent(captor.capture());
+        assertEquals("hello", ((MessageResponseDto) captor.getAllValues().get(0).getPayload()).getContent());
+        // nothing is re-published, and the unread count is not recomputed on the receiving node
+        verify(chatInboxRepository, times(1)).countByUserIdAndUnreadCountGreaterThan(any(), anyInt());
+    }
+
+    @Test
+    void relay_OwnMessagesAreIgnored() {
+        publisher.onMessagesRead(new MessagesReadEvent(chatId, recipientId, RECIPIENT, SENDER, null, 1));
+        clearInvocations(eventPublisher);
+
+        relayed().forEach(body -> relayChannel.receive(body, publisher::receive));
+        relayChannel.receive("garbage".getBytes(), publisher::receive);
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void publish_RedisFailureStillDeliversLocally() {
+        when(connectionFactory.getConnection()).thenThrow(new IllegalStateException("redis down"));
+
+        publisher.onMessagesRead(new MessagesReadEvent(chatId, recipientId, RECIPIENT, SENDER, null, 1));
+
+        assertEquals(2, notifications().size());
+    }
+}
@@ -0,0 +1,219 @@
+package com.neekostar.adsystem.realtime;
+
+import com.neekostar.adsystem.dto.UnreadCountDto;
+import com.neekostar.adsystem.event.UserNotificationEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SseEmitterRegistryTest {
+
+    private static final String USER = "alice";
+
+    private QueuedExecutor dispatcher;
+    private SseEmitterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new QueuedExecutor();
+        registry = new SseEmitterRegistry(Duration.ofMinutes(1), 3, 2, Duration.ofSeconds(10), dispatcher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void open_TracksStreamsAndEvictsTheOldest() {
+        registry.open(USER, () -> "snapshot");
+        registry.open(USER, () -> "snapshot");
+        registry.open(USER, () -> "snapshot");
+        registry.open("bob", () -> "snapshot");
+
+        assertEquals(3, registry.activeConnections());
+    }
+
+    @Test
+    void send_OnlySchedulesOneDrainPerStream() {
+        registry.open(USER, () -> "snapshot");
+        registry.send(USER, "unread", new UnreadCountDto(UUID.randomUUID(), 1, 1, 1));
+        registry.send("nobody", "unread", "ignored");
+
+        assertEquals(1, dispatcher.tasks.size());
+        dispatcher.runAll();
+        assertEquals(1, registry.activeConnections());
+
+        registry.heartbeat();
+        assertEquals(1, dispatcher.tasks.size());
+    }
+
+    @Test
+    void send_SlowStreamIsClosedWhenItsBufferIsFull() {
+        registry.open(USER, () -> "snapshot");
+        registry.open("bob", () -> "snapshot");
+        registry.send(USER, "unread", "first");
+        registry.send(USER, "unread", "second");
+
+        assertEquals(2, registry.activeConnections());
+        registry.onUserNotification(new UserNotificationEvent(USER, "/queue/unread", "third"));
+
+        assertEquals(1, registry.activeConnections());
+    }
+
+    @Test
+    void connection_DrainsInOrderAndClosesOnSendFailure() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        List<SseEmitterRegistry.Connection> closed = new ArrayList<>();
+        SseEmitterRegistry.Connection connection = new SseEmitterRegistry.Connection(USER, emitter, 3, Runnable::run, closed::add);
+        connection.start(SseEmitter.event().name("snapshot").data(0));
+
+        assertTrue(connection.offer(SseEmitter.event().name("a").data(1)));
+        assertTrue(connection.offer(SseEmitter.event().name("b").data(2)));
+        assertEquals(3, emitter.sent.size());
+        assertEquals(0, connection.pendingEvents());
+
+        emitter.failing = true;
+        connection.offer(SseEmitter.event().name("c").data(3));
+        assertEquals(List.of(connection), closed);
+        assertTrue(emitter.completed);
+        assertFalse(connection.offer(SseEmitter.event().name("d").data(4)));
+    }
+
+    @Test
+    void open_BuffersEventsPublishedWhileTheSnapshotIsRead() {
+        registry.open(USER, () -> {
+            // the stream is already registered, this notification is buffered rather than lost
+            registry.send(USER, "unread", "racing");
+            assertEquals(1, registry.activeConnections());
+            assertTrue(dispatcher.tasks.isEmpty());
+            return "snapshot";
+        });
+
+        assertEquals(1, dispatcher.tasks.size());
+        assertEquals(1, registry.activeConnections());
+    }
+
+    @Test
+    void connection_SnapshotGoesAheadOfBufferedEvents() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        SseEmitterRegistry.Connection connection = new SseEmitterRegistry.Connection(USER, emitter, 3, Runnable::run, c -> {
+        });
+        SseEmitter.SseEventBuilder buffered = SseEmitter.event().name("unread").data(1);
+        SseEmitter.SseEventBuilder snapshot = SseEmitter.event().name("snapshot").data(0);
+
+        assertTrue(connection.offer(buffered));
+        assertTrue(emitter.sent.isEmpty());
+        connection.start(snapshot);
+
+        assertEquals(List.of(snapshot, buffered), emitter.sent);
+    }
+
+    @Test
+    void open_FailedSnapshotClosesTheStream() {
+        assertThrows(IllegalStateException.class, () -> registry.open(USER, () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        assertEquals(0, registry.activeConnections());
+    }
+
+    @Test
+    void connection_StalledWriteIsAbandonedAndCompletedByItsWriter() {
+        List<SseEmitterRegistry.Connection> closed = new ArrayList<>();
+        long writeTimeout = Duration.ofSeconds(10).toNanos();
+        SseEmitterRegistry.Connection[] holder = new SseEmitterRegistry.Connection[1];
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.onSend = () -> {
+            SseEmitterRegistry.Connection connection = holder[0];
+            assertFalse(connection.stalled(System.nanoTime(), writeTimeout));
+            // the heartbeat finds the write still blocked after the timeout
+            assertTrue(connection.stalled(System.nanoTime() + 2 * writeTimeout, writeTimeout));
+            connection.abandon();
+            assertFalse(emitter.completed);
+        };
+        holder[0] = new SseEmitterRegistry.Connection(USER, emitter, 3, Runnable::run, closed::add);
+
+        holder[0].start(SseEmitter.event().name("snapshot").data(0));
+
+        assertEquals(List.of(holder[0]), closed);
+        assertTrue(emitter.completed);
+        assertFalse(holder[0].stalled(System.nanoTime() + 2 * writeTimeout, writeTimeout));
+        assertFalse(holder[0].offer(SseEmitter.event().name("late").data(1)));
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<SseEventBuilder> sent = new ArrayList<>();
+        private boolean failing;
+        private boolean completed;
+        private Runnable onSend = () -> {
+        };
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            onSend.run();
+            sent.add(builder);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+    }
+
+    private static class QueuedExecutor extends AbstractExecutorService {
+        private final List<Runnable> tasks = new ArrayList<>();
+        private boolean shutdown;
+
+        void runAll() {
+            List<Runnable> pending = new ArrayList<>(tasks);
+            tasks.clear();
+            pending.forEach(Runnable::run);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return tasks;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
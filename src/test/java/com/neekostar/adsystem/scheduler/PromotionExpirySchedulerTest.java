@@ -0,0 +1,122 @@
+package com.neekostar.adsystem.scheduler;
+
+import com.neekostar.adsystem.cache.AdCacheInvalidator;
+import com.neekostar.adsystem.cache.AdCacheTags;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.repository.projection.ExpiredPromotionView;
+import com.neekostar.adsystem.service.AdRankingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PromotionExpirySchedulerTest {
+
+    @Mock
+    private AdRepository adRepository;
+    @Mock
+    private AdCacheInvalidator cacheInvalidator;
+    @Mock
+    private AdRankingService adRankingService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Captor
+    private ArgumentCaptor<Collection<String>> tagsCaptor;
+
+    private PromotionExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new PromotionExpiryScheduler(adRepository, cacheInvalidator, adRankingService, transactionManager, 2);
+    }
+
+    private ExpiredPromotionView view(UUID id, String username) {
+        return new ExpiredPromotionView() {
+            public UUID getId() {
+                return id;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public String getCity() {
+                return "Moscow";
+            }
+
+            public Category getCategory() {
+                return Category.VEHICLES;
+            }
+        };
+    }
+
+    @Test
+    void expirePromotions_NothingExpired() {
+        when(adRepository.findExpiredPromotions(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        scheduler.expirePromotions();
+
+        verify(adRepository, never()).clearPromotions(anyCollection());
+        verifyNoInteractions(cacheInvalidator, adRankingService);
+    }
+
+    @Test
+    void expirePromotions_ProcessesBatchesUntilShortBatch() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(adRepository.findExpiredPromotions(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(view(first, "alice"), view(second, "bob")))
+                .thenReturn(List.of(view(third, "alice")));
+
+        scheduler.expirePromotions();
+
+        verify(adRepository).clearPromotions(List.of(first, second));
+        verify(adRepository).clearPromotions(List.of(third));
+        verify(adRankingService).refreshAds(List.of(first, second));
+        verify(adRankingService).refreshAds(List.of(third));
+        verify(adRepository, times(2)).findExpiredPromotions(any(LocalDateTime.class), any(Pageable.class));
+        verify(cacheInvalidator).evictAds(List.of(first, second));
+        verify(cacheInvalidator).evictAds(List.of(third));
+        verify(cacheInvalidator).invalidateTags(tagsCaptor.capture());
+        assertTrue(tagsCaptor.getValue().containsAll(Set.of(AdCacheTags.seller("alice"), AdCacheTags.seller("bob"),
+                AdCacheTags.filter("Moscow", Category.VEHICLES), AdCacheTags.filter(null, null),
+                AdCacheTags.PROMOTED, AdCacheTags.NON_PROMOTED)));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void expirePromotions_FullLastBatchTriggersAnotherLookup() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(adRepository.findExpiredPromotions(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(view(first, "alice"), view(second, "alice")))
+                .thenReturn(Collections.emptyList());
+
+        scheduler.expirePromotions();
+
+        verify(adRepository, times(1)).clearPromotions(anyCollection());
+        verify(cacheInvalidator).evictAds(List.of(first, second));
+        verify(cacheInvalidator, times(1)).invalidateTags(anyCollection());
+    }
+}
@@ -0,0 +1,59 @@
+package com.neekostar.adsystem.scheduler;
+
+import com.neekostar.adsystem.service.AdFacetService;
+import com.neekostar.adsystem.service.AdPriceStatsService;
+import com.neekostar.adsystem.service.AdSimilarityService;
+import com.neekostar.adsystem.service.AdSuggestService;
+import com.neekostar.adsystem.service.SavedSearchMatchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SearchIndexRebuildSchedulerTest {
+
+    @Mock
+    private AdFacetService adFacetService;
+    @Mock
+    private AdPriceStatsService adPriceStatsService;
+    @Mock
+    private AdSuggestService adSuggestService;
+    @Mock
+    private SavedSearchMatchService savedSearchMatchService;
+    @Mock
+    private AdSimilarityService adSimilarityService;
+
+    private SearchIndexRebuildScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new SearchIndexRebuildScheduler(adFacetService, adPriceStatsService, adSuggestService,
+                savedSearchMatchService, adSimilarityService);
+    }
+
+    @Test
+    void rebuildIndexes_RebuildsEveryIndex() {
+        scheduler.rebuildIndexes();
+
+        verify(adFacetService).rebuild();
+        verify(adPriceStatsService).rebuild();
+        verify(adSuggestService).rebuild();
+        verify(savedSearchMatchService).rebuild();
+        verify(adSimilarityService).rebuild();
+    }
+
+    @Test
+    void rebuildIndexes_FailureDoesNotSkipTheRest() {
+        doThrow(new IllegalStateException("database down")).when(adPriceStatsService).rebuild();
+
+        scheduler.rebuildIndexes();
+
+        verify(adSuggestService).rebuild();
+        verify(savedSearchMatchService).rebuild();
+        verify(adSimilarityService).rebuild();
+    }
+}
@@ -0,0 +1,39 @@
+package com.neekostar.adsystem.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinHashTest {
+
+    @Test
+    void shingles_WordsAndPairs() {
+        assertEquals(Set.of("red", "bike", "red bike", "for", "bike for", "kids", "for kids"),
+                MinHash.shingles("Red bike,", "for a kids!"));
+        assertTrue(MinHash.shingles(null, " ").isEmpty());
+    }
+
+    @Test
+    void similarity_IdenticalAndDisjoint() {
+        int[] signature = MinHash.signature(Set.of("red", "bike"));
+
+        assertEquals(1.0, MinHash.similarity(signature, MinHash.signature(Set.of("bike", "red"))));
+        assertEquals(0.0, MinHash.similarity(signature, MinHash.signature(Set.of("oak", "table"))), 0.05);
+    }
+
+    @Test
+    void similarity_EstimatesJaccard() {
+        Set<String> first = IntStream.range(0, 100).mapToObj(i -> "w" + i).collect(Collectors.toSet());
+        Set<String> second = new HashSet<>(IntStream.range(50, 150).mapToObj(i -> "w" + i).collect(Collectors.toSet()));
+
+        // true Jaccard similarity is 50 / 150
+        double estimate = MinHash.similarity(MinHash.signature(first), MinHash.signature(second));
+
+        assertEquals(1.0 / 3, estimate, 0.15);
+    }
+}
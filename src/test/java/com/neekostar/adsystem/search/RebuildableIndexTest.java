@@ -0,0 +1,62 @@
+package com.neekostar.adsystem.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RebuildableIndexTest {
+
+    @Test
+    void update_AppliesToCurrentIndex() {
+        RebuildableIndex<Map<String, Integer>> index = new RebuildableIndex<>(new HashMap<>());
+
+        index.update(map -> map.put("a", 1));
+
+        assertEquals(Integer.valueOf(1), index.read(map -> map.get("a")));
+    }
+
+    @Test
+    void rebuild_ReplaysChangesMadeWhileLoading() {
+        RebuildableIndex<Map<String, Integer>> index = new RebuildableIndex<>(new HashMap<>(Map.of("stale", 0)));
+
+        Map<String, Integer> rebuilt = index.rebuild(() -> {
+            Map<String, Integer> loaded = new HashMap<>();
+            loaded.put("a", 1);
+            loaded.put("removed", 2);
+            // these arrive after the snapshot was read, the loaded map does not contain them yet
+            index.update(map -> map.put("b", 2));
+            index.update(map -> map.remove("removed"));
+            // reads still see the old index while the new one is loading
+            assertEquals(Integer.valueOf(0), index.read(map -> map.get("stale")));
+            assertEquals(Integer.valueOf(2), index.read(map -> map.get("b")));
+            return loaded;
+        });
+
+        assertEquals(Map.of("a", 1, "b", 2), rebuilt);
+        assertSame(rebuilt, index.read(map -> map));
+
+        index.update(map -> map.put("c", 3));
+        assertEquals(3, rebuilt.get("c"));
+    }
+
+    @Test
+    void rebuild_FailedLoadKeepsIndexAndStopsBuffering() {
+        List<String> applied = new ArrayList<>();
+        RebuildableIndex<List<String>> index = new RebuildableIndex<>(applied);
+
+        assertThrows(IllegalStateException.class, () -> index.rebuild(() -> {
+            index.update(list -> list.add("during"));
+            throw new IllegalStateException("database down");
+        }));
+        index.update(list -> list.add("after"));
+
+        List<String> rebuilt = index.rebuild(ArrayList::new);
+        assertEquals(List.of("during", "after"), applied);
+        assertTrue(rebuilt.isEmpty());
+    }
+}
@@ -0,0 +1,74 @@
+package com.neekostar.adsystem.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.security.Principal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class StompAuthenticationInterceptorTest {
+
+    private final StompAuthenticationInterceptor interceptor = new StompAuthenticationInterceptor();
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final Principal user = new UsernamePasswordAuthenticationToken("alice", null,
+            AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+    private Message<byte[]> frame(StompCommand command, Principal principal, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setUser(principal);
+        accessor.setSessionId("session");
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    void connect_RequiresAuthenticatedSession() {
+        Message<byte[]> authenticated = frame(StompCommand.CONNECT, user, null);
+        assertSame(authenticated, interceptor.preSend(authenticated, channel));
+
+        Principal anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+        Principal unauthenticated = new UsernamePasswordAuthenticationToken("alice", null);
+        for (Principal principal : new Principal[]{null, anonymous, unauthenticated}) {
+            assertThrows(MessageDeliveryException.class,
+                    () -> interceptor.preSend(frame(StompCommand.CONNECT, principal, null), channel));
+        }
+    }
+
+    @Test
+    void subscribe_OnlyOwnUserQueues() {
+        for (String allowed : List.of("/user/queue/messages", "/user/queue/receipts", "/user/queue/unread")) {
+            assertNotNull(interceptor.preSend(frame(StompCommand.SUBSCRIBE, user, allowed), channel));
+        }
+        for (String denied : List.of("/queue/messages", "/user/bob/queue/messages", "/topic/all")) {
+            assertThrows(MessageDeliveryException.class,
+                    () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, user, denied), channel));
+        }
+    }
+
+    @Test
+    void send_IsRejected() {
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(frame(StompCommand.SEND, user, "/app/chat"), channel));
+    }
+
+    @Test
+    void otherFrames_PassThrough() {
+        Message<byte[]> disconnect = frame(StompCommand.DISCONNECT, user, null);
+        assertSame(disconnect, interceptor.preSend(disconnect, channel));
+    }
+}
@@ -0,0 +1,127 @@
+package com.neekostar.adsystem.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neekostar.adsystem.dto.AdResponseDto;
+import com.neekostar.adsystem.mapper.AdMapper;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.repository.AdRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AdExportServiceImplTest {
+
+    @Mock
+    private AdRepository adRepository;
+    @Mock
+    private AdMapper adMapper;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AdExportServiceImpl adExportService;
+
+    @BeforeEach
+    void setUp() {
+        adExportService = new AdExportServiceImpl(adRepository, adMapper, entityManager,
+                new ObjectMapper().findAndRegisterModules(), transactionManager, 2);
+    }
+
+    private Ad buildAd(String title) {
+        Ad ad = new Ad();
+        ad.setId(UUID.randomUUID());
+        ad.setTitle(title);
+        ad.setCategory(Category.BOOKS);
+        return ad;
+    }
+
+    private void mapTitles() {
+        when(adMapper.toDto(any(Ad.class))).thenAnswer(invocation -> {
+            Ad ad = invocation.getArgument(0);
+            AdResponseDto dto = new AdResponseDto();
+            dto.setId(ad.getId());
+            dto.setTitle(ad.getTitle());
+            return dto;
+        });
+    }
+
+    @Test
+    void exportAds_WritesOneLinePerAdAndDetaches() throws IOException {
+        mapTitles();
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Ad> ads = IntStream.range(0, 5).mapToObj(i -> buildAd("Book " + i)).onClose(() -> closed.set(true));
+        when(adRepository.streamAds(any(), eq(2))).thenReturn(ads);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = adExportService.exportAds("Moscow", Category.BOOKS, null, BigDecimal.TEN, null, output);
+
+        assertEquals(5, exported);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].contains("\"title\":\"Book 0\""));
+        assertTrue(lines[4].contains("\"title\":\"Book 4\""));
+
+        verify(entityManager, times(5)).detach(any(Ad.class));
+        verify(entityManager, times(2)).clear();
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportAds_RunsInReadOnlyTransaction() throws IOException {
+        when(adRepository.streamAds(any(), eq(2))).thenReturn(Stream.empty());
+
+        long exported = adExportService.exportAds(null, null, null, null, null, new ByteArrayOutputStream());
+
+        assertEquals(0, exported);
+        ArgumentCaptor<TransactionDefinition> definitionCaptor = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definitionCaptor.capture());
+        assertTrue(definitionCaptor.getValue().isReadOnly());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void exportAds_ClientDisconnectClosesStream() {
+        mapTitles();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(adRepository.streamAds(any(), eq(2)))
+                .thenReturn(Stream.of(buildAd("Book"), buildAd("Other")).onClose(() -> closed.set(true)));
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        IOException exception = assertThrows(IOException.class,
+                () -> adExportService.exportAds(null, null, null, null, null, broken));
+
+        assertEquals("Broken pipe", exception.getMessage());
+        assertTrue(closed.get());
+        verify(transactionManager).rollback(any());
+        verify(adMapper, times(1)).toDto(any(Ad.class));
+    }
+}
@@ -0,0 +1,196 @@
+package com.neekostar.adsystem.service.impl;
+
+import com.neekostar.adsystem.dto.AdFacetsDto;
+import com.neekostar.adsystem.event.AdChangeType;
+import com.neekostar.adsystem.event.AdChangedEvent;
+import com.neekostar.adsystem.event.AdsImportedEvent;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdStatus;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.repository.projection.AdFacetView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AdFacetServiceImplTest {
+
+    private static final String MOSCOW = "Moscow";
+    private static final String KAZAN = "Kazan";
+
+    @Mock
+    private AdRepository adRepository;
+    @InjectMocks
+    private AdFacetServiceImpl adFacetService;
+
+    private Ad moscowCar;
+    private Ad moscowSofa;
+    private Ad kazanCar;
+
+    @BeforeEach
+    void setUp() {
+        moscowCar = buildAd(MOSCOW, Category.VEHICLES, 50_000);
+        moscowSofa = buildAd(MOSCOW, Category.FURNITURE, 300);
+        kazanCar = buildAd(KAZAN, Category.VEHICLES, 120_000);
+
+        adFacetService.onAdChanged(new AdChangedEvent(moscowCar, AdChangeType.CREATED));
+        adFacetService.onAdChanged(new AdChangedEvent(moscowSofa, AdChangeType.CREATED));
+        adFacetService.onAdChanged(new AdChangedEvent(kazanCar, AdChangeType.CREATED));
+    }
+
+    private Ad buildAd(String city, Category category, long price) {
+        Ad ad = new Ad();
+        ad.setId(UUID.randomUUID());
+        ad.setCity(city);
+        ad.setCategory(category);
+        ad.setPrice(BigDecimal.valueOf(price));
+        ad.setStatus(AdStatus.ACTIVE);
+        return ad;
+    }
+
+    private AdFacetView view(UUID id, String city, Category category, long price) {
+        return new AdFacetView() {
+            public UUID getId() {
+                return id;
+            }
+
+            public String getCity() {
+                return city;
+            }
+
+            public Category getCategory() {
+                return category;
+            }
+
+            public BigDecimal getPrice() {
+                return BigDecimal.valueOf(price);
+            }
+        };
+    }
+
+    @Test
+    void getFacets_NoFilter() {
+        AdFacetsDto facets = adFacetService.getFacets(null, null, null, null);
+
+        assertEquals(3, facets.getTotal());
+        assertEquals(2L, facets.getCategories().get(Category.VEHICLES));
+        assertEquals(1L, facets.getCategories().get(Category.FURNITURE));
+        assertEquals(2L, facets.getCities().get(MOSCOW));
+        assertEquals(1L, facets.getCities().get(KAZAN));
+    }
+
+    @Test
+    void getFacets_CategoryFilterKeepsOtherCategoryCounts() {
+        AdFacetsDto facets = adFacetService.getFacets(null, Category.VEHICLES, null, null);
+
+        assertEquals(2, facets.getTotal());
+        assertEquals(1L, facets.getCategories().get(Category.FURNITURE));
+        assertEquals(1L, facets.getCities().get(MOSCOW));
+        assertEquals(1L, facets.getCities().get(KAZAN));
+    }
+
+    @Test
+    void getFacets_CityAndCategoryFilter() {
+        AdFacetsDto facets = adFacetService.getFacets(MOSCOW, Category.VEHICLES, null, null);
+
+        assertEquals(1, facets.getTotal());
+        assertEquals(1L, facets.getCategories().get(Category.VEHICLES));
+        assertEquals(1L, facets.getCategories().get(Category.FURNITURE));
+    }
+
+    @Test
+    void getFacets_PriceRangeUsesExactBounds() {
+        assertEquals(1, adFacetService.getFacets(null, null, BigDecimal.valueOf(300), BigDecimal.valueOf(300)).getTotal());
+        assertEquals(2, adFacetService.getFacets(null, null, BigDecimal.valueOf(301), null).getTotal());
+        assertEquals(2, adFacetService.getFacets(null, null, null, BigDecimal.valueOf(50_000)).getTotal());
+        assertEquals(0, adFacetService.getFacets(null, null, BigDecimal.valueOf(50_001), BigDecimal.valueOf(119_999)).getTotal());
+    }
+
+    @Test
+    void getFacets_UnknownCity() {
+        AdFacetsDto facets = adFacetService.getFacets("Omsk", null, null, null);
+
+        assertEquals(0, facets.getTotal());
+        assertTrue(facets.getCategories().isEmpty());
+        assertEquals(2L, facets.getCities().get(MOSCOW));
+    }
+
+    @Test
+    void onAdChanged_SoldAdIsRemoved() {
+        moscowCar.setStatus(AdStatus.SOLD);
+        adFacetService.onAdChanged(new AdChangedEvent(moscowCar, AdChangeType.SOLD));
+
+        AdFacetsDto facets = adFacetService.getFacets(MOSCOW, null, null, null);
+        assertEquals(1, facets.getTotal());
+        assertNull(facets.getCategories().get(Category.VEHICLES));
+    }
+
+    @Test
+    void onAdChanged_DeletedAdIsRemovedAndOrdinalReused() {
+        adFacetService.onAdChanged(new AdChangedEvent(kazanCar, AdChangeType.DELETED));
+        assertNull(adFacetService.getFacets(null, null, null, null).getCities().get(KAZAN));
+
+        Ad kazanBook = buildAd(KAZAN, Category.BOOKS, 10);
+        adFacetService.onAdChanged(new AdChangedEvent(kazanBook, AdChangeType.CREATED));
+
+        AdFacetsDto facets = adFacetService.getFacets(KAZAN, null, null, null);
+        assertEquals(1, facets.getTotal());
+        assertEquals(1L, facets.getCategories().get(Category.BOOKS));
+        assertNull(facets.getCategories().get(Category.VEHICLES));
+    }
+
+    @Test
+    void onAdChanged_PriceUpdateMovesBucket() {
+        moscowSofa.setPrice(BigDecimal.valueOf(2_000_000));
+        adFacetService.onAdChanged(new AdChangedEvent(moscowSofa, AdChangeType.UPDATED));
+
+        assertEquals(0, adFacetService.getFacets(null, Category.FURNITURE, null, BigDecimal.valueOf(1_000)).getTotal());
+        assertEquals(1, adFacetService.getFacets(null, Category.FURNITURE, BigDecimal.valueOf(1_000_000), null).getTotal());
+        assertEquals(3, adFacetService.getFacets(null, null, null, null).getTotal());
+    }
+
+    @Test
+    void onAdsImported_AddsAllAds() {
+        Ad kazanBook = buildAd(KAZAN, Category.BOOKS, 10);
+        Ad moscowBook = buildAd(MOSCOW, Category.BOOKS, 20);
+
+        adFacetService.onAdsImported(new AdsImportedEvent("alice", List.of(kazanBook, moscowBook)));
+
+        AdFacetsDto facets = adFacetService.getFacets(null, Category.BOOKS, null, null);
+        assertEquals(2, facets.getTotal());
+        assertEquals(5, adFacetService.getFacets(null, null, null, null).getTotal());
+    }
+
+    @Test
+    void rebuild_ReplacesIndexWithActiveAds() {
+        UUID id = UUID.randomUUID();
+        when(adRepository.findFacetViewsByStatus(AdStatus.ACTIVE))
+                .thenReturn(Stream.of(view(id, KAZAN, Category.TOYS, 15)));
+
+        adFacetService.rebuild();
+
+        AdFacetsDto facets = adFacetService.getFacets(null, null, null, null);
+        assertEquals(1, facets.getTotal());
+        assertEquals(1L, facets.getCategories().get(Category.TOYS));
+        assertNull(facets.getCities().get(MOSCOW));
+    }
+
+    @Test
+    void priceBucket_Boundaries() {
+        assertEquals(0, AdFacetServiceImpl.priceBucket(BigDecimal.valueOf(99.99)));
+        assertEquals(1, AdFacetServiceImpl.priceBucket(BigDecimal.valueOf(100)));
+        assertEquals(AdFacetServiceImpl.PRICE_BUCKET_BOUNDS.length, AdFacetServiceImpl.priceBucket(BigDecimal.valueOf(5_000_000)));
+    }
+}
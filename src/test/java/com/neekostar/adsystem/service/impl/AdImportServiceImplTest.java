@@ -0,0 +1,243 @@
+package com.neekostar.adsystem.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neekostar.adsystem.cache.AdCacheTags;
+import com.neekostar.adsystem.dto.AdCreateDto;
+import com.neekostar.adsystem.dto.AdImportErrorDto;
+import com.neekostar.adsystem.dto.AdImportResultDto;
+import com.neekostar.adsystem.event.AdImportCompletedEvent;
+import com.neekostar.adsystem.event.AdsImportedEvent;
+import com.neekostar.adsystem.exception.ResourceNotFoundException;
+import com.neekostar.adsystem.mapper.AdMapper;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdImportFormat;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.repository.UserRepository;
+import com.neekostar.adsystem.service.AdRankingService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class AdImportServiceImplTest {
+
+    private static final String CURRENT_USER = "testUser";
+    private static final String VALID_ROW = "{\"title\":\"Bike\",\"price\":100,\"city\":\"Moscow\",\"category\":\"VEHICLES\"}";
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private AdMapper adMapper;
+    @Mock
+    private AdRankingService adRankingService;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private Authentication authentication;
+
+    private AdImportServiceImpl adImportService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        when(adRankingService.score(any(Ad.class))).thenReturn(42d);
+        adImportService = new AdImportServiceImpl(userRepository, adMapper, adRankingService,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                entityManager, transactionManager, eventPublisher, 2);
+
+        testUser = new User();
+        testUser.setId(UUID.randomUUID());
+        testUser.setUsername(CURRENT_USER);
+
+        SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
+        when(authentication.getName()).thenReturn(CURRENT_USER);
+        when(userRepository.findUserByUsername(CURRENT_USER)).thenReturn(Optional.of(testUser));
+        when(entityManager.getReference(User.class, testUser.getId())).thenReturn(testUser);
+        when(adMapper.toEntity(any(AdCreateDto.class))).thenAnswer(invocation -> {
+            AdCreateDto dto = invocation.getArgument(0);
+            Ad ad = new Ad();
+            ad.setTitle(dto.getTitle());
+            ad.setDescription(dto.getDescription());
+            ad.setPrice(dto.getPrice());
+            ad.setCity(dto.getCity());
+            ad.setCategory(Category.valueOf(dto.getCategory()));
+            return ad;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private InputStream body(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<AdsImportedEvent> capturedBatches() {
+        ArgumentCaptor<AdsImportedEvent> eventCaptor = ArgumentCaptor.forClass(AdsImportedEvent.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(eventCaptor.capture());
+        return eventCaptor.getAllValues();
+    }
+
+    private List<Ad> capturedAds() {
+        return capturedBatches().stream().flatMap(event -> event.getAds().stream()).toList();
+    }
+
+    private AdImportCompletedEvent capturedCompletion() {
+        ArgumentCaptor<AdImportCompletedEvent> eventCaptor = ArgumentCaptor.forClass(AdImportCompletedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        return eventCaptor.getValue();
+    }
+
+    @Test
+    void importAds_NdjsonInBatches() {
+        AdImportResultDto result = adImportService.importAds(body(VALID_ROW, VALID_ROW, "", VALID_ROW), AdImportFormat.NDJSON);
+
+        assertEquals(3, result.getTotal());
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertTrue(result.getErrors().isEmpty());
+
+        verify(entityManager, times(3)).persist(any(Ad.class));
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(transactionManager, times(2)).commit(any());
+
+        // one index update per committed batch, one cache invalidation for the upload
+        List<AdsImportedEvent> batches = capturedBatches();
+        assertEquals(List.of(2, 1), batches.stream().map(event -> event.getAds().size()).toList());
+        assertEquals(CURRENT_USER, batches.get(0).getUsername());
+        AdImportCompletedEvent completed = capturedCompletion();
+        assertEquals(3, completed.getImported());
+        assertEquals(AdCacheTags.forAd(CURRENT_USER, "Moscow", Category.VEHICLES, false, true), completed.getCacheTags());
+
+        Ad imported = batches.get(0).getAds().get(0);
+        assertSame(testUser, imported.getUser());
+        assertFalse(imported.getIsPromoted());
+        assertEquals(Category.VEHICLES, imported.getCategory());
+        assertEquals(42d, imported.getRankScore());
+    }
+
+    @Test
+    void importAds_NdjsonReportsInvalidRows() {
+        AdImportResultDto result = adImportService.importAds(body(
+                VALID_ROW,
+                "{\"title\":\"Bike\",\"price\":-1,\"city\":\"Moscow\",\"category\":\"VEHICLES\"}",
+                "{not json",
+                "{\"title\":\"Bike\",\"price\":100,\"city\":\"Moscow\",\"category\":\"SPACESHIPS\"}",
+                VALID_ROW), AdImportFormat.NDJSON);
+
+        assertEquals(5, result.getTotal());
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        List<AdImportErrorDto> errors = result.getErrors();
+        assertEquals(List.of(2L, 3L, 4L), errors.stream().map(AdImportErrorDto::getLine).toList());
+        assertTrue(errors.get(0).getMessage().startsWith("price: "));
+        assertTrue(errors.get(1).getMessage().startsWith("Malformed row"));
+        assertEquals("category: Unknown category SPACESHIPS", errors.get(2).getMessage());
+        assertEquals(2, capturedAds().size());
+    }
+
+    @Test
+    void importAds_Csv() {
+        AdImportResultDto result = adImportService.importAds(body(
+                "title,description,price,city,category",
+                "Bike,\"Red, almost new\",100,Moscow,VEHICLES",
+                "Sofa,,abc,Kazan,FURNITURE",
+                "Lamp,,15,kazan,FURNITURE"), AdImportFormat.CSV);
+
+        assertEquals(3, result.getTotal());
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(3L, 4L), result.getErrors().stream().map(AdImportErrorDto::getLine).toList());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Malformed row"));
+        assertTrue(result.getErrors().get(1).getMessage().startsWith("city: "));
+
+        Ad imported = capturedAds().get(0);
+        assertEquals("Red, almost new", imported.getDescription());
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(imported.getPrice()));
+    }
+
+    @Test
+    void importAds_FailedBatchRetriesRowsOneByOne() {
+        doAnswer(invocation -> {
+            Ad ad = invocation.getArgument(0);
+            // the retry must not carry over the id generated by the rolled back batch
+            assertNull(ad.getId());
+            ad.setId(UUID.randomUUID());
+            return null;
+        }).when(entityManager).persist(any(Ad.class));
+        // the batch of rows 1-2 fails, row 1 fails again on its own, everything else saves
+        doThrow(new PersistenceException("duplicate"))
+                .doThrow(new PersistenceException("duplicate key value violates unique constraint"))
+                .doNothing()
+                .when(entityManager).flush();
+
+        AdImportResultDto result = adImportService.importAds(body(VALID_ROW, VALID_ROW, VALID_ROW), AdImportFormat.NDJSON);
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        List<AdImportErrorDto> errors = result.getErrors();
+        assertEquals(List.of(1L), errors.stream().map(AdImportErrorDto::getLine).toList());
+        assertEquals("Could not be saved: duplicate key value violates unique constraint", errors.get(0).getMessage());
+        verify(entityManager, times(5)).persist(any(Ad.class));
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(List.of(1, 1), capturedBatches().stream().map(event -> event.getAds().size()).toList());
+        assertEquals(2, capturedCompletion().getImported());
+    }
+
+    @Test
+    void importAds_ErrorListIsCapped() {
+        String[] rows = new String[AdImportServiceImpl.MAX_REPORTED_ERRORS + 5];
+        java.util.Arrays.fill(rows, "{}");
+
+        AdImportResultDto result = adImportService.importAds(body(rows), AdImportFormat.NDJSON);
+
+        assertEquals(rows.length, result.getFailed());
+        assertEquals(AdImportServiceImpl.MAX_REPORTED_ERRORS, result.getErrors().size());
+        verify(entityManager, never()).persist(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void importAds_UserNotFound() {
+        when(userRepository.findUserByUsername(CURRENT_USER)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> adImportService.importAds(body(VALID_ROW), AdImportFormat.NDJSON));
+        verifyNoInteractions(entityManager, eventPublisher);
+    }
+}
@@ -0,0 +1,192 @@
+package com.neekostar.adsystem.service.impl;
+
+import com.neekostar.adsystem.dto.AdPriceStatsDto;
+import com.neekostar.adsystem.dto.PriceBucketDto;
+import com.neekostar.adsystem.event.AdChangeType;
+import com.neekostar.adsystem.event.AdChangedEvent;
+import com.neekostar.adsystem.event.AdsImportedEvent;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdStatus;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.repository.projection.AdFacetView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AdPriceStatsServiceImplTest {
+
+    private static final String MOSCOW = "Moscow";
+    private static final String KAZAN = "Kazan";
+
+    @Mock
+    private AdRepository adRepository;
+    @InjectMocks
+    private AdPriceStatsServiceImpl adPriceStatsService;
+
+    private Ad moscowCar;
+    private Ad cheapMoscowCar;
+    private Ad kazanCar;
+    private Ad moscowSofa;
+
+    @BeforeEach
+    void setUp() {
+        moscowCar = buildAd(MOSCOW, Category.VEHICLES, 50_000);
+        cheapMoscowCar = buildAd(MOSCOW, Category.VEHICLES, 8_000);
+        kazanCar = buildAd(KAZAN, Category.VEHICLES, 120_000);
+        moscowSofa = buildAd(MOSCOW, Category.FURNITURE, 300);
+
+        for (Ad ad : List.of(moscowCar, cheapMoscowCar, kazanCar, moscowSofa)) {
+            adPriceStatsService.onAdChanged(new AdChangedEvent(ad, AdChangeType.CREATED));
+        }
+    }
+
+    private Ad buildAd(String city, Category category, long price) {
+        Ad ad = new Ad();
+        ad.setId(UUID.randomUUID());
+        ad.setCity(city);
+        ad.setCategory(category);
+        ad.setPrice(BigDecimal.valueOf(price));
+        ad.setStatus(AdStatus.ACTIVE);
+        return ad;
+    }
+
+    private AdFacetView view(UUID id, String city, Category category, long price) {
+        return new AdFacetView() {
+            public UUID getId() {
+                return id;
+            }
+
+            public String getCity() {
+                return city;
+            }
+
+            public Category getCategory() {
+                return category;
+            }
+
+            public BigDecimal getPrice() {
+                return BigDecimal.valueOf(price);
+            }
+        };
+    }
+
+    private long bucketCount(AdPriceStatsDto stats, long from) {
+        return stats.getHistogram().stream()
+                .filter(bucket -> bucket.getFrom() != null && bucket.getFrom().compareTo(BigDecimal.valueOf(from)) == 0)
+                .mapToLong(PriceBucketDto::getCount)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void getPriceStats_CategoryAndCity() {
+        AdPriceStatsDto stats = adPriceStatsService.getPriceStats(Category.VEHICLES, MOSCOW);
+
+        assertEquals(2, stats.getCount());
+        assertEquals(BigDecimal.valueOf(8_000), stats.getMin());
+        assertEquals(BigDecimal.valueOf(50_000), stats.getMax());
+        assertEquals(new BigDecimal("29000.00"), stats.getAverage());
+        assertEquals(BigDecimal.valueOf(8_000), stats.getMedian());
+        assertEquals(BigDecimal.valueOf(50_000), stats.getP90());
+        assertEquals(1, bucketCount(stats, 5_000));
+        assertEquals(1, bucketCount(stats, 50_000));
+    }
+
+    @Test
+    void getPriceStats_AggregatesOverMissingParameters() {
+        assertEquals(3, adPriceStatsService.getPriceStats(Category.VEHICLES, null).getCount());
+        assertEquals(3, adPriceStatsService.getPriceStats(null, MOSCOW).getCount());
+        assertEquals(4, adPriceStatsService.getPriceStats(null, " ").getCount());
+
+        AdPriceStatsDto all = adPriceStatsService.getPriceStats(null, null);
+        assertEquals(4, all.getCount());
+        assertEquals(BigDecimal.valueOf(300), all.getMin());
+        assertEquals(BigDecimal.valueOf(300), all.getP25());
+        assertEquals(BigDecimal.valueOf(8_000), all.getMedian());
+        assertEquals(BigDecimal.valueOf(50_000), all.getP75());
+        assertEquals(BigDecimal.valueOf(120_000), all.getP90());
+        assertEquals(4, all.getHistogram().stream().mapToLong(PriceBucketDto::getCount).sum());
+    }
+
+    @Test
+    void getPriceStats_UnknownCity() {
+        AdPriceStatsDto stats = adPriceStatsService.getPriceStats(Category.VEHICLES, "Omsk");
+
+        assertEquals(0, stats.getCount());
+        assertNull(stats.getMin());
+        assertNull(stats.getMedian());
+        assertEquals(AdFacetServiceImpl.PRICE_BUCKET_BOUNDS.length + 1, stats.getHistogram().size());
+    }
+
+    @Test
+    void onAdChanged_SoldAdIsRemoved() {
+        moscowCar.setStatus(AdStatus.SOLD);
+        adPriceStatsService.onAdChanged(new AdChangedEvent(moscowCar, AdChangeType.SOLD));
+
+        AdPriceStatsDto stats = adPriceStatsService.getPriceStats(Category.VEHICLES, MOSCOW);
+        assertEquals(1, stats.getCount());
+        assertEquals(BigDecimal.valueOf(8_000), stats.getMax());
+        assertEquals(0, bucketCount(stats, 50_000));
+    }
+
+    @Test
+    void onAdChanged_PriceUpdateReplacesPreviousPrice() {
+        cheapMoscowCar.setPrice(BigDecimal.valueOf(70_000));
+        adPriceStatsService.onAdChanged(new AdChangedEvent(cheapMoscowCar, AdChangeType.UPDATED));
+
+        AdPriceStatsDto stats = adPriceStatsService.getPriceStats(Category.VEHICLES, MOSCOW);
+        assertEquals(2, stats.getCount());
+        assertEquals(BigDecimal.valueOf(50_000), stats.getMin());
+        assertEquals(BigDecimal.valueOf(70_000), stats.getMax());
+        assertEquals(0, bucketCount(stats, 5_000));
+        assertEquals(2, bucketCount(stats, 50_000));
+    }
+
+    @Test
+    void onAdChanged_CityUpdateMovesAd() {
+        kazanCar.setCity(MOSCOW);
+        adPriceStatsService.onAdChanged(new AdChangedEvent(kazanCar, AdChangeType.UPDATED));
+
+        assertEquals(0, adPriceStatsService.getPriceStats(Category.VEHICLES, KAZAN).getCount());
+        assertEquals(3, adPriceStatsService.getPriceStats(Category.VEHICLES, MOSCOW).getCount());
+        assertEquals(3, adPriceStatsService.getPriceStats(Category.VEHICLES, null).getCount());
+    }
+
+    @Test
+    void onAdsImported_AddsAllAds() {
+        Ad kazanBook = buildAd(KAZAN, Category.BOOKS, 10);
+        Ad secondKazanBook = buildAd(KAZAN, Category.BOOKS, 30);
+
+        adPriceStatsService.onAdsImported(new AdsImportedEvent("alice", List.of(kazanBook, secondKazanBook)));
+
+        AdPriceStatsDto stats = adPriceStatsService.getPriceStats(Category.BOOKS, KAZAN);
+        assertEquals(2, stats.getCount());
+        assertEquals(new BigDecimal("20.00"), stats.getAverage());
+        assertEquals(6, adPriceStatsService.getPriceStats(null, null).getCount());
+    }
+
+    @Test
+    void rebuild_ReplacesStatsWithActiveAds() {
+        when(adRepository.findFacetViewsByStatus(AdStatus.ACTIVE))
+                .thenReturn(Stream.of(view(UUID.randomUUID(), KAZAN, Category.TOYS, 15)));
+
+        adPriceStatsService.rebuild();
+
+        assertEquals(1, adPriceStatsService.getPriceStats(null, null).getCount());
+        assertEquals(BigDecimal.valueOf(15), adPriceStatsService.getPriceStats(Category.TOYS, KAZAN).getMedian());
+        assertEquals(0, adPriceStatsService.getPriceStats(Category.VEHICLES, MOSCOW).getCount());
+    }
+}
@@ -0,0 +1,161 @@
+package com.neekostar.adsystem.service.impl;
+
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdStatus;
+import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.ranking.RankingSignals;
+import com.neekostar.adsystem.ranking.RankingStrategy;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.repository.projection.RankingView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class AdRankingServiceImplTest {
+
+    @Mock
+    private RankingStrategy rankingStrategy;
+    @Mock
+    private AdRepository adRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AdRankingServiceImpl adRankingService;
+
+    @BeforeEach
+    void setUp() {
+        adRankingService = new AdRankingServiceImpl(rankingStrategy, adRepository, jdbcTemplate, transactionManager, 2);
+        // the stub scores by comment count, which keeps expected values easy to read
+        when(rankingStrategy.score(any(RankingSignals.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> (double) invocation.<RankingSignals>getArgument(0).commentCount());
+    }
+
+    private RankingView view(UUID id, long comments) {
+        return new RankingView() {
+            public UUID getId() {
+                return id;
+            }
+
+            public Boolean getIsPromoted() {
+                return false;
+            }
+
+            public LocalDateTime getPromotionEndDate() {
+                return null;
+            }
+
+            public Float getSellerRating() {
+                return 4.5f;
+            }
+
+            public LocalDateTime getCreatedAt() {
+                return LocalDateTime.now();
+            }
+
+            public Long getCommentCount() {
+                return comments;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> capturedBatch() {
+        ArgumentCaptor<List<Object[]>> argumentsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(AdRankingServiceImpl.UPDATE_RANK_SCORE), argumentsCaptor.capture());
+        return argumentsCaptor.getValue();
+    }
+
+    @Test
+    void score_UsesAdSignals() {
+        User seller = new User();
+        seller.setRating(3.0f);
+        Ad ad = new Ad();
+        ad.setUser(seller);
+        ad.setIsPromoted(true);
+        ad.setPromotionEndDate(LocalDateTime.now().plusDays(1));
+        ad.setCommentCount(7L);
+
+        assertEquals(7d, adRankingService.score(ad));
+
+        ArgumentCaptor<RankingSignals> signalsCaptor = ArgumentCaptor.forClass(RankingSignals.class);
+        verify(rankingStrategy).score(signalsCaptor.capture(), any(LocalDateTime.class));
+        assertTrue(signalsCaptor.getValue().promoted());
+        assertEquals(3.0f, signalsCaptor.getValue().sellerRating());
+    }
+
+    @Test
+    void refreshAds_WritesScoresInOneBatch() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(adRepository.findRankingViewsByIds(List.of(first, second)))
+                .thenReturn(List.of(view(first, 3), view(second, 8)));
+
+        adRankingService.refreshAds(List.of(first, second));
+
+        List<Object[]> batch = capturedBatch();
+        assertEquals(2, batch.size());
+        assertArrayEquals(new Object[]{3d, first}, batch.get(0));
+        assertArrayEquals(new Object[]{8d, second}, batch.get(1));
+    }
+
+    @Test
+    void refreshAds_EmptyIds() {
+        adRankingService.refreshAds(Collections.emptyList());
+
+        verifyNoInteractions(adRepository, jdbcTemplate);
+    }
+
+    @Test
+    void refreshSellerAds_SkipsUpdateWithoutAds() {
+        UUID sellerId = UUID.randomUUID();
+        when(adRepository.findRankingViewsBySeller(sellerId, AdStatus.ACTIVE)).thenReturn(Collections.emptyList());
+
+        adRankingService.refreshSellerAds(sellerId);
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void refreshAll_PagesByIdUntilShortBatch() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(adRepository.findRankingViewsAfter(eq(AdStatus.ACTIVE), any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(view(first, 1), view(second, 2)))
+                .thenReturn(List.of(view(third, 3)));
+
+        int refreshed = adRankingService.refreshAll();
+
+        assertEquals(3, refreshed);
+        ArgumentCaptor<UUID> afterCaptor = ArgumentCaptor.forClass(UUID.class);
+        verify(adRepository, times(2)).findRankingViewsAfter(eq(AdStatus.ACTIVE), afterCaptor.capture(), eq(PageRequest.of(0, 2)));
+        assertEquals(List.of(new UUID(0L, 0L), second), afterCaptor.getAllValues());
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(AdRankingServiceImpl.UPDATE_RANK_SCORE), anyList());
+        verify(transactionManager, times(2)).commit(any());
+    }
+}
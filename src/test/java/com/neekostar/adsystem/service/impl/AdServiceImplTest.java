@@ -1,14 +1,24 @@
 package com.neekostar.adsystem.service.impl;
 
+import com.neekostar.adsystem.cache.AdCacheInvalidator;
+import com.neekostar.adsystem.cache.AdCacheTags;
+import com.neekostar.adsystem.cache.AdQueryCache;
+import com.neekostar.adsystem.cache.CacheTagRegistry;
 import com.neekostar.adsystem.dto.AdCreateDto;
 import com.neekostar.adsystem.dto.AdResponseDto;
+import com.neekostar.adsystem.dto.AdSummaryDto;
 import com.neekostar.adsystem.dto.AdUpdateDto;
+import com.neekostar.adsystem.dto.CursorPageDto;
+import com.neekostar.adsystem.event.AdChangeType;
+import com.neekostar.adsystem.event.AdChangedEvent;
 import com.neekostar.adsystem.exception.AccessDeniedException;
 import com.neekostar.adsystem.exception.InvalidArgumentException;
 import com.neekostar.adsystem.exception.ResourceNotFoundException;
 import com.neekostar.adsystem.mapper.AdMapper;
 import com.neekostar.adsystem.model.*;
+import com.neekostar.adsystem.pagination.AdCursor;
 import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.service.AdRankingService;
 import com.neekostar.adsystem.repository.CommentRepository;
 import com.neekostar.adsystem.repository.UserRepository;
 import com.neekostar.adsystem.service.MinioService;
@@ -18,11 +28,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
@@ -31,6 +43,7 @@ import org.springframework.security.core.context.SecurityContextImpl;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -69,10 +82,16 @@ public class AdServiceImplTest {
     @Mock
     private AdMapper adMapper;
     @Mock
+    private AdRankingService adRankingService;
+    @Mock
     private MinioService minioService;
     @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
     private Authentication authentication;
-    @InjectMocks
+    private ConcurrentMapCacheManager cacheManager;
+    private CacheTagRegistry cacheTags;
+    private AdQueryCache adQueryCache;
     private AdServiceImpl adService;
 
     private User testUser;
@@ -81,6 +100,12 @@ public class AdServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        cacheTags = new CacheTagRegistry(cacheManager, null, Duration.ofHours(1));
+        adQueryCache = new AdQueryCache(cacheManager, null, cacheTags);
+        adService = new AdServiceImpl(minioService, adRepository, userRepository, commentRepository, adMapper,
+                adRankingService, eventPublisher, adQueryCache, cacheTags, false);
+
         testUser = new User();
         testUser.setUsername(CURRENT_USER);
         testUser.setRating(4.5f);
@@ -104,6 +129,13 @@ public class AdServiceImplTest {
         SecurityContextHolder.clearContext();
     }
 
+    private void verifyAdEvent(AdChangeType type) {
+        ArgumentCaptor<AdChangedEvent> eventCaptor = ArgumentCaptor.forClass(AdChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(type, eventCaptor.getValue().getType());
+        assertSame(testAd, eventCaptor.getValue().getAd());
+    }
+
     private void setupSecurityContext() {
         SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
         when(authentication.getName()).thenReturn(CURRENT_USER);
@@ -120,6 +152,7 @@ public class AdServiceImplTest {
 
         when(userRepository.findUserByUsername(CURRENT_USER)).thenReturn(Optional.of(testUser));
         when(adMapper.toEntity(createDto)).thenReturn(testAd);
+        when(adRankingService.score(testAd)).thenReturn(57.5);
         when(adRepository.save(testAd)).thenReturn(testAd);
         when(adMapper.toDto(testAd)).thenReturn(testAdResponseDto);
 
@@ -127,7 +160,9 @@ public class AdServiceImplTest {
 
         assertNotNull(result);
         assertEquals(testAd.getId(), result.getId());
+        assertEquals(57.5, testAd.getRankScore());
         verify(adRepository).save(testAd);
+        verifyAdEvent(AdChangeType.CREATED);
     }
 
     @Test
@@ -209,6 +244,7 @@ public class AdServiceImplTest {
 
         verify(commentRepository).deleteByAdId(testAd.getId());
         verify(adRepository).delete(testAd);
+        verifyAdEvent(AdChangeType.DELETED);
     }
 
     @Test
@@ -244,22 +280,107 @@ public class AdServiceImplTest {
         when(adRepository.findById(otherAd.getId())).thenReturn(Optional.of(otherAd));
 
         assertThrows(AccessDeniedException.class, () -> adService.deleteAd(otherAd.getId()));
-        verify(adRepository, never()).delete(any());
+        verify(adRepository, never()).delete(any(Ad.class));
+    }
+
+    private AdSummaryDto summary(Ad ad) {
+        return new AdSummaryDto(ad.getId(), ad.getTitle(), ad.getPrice(), ad.getCity(), ad.getCategory(), ad.getImageUrl(),
+                ad.getIsPromoted(), ad.getUser() != null ? ad.getUser().getUsername() : null,
+                ad.getUser() != null ? ad.getUser().getRating() : null, ad.getCreatedAt(), ad.getRankScore());
     }
 
     @Test
     void getAdsByUser_WithPageable_Success() {
         setupSecurityContext();
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Ad> page = new PageImpl<>(List.of(testAd), pageable, 1);
-        when(adRepository.findAdByUserUsernameAndStatus(CURRENT_USER, AdStatus.ACTIVE, pageable)).thenReturn(page);
-        when(adMapper.toDto(testAd)).thenReturn(testAdResponseDto);
+        Page<AdSummaryDto> page = new PageImpl<>(List.of(summary(testAd)), pageable, 1);
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), eq(pageable))).thenReturn(page);
 
-        Page<AdResponseDto> result = adService.getAdsByUser(CURRENT_USER, pageable);
+        Page<AdSummaryDto> result = adService.getAdsByUser(CURRENT_USER, pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(adRepository).findAdByUserUsernameAndStatus(CURRENT_USER, AdStatus.ACTIVE, pageable);
+        assertEquals(CURRENT_USER, result.getContent().get(0).getUsername());
+        verify(adRepository).findSummaries(ArgumentMatchers.<Specification<Ad>>any(), eq(pageable));
+        verify(adMapper, never()).toDto(any(Ad.class));
+    }
+
+    @Test
+    void withLiveViewCount_OverlaysStoredCountOnACopy() {
+        AdResponseDto cached = new AdResponseDto();
+        cached.setId(testAd.getId());
+        cached.setViewCount(10L);
+        AdResponseDto copy = new AdResponseDto();
+        copy.setId(testAd.getId());
+        copy.setViewCount(10L);
+        when(adMapper.copy(cached)).thenReturn(copy);
+        when(adRepository.findViewCountById(testAd.getId())).thenReturn(Optional.of(250L));
+
+        AdResponseDto result = adService.withLiveViewCount(cached);
+
+        assertSame(copy, result);
+        assertEquals(Long.valueOf(250L), result.getViewCount());
+        assertEquals(Long.valueOf(10L), cached.getViewCount());
+    }
+
+    private AdSummaryDto buildFeedAd(double rankScore) {
+        AdSummaryDto ad = new AdSummaryDto();
+        ad.setId(UUID.randomUUID());
+        ad.setUsername(CURRENT_USER);
+        ad.setUserRating(testUser.getRating());
+        ad.setIsPromoted(false);
+        ad.setCreatedAt(LocalDateTime.now());
+        ad.setRankScore(rankScore);
+        return ad;
+    }
+
+    @Test
+    void filterAdsByCursor_FirstSliceHasNext() {
+        AdSummaryDto first = buildFeedAd(30);
+        AdSummaryDto second = buildFeedAd(20);
+        AdSummaryDto lookahead = buildFeedAd(10);
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), eq(3)))
+                .thenReturn(List.of(first, second, lookahead));
+
+        CursorPageDto<AdSummaryDto> result = adService.filterAdsByCursor(MOSCOW, null, null, null, null, "", 2);
+
+        assertEquals(List.of(first, second), result.getContent());
+        assertTrue(result.isHasNext());
+        assertEquals(AdCursor.of(second), AdCursor.decode(result.getNextCursor()));
+        verify(adRepository, never()).findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void getAdsByUserByCursor_LastSlice() {
+        String cursor = AdCursor.of(buildFeedAd(50)).encode();
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), eq(11)))
+                .thenReturn(List.of(buildFeedAd(40)));
+
+        CursorPageDto<AdSummaryDto> result = adService.getAdsByUserByCursor(CURRENT_USER, cursor, 10);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void filterAdsByCursor_InvalidCursor() {
+        assertThrows(InvalidArgumentException.class,
+                () -> adService.filterAdsByCursor(null, null, null, null, null, "not-a-cursor", 10));
+        verify(adRepository, never()).findSummaries(ArgumentMatchers.<Specification<Ad>>any(), anyInt());
+    }
+
+    @Test
+    void filterAdsByCursor_PageSizeIsCapped() {
+        adService.filterAdsByCursor(null, null, null, null, null, "", 10_000);
+
+        verify(adRepository).findSummaries(ArgumentMatchers.<Specification<Ad>>any(), eq(AdServiceImpl.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void filterAdsByCursor_InvalidSize() {
+        assertThrows(InvalidArgumentException.class,
+                () -> adService.filterAdsByCursor(null, null, null, null, null, "", 0));
     }
 
     @Test
@@ -290,7 +411,10 @@ public class AdServiceImplTest {
 
         assertTrue(testAd.getIsPromoted());
         assertNotNull(testAd.getPromotionEndDate());
-        verify(adRepository).save(testAd);
+        InOrder inOrder = inOrder(adRepository, adRankingService);
+        inOrder.verify(adRepository).save(testAd);
+        inOrder.verify(adRankingService).refreshAds(List.of(testAd.getId()));
+        verifyAdEvent(AdChangeType.PROMOTED);
     }
 
     @Test
@@ -329,27 +453,26 @@ public class AdServiceImplTest {
 
     @Test
     void getPromotedAds_ActiveOnly() {
+        Pageable pageable = PageRequest.of(0, 10);
         Ad promotedAd = new Ad();
         promotedAd.setId(UUID.randomUUID());
         promotedAd.setIsPromoted(true);
         promotedAd.setPromotionEndDate(LocalDateTime.now().plusDays(1));
         promotedAd.setStatus(AdStatus.ACTIVE);
-        when(adMapper.toDto(promotedAd)).thenReturn(new AdResponseDto());
 
-        when(adRepository.findAll()).thenReturn(List.of(promotedAd, testAd));
+        when(adRepository.findPromoted(eq(AdStatus.ACTIVE), any(LocalDateTime.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(summary(promotedAd)), pageable, 1));
 
-        List<AdResponseDto> result = adService.getPromotedAds();
+        Page<AdSummaryDto> result = adService.getPromotedAds(pageable);
 
-        assertEquals(1, result.size());
+        assertEquals(1, result.getContent().size());
+        assertEquals(1, result.getTotalElements());
+        verify(adRepository, never()).findAll();
     }
 
     @Test
     void getNonPromotedAds_ActiveOnly() {
-        Ad promotedAd = new Ad();
-        promotedAd.setIsPromoted(true);
-        promotedAd.setPromotionEndDate(LocalDateTime.now().plusDays(2));
-        promotedAd.setStatus(AdStatus.ACTIVE);
-
+        Pageable pageable = PageRequest.of(1, 2);
         Ad expiredAd = new Ad();
         expiredAd.setIsPromoted(true);
         expiredAd.setPromotionEndDate(LocalDateTime.now().minusDays(1));
@@ -359,11 +482,15 @@ public class AdServiceImplTest {
         normalAd.setIsPromoted(false);
         normalAd.setStatus(AdStatus.ACTIVE);
 
-        when(adRepository.findAll()).thenReturn(List.of(promotedAd, expiredAd, normalAd));
-        when(adMapper.toDto(any())).thenReturn(new AdResponseDto());
+        when(adRepository.findNonPromoted(eq(AdStatus.ACTIVE), any(LocalDateTime.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(summary(expiredAd), summary(normalAd)), pageable, 5));
 
-        List<AdResponseDto> result = adService.getNonPromotedAds();
-        assertEquals(2, result.size());
+        Page<AdSummaryDto> result = adService.getNonPromotedAds(pageable);
+
+        assertEquals(2, result.getContent().size());
+        assertEquals(5, result.getTotalElements());
+        assertEquals(1, result.getNumber());
+        verify(adRepository, never()).findAll();
     }
 
     @Test
@@ -376,11 +503,10 @@ public class AdServiceImplTest {
         filteredAd.setStatus(AdStatus.ACTIVE);
         filteredAd.setUser(testUser);
 
-        when(adRepository.findAll(ArgumentMatchers.<Specification<Ad>>any(), any(Sort.class)))
-                .thenReturn(List.of(filteredAd, testAd));
-        when(adMapper.toDto(any(Ad.class))).thenReturn(new AdResponseDto());
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(summary(filteredAd), summary(testAd)), pageable, 2));
 
-        Page<AdResponseDto> result = adService.filterAds(
+        Page<AdSummaryDto> result = adService.filterAds(
                 MOSCOW, Category.VEHICLES,
                 PRICE_500, PRICE_2000,
                 "test", "price", "asc", pageable
@@ -388,7 +514,9 @@ public class AdServiceImplTest {
 
         assertNotNull(result);
         assertEquals(2, result.getTotalElements());
-        verify(adRepository).findAll(ArgumentMatchers.<Specification<Ad>>any(), any(Sort.class));
+        assertEquals(2, result.getNumberOfElements());
+        verify(adRepository).findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class));
+        verify(adMapper, never()).toDto(any(Ad.class));
     }
 
     @Test
@@ -399,11 +527,10 @@ public class AdServiceImplTest {
         ad1.setIsPromoted(false);
         ad1.setStatus(AdStatus.ACTIVE);
         ad1.setUser(testUser);
-        when(adRepository.findAll(ArgumentMatchers.<Specification<Ad>>any(), any(Sort.class)))
-                .thenReturn(List.of(ad1));
-        when(adMapper.toDto(ad1)).thenReturn(new AdResponseDto());
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(summary(ad1)), pageable, 1));
 
-        Page<AdResponseDto> result = adService.filterAds(
+        Page<AdSummaryDto> result = adService.filterAds(
                 MOSCOW, Category.VEHICLES,
                 PRICE_500, PRICE_2000,
                 "test", "invalid", "desc", pageable
@@ -419,11 +546,10 @@ public class AdServiceImplTest {
         ad1.setIsPromoted(false);
         ad1.setStatus(AdStatus.ACTIVE);
         ad1.setUser(testUser);
-        when(adRepository.findAll(ArgumentMatchers.<Specification<Ad>>any(), any(Sort.class)))
-                .thenReturn(List.of(ad1));
-        when(adMapper.toDto(ad1)).thenReturn(new AdResponseDto());
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(summary(ad1)), pageable, 1));
 
-        Page<AdResponseDto> result = adService.filterAds(
+        Page<AdSummaryDto> result = adService.filterAds(
                 MOSCOW, Category.VEHICLES,
                 PRICE_500, PRICE_2000,
                 "test", "price", "desc", pageable
@@ -434,9 +560,9 @@ public class AdServiceImplTest {
     @Test
     void filterAds_EmptyPage() {
         Pageable pageable = PageRequest.of(1, 10);
-        when(adRepository.findAll(ArgumentMatchers.<Specification<Ad>>any(), any(Sort.class)))
-                .thenReturn(List.of(testAd));
-        Page<AdResponseDto> result = adService.filterAds(
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 1));
+        Page<AdSummaryDto> result = adService.filterAds(
                 MOSCOW, Category.VEHICLES,
                 PRICE_500, PRICE_2000,
                 "test", "price", "asc", pageable
@@ -448,13 +574,9 @@ public class AdServiceImplTest {
     @Test
     void filterAds_NoActiveAds() {
         Pageable pageable = PageRequest.of(0, 10);
-        Ad adInactive = new Ad();
-        adInactive.setId(UUID.randomUUID());
-        adInactive.setStatus(AdStatus.SOLD);
-        adInactive.setUser(testUser);
-        when(adRepository.findAll(ArgumentMatchers.<Specification<Ad>>any(), any(Sort.class)))
-                .thenReturn(List.of(adInactive));
-        Page<AdResponseDto> result = adService.filterAds(
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class)))
+                .thenReturn(Page.empty(pageable));
+        Page<AdSummaryDto> result = adService.filterAds(
                 MOSCOW, Category.VEHICLES,
                 PRICE_500, PRICE_2000,
                 "test", "price", "asc", pageable
@@ -463,80 +585,142 @@ public class AdServiceImplTest {
     }
 
     @Test
-    void filterAds_SortingByUserRating() {
-        Pageable pageable = PageRequest.of(0, 10);
-        Ad adLowRating = new Ad();
-        adLowRating.setId(UUID.randomUUID());
-        adLowRating.setIsPromoted(false);
-        adLowRating.setStatus(AdStatus.ACTIVE);
-        User userLow = new User();
-        userLow.setRating(2.0f);
-        adLowRating.setUser(userLow);
-
-        Ad adHighRating = new Ad();
-        adHighRating.setId(UUID.randomUUID());
-        adHighRating.setIsPromoted(false);
-        adHighRating.setStatus(AdStatus.ACTIVE);
-        User userHigh = new User();
-        userHigh.setRating(5.0f);
-        adHighRating.setUser(userHigh);
-
-        when(adRepository.findAll(ArgumentMatchers.<Specification<Ad>>any(), any(Sort.class)))
-                .thenReturn(List.of(adLowRating, adHighRating));
-        when(adMapper.toDto(any(Ad.class))).thenReturn(new AdResponseDto());
-
-        Page<AdResponseDto> result = adService.filterAds(
+    void filterAds_PagingDelegatedToDatabase() {
+        Pageable pageable = PageRequest.of(3, 25, Sort.by("title"));
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class)))
+                .thenReturn(Page.empty(pageable));
+
+        adService.filterAds(
                 MOSCOW, Category.VEHICLES,
                 PRICE_500, PRICE_2000,
                 "test", "price", "asc", pageable
         );
-        assertEquals(2, result.getTotalElements());
+
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(adRepository).findSummaries(ArgumentMatchers.<Specification<Ad>>any(), pageableCaptor.capture());
+        Pageable passed = pageableCaptor.getValue();
+        assertEquals(3, passed.getPageNumber());
+        assertEquals(25, passed.getPageSize());
+        assertTrue(passed.getSort().isUnsorted());
     }
 
     @Test
-    void commentAd_Success() {
-        setupSecurityContext();
-        UUID adId = testAd.getId();
-        String commentText = "Great ad!";
+    void filterAds_PageSizeIsCapped() {
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class)))
+                .thenReturn(Page.empty());
 
-        when(adRepository.findById(adId)).thenReturn(Optional.of(testAd));
-        when(userRepository.findUserByUsername(CURRENT_USER)).thenReturn(Optional.of(testUser));
-        when(commentRepository.saveAndFlush(any(Comment.class))).thenAnswer(invocation -> {
-            Comment comment = invocation.getArgument(0);
-            comment.setId(UUID.randomUUID());
-            return comment;
-        });
-        when(adRepository.save(any(Ad.class))).thenReturn(testAd);
-        when(adMapper.toDto(testAd)).thenReturn(testAdResponseDto);
+        adService.filterAds(null, null, null, null, null, "price", "asc", PageRequest.of(2, 100_000));
 
-        AdResponseDto result = adService.commentAd(adId, commentText);
+        verify(adRepository).findSummaries(ArgumentMatchers.<Specification<Ad>>any(),
+                eq(PageRequest.of(2, AdServiceImpl.MAX_PAGE_SIZE)));
+    }
 
-        assertNotNull(result);
-        verify(commentRepository).saveAndFlush(any(Comment.class));
-        verify(adRepository).save(testAd);
+    @Test
+    void getPromotedAds_PageSizeIsCapped() {
+        Pageable capped = PageRequest.of(0, AdServiceImpl.MAX_PAGE_SIZE);
+        when(adRepository.findPromoted(eq(AdStatus.ACTIVE), any(LocalDateTime.class), eq(capped)))
+                .thenReturn(Page.empty(capped));
+
+        adService.getPromotedAds(PageRequest.of(0, 100_000));
 
-        ArgumentCaptor<Comment> commentCaptor = ArgumentCaptor.forClass(Comment.class);
-        verify(commentRepository).saveAndFlush(commentCaptor.capture());
-        Comment savedComment = commentCaptor.getValue();
-        assertEquals(commentText, savedComment.getCommentText());
-        assertEquals(testUser, savedComment.getUser());
-        assertEquals(testAd, savedComment.getAd());
+        verify(adRepository).findPromoted(eq(AdStatus.ACTIVE), any(LocalDateTime.class), eq(capped));
     }
 
     @Test
-    void commentAd_AdNotFound() {
-        setupSecurityContext();
-        when(adRepository.findById(testAd.getId())).thenReturn(Optional.empty());
-        assertThrows(ResourceNotFoundException.class, () -> adService.commentAd(testAd.getId(), "Some comment"));
+    void filterAds_FullTextSearchEnabled() {
+        AdServiceImpl fullTextAdService = new AdServiceImpl(minioService, adRepository, userRepository,
+                commentRepository, adMapper, adRankingService, eventPublisher, adQueryCache, cacheTags, true);
+        Pageable pageable = PageRequest.of(0, 10);
+        when(adRepository.searchFullText(eq("bike"), eq(MOSCOW), eq(VEHICLES), eq(PRICE_500), eq(PRICE_2000), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testAd.getId()), pageable, 1));
+        when(adRepository.findSummariesByIds(List.of(testAd.getId()))).thenReturn(List.of(summary(testAd)));
+
+        Page<AdSummaryDto> result = fullTextAdService.filterAds(
+                MOSCOW, Category.VEHICLES,
+                PRICE_500, PRICE_2000,
+                " bike ", "price", "asc", pageable
+        );
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(testAd.getId(), result.getContent().get(0).getId());
+        verify(adRepository, never()).findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class));
     }
 
     @Test
-    void commentAd_UserNotFound() {
-        setupSecurityContext();
-        when(adRepository.findById(testAd.getId())).thenReturn(Optional.of(testAd));
-        when(userRepository.findUserByUsername(CURRENT_USER)).thenReturn(Optional.empty());
+    void filterAds_FullTextSearchSkippedWithoutKeyword() {
+        AdServiceImpl fullTextAdService = new AdServiceImpl(minioService, adRepository, userRepository,
+                commentRepository, adMapper, adRankingService, eventPublisher, adQueryCache, cacheTags, true);
+        Pageable pageable = PageRequest.of(0, 10);
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class)))
+                .thenReturn(Page.empty(pageable));
+
+        fullTextAdService.filterAds(MOSCOW, null, null, null, " ", "price", "asc", pageable);
+
+        verify(adRepository, never()).searchFullText(any(), any(), any(), any(), any(), any());
+        verify(adRepository).findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void filterAds_SecondCallServedFromIdCache() {
+        Pageable pageable = PageRequest.of(0, 1);
+        AdSummaryDto testSummary = summary(testAd);
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testSummary), pageable, 7));
+
+        adService.filterAds(MOSCOW, null, null, null, "car", "price", "asc", pageable);
+        Page<AdSummaryDto> cached = adService.filterAds(MOSCOW, null, null, null, "CAR", "price", "ASC", pageable);
+
+        assertEquals(7, cached.getTotalElements());
+        assertEquals(List.of(testSummary), cached.getContent());
+        verify(adRepository, times(1)).findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class));
+        verify(adRepository, never()).findSummariesByIds(any());
+    }
+
+    @Test
+    void filterAds_PagesCachedSeparately() {
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class)))
+                .thenReturn(Page.empty(PageRequest.of(0, 10)));
 
-        assertThrows(ResourceNotFoundException.class, () -> adService.commentAd(testAd.getId(), "Comment"));
+        adService.filterAds(MOSCOW, null, null, null, null, "price", "asc", PageRequest.of(0, 10));
+        adService.filterAds(MOSCOW, null, null, null, null, "price", "asc", PageRequest.of(1, 10));
+
+        verify(adRepository, times(2)).findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void filterAds_OnlyMatchingFilterTagInvalidated() {
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class)))
+                .thenReturn(Page.empty(PageRequest.of(0, 10)));
+        adService.filterAds(MOSCOW, Category.VEHICLES, null, null, null, "price", "asc", PageRequest.of(0, 10));
+        adService.filterAds("Kazan", Category.VEHICLES, null, null, null, "price", "asc", PageRequest.of(0, 10));
+
+        cacheTags.invalidate(AdCacheTags.filtersContaining("Kazan", Category.VEHICLES));
+        adService.filterAds(MOSCOW, Category.VEHICLES, null, null, null, "price", "asc", PageRequest.of(0, 10));
+        adService.filterAds("Kazan", Category.VEHICLES, null, null, null, "price", "asc", PageRequest.of(0, 10));
+
+        verify(adRepository, times(3)).findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void filterAds_HydratesEvictedAdsFromDatabase() {
+        Pageable pageable = PageRequest.of(0, 10);
+        AdSummaryDto testSummary = summary(testAd);
+        AdSummaryDto secondSummary = buildFeedAd(1);
+        when(adRepository.findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testSummary, secondSummary), pageable, 2));
+        adService.filterAds(null, null, null, null, null, null, null, pageable);
+
+        AdSummaryDto updatedSummary = new AdSummaryDto();
+        updatedSummary.setId(secondSummary.getId());
+        updatedSummary.setTitle(UPDATED_TITLE);
+        when(adRepository.findSummariesByIds(List.of(secondSummary.getId()))).thenReturn(List.of(updatedSummary));
+        cacheManager.getCache(AdCacheInvalidator.AD_SUMMARY).evict(secondSummary.getId());
+
+        Page<AdSummaryDto> result = adService.filterAds(null, null, null, null, null, null, null, pageable);
+
+        assertEquals(List.of(testSummary, updatedSummary), result.getContent());
+        verify(adRepository, times(1)).findSummaries(ArgumentMatchers.<Specification<Ad>>any(), any(Pageable.class));
+        assertSame(updatedSummary, cacheManager.getCache(AdCacheInvalidator.AD_SUMMARY).get(secondSummary.getId()).get());
     }
 
     @Test
@@ -0,0 +1,163 @@
+package com.neekostar.adsystem.service.impl;
+
+import com.neekostar.adsystem.cache.AdQueryCache;
+import com.neekostar.adsystem.dto.AdSummaryDto;
+import com.neekostar.adsystem.event.AdChangeType;
+import com.neekostar.adsystem.event.AdChangedEvent;
+import com.neekostar.adsystem.event.AdsImportedEvent;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
+import com.neekostar.adsystem.exception.ResourceNotFoundException;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdStatus;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.repository.projection.AdTextView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class AdSimilarityServiceImplTest {
+
+    @Mock
+    private AdRepository adRepository;
+    @Mock
+    private AdQueryCache adQueryCache;
+
+    private AdSimilarityServiceImpl adSimilarityService;
+    private User seller;
+
+    private Ad bike;
+    private Ad similarBike;
+    private Ad bikeInOtherCategory;
+    private Ad table;
+
+    @BeforeEach
+    void setUp() {
+        adSimilarityService = new AdSimilarityServiceImpl(adRepository, adQueryCache, 0.9);
+        seller = new User();
+        seller.setId(UUID.randomUUID());
+
+        bike = buildAd("Red mountain bike", "Aluminium frame, 21 speed gears, disc brakes, almost new", Category.VEHICLES);
+        similarBike = buildAd("Red mountain bike", "Aluminium frame, 21 speed gears, disc brakes, used one season", Category.VEHICLES);
+        bikeInOtherCategory = buildAd("Red mountain bike", "Aluminium frame, 21 speed gears, disc brakes, almost new", Category.SPORTS);
+        table = buildAd("Oak dining table", "Seats six people, solid wood", Category.VEHICLES);
+        for (Ad ad : List.of(bike, similarBike, bikeInOtherCategory, table)) {
+            adSimilarityService.onAdChanged(new AdChangedEvent(ad, AdChangeType.CREATED));
+        }
+
+        when(adRepository.findSummariesByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return ids.stream().map(this::summary).toList();
+        });
+    }
+
+    private Ad buildAd(String title, String description, Category category) {
+        Ad ad = new Ad();
+        ad.setId(UUID.randomUUID());
+        ad.setTitle(title);
+        ad.setDescription(description);
+        ad.setCategory(category);
+        ad.setStatus(AdStatus.ACTIVE);
+        ad.setUser(seller);
+        return ad;
+    }
+
+    private AdSummaryDto summary(UUID id) {
+        AdSummaryDto dto = new AdSummaryDto();
+        dto.setId(id);
+        return dto;
+    }
+
+    private List<UUID> similarIds(Ad ad) {
+        return adSimilarityService.findSimilarAds(ad.getId(), 10).stream().map(AdSummaryDto::getId).toList();
+    }
+
+    @Test
+    void findSimilarAds_SameCategoryOnly() {
+        assertEquals(List.of(similarBike.getId()), similarIds(bike));
+        assertTrue(similarIds(bikeInOtherCategory).isEmpty());
+        assertTrue(similarIds(table).isEmpty());
+    }
+
+    @Test
+    void findSimilarAds_ServedFromSummaryCache() {
+        when(adQueryCache.getAds(List.of(similarBike.getId()))).thenReturn(Map.of(similarBike.getId(), summary(similarBike.getId())));
+
+        assertEquals(List.of(similarBike.getId()), similarIds(bike));
+        verify(adRepository, never()).findSummariesByIds(anyCollection());
+    }
+
+    @Test
+    void onAdChanged_SoldAdsDropOut() {
+        similarBike.setStatus(AdStatus.SOLD);
+        adSimilarityService.onAdChanged(new AdChangedEvent(similarBike, AdChangeType.SOLD));
+
+        assertTrue(similarIds(bike).isEmpty());
+        verify(adQueryCache, never()).putAds(anyList());
+    }
+
+    @Test
+    void onAdChanged_UpdatedTextIsReindexed() {
+        table.setTitle("Red mountain bike");
+        table.setDescription("Aluminium frame, 21 speed gears, disc brakes, almost new");
+        adSimilarityService.onAdChanged(new AdChangedEvent(table, AdChangeType.UPDATED));
+
+        assertTrue(similarIds(bike).contains(table.getId()));
+    }
+
+    @Test
+    void onAdsImported_IndexesAds() {
+        Ad imported = buildAd("Red mountain bike", "Aluminium frame, 21 speed gears, disc brakes", Category.SPORTS);
+
+        adSimilarityService.onAdsImported(new AdsImportedEvent("seller", List.of(imported)));
+
+        assertEquals(List.of(imported.getId()), similarIds(bikeInOtherCategory));
+    }
+
+    @Test
+    void findSimilarAds_NotIndexed() {
+        UUID soldId = UUID.randomUUID();
+        UUID unknownId = UUID.randomUUID();
+        when(adRepository.existsById(soldId)).thenReturn(true);
+        when(adRepository.existsById(unknownId)).thenReturn(false);
+
+        assertTrue(adSimilarityService.findSimilarAds(soldId, 5).isEmpty());
+        assertThrows(ResourceNotFoundException.class, () -> adSimilarityService.findSimilarAds(unknownId, 5));
+        assertThrows(InvalidArgumentException.class, () -> adSimilarityService.findSimilarAds(bike.getId(), 0));
+    }
+
+    @Test
+    void rebuild_ReplacesIndex() {
+        AdTextView view = mock(AdTextView.class);
+        when(view.getId()).thenReturn(UUID.randomUUID());
+        when(view.getUserId()).thenReturn(seller.getId());
+        when(view.getCategory()).thenReturn(Category.VEHICLES);
+        when(view.getTitle()).thenReturn("Red mountain bike");
+        when(view.getDescription()).thenReturn("Aluminium frame, 21 speed gears, disc brakes, almost new");
+        when(adRepository.findTextViewsByStatus(AdStatus.ACTIVE)).thenReturn(Stream.of(view));
+        when(adRepository.existsById(bike.getId())).thenReturn(true);
+
+        adSimilarityService.rebuild();
+
+        assertTrue(adSimilarityService.findSimilarAds(bike.getId(), 5).isEmpty());
+        assertTrue(similarIds(bike).isEmpty());
+    }
+}
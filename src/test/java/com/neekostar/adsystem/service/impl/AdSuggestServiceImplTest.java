@@ -0,0 +1,138 @@
+package com.neekostar.adsystem.service.impl;
+
+import com.neekostar.adsystem.dto.AdSuggestionDto;
+import com.neekostar.adsystem.event.AdChangeType;
+import com.neekostar.adsystem.event.AdChangedEvent;
+import com.neekostar.adsystem.event.AdsImportedEvent;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdStatus;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.repository.projection.AdTitleView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AdSuggestServiceImplTest {
+
+    @Mock
+    private AdRepository adRepository;
+    @InjectMocks
+    private AdSuggestServiceImpl adSuggestService;
+
+    private Ad redBike;
+    private Ad blueBike;
+    private Ad bicycle;
+
+    @BeforeEach
+    void setUp() {
+        redBike = buildAd("Red bike, almost new");
+        blueBike = buildAd("Blue BIKE for kids");
+        bicycle = buildAd("Red bicycle");
+
+        for (Ad ad : List.of(redBike, blueBike, bicycle)) {
+            adSuggestService.onAdChanged(new AdChangedEvent(ad, AdChangeType.CREATED));
+        }
+    }
+
+    private Ad buildAd(String title) {
+        Ad ad = new Ad();
+        ad.setId(UUID.randomUUID());
+        ad.setTitle(title);
+        ad.setStatus(AdStatus.ACTIVE);
+        return ad;
+    }
+
+    private AdTitleView view(UUID id, String title) {
+        return new AdTitleView() {
+            public UUID getId() {
+                return id;
+            }
+
+            public String getTitle() {
+                return title;
+            }
+        };
+    }
+
+    private List<String> texts(String query, int limit) {
+        return adSuggestService.suggest(query, limit).stream().map(AdSuggestionDto::getText).toList();
+    }
+
+    @Test
+    void terms_NormalizesTitle() {
+        assertEquals(Set.of("red", "bike", "almost", "new"), AdSuggestServiceImpl.terms("Red bike, almost NEW!"));
+        assertEquals(Set.of("x5", "bmw"), AdSuggestServiceImpl.terms("BMW X5 a"));
+    }
+
+    @Test
+    void suggest_MostFrequentFirst() {
+        List<AdSuggestionDto> suggestions = adSuggestService.suggest("Bi", 10);
+
+        assertEquals(List.of(new AdSuggestionDto("bike", 2), new AdSuggestionDto("bicycle", 1)), suggestions);
+    }
+
+    @Test
+    void suggest_CompletesLastWord() {
+        assertEquals(List.of("red bike", "red bicycle"), texts("Red  bi", 10));
+    }
+
+    @Test
+    void suggest_RespectsLimit() {
+        assertEquals(List.of("bike"), texts("b", 1));
+        assertEquals(List.of("bike", "bicycle", "blue"), texts("b", 3));
+    }
+
+    @Test
+    void suggest_NothingToComplete() {
+        assertTrue(adSuggestService.suggest("", 10).isEmpty());
+        assertTrue(adSuggestService.suggest("red ", 10).isEmpty());
+        assertTrue(adSuggestService.suggest("zz", 10).isEmpty());
+        assertThrows(InvalidArgumentException.class, () -> adSuggestService.suggest("bi", 0));
+    }
+
+    @Test
+    void onAdChanged_TracksTitleChangesAndSales() {
+        redBike.setTitle("Red scooter");
+        adSuggestService.onAdChanged(new AdChangedEvent(redBike, AdChangeType.UPDATED));
+
+        assertEquals(List.of(new AdSuggestionDto("bicycle", 1), new AdSuggestionDto("bike", 1)), adSuggestService.suggest("bi", 10));
+        assertEquals(List.of("scooter"), texts("sc", 10));
+
+        adSuggestService.onAdChanged(new AdChangedEvent(blueBike, AdChangeType.SOLD));
+        adSuggestService.onAdChanged(new AdChangedEvent(bicycle, AdChangeType.DELETED));
+
+        assertTrue(adSuggestService.suggest("bi", 10).isEmpty());
+        assertEquals(List.of("red"), texts("r", 10));
+    }
+
+    @Test
+    void onAdsImported_AddsTitles() {
+        adSuggestService.onAdsImported(new AdsImportedEvent("seller", List.of(buildAd("Bike helmet"))));
+
+        assertEquals(List.of(new AdSuggestionDto("bike", 3)), adSuggestService.suggest("bik", 10));
+    }
+
+    @Test
+    void rebuild_ReplacesIndexWithActiveAds() {
+        when(adRepository.findTitleViewsByStatus(AdStatus.ACTIVE))
+                .thenReturn(Stream.of(view(UUID.randomUUID(), "Wooden table")));
+
+        adSuggestService.rebuild();
+
+        assertTrue(adSuggestService.suggest("bi", 10).isEmpty());
+        assertEquals(List.of("wooden"), texts("wo", 10));
+    }
+}
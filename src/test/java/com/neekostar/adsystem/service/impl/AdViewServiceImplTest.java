@@ -0,0 +1,122 @@
+package com.neekostar.adsystem.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class AdViewServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private AdViewServiceImpl adViewService;
+
+    @BeforeEach
+    void setUp() {
+        adViewService = new AdViewServiceImpl(jdbcTemplate, 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object[]>> capturedBatches(int times) {
+        ArgumentCaptor<List<Object[]>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(times)).batchUpdate(eq(AdViewServiceImpl.INCREMENT_VIEW_COUNT), batchCaptor.capture());
+        return batchCaptor.getAllValues();
+    }
+
+    private Map<UUID, Long> increments(List<List<Object[]>> batches) {
+        return batches.stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(row -> (UUID) row[1], row -> (Long) row[0]));
+    }
+
+    @Test
+    void flush_AggregatesViewsPerAdInBatches() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        adViewService.recordView(first);
+        adViewService.recordView(first);
+        adViewService.recordView(second);
+        adViewService.recordView(third);
+
+        assertEquals(3, adViewService.flush());
+
+        List<List<Object[]>> batches = capturedBatches(2);
+        assertEquals(2, batches.get(0).size());
+        assertEquals(1, batches.get(1).size());
+        assertEquals(Map.of(first, 2L, second, 1L, third, 1L), increments(batches));
+    }
+
+    @Test
+    void flush_NothingPending() {
+        assertEquals(0, adViewService.flush());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void flush_DrainsCounters() {
+        UUID adId = UUID.randomUUID();
+        adViewService.recordView(adId);
+        adViewService.flush();
+
+        assertEquals(0, adViewService.flush());
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(AdViewServiceImpl.INCREMENT_VIEW_COUNT), anyList());
+    }
+
+    @Test
+    void flush_FailedBatchIsRetried() {
+        UUID adId = UUID.randomUUID();
+        doThrow(new QueryTimeoutException("timeout")).doReturn(new int[]{1})
+                .when(jdbcTemplate).batchUpdate(eq(AdViewServiceImpl.INCREMENT_VIEW_COUNT), anyList());
+        adViewService.recordView(adId);
+        adViewService.recordView(adId);
+
+        assertEquals(0, adViewService.flush());
+        adViewService.recordView(adId);
+        assertEquals(1, adViewService.flush());
+
+        assertEquals(Map.of(adId, 3L), increments(List.of(capturedBatches(2).get(1))));
+    }
+
+    @Test
+    void recordView_CountsConcurrentViews() throws InterruptedException {
+        UUID adId = UUID.randomUUID();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    adViewService.recordView(adId);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        adViewService.flush();
+
+        assertEquals(Map.of(adId, 8000L), increments(capturedBatches(1)));
+    }
+}
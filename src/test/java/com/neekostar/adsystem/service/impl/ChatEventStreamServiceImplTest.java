@@ -0,0 +1,79 @@
+package com.neekostar.adsystem.service.impl;
+
+import com.neekostar.adsystem.dto.UnreadChatsInfoDto;
+import com.neekostar.adsystem.exception.AccessDeniedException;
+import com.neekostar.adsystem.realtime.SseEmitterRegistry;
+import com.neekostar.adsystem.service.ChatService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ChatEventStreamServiceImplTest {
+    private static final String USERNAME = "testUser";
+
+    @Mock
+    private ChatService chatService;
+    @Mock
+    private SseEmitterRegistry sseEmitterRegistry;
+    @Mock
+    private Authentication authentication;
+    @InjectMocks
+    private ChatEventStreamServiceImpl chatEventStreamService;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
+        when(authentication.getName()).thenReturn(USERNAME);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void openStream_StartsWithUnreadSnapshot() {
+        UnreadChatsInfoDto snapshot = new UnreadChatsInfoDto();
+        snapshot.setTotalUnread(5);
+        SseEmitter emitter = new SseEmitter();
+        when(chatService.getUnreadInfo(USERNAME)).thenReturn(snapshot);
+        when(sseEmitterRegistry.open(eq(USERNAME), any())).thenReturn(emitter);
+
+        assertSame(emitter, chatEventStreamService.openStream(USERNAME));
+
+        ArgumentCaptor<Supplier<?>> snapshotCaptor = ArgumentCaptor.forClass(Supplier.class);
+        verify(sseEmitterRegistry).open(eq(USERNAME), snapshotCaptor.capture());
+        // the registry reads the snapshot itself, after the stream is registered
+        verifyNoInteractions(chatService);
+        assertSame(snapshot, snapshotCaptor.getValue().get());
+    }
+
+    @Test
+    void openStream_OtherUser_ShouldThrowAccessDenied() {
+        AccessDeniedException exception = assertThrows(AccessDeniedException.class,
+                () -> chatEventStreamService.openStream("otherUser"));
+
+        assertEquals("You can only subscribe to your own events", exception.getMessage());
+        verifyNoInteractions(chatService, sseEmitterRegistry);
+    }
+}
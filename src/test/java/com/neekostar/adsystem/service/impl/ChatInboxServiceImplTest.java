@@ -0,0 +1,141 @@
+package com.neekostar.adsystem.service.impl;
+
+import com.neekostar.adsystem.model.Chat;
+import com.neekostar.adsystem.model.ChatInbox;
+import com.neekostar.adsystem.model.Message;
+import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.repository.ChatInboxRepository;
+import com.neekostar.adsystem.repository.MessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ChatInboxServiceImplTest {
+
+    @Mock
+    private ChatInboxRepository chatInboxRepository;
+    @Mock
+    private MessageRepository messageRepository;
+    @InjectMocks
+    private ChatInboxServiceImpl chatInboxService;
+
+    private User seller;
+    private User buyer;
+    private Chat chat;
+    private Message message;
+
+    @BeforeEach
+    void setUp() {
+        seller = new User();
+        seller.setId(UUID.randomUUID());
+        buyer = new User();
+        buyer.setId(UUID.randomUUID());
+
+        chat = new Chat();
+        chat.setId(UUID.randomUUID());
+        chat.setUser1(buyer);
+        chat.setUser2(seller);
+
+        message = new Message();
+        message.setId(UUID.randomUUID());
+        message.setChat(chat);
+        message.setSender(buyer);
+        message.setRecipient(seller);
+        message.setEncryptedContent("enc");
+        message.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createInbox_OneRowPerParticipant() {
+        chatInboxService.createInbox(chat);
+
+        ArgumentCaptor<List<ChatInbox>> captor = ArgumentCaptor.forClass(List.class);
+        verify(chatInboxRepository).saveAll(captor.capture());
+        List<ChatInbox> rows = captor.getValue();
+        assertEquals(List.of(buyer, seller), rows.stream().map(ChatInbox::getUser).toList());
+        assertTrue(rows.stream().allMatch(row -> row.getChat() == chat && row.getUnreadCount() == 0));
+    }
+
+    @Test
+    void recordMessage_UpdatesBothRows() {
+        when(chatInboxRepository.recordMessage(chat.getId(), seller.getId(), message.getId(), message.getCreatedAt(), "enc"))
+                .thenReturn(2);
+
+        chatInboxService.recordMessage(message);
+
+        verify(chatInboxRepository, never()).save(any());
+    }
+
+    @Test
+    void recordMessage_RestoresMissingRow() {
+        ChatInbox buyerRow = new ChatInbox();
+        buyerRow.setUser(buyer);
+        when(chatInboxRepository.recordMessage(any(), any(), any(), any(), any())).thenReturn(1);
+        when(chatInboxRepository.findByChatId(chat.getId())).thenReturn(List.of(buyerRow));
+        when(messageRepository.countByChatIdAndRecipientIdAndReadFalse(chat.getId(), seller.getId())).thenReturn(4L);
+
+        chatInboxService.recordMessage(message);
+
+        ArgumentCaptor<ChatInbox> captor = ArgumentCaptor.forClass(ChatInbox.class);
+        verify(chatInboxRepository).save(captor.capture());
+        ChatInbox restored = captor.getValue();
+        assertSame(seller, restored.getUser());
+        assertEquals(message.getId(), restored.getLastMessageId());
+        assertEquals("enc", restored.getLastMessagePreview());
+        assertEquals(4, restored.getUnreadCount());
+    }
+
+    @Test
+    void recordDeleted_UnreadMessageFallsBackToPrevious() {
+        Message previous = new Message();
+        previous.setId(UUID.randomUUID());
+        previous.setEncryptedContent("prev");
+        previous.setCreatedAt(message.getCreatedAt().minusMinutes(1));
+        when(messageRepository.findLatestByChatId(chat.getId(), Limit.of(1))).thenReturn(List.of(previous));
+
+        chatInboxService.recordDeleted(message);
+
+        verify(chatInboxRepository).decrementUnread(chat.getId(), seller.getId(), 1);
+        verify(chatInboxRepository).replaceLastMessage(chat.getId(), message.getId(),
+                previous.getId(), previous.getCreatedAt(), "prev");
+    }
+
+    @Test
+    void recordDeleted_LastMessageOfChat() {
+        message.setRead(true);
+        when(messageRepository.findLatestByChatId(chat.getId(), Limit.of(1))).thenReturn(List.of());
+
+        chatInboxService.recordDeleted(message);
+
+        verify(chatInboxRepository, never()).decrementUnread(any(), any(), anyInt());
+        verify(chatInboxRepository).replaceLastMessage(chat.getId(), message.getId(), null, null, null);
+    }
+
+    @Test
+    void markRead_IgnoresEmptyCount() {
+        chatInboxService.markRead(chat.getId(), seller.getId(), 0);
+        chatInboxService.markRead(chat.getId(), seller.getId(), 3);
+
+        verify(chatInboxRepository).decrementUnread(chat.getId(), seller.getId(), 3);
+        verifyNoMoreInteractions(chatInboxRepository);
+    }
+}
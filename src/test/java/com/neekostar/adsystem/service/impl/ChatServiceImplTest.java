@@ -7,10 +7,13 @@ import com.neekostar.adsystem.exception.AccessDeniedException;
 import com.neekostar.adsystem.exception.ResourceNotFoundException;
 import com.neekostar.adsystem.mapper.ChatMapper;
 import com.neekostar.adsystem.model.Chat;
+import com.neekostar.adsystem.model.ChatInbox;
 import com.neekostar.adsystem.model.Message;
 import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.repository.ChatInboxRepository;
 import com.neekostar.adsystem.repository.ChatRepository;
 import com.neekostar.adsystem.repository.UserRepository;
+import com.neekostar.adsystem.service.ChatInboxService;
 import com.neekostar.adsystem.service.EncryptionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -40,6 +43,10 @@ public class ChatServiceImplTest {
     @Mock
     private ChatRepository chatRepository;
     @Mock
+    private ChatInboxRepository chatInboxRepository;
+    @Mock
+    private ChatInboxService chatInboxService;
+    @Mock
     private UserRepository userRepository;
     @Mock
     private ChatMapper chatMapper;
@@ -60,9 +67,11 @@ public class ChatServiceImplTest {
         SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
 
         initiator = new User();
+        initiator.setId(UUID.randomUUID());
         initiator.setUsername("initiator");
 
         other = new User();
+        other.setId(UUID.randomUUID());
         other.setUsername("other");
 
         existingChat = new Chat();
@@ -148,6 +157,7 @@ public class ChatServiceImplTest {
 
         Chat result = chatService.getOrCreateChat("initiator", "other");
         assertEquals(newChat, result);
+        verify(chatInboxService).createInbox(newChat);
     }
 
     @Test
@@ -163,35 +173,42 @@ public class ChatServiceImplTest {
         assertThrows(ResourceNotFoundException.class, () -> chatService.getAllChatsForUser("initiator"));
     }
 
+    private ChatInbox inbox(Chat chat, String preview, int unreadCount) {
+        ChatInbox inbox = new ChatInbox();
+        inbox.setChat(chat);
+        inbox.setUser(initiator);
+        inbox.setLastMessagePreview(preview);
+        inbox.setUnreadCount(unreadCount);
+        return inbox;
+    }
+
     @Test
     void getAllChatsForUser_Success_DecryptionSuccess() {
         when(authentication.getName()).thenReturn("initiator");
         when(userRepository.findUserByUsername("initiator")).thenReturn(Optional.of(initiator));
 
-        Chat chat = new Chat();
-        chat.setId(UUID.randomUUID());
-        chat.setUser1(initiator);
-        chat.setUser2(other);
-        Message dummyMessage = mock(Message.class);
-        when(dummyMessage.getEncryptedContent()).thenReturn("encrypted");
-        when(dummyMessage.getSender()).thenReturn(other);
-        List<Message> messages = new ArrayList<>();
-        messages.add(dummyMessage);
-        chat.setMessages(messages);
-
-        when(encryptionService.decrypt("encrypted")).thenReturn("decrypted");
-        ChatResponseDto dto = new ChatResponseDto();
-        dto.setChatId(chat.getId());
-        dto.setUsername1("initiator");
-        dto.setUsername2("other");
-        dto.setUnreadMessagesCount(0);
-        when(chatMapper.toDto(chat)).thenReturn(dto);
-        when(chatRepository.findByUser1OrUser2(any(User.class), any(User.class))).thenReturn(List.of(chat));
+        ChatInbox withMessage = inbox(existingChat, "encrypted", 2);
+        ChatInbox empty = inbox(newChat, null, 0);
+        when(chatInboxRepository.findInboxByUserId(initiator.getId())).thenReturn(List.of(withMessage, empty));
+        when(chatMapper.toListDto(any(ChatInbox.class))).thenAnswer(invocation -> {
+            ChatInbox inbox = invocation.getArgument(0);
+            ChatResponseDto dto = new ChatResponseDto();
+            dto.setChatId(inbox.getChat().getId());
+            dto.setUnreadMessagesCount(inbox.getUnreadCount());
+            return dto;
+        });
+        when(encryptionService.decrypt("encrypted")).thenReturn("x".repeat(ChatServiceImpl.PREVIEW_LENGTH + 20));
 
         List<ChatResponseDto> result = chatService.getAllChatsForUser("initiator");
-        assertEquals(1, result.size());
-        assertEquals(dto, result.get(0));
+
+        assertEquals(2, result.size());
+        assertEquals(existingChat.getId(), result.get(0).getChatId());
+        assertEquals(ChatServiceImpl.PREVIEW_LENGTH, result.get(0).getLastMessagePreview().length());
+        assertEquals(2, result.get(0).getUnreadMessagesCount());
+        assertNull(result.get(1).getLastMessagePreview());
+        assertTrue(result.get(0).getMessages().isEmpty());
         verify(encryptionService).decrypt("encrypted");
+        verifyNoInteractions(chatRepository);
     }
 
     @Test
@@ -199,29 +216,13 @@ public class ChatServiceImplTest {
         when(authentication.getName()).thenReturn("initiator");
         when(userRepository.findUserByUsername("initiator")).thenReturn(Optional.of(initiator));
 
-        Chat chat = new Chat();
-        chat.setId(UUID.randomUUID());
-        chat.setUser1(initiator);
-        chat.setUser2(other);
-        Message dummyMessage = mock(Message.class);
-        when(dummyMessage.getEncryptedContent()).thenReturn("fail");
-        when(dummyMessage.getSender()).thenReturn(other);
-        List<Message> messages = new ArrayList<>();
-        messages.add(dummyMessage);
-        chat.setMessages(messages);
-
+        when(chatInboxRepository.findInboxByUserId(initiator.getId())).thenReturn(List.of(inbox(existingChat, "fail", 0)));
+        when(chatMapper.toListDto(any(ChatInbox.class))).thenReturn(new ChatResponseDto());
         when(encryptionService.decrypt("fail")).thenThrow(new RuntimeException("decryption error"));
-        ChatResponseDto dto = new ChatResponseDto();
-        dto.setChatId(chat.getId());
-        dto.setUsername1("initiator");
-        dto.setUsername2("other");
-        dto.setUnreadMessagesCount(0);
-        when(chatMapper.toDto(chat)).thenReturn(dto);
-        when(chatRepository.findByUser1OrUser2(any(User.class), any(User.class))).thenReturn(List.of(chat));
 
         List<ChatResponseDto> result = chatService.getAllChatsForUser("initiator");
         assertEquals(1, result.size());
-        assertEquals(dto, result.get(0));
+        assertNull(result.get(0).getLastMessagePreview());
     }
 
     @Test
@@ -332,25 +333,11 @@ public class ChatServiceImplTest {
     void getUnreadChatsCount_Success() {
         when(authentication.getName()).thenReturn("initiator");
         when(userRepository.findUserByUsername("initiator")).thenReturn(Optional.of(initiator));
-
-        Chat chat1 = spy(new Chat());
-        chat1.setId(UUID.randomUUID());
-        chat1.setUser1(initiator);
-        chat1.setUser2(other);
-        doNothing().when(chat1).calculateUnreadMessagesFor("initiator");
-        when(chat1.getUnreadMessagesCount()).thenReturn(3);
-
-        Chat chat2 = spy(new Chat());
-        chat2.setId(UUID.randomUUID());
-        chat2.setUser1(other);
-        chat2.setUser2(initiator);
-        doNothing().when(chat2).calculateUnreadMessagesFor("initiator");
-        when(chat2.getUnreadMessagesCount()).thenReturn(0);
-
-        when(chatRepository.findByUser1OrUser2(initiator, initiator)).thenReturn(List.of(chat1, chat2));
+        when(chatInboxRepository.countByUserIdAndUnreadCountGreaterThan(initiator.getId(), 0)).thenReturn(1L);
 
         int count = chatService.getUnreadChatsCount("initiator");
         assertEquals(1, count);
+        verifyNoInteractions(chatRepository);
     }
 
     @Test
@@ -371,23 +358,10 @@ public class ChatServiceImplTest {
         when(authentication.getName()).thenReturn("initiator");
         when(userRepository.findUserByUsername("initiator")).thenReturn(Optional.of(initiator));
 
-        Chat chat1 = spy(new Chat());
-        UUID chat1Id = UUID.randomUUID();
-        chat1.setId(chat1Id);
-        chat1.setUser1(initiator);
-        chat1.setUser2(other);
-        doNothing().when(chat1).calculateUnreadMessagesFor("initiator");
-        when(chat1.getUnreadMessagesCount()).thenReturn(2);
-
-        Chat chat2 = spy(new Chat());
-        UUID chat2Id = UUID.randomUUID();
-        chat2.setId(chat2Id);
-        chat2.setUser1(other);
-        chat2.setUser2(initiator);
-        doNothing().when(chat2).calculateUnreadMessagesFor("initiator");
-        when(chat2.getUnreadMessagesCount()).thenReturn(3);
-
-        when(chatRepository.findByUser1OrUser2(initiator, initiator)).thenReturn(List.of(chat1, chat2));
+        UUID chat1Id = existingChat.getId();
+        UUID chat2Id = newChat.getId();
+        when(chatInboxRepository.findByUserId(initiator.getId()))
+                .thenReturn(List.of(inbox(existingChat, null, 2), inbox(newChat, null, 3)));
 
         UnreadChatsInfoDto info = chatService.getUnreadInfo("initiator");
         assertEquals(5, info.getTotalUnread());
@@ -0,0 +1,205 @@
+package com.neekostar.adsystem.service.impl;
+
+import com.neekostar.adsystem.dto.CommentResponseDto;
+import com.neekostar.adsystem.dto.CursorPageDto;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
+import com.neekostar.adsystem.exception.ResourceNotFoundException;
+import com.neekostar.adsystem.mapper.CommentMapper;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.Comment;
+import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.pagination.CommentCursor;
+import com.neekostar.adsystem.repository.AdRepository;
+import com.neekostar.adsystem.repository.CommentRepository;
+import com.neekostar.adsystem.repository.UserRepository;
+import com.neekostar.adsystem.service.AdRankingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CommentServiceImplTest {
+
+    private static final String CURRENT_USER = "testUser";
+    private static final String COMMENT_TEXT = "Great ad!";
+    private static final UUID AD_ID = UUID.randomUUID();
+
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private AdRepository adRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private CommentMapper commentMapper;
+    @Mock
+    private AdRankingService adRankingService;
+    @Mock
+    private Authentication authentication;
+    @InjectMocks
+    private CommentServiceImpl commentService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername(CURRENT_USER);
+        when(commentMapper.toDTO(any(Comment.class))).thenAnswer(invocation -> {
+            Comment comment = invocation.getArgument(0);
+            CommentResponseDto dto = new CommentResponseDto();
+            dto.setId(comment.getId());
+            dto.setCommentText(comment.getCommentText());
+            return dto;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void setupSecurityContext() {
+        SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
+        when(authentication.getName()).thenReturn(CURRENT_USER);
+    }
+
+    private Comment buildComment(int minutesAgo) {
+        Comment comment = new Comment();
+        comment.setId(UUID.randomUUID());
+        comment.setCommentText("comment " + minutesAgo);
+        comment.setUser(testUser);
+        comment.setCreatedAt(LocalDateTime.now().minusMinutes(minutesAgo));
+        return comment;
+    }
+
+    @Test
+    void addComment_InsertsCommentWithoutLoadingAd() {
+        setupSecurityContext();
+        Ad reference = new Ad();
+        reference.setId(AD_ID);
+        when(adRepository.incrementCommentCount(AD_ID)).thenReturn(1);
+        when(adRepository.getReferenceById(AD_ID)).thenReturn(reference);
+        when(userRepository.findUserByUsername(CURRENT_USER)).thenReturn(Optional.of(testUser));
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CommentResponseDto result = commentService.addComment(AD_ID, COMMENT_TEXT);
+
+        assertEquals(COMMENT_TEXT, result.getCommentText());
+        ArgumentCaptor<Comment> commentCaptor = ArgumentCaptor.forClass(Comment.class);
+        verify(commentRepository).save(commentCaptor.capture());
+        assertSame(testUser, commentCaptor.getValue().getUser());
+        assertSame(reference, commentCaptor.getValue().getAd());
+        verify(adRepository, never()).findById(any());
+        verify(adRepository, never()).save(any());
+        verify(adRankingService).refreshAds(List.of(AD_ID));
+    }
+
+    @Test
+    void addComment_AdNotFound() {
+        setupSecurityContext();
+        when(adRepository.incrementCommentCount(AD_ID)).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> commentService.addComment(AD_ID, COMMENT_TEXT));
+        verify(commentRepository, never()).save(any());
+        verifyNoInteractions(adRankingService);
+    }
+
+    @Test
+    void addComment_UserNotFound() {
+        setupSecurityContext();
+        when(adRepository.incrementCommentCount(AD_ID)).thenReturn(1);
+        when(userRepository.findUserByUsername(CURRENT_USER)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> commentService.addComment(AD_ID, COMMENT_TEXT));
+        verify(commentRepository, never()).save(any());
+    }
+
+    @Test
+    void getComments_FirstSliceHasNext() {
+        Comment first = buildComment(1);
+        Comment second = buildComment(2);
+        Comment lookahead = buildComment(3);
+        when(commentRepository.findLatestByAdId(AD_ID, Limit.of(3))).thenReturn(List.of(first, second, lookahead));
+
+        CursorPageDto<CommentResponseDto> result = commentService.getComments(AD_ID, null, 2);
+
+        assertEquals(2, result.getContent().size());
+        assertEquals(first.getId(), result.getContent().get(0).getId());
+        assertTrue(result.isHasNext());
+        assertEquals(CommentCursor.of(second), CommentCursor.decode(result.getNextCursor()));
+        verify(commentMapper, never()).toDTO(lookahead);
+    }
+
+    @Test
+    void getComments_NextSliceUsesCursor() {
+        Comment last = buildComment(10);
+        CommentCursor cursor = CommentCursor.of(buildComment(5));
+        when(commentRepository.findByAdIdBefore(AD_ID, cursor.createdAt(), cursor.id(), Limit.of(21)))
+                .thenReturn(List.of(last));
+
+        CursorPageDto<CommentResponseDto> result = commentService.getComments(AD_ID, cursor.encode(), 20);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        verify(commentRepository, never()).findLatestByAdId(any(), any());
+    }
+
+    @Test
+    void getComments_EmptyForExistingAd() {
+        when(commentRepository.findLatestByAdId(AD_ID, Limit.of(21))).thenReturn(List.of());
+        when(adRepository.existsById(AD_ID)).thenReturn(true);
+
+        CursorPageDto<CommentResponseDto> result = commentService.getComments(AD_ID, "", 20);
+
+        assertTrue(result.getContent().isEmpty());
+        assertFalse(result.isHasNext());
+    }
+
+    @Test
+    void getComments_AdNotFound() {
+        when(commentRepository.findLatestByAdId(AD_ID, Limit.of(21))).thenReturn(List.of());
+        when(adRepository.existsById(AD_ID)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> commentService.getComments(AD_ID, null, 20));
+    }
+
+    @Test
+    void getComments_PageSizeIsCapped() {
+        when(commentRepository.findLatestByAdId(AD_ID, Limit.of(CommentServiceImpl.MAX_PAGE_SIZE + 1)))
+                .thenReturn(List.of(buildComment(1)));
+
+        CursorPageDto<CommentResponseDto> result = commentService.getComments(AD_ID, null, 10_000);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+    }
+
+    @Test
+    void getComments_InvalidArguments() {
+        assertThrows(InvalidArgumentException.class, () -> commentService.getComments(AD_ID, null, 0));
+        assertThrows(InvalidArgumentException.class, () -> commentService.getComments(AD_ID, "not-a-cursor", 20));
+    }
+}
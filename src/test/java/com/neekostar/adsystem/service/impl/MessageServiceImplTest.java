@@ -2,28 +2,35 @@ package com.neekostar.adsystem.service.impl;
 
 import com.github.javafaker.Faker;
 import com.neekostar.adsystem.dto.MessageCreateDto;
+import com.neekostar.adsystem.dto.MessagePageDto;
 import com.neekostar.adsystem.dto.MessageResponseDto;
 import com.neekostar.adsystem.dto.MessageUpdateDto;
+import com.neekostar.adsystem.event.MessageSentEvent;
+import com.neekostar.adsystem.event.MessagesReadEvent;
 import com.neekostar.adsystem.exception.AccessDeniedException;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
 import com.neekostar.adsystem.exception.ResourceNotFoundException;
 import com.neekostar.adsystem.mapper.MessageMapper;
 import com.neekostar.adsystem.model.Chat;
 import com.neekostar.adsystem.model.Message;
 import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.pagination.MessageCursor;
 import com.neekostar.adsystem.repository.ChatRepository;
 import com.neekostar.adsystem.repository.MessageRepository;
 import com.neekostar.adsystem.repository.UserRepository;
+import com.neekostar.adsystem.service.ChatInboxService;
 import com.neekostar.adsystem.service.EncryptionService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -34,6 +41,7 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +61,10 @@ public class MessageServiceImplTest {
     @Mock
     private MessageMapper messageMapper;
     @Mock
+    private ChatInboxService chatInboxService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
     private Authentication authentication;
     @InjectMocks
     private MessageServiceImpl messageService;
@@ -139,6 +151,13 @@ public class MessageServiceImplTest {
         assertEquals(SENDER_USERNAME, result.getSenderUsername());
         assertEquals(RECEIVER_USERNAME, result.getRecipientUsername());
         verify(messageRepository).saveAndFlush(any(Message.class));
+        verify(chatInboxService).recordMessage(argThat(message -> message.getRecipient() == receiver));
+        verify(chatInboxService, never()).markRead(any(), any(), anyInt());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof MessageSentEvent sent
+                && sent.getMessageId().equals(messageId)
+                && sent.getRecipientUsername().equals(RECEIVER_USERNAME)
+                && sent.getEncryptedContent().equals("encrypted_" + createDto.getMessageText())));
+        verify(eventPublisher, never()).publishEvent(any(MessagesReadEvent.class));
     }
 
     @Test
@@ -186,16 +205,6 @@ public class MessageServiceImplTest {
 
     @Test
     void sendMessage_AutoMarkIncomingAsRead() {
-        Message unreadMsg = new Message();
-        unreadMsg.setId(UUID.randomUUID());
-        unreadMsg.setSender(receiver);
-        unreadMsg.setRecipient(sender);
-        unreadMsg.setRead(false);
-
-        List<Message> messages = new ArrayList<>();
-        messages.add(unreadMsg);
-        chat.setMessages(messages);
-
         when(userRepository.findUserByUsername(SENDER_USERNAME)).thenReturn(Optional.of(sender));
         when(chatRepository.findById(chatId)).thenReturn(Optional.of(chat));
         when(encryptionService.encrypt(createDto.getMessageText()))
@@ -205,15 +214,19 @@ public class MessageServiceImplTest {
             msg.setId(messageId);
             return msg;
         });
+        when(messageRepository.markAllAsRead(chatId, sender.getId())).thenReturn(3);
         when(messageMapper.toDto(any(Message.class))).thenReturn(responseDto);
 
         MessageResponseDto result = messageService.sendMessage(chatId, SENDER_USERNAME, createDto);
-        assertTrue(unreadMsg.isRead());
-        verify(messageRepository).saveAllAndFlush(argThat(iterable -> {
-            List<Message> list = new ArrayList<>();
-            iterable.forEach(list::add);
-            return list.contains(unreadMsg);
-        }));
+
+        verify(messageRepository).markAllAsRead(chatId, sender.getId());
+        verify(messageRepository, never()).saveAllAndFlush(any());
+        verify(chatInboxService).markRead(chatId, sender.getId(), 3);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof MessagesReadEvent read
+                && read.getReaderUsername().equals(SENDER_USERNAME)
+                && read.getSenderUsername().equals(RECEIVER_USERNAME)
+                && read.getUpToMessageId() == null
+                && read.getCount() == 3));
 
         assertNotNull(result);
     }
@@ -241,8 +254,8 @@ public class MessageServiceImplTest {
         msg2.setRead(true);
         msg2.setCreatedAt(LocalDateTime.now().minusMinutes(2));
 
-        when(messageRepository.findByChatOrderByCreatedAtAsc(chat))
-                .thenReturn(Arrays.asList(msg1, msg2));
+        when(messageRepository.findLatestByChatId(eq(chatId), any(Limit.class)))
+                .thenReturn(Arrays.asList(msg2, msg1));
         when(encryptionService.decrypt("enc1")).thenReturn("Decrypted msg1");
         when(encryptionService.decrypt("enc2")).thenReturn("Decrypted msg2");
 
@@ -260,11 +273,16 @@ public class MessageServiceImplTest {
             return dto;
         });
 
-        List<MessageResponseDto> results = messageService.getMessagesForChat(SENDER_USERNAME, chatId);
+        MessagePageDto page = messageService.getMessagesForChat(SENDER_USERNAME, chatId, null, null, 20);
 
+        List<MessageResponseDto> results = page.getContent();
         assertEquals(2, results.size());
         assertEquals("Decrypted msg1", results.get(0).getContent());
         assertEquals("Decrypted msg2", results.get(1).getContent());
+        assertFalse(page.isHasBefore());
+        assertFalse(page.isHasAfter());
+        assertNull(page.getBeforeCursor());
+        assertEquals(MessageCursor.of(msg2).encode(), page.getAfterCursor());
     }
 
     @Test
@@ -281,7 +299,7 @@ public class MessageServiceImplTest {
         msg.setRead(false);
         msg.setCreatedAt(LocalDateTime.now().minusMinutes(5));
 
-        when(messageRepository.findByChatOrderByCreatedAtAsc(chat))
+        when(messageRepository.findLatestByChatId(eq(chatId), any(Limit.class)))
                 .thenReturn(List.of(msg));
         when(encryptionService.decrypt("failEnc")).thenThrow(new RuntimeException("decrypt error"));
         when(messageMapper.toDto(any(Message.class))).thenAnswer(invocation -> {
@@ -298,17 +316,112 @@ public class MessageServiceImplTest {
             return dto;
         });
 
-        List<MessageResponseDto> results = messageService.getMessagesForChat(SENDER_USERNAME, chatId);
+        List<MessageResponseDto> results = messageService.getMessagesForChat(SENDER_USERNAME, chatId, null, null, 20).getContent();
         assertNotNull(results);
         assertEquals(1, results.size());
         assertNull(results.get(0).getContent());
     }
 
+    private Message historyMessage(int minutesAgo) {
+        Message message = new Message();
+        message.setId(UUID.randomUUID());
+        message.setChat(chat);
+        message.setSender(sender);
+        message.setRecipient(receiver);
+        message.setEncryptedContent("enc" + minutesAgo);
+        message.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0).minusMinutes(minutesAgo));
+        when(encryptionService.decrypt("enc" + minutesAgo)).thenReturn("msg" + minutesAgo);
+        return message;
+    }
+
+    private void mapContent() {
+        when(messageMapper.toDto(any(Message.class))).thenAnswer(invocation -> {
+            Message m = invocation.getArgument(0);
+            MessageResponseDto dto = new MessageResponseDto();
+            dto.setMessageId(m.getId());
+            dto.setContent(m.getPlainContent());
+            return dto;
+        });
+    }
+
+    @Test
+    void getMessagesForChat_BeforeCursorPagesBack() {
+        when(chatRepository.findById(chatId)).thenReturn(Optional.of(chat));
+        mapContent();
+        Message newest = historyMessage(1);
+        Message middle = historyMessage(2);
+        Message oldest = historyMessage(3);
+        Message anchorMessage = historyMessage(0);
+        MessageCursor cursor = MessageCursor.of(anchorMessage);
+        when(messageRepository.findByChatIdBefore(chatId, cursor.createdAt(), cursor.id(), Limit.of(3)))
+                .thenReturn(List.of(newest, middle, oldest));
+
+        MessagePageDto page = messageService.getMessagesForChat(SENDER_USERNAME, chatId, cursor.encode(), null, 2);
+
+        assertEquals(List.of("msg2", "msg1"), page.getContent().stream().map(MessageResponseDto::getContent).toList());
+        assertTrue(page.isHasBefore());
+        assertTrue(page.isHasAfter());
+        assertEquals(MessageCursor.of(middle).encode(), page.getBeforeCursor());
+        assertEquals(MessageCursor.of(newest).encode(), page.getAfterCursor());
+        // the extra row only signals another page and is never decrypted
+        verify(encryptionService, never()).decrypt("enc3");
+    }
+
+    @Test
+    void getMessagesForChat_AfterCursorPollsNewMessages() {
+        when(chatRepository.findById(chatId)).thenReturn(Optional.of(chat));
+        mapContent();
+        Message seen = historyMessage(5);
+        Message fresh = historyMessage(1);
+        MessageCursor cursor = MessageCursor.of(seen);
+        when(messageRepository.findByChatIdAfter(chatId, cursor.createdAt(), cursor.id(), Limit.of(21)))
+                .thenReturn(List.of(fresh));
+
+        MessagePageDto page = messageService.getMessagesForChat(SENDER_USERNAME, chatId, null, cursor.encode(), 20);
+
+        assertEquals(List.of("msg1"), page.getContent().stream().map(MessageResponseDto::getContent).toList());
+        assertTrue(page.isHasBefore());
+        assertFalse(page.isHasAfter());
+        assertEquals(MessageCursor.of(fresh).encode(), page.getAfterCursor());
+
+        MessageCursor latest = MessageCursor.of(fresh);
+        when(messageRepository.findByChatIdAfter(chatId, latest.createdAt(), latest.id(), Limit.of(21)))
+                .thenReturn(List.of());
+
+        MessagePageDto empty = messageService.getMessagesForChat(SENDER_USERNAME, chatId, null, latest.encode(), 20);
+
+        assertTrue(empty.getContent().isEmpty());
+        assertEquals(latest.encode(), empty.getAfterCursor());
+        assertEquals(latest.encode(), empty.getBeforeCursor());
+    }
+
+    @Test
+    void getMessagesForChat_PageSizeIsCapped() {
+        when(chatRepository.findById(chatId)).thenReturn(Optional.of(chat));
+
+        messageService.getMessagesForChat(SENDER_USERNAME, chatId, null, null, 10_000);
+
+        verify(messageRepository).findLatestByChatId(chatId, Limit.of(MessageServiceImpl.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void getMessagesForChat_InvalidArguments() {
+        String cursor = new MessageCursor(LocalDateTime.now(), UUID.randomUUID()).encode();
+
+        assertThrows(InvalidArgumentException.class,
+                () -> messageService.getMessagesForChat(SENDER_USERNAME, chatId, cursor, cursor, 20));
+        assertThrows(InvalidArgumentException.class,
+                () -> messageService.getMessagesForChat(SENDER_USERNAME, chatId, null, null, 0));
+        assertThrows(InvalidArgumentException.class,
+                () -> messageService.getMessagesForChat(SENDER_USERNAME, chatId, "%%%", null, 20));
+        verifyNoInteractions(messageRepository);
+    }
+
     @Test
     void getMessagesForChat_AuthUserMismatch_ShouldThrowAccessDenied() {
         when(authentication.getName()).thenReturn("otherUser");
         AccessDeniedException exception = assertThrows(AccessDeniedException.class, () ->
-                messageService.getMessagesForChat(SENDER_USERNAME, chatId));
+                messageService.getMessagesForChat(SENDER_USERNAME, chatId, null, null, 20));
         assertEquals("You can only access your own messages", exception.getMessage());
     }
 
@@ -316,7 +429,7 @@ public class MessageServiceImplTest {
     void getMessagesForChat_ChatNotFound_ShouldThrowResourceNotFound() {
         when(chatRepository.findById(chatId)).thenReturn(Optional.empty());
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () ->
-                messageService.getMessagesForChat(SENDER_USERNAME, chatId));
+                messageService.getMessagesForChat(SENDER_USERNAME, chatId, null, null, 20));
         assertTrue(exception.getMessage().contains("Chat"));
     }
 
@@ -332,7 +445,7 @@ public class MessageServiceImplTest {
         when(chatRepository.findById(chatId)).thenReturn(Optional.of(chatNotParticipant));
 
         AccessDeniedException exception = assertThrows(AccessDeniedException.class, () ->
-                messageService.getMessagesForChat(SENDER_USERNAME, chatId));
+                messageService.getMessagesForChat(SENDER_USERNAME, chatId, null, null, 20));
         assertEquals("You can only access your own chats", exception.getMessage());
     }
 
@@ -340,6 +453,7 @@ public class MessageServiceImplTest {
     void markMessageAsRead_Success() {
         Message msg = new Message();
         msg.setId(UUID.randomUUID());
+        msg.setChat(chat);
         msg.setSender(sender);
         msg.setRecipient(receiver);
         msg.setRead(false);
@@ -351,6 +465,28 @@ public class MessageServiceImplTest {
 
         assertTrue(msg.isRead());
         verify(messageRepository).saveAndFlush(msg);
+        verify(chatInboxService).markRead(chatId, receiver.getId(), 1);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof MessagesReadEvent read
+                && read.getSenderUsername().equals(SENDER_USERNAME)
+                && messageId.equals(read.getUpToMessageId())
+                && read.getCount() == 1));
+    }
+
+    @Test
+    void markMessageAsRead_AlreadyRead_KeepsInboxCount() {
+        Message msg = new Message();
+        msg.setId(UUID.randomUUID());
+        msg.setChat(chat);
+        msg.setSender(sender);
+        msg.setRecipient(receiver);
+        msg.setRead(true);
+        when(messageRepository.findById(messageId)).thenReturn(Optional.of(msg));
+        when(authentication.getName()).thenReturn(RECEIVER_USERNAME);
+
+        messageService.markMessageAsRead(RECEIVER_USERNAME, messageId);
+
+        verify(messageRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(chatInboxService, eventPublisher);
     }
 
     @Test
@@ -392,48 +528,77 @@ public class MessageServiceImplTest {
     @Test
     void markAllMessagesAsRead_Success() {
         when(authentication.getName()).thenReturn(SENDER_USERNAME);
+        when(chatRepository.findById(chatId)).thenReturn(Optional.of(chat));
+        when(messageRepository.markAllAsRead(chatId, sender.getId())).thenReturn(2);
 
-        Message m1 = new Message();
-        m1.setId(UUID.randomUUID());
-        m1.setSender(receiver);
-        m1.setRecipient(sender);
-        m1.setRead(false);
+        int marked = messageService.markAllMessagesAsRead(SENDER_USERNAME, chatId);
 
-        Message m2 = new Message();
-        m2.setId(UUID.randomUUID());
-        m2.setSender(receiver);
-        m2.setRecipient(sender);
-        m2.setRead(false);
+        assertEquals(2, marked);
+        verify(messageRepository, never()).saveAllAndFlush(any());
+        verify(chatInboxService).markRead(chatId, sender.getId(), 2);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof MessagesReadEvent read
+                && read.getReaderId().equals(sender.getId())
+                && read.getSenderUsername().equals(RECEIVER_USERNAME)
+                && read.getCount() == 2));
+    }
 
-        List<Message> unreadMessages = Arrays.asList(m1, m2);
-        chat.setMessages(unreadMessages);
+    @Test
+    void markAllMessagesAsRead_NoUnreadMessages_LeavesInboxAlone() {
+        when(authentication.getName()).thenReturn(SENDER_USERNAME);
         when(chatRepository.findById(chatId)).thenReturn(Optional.of(chat));
+        when(messageRepository.markAllAsRead(chatId, sender.getId())).thenReturn(0);
 
-        messageService.markAllMessagesAsRead(SENDER_USERNAME, chatId);
-
-        assertTrue(m1.isRead());
-        assertTrue(m2.isRead());
-        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
-        verify(messageRepository).saveAllAndFlush(captor.capture());
-        List<Message> savedMessages = captor.getValue();
-        assertEquals(2, savedMessages.size());
+        assertEquals(0, messageService.markAllMessagesAsRead(SENDER_USERNAME, chatId));
+        verifyNoInteractions(chatInboxService, eventPublisher);
     }
 
     @Test
-    void markAllMessagesAsRead_NoUnreadMessages_ShouldNotCallSaveAllAndFlush() {
-        when(authentication.getName()).thenReturn(SENDER_USERNAME);
-        Message readMsg = new Message();
-        readMsg.setId(UUID.randomUUID());
-        readMsg.setSender(receiver);
-        readMsg.setRecipient(sender);
-        readMsg.setRead(true);
-        chat.setMessages(List.of(readMsg));
+    void markMessagesAsReadUpTo_Success() {
+        when(authentication.getName()).thenReturn(RECEIVER_USERNAME);
         when(chatRepository.findById(chatId)).thenReturn(Optional.of(chat));
+        Message watermark = new Message();
+        watermark.setId(messageId);
+        watermark.setChat(chat);
+        watermark.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0));
+        when(messageRepository.findById(messageId)).thenReturn(Optional.of(watermark));
+        when(messageRepository.markAsReadUpTo(chatId, receiver.getId(), watermark.getCreatedAt(), messageId)).thenReturn(4);
+
+        int marked = messageService.markMessagesAsReadUpTo(RECEIVER_USERNAME, chatId, messageId);
+
+        assertEquals(4, marked);
+        verify(chatInboxService).markRead(chatId, receiver.getId(), 4);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof MessagesReadEvent read
+                && read.getReaderUsername().equals(RECEIVER_USERNAME)
+                && read.getSenderUsername().equals(SENDER_USERNAME)
+                && messageId.equals(read.getUpToMessageId())
+                && read.getCount() == 4));
+    }
 
-        messageService.markAllMessagesAsRead(SENDER_USERNAME, chatId);
-        verify(messageRepository, never()).saveAllAndFlush(any());
+    @Test
+    void markMessagesAsReadUpTo_MessageOfAnotherChat_ShouldThrowResourceNotFound() {
+        when(authentication.getName()).thenReturn(RECEIVER_USERNAME);
+        when(chatRepository.findById(chatId)).thenReturn(Optional.of(chat));
+        Chat otherChat = new Chat();
+        otherChat.setId(UUID.randomUUID());
+        Message foreign = new Message();
+        foreign.setId(messageId);
+        foreign.setChat(otherChat);
+        when(messageRepository.findById(messageId)).thenReturn(Optional.of(foreign));
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> messageService.markMessagesAsReadUpTo(RECEIVER_USERNAME, chatId, messageId));
+        verify(messageRepository, never()).markAsReadUpTo(any(), any(), any(), any());
+        verifyNoInteractions(chatInboxService);
     }
 
+    @Test
+    void markMessagesAsReadUpTo_AuthMismatch_ShouldThrowAccessDenied() {
+        when(authentication.getName()).thenReturn("otherUser");
+
+        assertThrows(AccessDeniedException.class,
+                () -> messageService.markMessagesAsReadUpTo(RECEIVER_USERNAME, chatId, messageId));
+        verifyNoInteractions(messageRepository);
+    }
 
     @Test
     void markAllMessagesAsRead_Unauthorized_ShouldThrowAccessDenied() {
@@ -470,6 +635,7 @@ public class MessageServiceImplTest {
         when(authentication.getName()).thenReturn(SENDER_USERNAME);
         Message existingMsg = new Message();
         existingMsg.setId(messageId);
+        existingMsg.setChat(chat);
         existingMsg.setSender(sender);
         existingMsg.setRecipient(receiver);
         existingMsg.setEncryptedContent("oldEnc");
@@ -483,6 +649,7 @@ public class MessageServiceImplTest {
         assertNotNull(result);
         assertEquals(SENDER_USERNAME, result.getSenderUsername());
         verify(messageRepository).saveAndFlush(existingMsg);
+        verify(chatInboxService).recordUpdated(existingMsg);
     }
 
     @Test
@@ -523,6 +690,7 @@ public class MessageServiceImplTest {
         when(messageRepository.findById(messageId)).thenReturn(Optional.of(msg));
         messageService.deleteMessage(SENDER_USERNAME, messageId);
         verify(messageRepository).delete(msg);
+        verify(chatInboxService).recordDeleted(msg);
     }
 
     @Test
@@ -1,6 +1,8 @@
 package com.neekostar.adsystem.service.impl;
 
 import com.neekostar.adsystem.dto.PaymentResponseDto;
+import com.neekostar.adsystem.event.AdChangeType;
+import com.neekostar.adsystem.event.AdChangedEvent;
 import com.neekostar.adsystem.exception.AccessDeniedException;
 import com.neekostar.adsystem.exception.ResourceNotFoundException;
 import com.neekostar.adsystem.mapper.PaymentMapper;
@@ -18,6 +20,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -53,6 +56,8 @@ public class PaymentServiceImplTest {
     @Mock
     private PaymentMapper paymentMapper;
     @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
     private Authentication authentication;
     @InjectMocks
     private PaymentServiceImpl paymentService;
@@ -112,6 +117,9 @@ public class PaymentServiceImplTest {
         verify(paymentRepository).saveAndFlush(any(Payment.class));
         verify(adRepository).save(activeAd);
         verify(saleHistoryRepository).save(any(SaleHistory.class));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof AdChangedEvent changed
+                && changed.getType() == AdChangeType.SOLD
+                && changed.getAd() == activeAd));
         assertEquals(AdStatus.SOLD, activeAd.getStatus());
         assertEquals(responseDto, result);
     }
@@ -11,6 +11,7 @@ import com.neekostar.adsystem.model.User;
 import com.neekostar.adsystem.repository.ReviewRepository;
 import com.neekostar.adsystem.repository.SaleHistoryRepository;
 import com.neekostar.adsystem.repository.UserRepository;
+import com.neekostar.adsystem.service.AdRankingService;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -48,6 +49,9 @@ public class ReviewServiceImplTest {
     @Mock
     private ReviewMapper reviewMapper;
 
+    @Mock
+    private AdRankingService adRankingService;
+
     @Mock
     private Authentication authentication;
 
@@ -69,6 +73,7 @@ public class ReviewServiceImplTest {
         buyer.setEmail("buyer@test.com");
 
         seller = new User();
+        seller.setId(UUID.randomUUID());
         seller.setUsername(SELLER_USERNAME);
         seller.setEmail("seller@test.com");
         seller.setRating(4.0f);
@@ -107,6 +112,7 @@ public class ReviewServiceImplTest {
 
         verify(reviewRepository).saveAndFlush(any(Review.class));
         verify(userRepository).save(seller);
+        verify(adRankingService).refreshSellerAds(seller.getId());
 
         float expected = 4.59f;
         assertEquals(expected, seller.getRating(), 0.01f);
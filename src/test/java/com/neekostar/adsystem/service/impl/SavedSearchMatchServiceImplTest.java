@@ -0,0 +1,244 @@
+package com.neekostar.adsystem.service.impl;
+
+import com.neekostar.adsystem.dto.SavedSearchAlertDto;
+import com.neekostar.adsystem.event.AdChangeType;
+import com.neekostar.adsystem.event.AdChangedEvent;
+import com.neekostar.adsystem.event.AdsImportedEvent;
+import com.neekostar.adsystem.event.SavedSearchCreatedEvent;
+import com.neekostar.adsystem.event.SavedSearchDeletedEvent;
+import com.neekostar.adsystem.event.SavedSearchMatchesEvent;
+import com.neekostar.adsystem.event.UserNotificationEvent;
+import com.neekostar.adsystem.model.Ad;
+import com.neekostar.adsystem.model.AdStatus;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.realtime.ChatNotificationPublisher;
+import com.neekostar.adsystem.realtime.ChatRelayChannel;
+import com.neekostar.adsystem.realtime.StompNotificationForwarder;
+import com.neekostar.adsystem.repository.ChatInboxRepository;
+import com.neekostar.adsystem.repository.SavedSearchRepository;
+import com.neekostar.adsystem.repository.projection.SavedSearchView;
+import com.neekostar.adsystem.search.SavedSearchCriteria;
+import com.neekostar.adsystem.search.SavedSearchMatch;
+import com.neekostar.adsystem.service.EncryptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SavedSearchMatchServiceImplTest {
+
+    private static final String MOSCOW = "Moscow";
+    private static final String KAZAN = "Kazan";
+
+    @Mock
+    private SavedSearchRepository savedSearchRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SavedSearchMatchServiceImpl matchService;
+    private User seller;
+    private User buyer;
+
+    @BeforeEach
+    void setUp() {
+        matchService = new SavedSearchMatchServiceImpl(savedSearchRepository, eventPublisher, 2, 8);
+        seller = user("seller");
+        buyer = user("buyer");
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername(username);
+        return user;
+    }
+
+    private SavedSearchCriteria register(User owner, String city, Category category, Long minPrice, Long maxPrice, String keyword) {
+        SavedSearchCriteria criteria = new SavedSearchCriteria(UUID.randomUUID(), owner.getId(), owner.getUsername(), city, category,
+                minPrice != null ? BigDecimal.valueOf(minPrice) : null,
+                maxPrice != null ? BigDecimal.valueOf(maxPrice) : null,
+                keyword);
+        matchService.register(criteria);
+        return criteria;
+    }
+
+    private Ad buildAd(String title, String city, Category category, long price) {
+        Ad ad = new Ad();
+        ad.setId(UUID.randomUUID());
+        ad.setTitle(title);
+        ad.setDescription("Barely used");
+        ad.setCity(city);
+        ad.setCategory(category);
+        ad.setPrice(BigDecimal.valueOf(price));
+        ad.setStatus(AdStatus.ACTIVE);
+        ad.setUser(seller);
+        return ad;
+    }
+
+    private List<SavedSearchMatch> publishedMatches(int events) {
+        ArgumentCaptor<SavedSearchMatchesEvent> eventCaptor = ArgumentCaptor.forClass(SavedSearchMatchesEvent.class);
+        verify(eventPublisher, times(events)).publishEvent(eventCaptor.capture());
+        return eventCaptor.getAllValues().stream().flatMap(event -> event.getMatches().stream()).toList();
+    }
+
+    private Set<UUID> matchedSearches(List<SavedSearchMatch> matches) {
+        return matches.stream().map(SavedSearchMatch::savedSearchId).collect(Collectors.toSet());
+    }
+
+    @Test
+    void onAdChanged_MatchesOnlyCandidateSearches() {
+        SavedSearchCriteria exact = register(buyer, MOSCOW, Category.VEHICLES, null, null, null);
+        SavedSearchCriteria anyCity = register(buyer, null, Category.VEHICLES, 1000L, 5000L, null);
+        SavedSearchCriteria anyCategory = register(buyer, MOSCOW, null, null, null, "BIKE");
+        SavedSearchCriteria otherCity = register(buyer, KAZAN, Category.VEHICLES, null, null, null);
+        SavedSearchCriteria tooCheap = register(buyer, null, null, null, 500L, null);
+        SavedSearchCriteria otherKeyword = register(buyer, MOSCOW, Category.VEHICLES, null, null, "car");
+
+        matchService.onAdChanged(new AdChangedEvent(buildAd("Mountain bike", MOSCOW, Category.VEHICLES, 3000), AdChangeType.CREATED));
+
+        assertEquals(3, matchService.flushMatches());
+        Set<UUID> matched = matchedSearches(publishedMatches(2));
+        assertEquals(Set.of(exact.id(), anyCity.id(), anyCategory.id()), matched);
+        assertFalse(matched.contains(otherCity.id()));
+        assertFalse(matched.contains(tooCheap.id()));
+        assertFalse(matched.contains(otherKeyword.id()));
+    }
+
+    @Test
+    void onAdChanged_KeywordMatchesDescription() {
+        SavedSearchCriteria search = register(buyer, null, null, null, null, "barely");
+        Ad ad = buildAd("Sofa", KAZAN, Category.FURNITURE, 100);
+
+        matchService.onAdChanged(new AdChangedEvent(ad, AdChangeType.UPDATED));
+
+        assertEquals(1, matchService.flushMatches());
+        SavedSearchMatch match = publishedMatches(1).get(0);
+        assertEquals(new SavedSearchMatch(search.id(), buyer.getId(), "buyer", ad.getId()), match);
+    }
+
+    @Test
+    void onAdChanged_SkipsOwnAdsAndIrrelevantChanges() {
+        register(seller, MOSCOW, null, null, null, null);
+        register(buyer, MOSCOW, null, null, null, null);
+        Ad ad = buildAd("Lamp", MOSCOW, Category.FURNITURE, 10);
+
+        matchService.onAdChanged(new AdChangedEvent(ad, AdChangeType.PROMOTED));
+        matchService.onAdChanged(new AdChangedEvent(ad, AdChangeType.SOLD));
+        assertEquals(0, matchService.flushMatches());
+
+        matchService.onAdChanged(new AdChangedEvent(ad, AdChangeType.CREATED));
+        matchService.onAdChanged(new AdChangedEvent(ad, AdChangeType.UPDATED));
+
+        assertEquals(1, matchService.flushMatches());
+        assertEquals("buyer", publishedMatches(1).get(0).username());
+    }
+
+    @Test
+    void unregister_StopsMatching() {
+        SavedSearchCriteria search = register(buyer, MOSCOW, null, null, null, null);
+        matchService.unregister(search.id());
+
+        matchService.onAdChanged(new AdChangedEvent(buildAd("Lamp", MOSCOW, Category.FURNITURE, 10), AdChangeType.CREATED));
+
+        assertEquals(0, matchService.flushMatches());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void onSavedSearchEvents_UpdateIndex() {
+        SavedSearchCriteria search = new SavedSearchCriteria(UUID.randomUUID(), buyer.getId(), "buyer",
+                MOSCOW, null, null, null, null);
+
+        matchService.onSavedSearchCreated(new SavedSearchCreatedEvent(search));
+        matchService.onAdChanged(new AdChangedEvent(buildAd("Lamp", MOSCOW, Category.FURNITURE, 10), AdChangeType.CREATED));
+        assertEquals(1, matchService.flushMatches());
+
+        matchService.onSavedSearchDeleted(new SavedSearchDeletedEvent(search.id()));
+        matchService.onAdChanged(new AdChangedEvent(buildAd("Desk", MOSCOW, Category.FURNITURE, 10), AdChangeType.CREATED));
+        assertEquals(0, matchService.flushMatches());
+    }
+
+    @Test
+    void onAdsImported_PublishesInBatches() {
+        register(buyer, null, Category.BOOKS, null, null, null);
+        List<Ad> ads = Stream.generate(() -> buildAd("Novel", KAZAN, Category.BOOKS, 5)).limit(5).toList();
+
+        matchService.onAdsImported(new AdsImportedEvent("seller", ads));
+
+        assertEquals(5, matchService.flushMatches());
+        assertEquals(5, publishedMatches(3).size());
+    }
+
+    @Test
+    void onAdsImported_DropsOldestMatchesWhenQueueIsFull() {
+        register(buyer, null, Category.BOOKS, null, null, null);
+        List<Ad> ads = Stream.generate(() -> buildAd("Novel", KAZAN, Category.BOOKS, 5)).limit(10).toList();
+
+        matchService.onAdsImported(new AdsImportedEvent("seller", ads));
+
+        assertEquals(8, matchService.flushMatches());
+        assertEquals(ads.subList(2, 10).stream().map(Ad::getId).toList(),
+                publishedMatches(4).stream().map(SavedSearchMatch::adId).toList());
+    }
+
+    @Test
+    void rebuild_LoadsStoredSearches() {
+        UUID searchId = UUID.randomUUID();
+        SavedSearchView view = mock(SavedSearchView.class);
+        when(view.getId()).thenReturn(searchId);
+        when(view.getUserId()).thenReturn(buyer.getId());
+        when(view.getUsername()).thenReturn("buyer");
+        when(view.getCity()).thenReturn(KAZAN);
+        when(savedSearchRepository.streamAllViews()).thenReturn(Stream.of(view));
+        register(buyer, MOSCOW, null, null, null, null);
+
+        matchService.rebuild();
+        matchService.onAdChanged(new AdChangedEvent(buildAd("Lamp", MOSCOW, Category.FURNITURE, 10), AdChangeType.CREATED));
+        matchService.onAdChanged(new AdChangedEvent(buildAd("Desk", KAZAN, Category.FURNITURE, 10), AdChangeType.CREATED));
+
+        assertEquals(1, matchService.flushMatches());
+        assertEquals(Set.of(searchId), matchedSearches(publishedMatches(1)));
+    }
+
+    @Test
+    void flushMatches_DeliversAlertToConnectedUser() {
+        SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+        SimpUserRegistry userRegistry = mock(SimpUserRegistry.class);
+        when(userRegistry.getUser("buyer")).thenReturn(mock(SimpUser.class));
+        StompNotificationForwarder forwarder = new StompNotificationForwarder(messagingTemplate, userRegistry);
+        ChatNotificationPublisher notifications = new ChatNotificationPublisher(mock(ChatRelayChannel.class),
+                mock(ChatInboxRepository.class), mock(EncryptionService.class),
+                event -> forwarder.onUserNotification((UserNotificationEvent) event));
+        doAnswer(invocation -> {
+            notifications.onSavedSearchMatches(invocation.getArgument(0));
+            return null;
+        }).when(eventPublisher).publishEvent(any(SavedSearchMatchesEvent.class));
+        SavedSearchCriteria search = register(buyer, MOSCOW, null, null, null, null);
+        Ad ad = buildAd("Lamp", MOSCOW, Category.FURNITURE, 10);
+
+        matchService.onAdChanged(new AdChangedEvent(ad, AdChangeType.CREATED));
+        matchService.flushMatches();
+
+        verify(messagingTemplate).convertAndSendToUser("buyer", ChatNotificationPublisher.SAVED_SEARCH_DESTINATION,
+                new SavedSearchAlertDto(search.id(), List.of(ad.getId())));
+    }
+}
@@ -0,0 +1,196 @@
+package com.neekostar.adsystem.service.impl;
+
+import com.neekostar.adsystem.dto.SavedSearchCreateDto;
+import com.neekostar.adsystem.dto.SavedSearchResponseDto;
+import com.neekostar.adsystem.event.SavedSearchCreatedEvent;
+import com.neekostar.adsystem.event.SavedSearchDeletedEvent;
+import com.neekostar.adsystem.exception.AccessDeniedException;
+import com.neekostar.adsystem.exception.InvalidArgumentException;
+import com.neekostar.adsystem.exception.ResourceNotFoundException;
+import com.neekostar.adsystem.mapper.SavedSearchMapper;
+import com.neekostar.adsystem.model.Category;
+import com.neekostar.adsystem.model.SavedSearch;
+import com.neekostar.adsystem.model.User;
+import com.neekostar.adsystem.repository.SavedSearchRepository;
+import com.neekostar.adsystem.repository.UserRepository;
+import com.neekostar.adsystem.search.SavedSearchCriteria;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SavedSearchServiceImplTest {
+
+    private static final String CURRENT_USER = "testUser";
+
+    @Mock
+    private SavedSearchRepository savedSearchRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private SavedSearchMapper savedSearchMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private Authentication authentication;
+    @InjectMocks
+    private SavedSearchServiceImpl savedSearchService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(UUID.randomUUID());
+        testUser.setUsername(CURRENT_USER);
+
+        SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
+        when(authentication.getName()).thenReturn(CURRENT_USER);
+        when(userRepository.findUserByUsername(CURRENT_USER)).thenReturn(Optional.of(testUser));
+        when(savedSearchRepository.save(any(SavedSearch.class))).thenAnswer(invocation -> {
+            SavedSearch savedSearch = invocation.getArgument(0);
+            savedSearch.setId(UUID.randomUUID());
+            return savedSearch;
+        });
+        when(savedSearchMapper.toDto(any(SavedSearch.class))).thenAnswer(invocation -> {
+            SavedSearch savedSearch = invocation.getArgument(0);
+            SavedSearchResponseDto dto = new SavedSearchResponseDto();
+            dto.setId(savedSearch.getId());
+            dto.setCity(savedSearch.getCity());
+            dto.setKeyword(savedSearch.getKeyword());
+            return dto;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private SavedSearchCreateDto createDto(String city, String keyword, Long minPrice, Long maxPrice) {
+        SavedSearchCreateDto dto = new SavedSearchCreateDto();
+        dto.setCity(city);
+        dto.setKeyword(keyword);
+        dto.setMinPrice(minPrice != null ? BigDecimal.valueOf(minPrice) : null);
+        dto.setMaxPrice(maxPrice != null ? BigDecimal.valueOf(maxPrice) : null);
+        return dto;
+    }
+
+    private SavedSearch savedSearch(User owner) {
+        SavedSearch savedSearch = new SavedSearch();
+        savedSearch.setId(UUID.randomUUID());
+        savedSearch.setUser(owner);
+        savedSearch.setCategory(Category.VEHICLES);
+        return savedSearch;
+    }
+
+    @Test
+    void createSavedSearch_SavesAndPublishesCreation() {
+        SavedSearchResponseDto result = savedSearchService.createSavedSearch(createDto(" ", " bike ", null, 5000L));
+
+        assertNull(result.getCity());
+        assertEquals("bike", result.getKeyword());
+        ArgumentCaptor<SavedSearchCreatedEvent> eventCaptor = ArgumentCaptor.forClass(SavedSearchCreatedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        SavedSearchCriteria criteria = eventCaptor.getValue().getCriteria();
+        assertEquals(result.getId(), criteria.id());
+        assertEquals(testUser.getId(), criteria.userId());
+        assertEquals(CURRENT_USER, criteria.username());
+        assertEquals(BigDecimal.valueOf(5000), criteria.maxPrice());
+    }
+
+    @Test
+    void createSavedSearch_RequiresAFilter() {
+        assertThrows(InvalidArgumentException.class,
+                () -> savedSearchService.createSavedSearch(createDto("", "  ", null, null)));
+        verify(savedSearchRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void createSavedSearch_InvalidPriceRange() {
+        assertThrows(InvalidArgumentException.class,
+                () -> savedSearchService.createSavedSearch(createDto(null, null, 5000L, 100L)));
+        verify(savedSearchRepository, never()).save(any());
+    }
+
+    @Test
+    void createSavedSearch_LimitReached() {
+        when(savedSearchRepository.countByUserUsername(CURRENT_USER)).thenReturn((long) SavedSearchServiceImpl.MAX_SAVED_SEARCHES);
+
+        assertThrows(InvalidArgumentException.class,
+                () -> savedSearchService.createSavedSearch(createDto("Moscow", null, null, null)));
+        verify(savedSearchRepository, never()).save(any());
+    }
+
+    @Test
+    void createSavedSearch_UserNotFound() {
+        when(userRepository.findUserByUsername(CURRENT_USER)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> savedSearchService.createSavedSearch(createDto("Moscow", null, null, null)));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void getMySavedSearches_MapsAll() {
+        when(savedSearchRepository.findByUserUsernameOrderByCreatedAtDesc(CURRENT_USER))
+                .thenReturn(List.of(savedSearch(testUser), savedSearch(testUser)));
+
+        assertEquals(2, savedSearchService.getMySavedSearches().size());
+    }
+
+    @Test
+    void deleteSavedSearch_DeletesAndPublishesDeletion() {
+        SavedSearch savedSearch = savedSearch(testUser);
+        when(savedSearchRepository.findById(savedSearch.getId())).thenReturn(Optional.of(savedSearch));
+
+        savedSearchService.deleteSavedSearch(savedSearch.getId());
+
+        verify(savedSearchRepository).delete(savedSearch);
+        ArgumentCaptor<SavedSearchDeletedEvent> eventCaptor = ArgumentCaptor.forClass(SavedSearchDeletedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(savedSearch.getId(), eventCaptor.getValue().getSavedSearchId());
+    }
+
+    @Test
+    void deleteSavedSearch_NotOwner() {
+        User anotherUser = new User();
+        anotherUser.setUsername("anotherUser");
+        SavedSearch savedSearch = savedSearch(anotherUser);
+        when(savedSearchRepository.findById(savedSearch.getId())).thenReturn(Optional.of(savedSearch));
+
+        assertThrows(AccessDeniedException.class, () -> savedSearchService.deleteSavedSearch(savedSearch.getId()));
+        verify(savedSearchRepository, never()).delete(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void deleteSavedSearch_NotFound() {
+        UUID id = UUID.randomUUID();
+        when(savedSearchRepository.findById(id)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> savedSearchService.deleteSavedSearch(id));
+    }
+}